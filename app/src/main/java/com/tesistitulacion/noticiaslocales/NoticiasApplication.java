@@ -0,0 +1,152 @@
+package com.tesistitulacion.noticiaslocales;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
+import com.tesistitulacion.noticiaslocales.utils.Arranque;
+import com.tesistitulacion.noticiaslocales.utils.ContadoresManager;
+import com.tesistitulacion.noticiaslocales.utils.IconosMarcadorCache;
+import com.tesistitulacion.noticiaslocales.utils.LocaleManager;
+import com.tesistitulacion.noticiaslocales.utils.MotoresCompartidos;
+import com.tesistitulacion.noticiaslocales.utils.NewsCache;
+import com.tesistitulacion.noticiaslocales.utils.NotificationHelper;
+import com.tesistitulacion.noticiaslocales.utils.ReferenciasCache;
+import com.tesistitulacion.noticiaslocales.utils.ThemeManager;
+import com.tesistitulacion.noticiaslocales.utils.UsuarioPreferences;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Clase Application de la app
+ * Punto único para el trabajo ligado al ciclo de vida del proceso
+ *
+ * La inicialización corre como un grafo de tareas (Arranque) en paralelo: el Splash
+ * solo espera la ruta crítica (preferencias desencriptadas) y el resto sigue en segundo plano.
+ */
+public class NoticiasApplication extends Application {
+
+    private static final String TAG = "NoticiasApplication";
+
+    // Hilos para las tareas de arranque de fondo (se liberan al terminar todas)
+    private static final int HILOS_ARRANQUE = 3;
+
+    // Topics de FCM: "all" recibe todas las notificaciones, "noticias" las de noticias
+    private static final String[] TOPICS_FCM = {"all", "noticias"};
+
+    private Arranque arranque;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        arranque = crearArranque();
+        arranque.iniciar();
+    }
+
+    /**
+     * Grafo de inicialización del proceso (ya iniciado)
+     */
+    public Arranque getArranque() {
+        return arranque;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        // La UI dejó de ser visible: la app pasó a segundo plano
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            ContadoresManager.getInstance(this).enviarPendientes();
+
+            // Los iconos del mapa se vuelven a rasterizar al volver a abrirlo
+            IconosMarcadorCache.getInstance().liberar();
+
+            // TTS y traductor sin pantallas que los usen: no esperar al plazo de inactividad
+            MotoresCompartidos.liberarSinUso();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        IconosMarcadorCache.getInstance().liberar();
+        MotoresCompartidos.liberarSinUso();
+    }
+
+    // ==================== ARRANQUE ====================
+
+    private Arranque crearArranque() {
+        final ExecutorService fondo = Executors.newFixedThreadPool(HILOS_ARRANQUE);
+        final Handler principal = new Handler(Looper.getMainLooper());
+        final Arranque grafo = new Arranque(fondo, principal::post);
+
+        // Ruta crítica: desencriptar las preferencias (Keystore); después la sesión se lee en memoria
+        grafo.tarea("preferencias", false, true, terminar -> {
+            UsuarioPreferences.precargar(this);
+            UsuarioPreferences.cuandoEstenListas(this, terminar);
+        });
+
+        // Tema e idioma: calentar sus preferencias (normales) antes de que las lea la UI
+        grafo.tarea("tema_idioma", false, false, terminar -> {
+            ThemeManager.getCurrentThemeIndex(this);
+            LocaleManager.getLanguage(this);
+            terminar.run();
+        });
+
+        // Primera página del caché local: abre la base (en el hilo del caché) y deja las páginas en memoria
+        grafo.tarea("cache_noticias", false, false, terminar ->
+                NewsCache.getInstance(this).obtenerNoticiasRecientes(FirebaseManager.TAMANIO_PAGINA,
+                        noticias -> terminar.run()));
+
+        // Firestore configurado (persistencia offline) antes de cualquier consulta
+        grafo.tarea("firebase", false, false, terminar -> {
+            FirebaseManager.getInstance();
+            terminar.run();
+        });
+
+        // Canales de notificación y topics de FCM (antes lo hacía el Splash en el hilo principal)
+        grafo.tarea("notificaciones", false, false, terminar -> {
+            NotificationHelper.getInstance(this).crearCanalesNotificacion();
+            for (String topic : TOPICS_FCM) {
+                FirebaseMessaging.getInstance().subscribeToTopic(topic)
+                        .addOnCompleteListener(task -> {
+                            if (task.isSuccessful()) {
+                                Log.d(TAG, "Suscrito a topic '" + topic + "'");
+                            } else {
+                                Log.e(TAG, "Error al suscribirse a topic '" + topic + "'", task.getException());
+                            }
+                        });
+            }
+            terminar.run();
+        }, "firebase");
+
+        // Categorías y parroquias: del disco ahora, de Firestore solo si venció el TTL
+        grafo.tarea("referencias", false, false, terminar -> {
+            ReferenciasCache.getInstance(this).refrescarSiVencio();
+            terminar.run();
+        }, "firebase");
+
+        // Reanudar el envío de contadores que quedaron pendientes si el proceso murió
+        grafo.tarea("contadores", false, false, terminar -> {
+            ContadoresManager.getInstance(this).enviarPendientes();
+            terminar.run();
+        }, "firebase");
+
+        grafo.cuandoTermineCritico(() -> Log.i(TAG, "Arranque: ruta crítica en " + grafo.getDuracionCriticaMs() + " ms"));
+        grafo.cuandoTermineTodo(() -> {
+            Log.i(TAG, "Arranque: " + grafo.resumen());
+            for (Map.Entry<String, Exception> error : grafo.getErrores().entrySet()) {
+                Log.e(TAG, "Tarea de arranque fallida: " + error.getKey(), error.getValue());
+            }
+            fondo.shutdown();
+        });
+        return grafo;
+    }
+}
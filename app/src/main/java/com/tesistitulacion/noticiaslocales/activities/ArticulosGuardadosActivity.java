@@ -15,11 +15,15 @@ import com.tesistitulacion.noticiaslocales.R;
 import com.tesistitulacion.noticiaslocales.adapters.NoticiaAdapter;
 import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+import com.tesistitulacion.noticiaslocales.utils.NewsCache;
+import com.tesistitulacion.noticiaslocales.utils.NoticiasGuardadasStore;
 import com.tesistitulacion.noticiaslocales.utils.TransitionHelper;
 import com.tesistitulacion.noticiaslocales.utils.UsuarioPreferences;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Activity para mostrar los artículos/noticias guardados por el usuario
@@ -104,9 +108,20 @@ public class ArticulosGuardadosActivity extends BaseActivity {
         TransitionHelper.applyBackTransition(this);
     }
 
+    /**
+     * Muestra el progreso y lee los ids cuando el almacén de guardados terminó de cargar
+     * (las preferencias encriptadas se abren en segundo plano, no en el hilo principal)
+     */
     private void cargarArticulosGuardados() {
         mostrarCargando(true);
+        NoticiasGuardadasStore.getInstance(this).cuandoEsteCargada(() -> {
+            if (!isDestroyed()) {
+                leerIdsGuardados();
+            }
+        });
+    }
 
+    private void leerIdsGuardados() {
         // Obtener IDs de noticias guardadas desde SharedPreferences
         String userId = UsuarioPreferences.getUserId(this);
         if (userId == null || userId.isEmpty()) {
@@ -123,38 +138,44 @@ public class ArticulosGuardadosActivity extends BaseActivity {
             return;
         }
 
-        // Cargar las noticias una por una
         cargarNoticiasDesdeIds(noticiasGuardadasIds);
     }
 
-    private void cargarNoticiasDesdeIds(List<String> ids) {
+    /**
+     * Carga las noticias guardadas en lotes (caché local + consultas whereIn)
+     * La lista se va mostrando a medida que llegan los lotes, en el orden de guardado.
+     */
+    private void cargarNoticiasDesdeIds(final List<String> ids) {
         noticiasGuardadas.clear();
-        final int[] cargadas = {0};
-
-        for (String noticiaId : ids) {
-            firebaseManager.getNoticiaById(noticiaId, new FirebaseManager.FirestoreCallback<Noticia>() {
-                @Override
-                public void onSuccess(Noticia noticia) {
-                    if (noticia != null) {
-                        noticiasGuardadas.add(noticia);
-                    }
-
-                    cargadas[0]++;
-                    if (cargadas[0] == ids.size()) {
+        final Map<String, Noticia> porId = new HashMap<>();
+
+        firebaseManager.getNoticiasPorIds(ids, NewsCache.getInstance(this),
+                FirebaseManager.CONSULTAS_POR_IDS_SIMULTANEAS, new FirebaseManager.NoticiasPorIdsCallback() {
+                    @Override
+                    public void onParcial(List<Noticia> noticias) {
+                        if (isDestroyed()) return;
+
+                        for (Noticia noticia : noticias) {
+                            porId.put(noticia.getFirestoreId(), noticia);
+                        }
+                        noticiasGuardadas.clear();
+                        for (String id : ids) {
+                            Noticia noticia = porId.get(id);
+                            if (noticia != null) noticiasGuardadas.add(noticia);
+                        }
                         mostrarNoticias();
                     }
-                }
 
-                @Override
-                public void onError(Exception e) {
-                    Log.e(TAG, "Error al cargar noticia: " + e.getMessage());
-                    cargadas[0]++;
-                    if (cargadas[0] == ids.size()) {
+                    @Override
+                    public void onCompletado(List<String> faltantes) {
+                        if (isDestroyed()) return;
+
+                        if (!faltantes.isEmpty()) {
+                            Log.w(TAG, faltantes.size() + " noticias guardadas no se pudieron cargar");
+                        }
                         mostrarNoticias();
                     }
-                }
-            });
-        }
+                });
     }
 
     private void mostrarNoticias() {
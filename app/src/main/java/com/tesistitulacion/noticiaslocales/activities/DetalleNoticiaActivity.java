@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.os.Looper;
 import android.util.Log;
 import android.view.MenuItem;
 import android.widget.ImageView;
@@ -16,6 +17,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.GoogleMapOptions;
 import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
 import com.google.android.gms.maps.model.LatLng;
@@ -26,7 +28,11 @@ import com.tesistitulacion.noticiaslocales.R;
 import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
 import com.tesistitulacion.noticiaslocales.utils.AnimationHelper;
+import com.tesistitulacion.noticiaslocales.utils.ContadoresManager;
 import com.tesistitulacion.noticiaslocales.utils.LocaleManager;
+import com.tesistitulacion.noticiaslocales.utils.MotoresCompartidos;
+import com.tesistitulacion.noticiaslocales.utils.NoticiasGuardadasStore;
+import com.tesistitulacion.noticiaslocales.utils.ReferenciasCache;
 import com.tesistitulacion.noticiaslocales.utils.TextToSpeechHelper;
 import com.tesistitulacion.noticiaslocales.utils.TransitionHelper;
 import com.tesistitulacion.noticiaslocales.utils.TranslationHelper;
@@ -41,6 +47,10 @@ import java.util.Locale;
 /**
  * Activity que muestra el detalle completo de una noticia
  * Incluye mini-mapa para mostrar la ubicación de la noticia
+ *
+ * Abrir la noticia solo paga su renderizado: el traductor y el motor de TTS son los
+ * compartidos del proceso (MotoresCompartidos) y se adquieren al primer uso, y el
+ * mini-mapa (modo lite) se agrega cuando el hilo principal queda ocioso.
  */
 public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapReadyCallback {
 
@@ -70,16 +80,17 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
     private ImageView btnShare;
     private ImageView btnTranslate;
 
-    // Traducción
+    // Traducción (adquirido de MotoresCompartidos al primer uso)
     private TranslationHelper translationHelper;
     private boolean isTranslated = false;
     private String originalTitulo;
     private String originalDescripcion;
     private String originalContenido;
 
-    // Text-to-Speech
+    // Text-to-Speech (adquirido de MotoresCompartidos al primer uso)
     private TextToSpeechHelper ttsHelper;
     private ImageView btnTTS;
+    private boolean leerAlInicializar = false;
 
     // Views para contenido enriquecido
     private LinearLayout layoutCitaDestacada;
@@ -183,7 +194,10 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
 
         // Botón bookmark/guardar
         if (btnBookmark != null) {
-            btnBookmark.setOnClickListener(v -> toggleGuardarNoticia());
+            btnBookmark.setOnClickListener(v ->
+                    NoticiasGuardadasStore.getInstance(this).cuandoEsteCargada(() -> {
+                        if (!isDestroyed()) toggleGuardarNoticia();
+                    }));
         }
 
         // Botón compartir
@@ -208,7 +222,13 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
             if (ttsEnabled) {
                 btnTTS.setVisibility(android.view.View.VISIBLE);
                 btnTTS.setOnClickListener(v -> toggleTTS());
-                inicializarTTS();
+                // Arrancar el motor de voz cuando la pantalla ya se dibujó y no hay nada más que hacer
+                Looper.myQueue().addIdleHandler(() -> {
+                    if (!isFinishing() && !isDestroyed()) {
+                        MotoresCompartidos.tts(this).calentar();
+                    }
+                    return false;
+                });
             } else {
                 btnTTS.setVisibility(android.view.View.GONE);
             }
@@ -295,7 +315,10 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
         mostrarVisualizacionesNoticia();
         mostrarEstadoNoticia();
         configurarBotonesNoticia();
-        actualizarIconoBookmark();
+        // Los guardados se leen en segundo plano: el icono se pinta cuando estén en memoria
+        NoticiasGuardadasStore.getInstance(this).cuandoEsteCargada(() -> {
+            if (!isDestroyed()) actualizarIconoBookmark();
+        });
         incrementarVisualizaciones();
 
         Log.d(TAG, "Noticia mostrada: " + noticia.getTitulo());
@@ -318,21 +341,27 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
     }
 
     private void incrementarVisualizaciones() {
+        // Los incrementos se agrupan localmente y se envían por lotes (incremento atómico)
+        ContadoresManager contadores = ContadoresManager.getInstance(this);
+
         if (noticiaId != null) {
-            FirebaseManager.getInstance().incrementarVisualizaciones(noticiaId);
-            Log.d(TAG, "Visualizaciones incrementadas para noticia: " + noticiaId);
+            contadores.registrarVisualizacion(noticiaId);
+            Log.d(TAG, "Visualización registrada para noticia: " + noticiaId);
         }
 
         // Incrementar contador de noticias leídas del usuario
         String userId = UsuarioPreferences.getUserId(this);
         if (userId != null && !userId.isEmpty()) {
-            FirebaseManager.getInstance().incrementarNoticiasLeidas(userId);
-            Log.d(TAG, "Noticias leídas incrementadas para usuario: " + userId);
+            contadores.registrarNoticiaLeida(userId);
+            Log.d(TAG, "Noticia leída registrada para usuario: " + userId);
         }
     }
 
     private void mostrarInformacionBasicaNoticia() {
-        String categoriaNombre = obtenerNombreCategoria(noticia.getCategoriaId());
+        String categoriaNombre = noticia.getCategoriaNombre();
+        if (categoriaNombre == null) {
+            categoriaNombre = ReferenciasCache.catalogo().getNombreCategoria(noticia.getCategoriaId());
+        }
         tvCategoria.setText(categoriaNombre);
 
         String colorHex = noticia.getColorCategoria();
@@ -453,8 +482,13 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
             layoutUbicacionMapa.setVisibility(android.view.View.VISIBLE);
             btnVerMapa.setVisibility(android.view.View.GONE);
 
-            // Inicializar mini-mapa
-            inicializarMiniMapa();
+            // Inicializar mini-mapa cuando termine el primer renderizado de la noticia
+            Looper.myQueue().addIdleHandler(() -> {
+                if (!isFinishing() && !isDestroyed()) {
+                    inicializarMiniMapa();
+                }
+                return false;
+            });
 
             // Mostrar dirección
             String direccion = noticia.getParroquiaNombre() != null ?
@@ -473,14 +507,18 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
      * Inicializa el mini-mapa de la noticia
      */
     private void inicializarMiniMapa() {
-        // Crear SupportMapFragment dinámicamente
-        mapFragment = SupportMapFragment.newInstance();
+        if (mapFragment != null) return;
 
-        // Agregar el fragment al contenedor
+        // Crear SupportMapFragment dinámicamente, en modo lite (imagen estática, mucho más liviano)
+        mapFragment = SupportMapFragment.newInstance(new GoogleMapOptions()
+            .liteMode(true)
+            .mapToolbarEnabled(false));
+
+        // Agregar el fragment al contenedor (es decorativo: no importa perderlo si ya se guardó el estado)
         getSupportFragmentManager()
             .beginTransaction()
             .replace(R.id.map_container_detalle, mapFragment)
-            .commit();
+            .commitAllowingStateLoss();
 
         // Obtener el mapa de forma asíncrona
         mapFragment.getMapAsync(this);
@@ -516,24 +554,6 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
         }
     }
 
-    private String obtenerNombreCategoria(Integer categoriaId) {
-        if (categoriaId == null) return "General";
-
-        switch (categoriaId) {
-            case 1: return "Política";
-            case 2: return "Economía";
-            case 3: return "Cultura";
-            case 4: return "Deportes";
-            case 5: return "Educación";
-            case 6: return "Salud";
-            case 7: return "Seguridad";
-            case 8: return "Medio Ambiente";
-            case 9: return "Turismo";
-            case 10: return "Tecnología";
-            default: return "General";
-        }
-    }
-
     private String formatearFecha(String fechaStr) {
         if (fechaStr == null || fechaStr.isEmpty()) {
             return "Hoy";
@@ -559,6 +579,7 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
     /**
      * Alterna entre guardar y eliminar la noticia de favoritos
      * Incluye animaciones visuales para feedback del usuario
+     * Se llama con los guardados ya cargados (ver configurarBotones)
      */
     private void toggleGuardarNoticia() {
         if (noticia == null || noticiaId == null) {
@@ -593,7 +614,7 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
 
     /**
      * Actualiza el ícono del bookmark según el estado guardado
-     * Se llama al cargar la noticia para mostrar el estado correcto
+     * Se llama al cargar la noticia (y los guardados) para mostrar el estado correcto
      */
     private void actualizarIconoBookmark() {
         if (btnBookmark != null && noticiaId != null) {
@@ -687,12 +708,11 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
         // Mostrar progreso
         showToast("Traduciendo a " + nombreIdioma + "...");
 
-        // Crear o actualizar translator
+        // Adquirir el traductor compartido (se crea recién en la primera traducción)
         if (translationHelper == null) {
-            translationHelper = new TranslationHelper(TranslateLanguage.SPANISH, idiomaDestino);
-        } else {
-            translationHelper.setTargetLanguage(idiomaDestino);
+            translationHelper = MotoresCompartidos.traductor().adquirir();
         }
+        translationHelper.setTargetLanguage(idiomaDestino);
 
         // Descargar modelo si es necesario
         translationHelper.downloadModelIfNeeded(new TranslationHelper.ModelDownloadCallback() {
@@ -821,17 +841,28 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
         TransitionHelper.applyBackTransitionSlideDown(this);
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Si otra noticia usó el motor compartido mientras tanto, volver a recibir sus eventos
+        if (ttsHelper != null) {
+            ttsHelper.setCallback(ttsCallback);
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Liberar recursos del traductor
+        // Soltar el traductor compartido (se cierra solo tras un rato sin uso)
         if (translationHelper != null) {
-            translationHelper.close();
+            MotoresCompartidos.traductor().soltar();
             translationHelper = null;
         }
-        // Liberar recursos del TTS
+        // Detener la lectura y soltar el motor de TTS compartido
         if (ttsHelper != null) {
-            ttsHelper.shutdown();
+            ttsHelper.stop();
+            ttsHelper.setCallback(null);
+            MotoresCompartidos.tts(this).soltar();
             ttsHelper = null;
         }
     }
@@ -839,61 +870,75 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
     // ==================== TEXT-TO-SPEECH ====================
 
     /**
-     * Inicializa el helper de Text-to-Speech
+     * Adquiere el motor de TTS compartido (lo crea si no se calentó antes)
      */
     private void inicializarTTS() {
-        ttsHelper = new TextToSpeechHelper(this, new TextToSpeechHelper.TTSCallback() {
-            @Override
-            public void onInitialized(boolean success) {
-                runOnUiThread(() -> {
-                    if (success) {
-                        Log.d(TAG, "TTS inicializado correctamente");
-                        // Configurar velocidad desde preferencias
-                        float speed = UsuarioPreferences.getTTSSpeed(DetalleNoticiaActivity.this);
-                        ttsHelper.setSpeechRate(speed);
-                    } else {
-                        Log.w(TAG, "TTS no pudo inicializarse");
-                        if (btnTTS != null) {
-                            btnTTS.setVisibility(android.view.View.GONE);
-                        }
-                    }
-                });
-            }
+        ttsHelper = MotoresCompartidos.tts(this).adquirir();
+        ttsHelper.setCallback(ttsCallback);
+    }
 
-            @Override
-            public void onSpeakStart() {
-                runOnUiThread(() -> {
-                    if (btnTTS != null) {
-                        btnTTS.setColorFilter(getResources().getColor(R.color.primary, getTheme()));
+    private final TextToSpeechHelper.TTSCallback ttsCallback = new TextToSpeechHelper.TTSCallback() {
+        @Override
+        public void onInitialized(boolean success) {
+            runOnUiThread(() -> {
+                if (ttsHelper == null) return;
+                if (success) {
+                    Log.d(TAG, "TTS inicializado correctamente");
+                    // Configurar velocidad desde preferencias
+                    float speed = UsuarioPreferences.getTTSSpeed(DetalleNoticiaActivity.this);
+                    ttsHelper.setSpeechRate(speed);
+
+                    // El usuario tocó el botón mientras el motor arrancaba
+                    if (leerAlInicializar) {
+                        leerAlInicializar = false;
+                        toggleTTS();
                     }
-                });
-            }
-
-            @Override
-            public void onSpeakDone() {
-                runOnUiThread(() -> {
-                    if (btnTTS != null) {
-                        btnTTS.clearColorFilter();
+                } else {
+                    Log.w(TAG, "TTS no pudo inicializarse");
+                    if (leerAlInicializar) {
+                        leerAlInicializar = false;
+                        showToast(getString(R.string.tts_not_available));
                     }
-                });
-            }
-
-            @Override
-            public void onSpeakError(String error) {
-                runOnUiThread(() -> {
-                    showToast(getString(R.string.tts_error));
                     if (btnTTS != null) {
-                        btnTTS.clearColorFilter();
+                        btnTTS.setVisibility(android.view.View.GONE);
                     }
-                });
-            }
+                }
+            });
+        }
 
-            @Override
-            public void onProgress(int position, int total) {
-                // Podríamos mostrar un indicador de progreso
-            }
-        });
-    }
+        @Override
+        public void onSpeakStart() {
+            runOnUiThread(() -> {
+                if (btnTTS != null) {
+                    btnTTS.setColorFilter(getResources().getColor(R.color.primary, getTheme()));
+                }
+            });
+        }
+
+        @Override
+        public void onSpeakDone() {
+            runOnUiThread(() -> {
+                if (btnTTS != null) {
+                    btnTTS.clearColorFilter();
+                }
+            });
+        }
+
+        @Override
+        public void onSpeakError(String error) {
+            runOnUiThread(() -> {
+                showToast(getString(R.string.tts_error));
+                if (btnTTS != null) {
+                    btnTTS.clearColorFilter();
+                }
+            });
+        }
+
+        @Override
+        public void onProgress(int position, int total) {
+            // Podríamos mostrar un indicador de progreso
+        }
+    };
 
     /**
      * Alterna entre reproducir/detener la lectura de la noticia
@@ -904,8 +949,16 @@ public class DetalleNoticiaActivity extends AppCompatActivity implements OnMapRe
             return;
         }
 
-        if (ttsHelper == null || !ttsHelper.isInitialized()) {
-            showToast(getString(R.string.tts_not_available));
+        if (ttsHelper == null) {
+            inicializarTTS();
+        }
+        if (!ttsHelper.isInitialized()) {
+            if (ttsHelper.terminoInicializacion()) {
+                showToast(getString(R.string.tts_not_available));
+            } else {
+                // El motor todavía arranca: leer en cuanto avise onInitialized()
+                leerAlInicializar = true;
+            }
             return;
         }
 
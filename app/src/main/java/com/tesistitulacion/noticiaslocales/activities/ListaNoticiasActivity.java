@@ -8,6 +8,8 @@ import android.content.pm.PackageManager;
 import android.content.res.ColorStateList;
 import android.location.Location;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
@@ -35,10 +37,14 @@ import android.widget.ImageView;
 import com.tesistitulacion.noticiaslocales.R;
 import com.tesistitulacion.noticiaslocales.adapters.NoticiaAdapter;
 import com.tesistitulacion.noticiaslocales.adapters.SkeletonAdapter;
+import com.tesistitulacion.noticiaslocales.firebase.CambioNoticia;
+import com.tesistitulacion.noticiaslocales.firebase.NoticiasFeed;
 import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
+import com.tesistitulacion.noticiaslocales.firebase.NoticiasPaginador;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
 import com.tesistitulacion.noticiaslocales.utils.AnimationHelper;
 import com.tesistitulacion.noticiaslocales.utils.FirebaseCallbackHelper;
+import com.tesistitulacion.noticiaslocales.utils.FiltradorNoticias;
 import com.tesistitulacion.noticiaslocales.utils.LocationHelper;
 import com.tesistitulacion.noticiaslocales.utils.NewsCache;
 import com.tesistitulacion.noticiaslocales.utils.NotificationHelper;
@@ -47,8 +53,11 @@ import com.tesistitulacion.noticiaslocales.utils.TransitionHelper;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Pantalla principal: Lista de noticias locales
@@ -57,6 +66,15 @@ import java.util.List;
 public class ListaNoticiasActivity extends BaseActivity {
     private static final String TAG = "ListaNoticiasActivity";
 
+    // Noticias que se leen del caché al abrir (primera página)
+    private static final int NOTICIAS_CACHE_INICIALES = 20;
+
+    // Items antes del final/inicio a partir de los cuales se pide la página siguiente/anterior
+    private static final int ITEMS_PREFETCH = 5;
+
+    // Espera después de la última tecla antes de filtrar
+    private static final long DEBOUNCE_BUSQUEDA_MS = 250;
+
     // Views
     private RecyclerView rvNoticias;
     private
@@ -76,8 +94,13 @@ public class ListaNoticiasActivity extends BaseActivity {
     // Estado de búsqueda
     private boolean busquedaVisible = false;
 
+    // Ya se avisó reportFullyDrawn() (fin del arranque medido por el módulo :benchmark)
+    private boolean primerContenidoReportado = false;
+
     // Data
     private List<Noticia> noticiasOriginales;
+    // Posición de cada noticia (por firestoreId) en noticiasOriginales
+    private final Map<String, Integer> posicionesOriginales = new HashMap<>();
     private List<Noticia> noticiasFiltradas;
 
     // Ubicación
@@ -86,6 +109,25 @@ public class ListaNoticiasActivity extends BaseActivity {
     // Caché de noticias
     private NewsCache newsCache;
 
+    // Observador del feed en tiempo real
+    private NoticiasFeed.Observador feedObservador;
+
+    // Paginación por cursor (scroll infinito con ventana acotada)
+    private NoticiasPaginador paginador;
+
+    // Filtros en segundo plano (búsqueda, radio, parroquia)
+    private final FiltradorNoticias filtradorNoticias = new FiltradorNoticias();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable filtradoPorBusqueda = this::aplicarFiltros;
+
+    // Foto inmutable de noticiasOriginales (más las cercanas) que se entrega al filtrador
+    private List<Noticia> noticiasSnapshot = Collections.emptyList();
+    private int versionNoticias = 0;
+
+    // Noticias dentro del radio traídas por geohash: pueden no estar en las páginas cargadas
+    private List<Noticia> noticiasCercanas = Collections.emptyList();
+    private int generacionCercanas = 0;
+
     // Filtros activos
     private String textoBusquedaActual = "";
     private Double radioKmActual = null; // null = todas
@@ -165,8 +207,9 @@ public class ListaNoticiasActivity extends BaseActivity {
         noticiasOriginales = new ArrayList<>();
         noticiasFiltradas = new ArrayList<>();
 
-        // Inicializar caché
+        // Inicializar caché (la búsqueda por texto también abarca lo guardado en él)
         newsCache = NewsCache.getInstance(this);
+        filtradorNoticias.buscarTambienEn(newsCache);
     }
 
     /**
@@ -236,6 +279,11 @@ public class ListaNoticiasActivity extends BaseActivity {
             public void onLocationReceived(Location location) {
                 ubicacionActual = location;
                 Log.d(TAG, "Ubicación obtenida: " + location.getLatitude() + ", " + location.getLongitude());
+
+                if (radioKmActual != null) {
+                    cargarNoticiasCercanas();
+                    aplicarFiltros();
+                }
             }
 
             @Override
@@ -287,6 +335,181 @@ public class ListaNoticiasActivity extends BaseActivity {
 
         // Mostrar skeleton inicialmente mientras cargan los datos
         rvNoticias.setAdapter(skeletonAdapter);
+
+        configurarPaginacion();
+    }
+
+    /**
+     * Configura el scroll infinito: prefetch de la siguiente página antes de llegar al final
+     * y recarga de páginas descartadas al volver hacia arriba
+     */
+    private void configurarPaginacion() {
+        paginador = new NoticiasPaginador(new NoticiasPaginador.Listener() {
+            @Override
+            public void onPaginaAgregada(boolean alFinal, List<Noticia> noticias) {
+                agregarPagina(alFinal, noticias);
+            }
+
+            @Override
+            public void onPaginaDescartada(boolean delFinal, List<Noticia> noticias) {
+                descartarPagina(delFinal, noticias);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Error al cargar página de noticias: " + e.getMessage());
+            }
+        });
+
+        rvNoticias.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (recyclerView.getAdapter() != adapter) {
+                    return; // Skeleton visible
+                }
+
+                if (dy > 0 && cercaDelFinalDeLaVentana(recyclerView)) {
+                    paginador.cargarSiguiente();
+                } else if (dy < 0 && paginador.hayPaginasAnteriores()
+                        && RecyclerViewHelper.isNearTop(recyclerView, ITEMS_PREFETCH)) {
+                    paginador.cargarAnterior();
+                }
+            }
+        });
+    }
+
+    /**
+     * true si hay que pedir la página siguiente
+     * Con un filtro activo el adapter solo tiene las coincidencias: su cantidad no dice cuánto
+     * falta para el final de las páginas cargadas. La fila visible se traduce a su posición en
+     * noticiasOriginales, y se pide más si está cerca del final de esas o si la lista filtrada
+     * ya no puede bajar (para buscar más coincidencias).
+     */
+    private boolean cercaDelFinalDeLaVentana(RecyclerView recyclerView) {
+        if (!hayFiltroActivo()) {
+            return RecyclerViewHelper.isNearBottom(recyclerView, ITEMS_PREFETCH);
+        }
+        if (RecyclerViewHelper.isAtBottom(recyclerView)) {
+            return true;
+        }
+
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) {
+            return false;
+        }
+        int ultimoVisible = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        if (ultimoVisible == RecyclerView.NO_POSITION || ultimoVisible >= noticiasFiltradas.size()) {
+            return false;
+        }
+        Integer posicion = posicionesOriginales.get(noticiasFiltradas.get(ultimoVisible).getFirestoreId());
+        return posicion != null && posicion >= noticiasOriginales.size() - 1 - ITEMS_PREFETCH;
+    }
+
+    private boolean hayFiltroActivo() {
+        return !textoBusquedaActual.isEmpty()
+                || !"Todas".equals(parroquiaActual)
+                || radioKmActual != null;
+    }
+
+    /**
+     * Reemplaza las noticias cargadas por una nueva primera página (feed o caché)
+     */
+    private void reiniciarNoticias(List<Noticia> primeraPagina) {
+        paginador.reiniciar(primeraPagina);
+        sincronizarNoticiasOriginales();
+    }
+
+    /**
+     * Las noticias originales son las de la ventana actual del paginador
+     */
+    private void sincronizarNoticiasOriginales() {
+        noticiasOriginales.clear();
+        noticiasOriginales.addAll(paginador.getNoticias());
+
+        posicionesOriginales.clear();
+        for (int i = 0; i < noticiasOriginales.size(); i++) {
+            posicionesOriginales.put(noticiasOriginales.get(i).getFirestoreId(), i);
+        }
+        publicarSnapshotNoticias();
+    }
+
+    /**
+     * Arma la foto para el filtrador: páginas cargadas más las cercanas que no estén en ellas
+     * (si está en ambas, gana la de las páginas, que el feed mantiene al día)
+     */
+    private void publicarSnapshotNoticias() {
+        List<Noticia> snapshot = new ArrayList<>(noticiasOriginales.size() + noticiasCercanas.size());
+        snapshot.addAll(noticiasOriginales);
+
+        if (!noticiasCercanas.isEmpty()) {
+            Set<String> ids = new HashSet<>();
+            for (Noticia noticia : noticiasOriginales) {
+                ids.add(noticia.getFirestoreId());
+            }
+            for (Noticia noticia : noticiasCercanas) {
+                if (!ids.contains(noticia.getFirestoreId())) {
+                    snapshot.add(noticia);
+                }
+            }
+        }
+
+        noticiasSnapshot = Collections.unmodifiableList(snapshot);
+        versionNoticias++;
+    }
+
+    /**
+     * Con filtro por radio y ubicación, trae de Firestore solo las noticias de las celdas
+     * de geohash que cubren el radio (aunque sean viejas y no estén en las páginas cargadas)
+     */
+    private void cargarNoticiasCercanas() {
+        final int miGeneracion = ++generacionCercanas;
+
+        if (radioKmActual == null || ubicacionActual == null) {
+            if (!noticiasCercanas.isEmpty()) {
+                noticiasCercanas = Collections.emptyList();
+                publicarSnapshotNoticias();
+            }
+            return;
+        }
+
+        FirebaseManager.getInstance().getNoticiasCercanas(ubicacionActual.getLatitude(),
+                ubicacionActual.getLongitude(), radioKmActual,
+                new FirebaseManager.FirestoreCallback<List<Noticia>>() {
+                    @Override
+                    public void onSuccess(List<Noticia> cercanas) {
+                        if (miGeneracion != generacionCercanas || isFinishing()) return; // Otro radio u otra ubicación
+
+                        noticiasCercanas = cercanas;
+                        publicarSnapshotNoticias();
+                        aplicarFiltros();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "Error al cargar noticias cercanas: " + e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Agrega una página cargada al inicio o al final
+     * El adapter compara con la lista anterior: solo se insertan las filas nuevas.
+     */
+    private void agregarPagina(boolean alFinal, List<Noticia> noticias) {
+        sincronizarNoticiasOriginales();
+        aplicarFiltros();
+
+        Log.d(TAG, "Página agregada " + (alFinal ? "al final" : "al inicio") + ": " + noticias.size() + " noticias");
+    }
+
+    /**
+     * Quita de la lista una página descartada por el paginador (límite de memoria)
+     */
+    private void descartarPagina(boolean delFinal, List<Noticia> noticias) {
+        sincronizarNoticiasOriginales();
+        aplicarFiltros();
+
+        Log.d(TAG, "Página descartada " + (delFinal ? "del final" : "del inicio") + ": " + noticias.size() + " noticias");
     }
 
     /**
@@ -319,7 +542,10 @@ public class ListaNoticiasActivity extends BaseActivity {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 textoBusquedaActual = s.toString().trim();
-                aplicarFiltros();
+
+                // Filtrar solo cuando el usuario deja de escribir
+                handler.removeCallbacks(filtradoPorBusqueda);
+                handler.postDelayed(filtradoPorBusqueda, DEBOUNCE_BUSQUEDA_MS);
             }
 
             @Override
@@ -344,6 +570,7 @@ public class ListaNoticiasActivity extends BaseActivity {
             } else if (checkedId == R.id.chip_20km) {
                 radioKmActual = 20.0;
             }
+            cargarNoticiasCercanas();
             aplicarFiltros();
         });
 
@@ -447,34 +674,22 @@ public class ListaNoticiasActivity extends BaseActivity {
         // Mostrar skeleton mientras carga
         mostrarSkeleton();
 
-        // Variable para saber si ya mostramos datos del caché
-        boolean mostradoDesdeCache = false;
-
-        // Intentar cargar desde caché primero (para mostrar datos inmediatamente)
-        if (newsCache != null && newsCache.hayCache() && !newsCache.cacheExpirado()) {
-            List<Noticia> noticiasCached = newsCache.obtenerNoticias();
-            if (!noticiasCached.isEmpty()) {
-                Log.i(TAG, "Mostrando " + noticiasCached.size() + " noticias desde caché (" +
-                      newsCache.getAntiguedadLegible() + ")");
-
-                noticiasOriginales.clear();
-                noticiasOriginales.addAll(noticiasCached);
-                ocultarSkeleton();
-                aplicarFiltros();
-                mostradoDesdeCache = true;
-            }
+        // Intentar cargar desde caché primero (para mostrar datos mientras responde Firebase)
+        if (newsCache != null && !newsCache.cacheExpirado()) {
+            mostrarCacheSiNoHayNoticias("caché (" + newsCache.getAntiguedadLegible() + ")");
         }
 
-        // Cargar desde Firebase directamente (sin usar LoadingStateManager para evitar bloqueo)
-        final boolean datosDelCache = mostradoDesdeCache;
+        // Escuchar el feed en tiempo real (cambios incrementales)
+        if (feedObservador != null) {
+            NoticiasFeed.getInstance().desuscribir(feedObservador);
+        }
 
-        FirebaseManager.getInstance().getAllNoticiasRealtime(new FirebaseManager.FirestoreCallback<List<Noticia>>() {
+        feedObservador = new NoticiasFeed.Observador() {
             @Override
-            public void onSuccess(List<Noticia> noticiasObtenidas) {
+            public void onNoticiasIniciales(List<Noticia> noticiasObtenidas) {
                 if (noticiasObtenidas != null && !noticiasObtenidas.isEmpty()) {
-                    // Guardar noticias originales
-                    noticiasOriginales.clear();
-                    noticiasOriginales.addAll(noticiasObtenidas);
+                    // Guardar noticias originales (primera página del scroll infinito)
+                    reiniciarNoticias(noticiasObtenidas);
 
                     Log.i(TAG, "Noticias actualizadas desde Firebase: " + noticiasObtenidas.size());
 
@@ -492,118 +707,131 @@ public class ListaNoticiasActivity extends BaseActivity {
                     Log.w(TAG, "No se encontraron noticias en Firebase");
 
                     // Si no hay datos de Firebase, intentar usar caché aunque esté expirado
-                    if (noticiasOriginales.isEmpty() && newsCache != null && newsCache.hayCache()) {
-                        List<Noticia> noticiasCached = newsCache.obtenerNoticias();
-                        if (!noticiasCached.isEmpty()) {
-                            Log.i(TAG, "Usando caché expirado: " + noticiasCached.size() + " noticias");
-                            noticiasOriginales.addAll(noticiasCached);
-                            aplicarFiltros();
-                        }
-                    }
+                    mostrarCacheSiNoHayNoticias("caché expirado");
 
                     // Ocultar skeleton
                     ocultarSkeleton();
                 }
             }
 
+            @Override
+            public void onNoticiasCambiadas(List<CambioNoticia> cambios) {
+                aplicarCambiosFeed(cambios);
+            }
+
             @Override
             public void onError(Exception e) {
                 Log.e(TAG, "Error al cargar noticias: " + e.getMessage());
 
                 // Si hay error y no tenemos datos del caché, intentar usar caché
-                if (!datosDelCache && newsCache != null && newsCache.hayCache()) {
-                    List<Noticia> noticiasCached = newsCache.obtenerNoticias();
-                    if (!noticiasCached.isEmpty()) {
-                        Log.i(TAG, "Error de red, usando caché: " + noticiasCached.size() + " noticias");
-                        noticiasOriginales.clear();
-                        noticiasOriginales.addAll(noticiasCached);
-                        aplicarFiltros();
-                    }
-                }
+                mostrarCacheSiNoHayNoticias("caché (error de red)");
 
                 // Ocultar skeleton
                 ocultarSkeleton();
             }
+        };
+
+        NoticiasFeed.getInstance().suscribir(feedObservador);
+    }
+
+    /**
+     * Lee la primera página del caché en segundo plano y la muestra solo si todavía
+     * no hay noticias en pantalla (si Firebase respondió antes, se descarta)
+     */
+    private void mostrarCacheSiNoHayNoticias(final String origen) {
+        if (newsCache == null) return;
+
+        newsCache.obtenerNoticiasRecientes(NOTICIAS_CACHE_INICIALES, noticiasCached -> {
+            if (isFinishing() || isDestroyed()) return;
+            if (noticiasCached.isEmpty() || !noticiasOriginales.isEmpty()) return;
+
+            Log.i(TAG, "Mostrando " + noticiasCached.size() + " noticias desde " + origen);
+            reiniciarNoticias(noticiasCached);
+            ocultarSkeleton();
+            aplicarFiltros();
         });
     }
 
     /**
-     * Aplica todos los filtros activos (búsqueda, radio, parroquia)
+     * Aplica cambios incrementales del feed a la ventana del paginador
+     * El adapter compara con la lista anterior: solo se insertan, actualizan o eliminan las filas afectadas.
      */
-    private void aplicarFiltros() {
-        noticiasFiltradas.clear();
+    private void aplicarCambiosFeed(List<CambioNoticia> cambios) {
+        boolean huboCambios = false;
 
-        for (Noticia noticia : noticiasOriginales) {
-            boolean pasa = true;
+        for (CambioNoticia cambio : cambios) {
+            // Borrada en el servidor (no solo desplazada por el límite del feed): sacarla del caché
+            if (cambio.getTipo() == CambioNoticia.Tipo.ELIMINADA && !cambio.isDesplazada() && newsCache != null) {
+                newsCache.eliminarNoticia(cambio.getFirestoreId());
+            }
 
-            // Filtro 1: Búsqueda por texto
-            if (!textoBusquedaActual.isEmpty()) {
-                String textoMinusculas = textoBusquedaActual.toLowerCase(java.util.Locale.ROOT);
-                String tituloMinusculas = noticia.getTitulo() != null ? noticia.getTitulo().toLowerCase(java.util.Locale.ROOT) : "";
-                String descripcionMinusculas = noticia.getDescripcion() != null ? noticia.getDescripcion().toLowerCase(java.util.Locale.ROOT) : "";
+            // Parchear la primera página (si se descartó por scroll, se recarga al volver)
+            if (!paginador.aplicarCambioFeed(cambio)) {
+                continue;
+            }
+            huboCambios = true;
 
-                if (!tituloMinusculas.contains(textoMinusculas) && !descripcionMinusculas.contains(textoMinusculas)) {
-                    pasa = false;
-                }
+            if (cambio.getTipo() != CambioNoticia.Tipo.ELIMINADA && newsCache != null) {
+                newsCache.guardarNoticia(cambio.getNoticia());
             }
+        }
 
-            // Filtro 2: Radio de búsqueda (GPS)
-            if (pasa && radioKmActual != null && ubicacionActual != null) {
-                if (noticia.getLatitud() != null && noticia.getLongitud() != null) {
-                    // Usar LocationHelper para calcular distancia
-                    double distanciaKm = LocationHelper.calcularDistanciaKm(
-                            ubicacionActual.getLatitude(),
-                            ubicacionActual.getLongitude(),
-                            noticia.getLatitud(),
-                            noticia.getLongitud()
-                    );
+        if (huboCambios) {
+            sincronizarNoticiasOriginales();
+            aplicarFiltros();
+        }
 
-                    noticia.setDistancia(distanciaKm); // Guardar para mostrar
+        Log.d(TAG, "Cambios del feed aplicados: " + cambios.size());
+    }
 
-                    if (distanciaKm > radioKmActual) {
-                        pasa = false;
-                    }
-                } else {
-                    // Si no tiene coordenadas, no pasa el filtro de radio
-                    pasa = false;
-                }
-            }
+    /**
+     * Aplica todos los filtros activos (búsqueda, radio, parroquia) en segundo plano
+     * Un pedido nuevo descarta el anterior si todavía no terminó.
+     */
+    private void aplicarFiltros() {
+        handler.removeCallbacks(filtradoPorBusqueda);
 
-            // Filtro 3: Parroquia
-            if (pasa && !parroquiaActual.equals("Todas")) {
-                String parroquiaNoticia = noticia.getParroquiaNombre();
-                if (parroquiaNoticia == null || !parroquiaNoticia.equals(parroquiaActual)) {
-                    pasa = false;
-                }
-            }
+        // Con filtro no se descartan páginas: las coincidencias no deben desaparecer al bajar
+        paginador.setDescarteEnPausa(hayFiltroActivo());
 
-            if (pasa) {
-                noticiasFiltradas.add(noticia);
+        Double latitud = ubicacionActual != null ? ubicacionActual.getLatitude() : null;
+        Double longitud = ubicacionActual != null ? ubicacionActual.getLongitude() : null;
+
+        filtradorNoticias.filtrar(new FiltradorNoticias.Solicitud(noticiasSnapshot, versionNoticias,
+                textoBusquedaActual, parroquiaActual, radioKmActual, latitud, longitud),
+                this::mostrarResultadoFiltros);
+    }
+
+    /**
+     * Entrega al adapter el resultado del filtrado (hilo principal)
+     */
+    private void mostrarResultadoFiltros(FiltradorNoticias.Resultado resultado) {
+        if (isFinishing() || isDestroyed()) return;
+
+        List<Noticia> noticias = resultado.getNoticias();
+        double[] distancias = resultado.getDistanciasKm();
+        if (distancias != null) {
+            for (int i = 0; i < noticias.size(); i++) {
+                noticias.get(i).setDistancia(distancias[i]); // Guardar para mostrar
             }
         }
 
-        // Ordenar por distancia si hay filtro de radio activo
-        if (radioKmActual != null && ubicacionActual != null) {
-            Collections.sort(noticiasFiltradas, new Comparator<Noticia>() {
-                @Override
-                public int compare(Noticia n1, Noticia n2) {
-                    Double d1 = n1.getDistancia();
-                    Double d2 = n2.getDistancia();
-                    if (d1 == null) d1 = Double.MAX_VALUE;
-                    if (d2 == null) d2 = Double.MAX_VALUE;
-                    return d1.compareTo(d2);
-                }
-            });
-        }
+        noticiasFiltradas.clear();
+        noticiasFiltradas.addAll(noticias);
 
-        // Actualizar adaptador
-        adapter.actualizarLista(noticiasFiltradas);
-        Log.d(TAG, "Lista actualizada con " + noticiasFiltradas.size() + " noticias");
+        // El adapter calcula las diferencias en segundo plano y solo enlaza las filas que cambiaron
+        adapter.actualizarLista(noticiasFiltradas, resultado.getConsulta());
 
         // Actualizar contador de resultados
         actualizarContadorResultados();
 
-        Log.d(TAG, "Filtros aplicados: " + noticiasFiltradas.size() + " de " + noticiasOriginales.size() + " noticias");
+        // Primeras noticias en pantalla: el arranque (tiempo hasta contenido completo) terminó
+        if (!primerContenidoReportado && !noticias.isEmpty()) {
+            primerContenidoReportado = true;
+            reportFullyDrawn();
+        }
+
+        Log.d(TAG, "Filtros aplicados: " + noticiasFiltradas.size() + " de " + resultado.getCantidadTotal() + " noticias");
     }
 
     /**
@@ -707,4 +935,14 @@ public class ListaNoticiasActivity extends BaseActivity {
         // Recargar noticias al volver a la pantalla (por si hay cambios)
         // cargarNoticias(); // Descomentar si quieres recargar siempre
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacks(filtradoPorBusqueda);
+        filtradorNoticias.detener();
+        if (feedObservador != null) {
+            NoticiasFeed.getInstance().desuscribir(feedObservador);
+        }
+    }
 }
@@ -3,10 +3,7 @@ package com.tesistitulacion.noticiaslocales.activities;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.drawable.Drawable;
 import android.location.Location;
 import android.os.Bundle;
 import android.util.Log;
@@ -19,23 +16,26 @@ import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
-import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import com.google.android.gms.maps.model.BitmapDescriptor;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
-import com.google.android.gms.maps.model.MarkerOptions;
 import com.tesistitulacion.noticiaslocales.R;
-import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
+import com.tesistitulacion.noticiaslocales.firebase.CambioNoticia;
+import com.tesistitulacion.noticiaslocales.firebase.NoticiasFeed;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
-import com.tesistitulacion.noticiaslocales.utils.FirebaseCallbackHelper;
+import com.tesistitulacion.noticiaslocales.utils.AgrupadorMarcadores;
+import com.tesistitulacion.noticiaslocales.utils.CalculadoraMapa;
+import com.tesistitulacion.noticiaslocales.utils.IconosMarcadorCache;
+import com.tesistitulacion.noticiaslocales.utils.IndiceEspacial;
 import com.tesistitulacion.noticiaslocales.utils.LocationHelper;
+import com.tesistitulacion.noticiaslocales.utils.MarcadoresManager;
+import com.tesistitulacion.noticiaslocales.utils.PoliticaUbicacion;
 import com.tesistitulacion.noticiaslocales.utils.TransitionHelper;
-import com.tesistitulacion.noticiaslocales.utils.UsuarioPreferences;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import android.animation.ValueAnimator;
 import android.animation.ObjectAnimator;
@@ -55,9 +55,6 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationResult;
 import androidx.cardview.widget.CardView;
 import androidx.constraintlayout.widget.ConstraintLayout;
 import androidx.constraintlayout.widget.ConstraintSet;
@@ -92,27 +89,33 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
     private static final float MIN_ZOOM = 10.5f; // No se puede alejar más (para mantener en Ibarra-Urcuquí)
     private static final float MAX_ZOOM = 20f; // Máximo acercamiento
 
-    // Intervalo de actualización de ubicación
-    private static final long LOCATION_UPDATE_INTERVAL = 10000; // 10 segundos
-    private static final long LOCATION_FASTEST_INTERVAL = 5000;  // 5 segundos mínimo
-
-    // Radio de búsqueda para mostrar noticias cercanas (en kilómetros)
-    private static final double RADIO_BUSQUEDA_KM = 2.0; // Solo 2 km a la redonda (entorno inmediato)
-
-    // Radio para modo "ocultar noticias" (solo muy cercanas)
-    private static final double RADIO_OCULTAR_NOTICIAS_KM = 0.5; // 500 metros (muy cercanas)
-
-    // Límites para el carrusel de noticias
-    private static final int MAX_NOTICIAS_CARRUSEL = 8; // Mostrar máximo 8 noticias más cercanas
-    private static final double RADIO_CARRUSEL_KM = 5.0; // Solo noticias dentro de 5km
+    // Desplazamiento mínimo para recalcular carrusel/marcadores por GPS (evita recalcular en cada tick)
+    private static final float DISTANCIA_MINIMA_RECALCULO_M = 50f;
 
     private GoogleMap mMap;
     private List<Noticia> noticias;
 
+    // Filtros, distancias, carrusel y grupos de marcadores se calculan en segundo plano
+    // sobre una copia inmutable de las noticias (se renueva solo cuando cambian)
+    private CalculadoraMapa calculadoraMapa;
+    private List<Noticia> noticiasSnapshot = Collections.emptyList();
+    private int versionNoticias = 0;
+
     // Variables para ubicación
     private Location ubicacionActual;
-    private LocationCallback locationCallback;
-    private Map<Marker, Noticia> markerNoticiaMap;
+    private Location ubicacionUltimoRecalculo; // Ubicación usada en el último recálculo por GPS
+    private LocationHelper.LocationUpdateListener ubicacionListener; // Flujo compartido (UbicacionCompartida)
+    private MarcadoresManager marcadoresManager; // firestoreId -> Marker (reconciliación sin mMap.clear())
+
+    // Al detenerse la cámara se recalculan los marcadores de la región visible (con debounce)
+    private static final long DEBOUNCE_CAMARA_MS = 150;
+    private final Runnable recalculoPorCamara = () -> solicitarCalculoMapa(false);
+
+    // Últimos ids mostrados en el carrusel (para no redibujarlo si no cambió)
+    private List<String> idsCarrusel = Collections.emptyList();
+
+    // Observador del feed en tiempo real
+    private NoticiasFeed.Observador feedObservador;
     private Handler handler;
 
     // Variables para ubicación específica desde Intent
@@ -160,8 +163,8 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
         }
 
         // Inicializar variables
-        markerNoticiaMap = new HashMap<>();
         handler = new Handler(Looper.getMainLooper());
+        calculadoraMapa = new CalculadoraMapa(this);
 
         // Inicializar lista de noticias visibles (LocationHelper se inicializa lazy en BaseActivity)
         inicializarListaNoticias();
@@ -172,8 +175,8 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
         // Verificar y solicitar permisos de ubicación
         verificarPermisosUbicacion();
 
-        // Inicializar callback de ubicación
-        inicializarLocationCallback();
+        // Inicializar listener de ubicación
+        inicializarUbicacionListener();
 
         inicializarMapa();
     }
@@ -249,66 +252,36 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
     /**
      * Actualiza el carrusel con las noticias más cercanas a la ubicación actual
-     * Filtra por radio de 5km y muestra máximo 8 noticias ordenadas por distancia
+     * (radio de 5km, máximo 8, ordenadas por distancia; calculadas por CalculadoraMapa)
      */
-    private void actualizarCarruselConNoticiasCercanas() {
-        if (noticias == null || noticias.isEmpty()) {
-            Log.d(TAG, "No hay noticias para actualizar carrusel");
-            return;
-        }
+    private void aplicarCarrusel(CalculadoraMapa.Resultado resultado) {
+        int cantidadCarrusel = resultado.getCantidadCarrusel();
 
-        List<Noticia> noticiasConCoordenadas = new ArrayList<>();
-        List<Noticia> noticiasCercanas = new ArrayList<>();
-
-        // Filtrar noticias con coordenadas
-        for (Noticia n : noticias) {
-            if (n.getLatitud() != null && n.getLongitud() != null) {
-                noticiasConCoordenadas.add(n);
-            }
-        }
-
-        // Si hay ubicación GPS, filtrar por cercanía
-        if (ubicacionActual != null && !noticiasConCoordenadas.isEmpty()) {
-            // Filtrar noticias dentro del radio del carrusel
-            for (Noticia noticia : noticiasConCoordenadas) {
-                // Usar LocationHelper para calcular distancia
-                double distanciaKm = LocationHelper.calcularDistanciaKm(
-                    ubicacionActual.getLatitude(),
-                    ubicacionActual.getLongitude(),
-                    noticia.getLatitud(),
-                    noticia.getLongitud()
-                );
-
-                // Solo incluir noticias dentro del radio del carrusel
-                if (distanciaKm <= RADIO_CARRUSEL_KM) {
-                    noticiasCercanas.add(noticia);
-                }
+        List<String> ids = new ArrayList<>(cantidadCarrusel);
+        if (resultado.getCarruselCercanas() != null) {
+            for (IndiceEspacial.Resultado r : resultado.getCarruselCercanas()) {
+                ids.add(r.getNoticia().getFirestoreId());
             }
-
-            // Limitar a las MAX_NOTICIAS_CARRUSEL más cercanas
-            if (noticiasCercanas.size() > MAX_NOTICIAS_CARRUSEL) {
-                noticiasCercanas = noticiasCercanas.subList(0, MAX_NOTICIAS_CARRUSEL);
-            }
-
-            Log.i(TAG, "📍 Carrusel: " + noticiasCercanas.size() + " noticias cercanas (de " +
-                  noticiasConCoordenadas.size() + " totales con coordenadas) - Radio: " + RADIO_CARRUSEL_KM + "km");
         } else {
-            // Sin ubicación GPS, mostrar todas limitando a MAX_NOTICIAS_CARRUSEL
-            noticiasCercanas = noticiasConCoordenadas;
-            if (noticiasCercanas.size() > MAX_NOTICIAS_CARRUSEL) {
-                noticiasCercanas = noticiasCercanas.subList(0, MAX_NOTICIAS_CARRUSEL);
+            for (Noticia n : resultado.getCarruselSinUbicacion()) {
+                ids.add(n.getFirestoreId());
             }
-            Log.w(TAG, "📍 Carrusel: Sin GPS, mostrando " + noticiasCercanas.size() + " noticias");
         }
 
-        // Actualizar adaptador del carrusel
-        if (noticiaMapaAdapter != null) {
-            noticiaMapaAdapter.setUbicacionActual(ubicacionActual);
-            noticiaMapaAdapter.setNoticias(noticiasCercanas);
+        // Con GPS las distancias cambian aunque las noticias sean las mismas
+        boolean cambio = resultado.getCarruselCercanas() != null || !ids.equals(idsCarrusel);
+        idsCarrusel = ids;
+
+        if (cambio && noticiaMapaAdapter != null) {
+            if (resultado.getCarruselCercanas() != null) {
+                noticiaMapaAdapter.setNoticiasCercanas(resultado.getCarruselCercanas());
+            } else {
+                noticiaMapaAdapter.setNoticias(resultado.getCarruselSinUbicacion());
+            }
         }
 
         // Mostrar carrusel con animación si hay noticias cercanas
-        if (!noticiasCercanas.isEmpty() && layoutNoticiasCarousel != null) {
+        if (cantidadCarrusel > 0 && layoutNoticiasCarousel != null) {
             if (layoutNoticiasCarousel.getVisibility() != View.VISIBLE) {
                 mostrarCarruselConAnimacion();
             }
@@ -413,39 +386,37 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
     /**
      * Inicializa el callback de ubicación para detectar cambios
      */
-    private void inicializarLocationCallback() {
-        locationCallback = new LocationCallback() {
+    private void inicializarUbicacionListener() {
+        ubicacionListener = new LocationHelper.LocationUpdateListener() {
             @Override
-            public void onLocationResult(LocationResult locationResult) {
-                if (locationResult == null) {
-                    Log.w(TAG, "⚠️ locationCallback recibió null");
+            public void onLocationChanged(Location location) {
+                boolean esNueva = (ubicacionActual == null);
+                ubicacionActual = location;
+
+                Log.i(TAG, "✅ GPS actualizado: " +
+                      location.getLatitude() + ", " + location.getLongitude() +
+                      " (precisión: " + location.getAccuracy() + "m)" +
+                      (esNueva ? " [PRIMERA VEZ]" : ""));
+
+                // Si el usuario casi no se movió, el resultado sería el mismo: no recalcular
+                if (ubicacionUltimoRecalculo != null
+                        && ubicacionUltimoRecalculo.distanceTo(location) < DISTANCIA_MINIMA_RECALCULO_M) {
                     return;
                 }
+                ubicacionUltimoRecalculo = location;
 
-                Log.d(TAG, "📍 locationCallback.onLocationResult() - " + locationResult.getLocations().size() + " ubicaciones");
-
-                for (Location location : locationResult.getLocations()) {
-                    boolean esNueva = (ubicacionActual == null);
-                    ubicacionActual = location;
-
-                    Log.i(TAG, "✅ GPS actualizado: " +
-                          location.getLatitude() + ", " + location.getLongitude() +
-                          " (precisión: " + location.getAccuracy() + "m)" +
-                          (esNueva ? " [PRIMERA VEZ]" : ""));
-
-                    // Actualizar marcadores cuando cambia la ubicación (pero no la primera vez)
-                    if (noticias != null && !noticias.isEmpty() && !esNueva) {
-                        Log.d(TAG, "🔄 Actualizando marcadores por cambio de ubicación...");
-                        agregarMarcadores(noticias);
-                    }
-
-                    // Actualizar carrusel con noticias más cercanas a la nueva ubicación
-                    if (noticias != null && !noticias.isEmpty()) {
-                        Log.d(TAG, "🔄 Actualizando carrusel con noticias cercanas...");
-                        actualizarCarruselConNoticiasCercanas();
-                    }
+                // Recalcular marcadores y carrusel con la nueva ubicación
+                // (la primera vez sin mover la cámara: ya la centra getLastLocation)
+                if (noticias != null && !noticias.isEmpty()) {
+                    Log.d(TAG, "🔄 Recalculando mapa por cambio de ubicación...");
+                    solicitarCalculoMapa(!esNueva);
                 }
             }
+
+            @Override
+            public void onLocationError(String error) {
+                Log.e(TAG, "❌ Error de ubicación: " + error);
+            }
         };
     }
 
@@ -491,6 +462,7 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
     @Override
     public void onMapReady(GoogleMap googleMap) {
         mMap = googleMap;
+        marcadoresManager = new MarcadoresManager(mMap, this::crearIconoNoticia, this::crearIconoGrupo);
         Log.i(TAG, "Mapa de Google cargado correctamente");
 
         // ========================================
@@ -598,17 +570,11 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
         Log.d(TAG, "📍 iniciarActualizacionUbicacion() - Configurando GPS...");
 
-        // Configuración mejorada para mejor precisión
-        LocationRequest locationRequest = LocationRequest.create()
-                .setInterval(LOCATION_UPDATE_INTERVAL)        // Actualizar cada 10 segundos
-                .setFastestInterval(LOCATION_FASTEST_INTERVAL) // Mínimo cada 5 segundos
-                .setPriority(LocationRequest.PRIORITY_HIGH_ACCURACY) // GPS + WiFi + Celular
-                .setSmallestDisplacement(5f);  // Solo actualizar si se movió al menos 5 metros
+        // Flujo compartido: intervalo, precisión y desplazamiento mínimo según la
+        // velocidad y la pantalla (PoliticaUbicacion)
+        getLocationHelper().startLocationUpdates(ubicacionListener, PoliticaUbicacion.Pantalla.MAPA);
 
-        getLocationHelper().getFusedLocationClient().requestLocationUpdates(locationRequest,
-                locationCallback, Looper.getMainLooper());
-
-        Log.i(TAG, "✅ requestLocationUpdates() registrado con PRIORITY_HIGH_ACCURACY");
+        Log.i(TAG, "✅ Suscrito al flujo de ubicación compartido (política de mapa)");
 
         // Obtener última ubicación conocida inmediatamente
         Log.d(TAG, "🔍 Solicitando getLastLocation()...");
@@ -626,7 +592,7 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
                         // Actualizar marcadores cercanos
                         if (noticias != null && !noticias.isEmpty()) {
-                            agregarMarcadores(noticias);
+                            solicitarCalculoMapa(true);
                         }
                     } else {
                         Log.w(TAG, "⚠️ getLastLocation() retornó null - GPS no tiene ubicación previa");
@@ -657,7 +623,7 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
                         Log.i(TAG, "Mapa centrado en ubicación actual: " + miUbicacion);
 
                         if (noticias != null && !noticias.isEmpty()) {
-                            agregarMarcadores(noticias);
+                            solicitarCalculoMapa(true);
                         }
                     } else {
                         Log.w(TAG, "No se pudo obtener ubicación actual");
@@ -698,7 +664,7 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
                         // Actualizar marcadores cercanos después de la animación
                         handler.postDelayed(() -> {
                             if (noticias != null && !noticias.isEmpty()) {
-                                agregarMarcadores(noticias);
+                                solicitarCalculoMapa(true);
                             }
                         }, 1000);
                     } else {
@@ -835,8 +801,12 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
         // Listener cuando la cámara se detiene (después de zoom o pan)
         mMap.setOnCameraIdleListener(() -> {
-            Log.d(TAG, "Cámara del mapa detenida - actualizando lista de noticias visibles");
-            actualizarNoticiasVisibles();
+            Log.d(TAG, "Cámara del mapa detenida - actualizando noticias visibles");
+
+            // Los marcadores y el contador dependen de la región visible y del zoom:
+            // recalcular (en segundo plano) cuando la cámara quede quieta un momento
+            handler.removeCallbacks(recalculoPorCamara);
+            handler.postDelayed(recalculoPorCamara, DEBOUNCE_CAMARA_MS);
         });
 
         // Listener cuando la cámara se está moviendo
@@ -881,6 +851,12 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
         // Listener para clicks en marcadores con animación
         mMap.setOnMarkerClickListener(marker -> {
+            // Grupo: acercar hasta que se separe en sus noticias
+            if (marker.getTag() instanceof AgrupadorMarcadores.Grupo) {
+                expandirGrupo((AgrupadorMarcadores.Grupo) marker.getTag());
+                return true;
+            }
+
             // Animar marcador con bounce
             animarMarcadorClick(marker);
 
@@ -1018,116 +994,155 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
 
     private void cargarNoticiasEnMapa() {
-        // Usar FirebaseCallbackHelper para gestión automática de estado (modo silencioso para el mapa)
-        FirebaseCallbackHelper.<List<Noticia>>cargarDatosSilencioso(
-            this,
-            "noticias para mapa",
-            getLoadingStateManager(),
-            callback -> FirebaseManager.getInstance().getAllNoticiasRealtime(callback),
-            noticiasObtenidas -> {
+        if (feedObservador != null) {
+            NoticiasFeed.getInstance().desuscribir(feedObservador);
+        }
+
+        // Feed compartido en tiempo real: estado inicial completo y luego solo cambios
+        feedObservador = new NoticiasFeed.Observador() {
+            @Override
+            public void onNoticiasIniciales(List<Noticia> noticiasObtenidas) {
                 if (noticiasObtenidas != null && !noticiasObtenidas.isEmpty()) {
-                    noticias = noticiasObtenidas;
-                    agregarMarcadores(noticias);
+                    noticias = new ArrayList<>(noticiasObtenidas);
+                    publicarSnapshotNoticias();
 
                     Log.i(TAG, "Noticias cargadas en mapa (tiempo real): " + noticias.size());
 
-                    // Actualizar carrusel con noticias más cercanas
-                    actualizarCarruselConNoticiasCercanas();
-
-                    // Contar noticias con coordenadas para el mensaje
-                    int noticiasConCoords = 0;
-                    for (Noticia n : noticias) {
-                        if (n.getLatitud() != null && n.getLongitud() != null) {
-                            noticiasConCoords++;
-                        }
-                    }
-
-                    // Actualizar lista de noticias visibles
-                    actualizarNoticiasVisibles();
+                    // Marcadores, carrusel y contador de visibles
+                    solicitarCalculoMapa(true);
                 } else {
                     Log.w(TAG, "No hay noticias disponibles");
                 }
             }
-        );
+
+            @Override
+            public void onNoticiasCambiadas(List<CambioNoticia> cambios) {
+                aplicarCambiosEnMapa(cambios);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error al cargar noticias para mapa: " + e.getMessage());
+            }
+        };
+
+        NoticiasFeed.getInstance().suscribir(feedObservador);
     }
 
-    private void agregarMarcadores(List<Noticia> noticias) {
+    /**
+     * Aplica cambios incrementales del feed: solo se quitan/agregan los marcadores afectados
+     */
+    private void aplicarCambiosEnMapa(List<CambioNoticia> cambios) {
         if (mMap == null) {
-            Log.e(TAG, "Mapa no inicializado");
             return;
         }
+        if (noticias == null) {
+            noticias = new ArrayList<>();
+        }
 
-        // Limpiar marcadores existentes
-        mMap.clear();
-
-        List<LatLng> posiciones = new ArrayList<>();
-        final List<Marker> marcadoresNuevos = new ArrayList<>();
-        int marcadoresAgregados = 0;
-        int noticiasFiltradas = 0;
-
-        // Verificar si está activado el modo "mostrar solo cercanas"
-        boolean mostrarSoloCercanas = UsuarioPreferences.getMostrarSoloCercanas(this);
-        double radioActual = mostrarSoloCercanas ? RADIO_OCULTAR_NOTICIAS_KM : RADIO_BUSQUEDA_KM;
-
-        for (Noticia noticia : noticias) {
-            // Solo agregar si tiene coordenadas válidas
-            if (noticia.getLatitud() != null && noticia.getLongitud() != null) {
-                // Filtrar por proximidad SOLO si el modo "mostrar solo cercanas" está activo
-                if (mostrarSoloCercanas) {
-                    if (ubicacionActual != null) {
-                        // Calcular distancia desde ubicación actual
-                        float[] results = new float[1];
-                        Location.distanceBetween(
-                                ubicacionActual.getLatitude(),
-                                ubicacionActual.getLongitude(),
-                                noticia.getLatitud(),
-                                noticia.getLongitud(),
-                                results
-                        );
-
-                        double distanciaKm = results[0] / 1000.0;
-
-                        // Solo agregar marcador si está dentro del radio
-                        if (distanciaKm > radioActual) {
-                            noticiasFiltradas++;
-                            continue; // Saltar esta noticia, está muy lejos
-                        }
-                    } else {
-                        // Si modo cercanas está activo pero no hay ubicación, no mostrar nada
-                        noticiasFiltradas++;
-                        continue;
-                    }
+        for (CambioNoticia cambio : cambios) {
+            String id = cambio.getFirestoreId();
+
+            // Quitar la versión anterior de la lista
+            for (int i = 0; i < noticias.size(); i++) {
+                if (id.equals(noticias.get(i).getFirestoreId())) {
+                    noticias.remove(i);
+                    break;
                 }
-                // Si mostrarSoloCercanas = false, mostrar TODAS las noticias sin filtrar
+            }
+
+            if (cambio.getTipo() == CambioNoticia.Tipo.ELIMINADA) {
+                continue;
+            }
 
-                LatLng posicion = new LatLng(noticia.getLatitud(), noticia.getLongitud());
+            Noticia noticia = cambio.getNoticia();
+            noticias.add(Math.min(Math.max(cambio.getIndiceNuevo(), 0), noticias.size()), noticia);
+        }
 
-                // Crear marcador avanzado con color según categoría
-                Marker marker = agregarMarcadorNoticia(noticia, posicion);
+        Log.d(TAG, "Cambios aplicados en mapa: " + cambios.size());
+        publicarSnapshotNoticias();
 
-                if (marker != null) {
-                    // Asociar noticia al marcador para recuperarla en el click
-                    marker.setTag(noticia);
-                    marcadoresNuevos.add(marker);
-                    posiciones.add(posicion);
-                    marcadoresAgregados++;
-                }
-            }
+        // Los marcadores se reconcilian por clave: solo se crean/animan los nuevos
+        solicitarCalculoMapa(false);
+    }
+
+    /**
+     * Renueva la copia inmutable de las noticias que usa CalculadoraMapa
+     * Llamar cada vez que cambia la lista (carga inicial o cambios del feed).
+     */
+    private void publicarSnapshotNoticias() {
+        noticiasSnapshot = Collections.unmodifiableList(new ArrayList<>(noticias));
+        versionNoticias++;
+    }
+
+    /**
+     * Pide recalcular marcadores, carrusel y contador con el estado actual
+     * Cualquier cálculo anterior pendiente se descarta.
+     * @param ajustarCamara true para encuadrar la cámara al aplicar el resultado
+     */
+    private void solicitarCalculoMapa(boolean ajustarCamara) {
+        if (mMap == null || noticias == null) {
+            return;
         }
+        handler.removeCallbacks(recalculoPorCamara);
+
+        LatLngBounds visible = mMap.getProjection().getVisibleRegion().latLngBounds;
+        CalculadoraMapa.Solicitud solicitud = new CalculadoraMapa.Solicitud(
+                noticiasSnapshot,
+                versionNoticias,
+                ubicacionActual != null ? ubicacionActual.getLatitude() : null,
+                ubicacionActual != null ? ubicacionActual.getLongitude() : null,
+                mMap.getCameraPosition().zoom,
+                visible.southwest.latitude, visible.southwest.longitude,
+                visible.northeast.latitude, visible.northeast.longitude,
+                ajustarCamara);
+
+        calculadoraMapa.calcular(solicitud, this::aplicarResultadoMapa);
+    }
 
-        // Aplicar efecto drop animation escalonado a los marcadores
+    /**
+     * Aplica en la UI el resultado de CalculadoraMapa (ya en el hilo principal)
+     */
+    private void aplicarResultadoMapa(CalculadoraMapa.Resultado resultado) {
+        if (mMap == null || isDestroyed()) {
+            return;
+        }
+
+        // Marcadores: solo se crean los nuevos, se quitan los que salen y se actualizan los cambiados
+        List<Marker> marcadoresNuevos = marcadoresManager.reconciliar(resultado.getGrupos());
+        if (!marcadoresManager.contiene(markerSeleccionado)) {
+            markerSeleccionado = null;
+        }
+
+        // Aplicar efecto drop animation escalonado solo a los marcadores nuevos
         aplicarDropAnimationMarcadores(marcadoresNuevos);
 
-        String modoTexto = mostrarSoloCercanas ? " [MODO POKÉMON GO]" : "";
+        aplicarCarrusel(resultado);
+        actualizarNoticiasVisibles(resultado.getCantidadVisibles());
 
-        Log.i(TAG, "Marcadores agregados: " + marcadoresAgregados +
-                   " (filtradas por estar fuera de los " + radioActual + "km: " + noticiasFiltradas + ")" + modoTexto);
+        String modoTexto = resultado.isSoloCercanas() ? " [MODO POKÉMON GO]" : "";
+        double radioActual = resultado.isSoloCercanas()
+                ? CalculadoraMapa.RADIO_OCULTAR_NOTICIAS_KM : CalculadoraMapa.RADIO_BUSQUEDA_KM;
+        Log.d(TAG, "Mapa: " + marcadoresManager.cantidad() + " marcadores (nuevos: " + marcadoresNuevos.size() +
+                "), noticias en mapa: " + resultado.getCantidadEnMapa() +
+                " (filtradas por estar fuera de los " + radioActual + "km: " + resultado.getCantidadFiltradas() + ")" +
+                ", carrusel: " + resultado.getCantidadCarrusel() + modoTexto);
 
-        // No ajustar la cámara automáticamente si ya está centrada en el usuario
-        // Solo ajustar si es la primera carga y no hay ubicación del usuario
-        if (!posiciones.isEmpty() && ubicacionActual == null) {
-            ajustarCamaraATodosLosMarcadores(posiciones);
-        } else if (posiciones.isEmpty() && ubicacionActual != null) {
+        if (resultado.isAjustarCamara()) {
+            ajustarCamara(resultado.getLimitesEnMapa());
+        }
+    }
+
+    /**
+     * No ajustar la cámara automáticamente si ya está centrada en el usuario
+     * Solo encuadrar las noticias si no hay ubicación del usuario
+     */
+    private void ajustarCamara(double[] limitesEnMapa) {
+        if (limitesEnMapa != null && ubicacionActual == null) {
+            ajustarCamaraATodosLosMarcadores(new LatLngBounds(
+                    new LatLng(limitesEnMapa[0], limitesEnMapa[1]),
+                    new LatLng(limitesEnMapa[2], limitesEnMapa[3])));
+        } else if (limitesEnMapa == null && ubicacionActual != null) {
             // Si no hay noticias cercanas, centrar en ubicación actual
             LatLng miPosicion = new LatLng(ubicacionActual.getLatitude(), ubicacionActual.getLongitude());
             mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(miPosicion, ZOOM_LEVEL), 1000, null);
@@ -1135,61 +1150,39 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
         }
     }
 
-    private Marker agregarMarcadorNoticia(Noticia noticia, LatLng posicion) {
-        try {
-            // Obtener icono personalizado según categoría
-            int iconoResId = obtenerIconoCategoria(noticia.getCategoriaId());
-
-            // Convertir vector drawable a Bitmap
-            Bitmap iconoBitmap = getBitmapFromVectorDrawable(iconoResId);
-
-            // Crear opciones de marcador con icono personalizado
-            MarkerOptions markerOptions = new MarkerOptions()
-                    .position(posicion)
-                    .title(noticia.getTitulo())
-                    .snippet(noticia.getDescripcion())
-                    .icon(BitmapDescriptorFactory.fromBitmap(iconoBitmap));
-
-            // Agregar marcador al mapa
-            Marker marker = mMap.addMarker(markerOptions);
-
-            // Guardar relación marker-noticia para proximidad y para el tag
-            if (marker != null) {
-                marker.setTag(noticia);
-                markerNoticiaMap.put(marker, noticia);
-            }
-
-            return marker;
+    /**
+     * Acerca la cámara a las noticias de un grupo para separarlas
+     */
+    private void expandirGrupo(AgrupadorMarcadores.Grupo grupo) {
+        float zoomActual = mMap.getCameraPosition().zoom;
+        LatLng centro = new LatLng(grupo.getLatitud(), grupo.getLongitud());
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error al agregar marcador: " + e.getMessage(), e);
-            return null;
+        boolean mismaPosicion = grupo.getSur() == grupo.getNorte() && grupo.getOeste() == grupo.getEste();
+        if (mismaPosicion) {
+            mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(centro,
+                    Math.min(zoomActual + 2, MAX_ZOOM)), 500, null);
+            return;
         }
+
+        LatLngBounds bounds = new LatLngBounds(
+                new LatLng(grupo.getSur(), grupo.getOeste()),
+                new LatLng(grupo.getNorte(), grupo.getEste()));
+        mMap.animateCamera(CameraUpdateFactory.newLatLngBounds(bounds, 120), 500, null);
     }
 
     /**
-     * Convierte un drawable vectorial a Bitmap para usar en marcadores de mapa
-     * @param drawableId ID del recurso drawable
-     * @return Bitmap del icono
+     * Icono del marcador según la categoría de la noticia
+     * Compartido entre marcadores: se rasteriza una sola vez por densidad (IconosMarcadorCache)
      */
-    private Bitmap getBitmapFromVectorDrawable(int drawableId) {
-        Drawable drawable = ContextCompat.getDrawable(this, drawableId);
-        if (drawable == null) {
-            Log.e(TAG, "No se pudo obtener drawable con ID: " + drawableId);
-            return null;
-        }
-
-        Bitmap bitmap = Bitmap.createBitmap(
-                drawable.getIntrinsicWidth(),
-                drawable.getIntrinsicHeight(),
-                Bitmap.Config.ARGB_8888
-        );
-
-        Canvas canvas = new Canvas(bitmap);
-        drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
-        drawable.draw(canvas);
+    private BitmapDescriptor crearIconoNoticia(Noticia noticia) {
+        return IconosMarcadorCache.getInstance().obtener(this, obtenerIconoCategoria(noticia.getCategoriaId()));
+    }
 
-        return bitmap;
+    /**
+     * Icono de un grupo de noticias (círculo con la cantidad)
+     */
+    private BitmapDescriptor crearIconoGrupo(int cantidad) {
+        return IconosMarcadorCache.getInstance().obtenerGrupo(this, cantidad);
     }
 
     /**
@@ -1245,17 +1238,8 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
     /**
      * Ajusta la cámara para mostrar todos los marcadores con animación suave
      */
-    private void ajustarCamaraATodosLosMarcadores(List<LatLng> posiciones) {
-        if (posiciones.isEmpty()) return;
-
+    private void ajustarCamaraATodosLosMarcadores(LatLngBounds bounds) {
         try {
-            // Crear bounds que contenga todos los marcadores
-            LatLngBounds.Builder builder = new LatLngBounds.Builder();
-            for (LatLng posicion : posiciones) {
-                builder.include(posicion);
-            }
-            LatLngBounds bounds = builder.build();
-
             // Padding en píxeles alrededor de los marcadores (mayor para mejor visualización)
             int padding = 120;
 
@@ -1296,30 +1280,12 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
 
     /**
      * Actualiza la lista de noticias visibles en el área del mapa
+     * @param cantidadVisibles Noticias dentro de la región visible (calculadas por CalculadoraMapa)
      */
-    private void actualizarNoticiasVisibles() {
-        if (mMap == null || noticias == null || noticias.isEmpty()) {
-            Log.d(TAG, "No se puede actualizar lista: mapa o noticias no disponibles");
-            return;
-        }
-
-        // Obtener límites visibles del mapa
-        LatLngBounds bounds = mMap.getProjection().getVisibleRegion().latLngBounds;
-
-        // Filtrar noticias que están dentro de los límites visibles
-        List<Noticia> noticiasVisibles = new ArrayList<>();
-        for (Noticia noticia : noticias) {
-            if (noticia.getLatitud() != null && noticia.getLongitud() != null) {
-                LatLng posicion = new LatLng(noticia.getLatitud(), noticia.getLongitud());
-                if (bounds.contains(posicion)) {
-                    noticiasVisibles.add(noticia);
-                }
-            }
-        }
-
+    private void actualizarNoticiasVisibles(int cantidadVisibles) {
         // Actualizar contador con animación
         if (tvContadorNoticias != null) {
-            animarContadorNoticias(tvContadorNoticias.getText().toString(), String.valueOf(noticiasVisibles.size()));
+            animarContadorNoticias(tvContadorNoticias.getText().toString(), String.valueOf(cantidadVisibles));
         }
 
         // Mantener card oculto (sin adaptador)
@@ -1327,7 +1293,7 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
             cardListaNoticias.setVisibility(View.GONE);
         }
 
-        Log.d(TAG, "Lista actualizada: " + noticiasVisibles.size() + " noticias visibles de " + noticias.size() + " totales");
+        Log.d(TAG, "Lista actualizada: " + cantidadVisibles + " noticias visibles de " + noticias.size() + " totales");
     }
 
     /**
@@ -1359,20 +1325,53 @@ public class MapaActivity extends BaseActivity implements OnMapReadyCallback {
             .start();
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+
+        // Volver a recibir ubicación con la política de mapa (solo si ya se había iniciado)
+        if (mMap != null && getLocationHelper().hasLocationPermission()) {
+            getLocationHelper().startLocationUpdates(ubicacionListener, PoliticaUbicacion.Pantalla.MAPA);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        // El mapa no está visible: liberar el GPS (si otra pantalla lo usa, sigue con su política)
+        getLocationHelper().stopLocationUpdates();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+
+        // "Mostrar solo cercanas" pudo cambiar en Perfil: releer (en segundo plano) y recalcular
+        calculadoraMapa.invalidarPreferencias();
+        solicitarCalculoMapa(false);
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
 
-        // Detener actualización de ubicación (BaseActivity también maneja esto)
-        if (locationCallback != null) {
-            getLocationHelper().getFusedLocationClient().removeLocationUpdates(locationCallback);
+        // Dejar de escuchar el feed de noticias
+        if (feedObservador != null) {
+            NoticiasFeed.getInstance().desuscribir(feedObservador);
         }
 
+        // Detener actualización de ubicación (BaseActivity también maneja esto)
+        getLocationHelper().stopLocationUpdates();
+
         // Limpiar handler
         if (handler != null) {
             handler.removeCallbacksAndMessages(null);
         }
 
+        // Cancelar cálculos del mapa pendientes
+        calculadoraMapa.detener();
+
         Log.i(TAG, "MapaActivity destruido, ubicación detenida");
     }
 
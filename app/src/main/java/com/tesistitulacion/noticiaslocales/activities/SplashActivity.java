@@ -1,33 +1,55 @@
 package com.tesistitulacion.noticiaslocales.activities;
 
-import android.animation.ValueAnimator;
+import android.animation.ObjectAnimator;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
 import android.util.Log;
 import android.view.animation.DecelerateInterpolator;
 import android.widget.ProgressBar;
 import androidx.appcompat.app.AppCompatActivity;
-import com.google.firebase.messaging.FirebaseMessaging;
+import com.tesistitulacion.noticiaslocales.BuildConfig;
+import com.tesistitulacion.noticiaslocales.NoticiasApplication;
 import com.tesistitulacion.noticiaslocales.R;
+import com.tesistitulacion.noticiaslocales.utils.Arranque;
 import com.tesistitulacion.noticiaslocales.utils.LocaleManager;
-import com.tesistitulacion.noticiaslocales.utils.NotificationHelper;
-import com.tesistitulacion.noticiaslocales.utils.TransitionHelper;
-import com.tesistitulacion.noticiaslocales.utils.UsuarioPreferences;
 import com.tesistitulacion.noticiaslocales.utils.ThemeManager;
+import com.tesistitulacion.noticiaslocales.utils.UsuarioPreferences;
 
 /**
  * Splash Screen - Pantalla de inicio de la aplicación
  * Verifica si hay sesión activa y redirige a Login o Main
  *
- * IMPORTANTE: Aquí se crean los canales de notificación
- * Los canales DEBEN crearse antes de enviar cualquier notificación
+ * No espera un tiempo fijo: navega en cuanto termina la ruta crítica del arranque
+ * (preferencias desencriptadas, ver NoticiasApplication). La sesión se lee en ese momento,
+ * así que vale también si el Splash se reabre desde una notificación o el launcher con
+ * el proceso vivo. El resto de la inicialización sigue en segundo plano.
+ *
+ * La espera tiene tope (MAX_ESPERA_ARRANQUE_MS): si la ruta crítica no termina (p. ej. el
+ * Keystore no responde al crear la MasterKey) se navega igual, una sola vez. Sin
+ * preferencias cargadas no se puede leer el token sin bloquear, así que se va al login.
  */
 public class SplashActivity extends AppCompatActivity {
     private static final String TAG = "SplashActivity";
-    private static final int SPLASH_DURATION = 2000; // 2 segundos
+    private static final int DURACION_PROGRESO_MS = 150;
+    // Tope de espera a la ruta crítica antes de navegar igual
+    private static final long MAX_ESPERA_ARRANQUE_MS = 4000;
     private ProgressBar progressBar;
+    private Arranque arranque;
+    private boolean navegado = false;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final Runnable navegarPorTiempo = () -> {
+        Log.w(TAG, "La ruta crítica no terminó en " + MAX_ESPERA_ARRANQUE_MS + " ms, se navega igual");
+        verificarSesion();
+    };
+
+    // El progreso refleja las tareas de arranque terminadas
+    private final Arranque.Observador observadorArranque = (nombre, duracionMs, terminadas, total) ->
+            runOnUiThread(() -> animarProgressBar(terminadas * 100 / total));
 
     @Override
     protected void attachBaseContext(Context newBase) {
@@ -42,81 +64,49 @@ public class SplashActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
-        // IMPORTANTE: Crear canales de notificación al inicio de la app
-        // Esto debe hacerse ANTES de mostrar cualquier notificación
-        crearCanalesNotificacion();
-
         // Inicializar ProgressBar
         progressBar = findViewById(R.id.progressBar);
 
-        // Animar el ProgressBar de 0 a 100
-        animarProgressBar();
-
-        // Esperar 2 segundos y luego verificar sesión
-        new Handler().postDelayed(() -> {
-            verificarSesion();
-        }, SPLASH_DURATION);
+        arranque = ((NoticiasApplication) getApplication()).getArranque();
+        arranque.setObservador(observadorArranque);
+        arranque.cuandoTermineCritico(this::verificarSesion);
+        handler.postDelayed(navegarPorTiempo, MAX_ESPERA_ARRANQUE_MS);
     }
 
-    /**
-     * Crea los canales de notificación necesarios para Android 8.0+
-     * DEBE ejecutarse antes de enviar cualquier notificación
-     */
-    private void crearCanalesNotificacion() {
-        try {
-            NotificationHelper.getInstance(this).crearCanalesNotificacion();
-            Log.d(TAG, "Canales de notificación creados correctamente");
-
-            // Suscribir a topics de FCM para recibir notificaciones
-            suscribirATopicsFCM();
-        } catch (Exception e) {
-            Log.e(TAG, "Error al crear canales de notificación", e);
-        }
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(navegarPorTiempo);
+        arranque.setObservador(null);
+        super.onDestroy();
     }
 
-    /**
-     * Suscribe al dispositivo a los topics de FCM para recibir notificaciones
-     */
-    private void suscribirATopicsFCM() {
-        // Suscribir al topic "all" para recibir todas las notificaciones
-        FirebaseMessaging.getInstance().subscribeToTopic("all")
-            .addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
-                    Log.d(TAG, "Suscrito a topic 'all' para notificaciones");
-                } else {
-                    Log.e(TAG, "Error al suscribirse a topic 'all'", task.getException());
-                }
-            });
-
-        // Suscribir al topic "noticias"
-        FirebaseMessaging.getInstance().subscribeToTopic("noticias")
-            .addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
-                    Log.d(TAG, "Suscrito a topic 'noticias'");
-                }
-            });
-    }
+    private void animarProgressBar(int progreso) {
+        if (progreso <= progressBar.getProgress()) return;
 
-    private void animarProgressBar() {
-        // Crear animación de 0 a 100
-        ValueAnimator animator = ValueAnimator.ofInt(0, 100);
-        animator.setDuration(SPLASH_DURATION); // Misma duración que el splash
+        ObjectAnimator animator = ObjectAnimator.ofInt(progressBar, "progress", progressBar.getProgress(), progreso);
+        animator.setDuration(DURACION_PROGRESO_MS);
         animator.setInterpolator(new DecelerateInterpolator()); // Desacelera al final para efecto suave
-
-        animator.addUpdateListener(animation -> {
-            int progress = (int) animation.getAnimatedValue();
-            progressBar.setProgress(progress);
-        });
-
         animator.start();
     }
 
     private void verificarSesion() {
-        // Verificar si hay sesión activa
-        String token = UsuarioPreferences.getToken(this);
+        // Solo una vez: la llama la ruta crítica o el tope de espera, la que llegue primero
+        if (navegado || isFinishing() || isDestroyed()) return;
+        navegado = true;
+        handler.removeCallbacks(navegarPorTiempo);
+
+        long duracionCriticaMs = arranque.getDuracionCriticaMs();
+        if (duracionCriticaMs >= 0) {
+            Log.d(TAG, "Ruta crítica lista en " + duracionCriticaMs + " ms");
+        }
+
+        // El build "benchmark" mide el arranque hasta la lista de noticias sin pasar por el login.
+        // Si se venció el tope sin preferencias, getToken() bloquearía: se asume sin sesión.
+        boolean haySesion = BuildConfig.SESION_BENCHMARK
+                || (UsuarioPreferences.estanListas() && !TextUtils.isEmpty(UsuarioPreferences.getToken(this)));
 
         Intent intent;
-        if (token != null && !token.isEmpty()) {
+        if (haySesion) {
             // Hay sesión activa → ir a lista de noticias
             intent = new Intent(this, ListaNoticiasActivity.class);
         } else {
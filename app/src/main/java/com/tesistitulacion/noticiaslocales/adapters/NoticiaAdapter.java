@@ -1,18 +1,27 @@
 package com.tesistitulacion.noticiaslocales.adapters;
 
 import android.graphics.Color;
+import android.graphics.Typeface;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.StyleSpan;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.squareup.picasso.Picasso;
 import com.tesistitulacion.noticiaslocales.R;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+import com.tesistitulacion.noticiaslocales.utils.IndiceBusqueda;
 import com.tesistitulacion.noticiaslocales.utils.LocationHelper;
-import com.tesistitulacion.noticiaslocales.utils.UsuarioPreferences;
+import com.tesistitulacion.noticiaslocales.utils.NoticiasGuardadasStore;
+import com.tesistitulacion.noticiaslocales.utils.ReferenciasCache;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -20,23 +29,67 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Adapter para RecyclerView de Noticias
  * Gestiona la visualización de items de noticias en la lista
+ *
+ * Las listas nuevas se comparan con la anterior en segundo plano (AsyncListDiffer,
+ * identidad por firestoreId): solo se insertan, mueven, eliminan o vuelven a
+ * enlazar las filas que cambiaron.
+ *
+ * El estado de guardado de cada fila sale de NoticiasGuardadasStore (en memoria); cuando
+ * cambia, solo se actualiza el icono de las filas de esa noticia.
  */
 public class NoticiaAdapter extends RecyclerView.Adapter<NoticiaAdapter.NoticiaViewHolder> {
 
-    private List<Noticia> noticias;
+    private final AsyncListDiffer<Fila> differ = new AsyncListDiffer<>(this, new ComparadorFilas());
     private OnNoticiaClickListener listener;
+    private NoticiasGuardadasStore guardadas;
+
+    // Payload de notifyItemChanged: solo cambió el estado de guardado
+    private static final Object PAYLOAD_GUARDADA = new Object();
+
+    private final NoticiasGuardadasStore.Observador observadorGuardadas = (noticiaId, guardada) -> {
+        List<Fila> filas = differ.getCurrentList();
+        if (noticiaId == null) {
+            notifyItemRangeChanged(0, filas.size(), PAYLOAD_GUARDADA);
+            return;
+        }
+        for (int i = 0; i < filas.size(); i++) {
+            if (noticiaId.equals(ComparadorFilas.identificador(filas.get(i).noticia))) {
+                notifyItemChanged(i, PAYLOAD_GUARDADA);
+            }
+        }
+    };
 
     // Interfaz para manejar clicks en items
     public interface OnNoticiaClickListener {
         void onNoticiaClick(Noticia noticia, int position);
     }
 
+    // Fondo de las palabras que coinciden con la búsqueda (primario al 25%)
+    private static final int COLOR_RESALTADO = 0x400D7FF2;
+
+    /**
+     * Noticia tal como se mostró: la distancia se copia porque la misma instancia
+     * se reutiliza entre filtrados y, si no, un cambio de distancia no se detectaría.
+     * La consulta resaltada también es parte de la fila.
+     */
+    private static final class Fila {
+        final Noticia noticia;
+        final Double distancia;
+        final IndiceBusqueda.Consulta consulta;
+
+        Fila(Noticia noticia, IndiceBusqueda.Consulta consulta) {
+            this.noticia = noticia;
+            this.distancia = noticia.getDistancia();
+            this.consulta = consulta;
+        }
+    }
+
     public NoticiaAdapter(OnNoticiaClickListener listener) {
-        this.noticias = new ArrayList<>();
         this.listener = listener;
     }
 
@@ -50,33 +103,105 @@ public class NoticiaAdapter extends RecyclerView.Adapter<NoticiaAdapter.NoticiaV
 
     @Override
     public void onBindViewHolder(@NonNull NoticiaViewHolder holder, int position) {
-        Noticia noticia = noticias.get(position);
-        holder.bind(noticia, listener);
+        Fila fila = differ.getCurrentList().get(position);
+        holder.bind(fila.noticia, fila.consulta, guardadas, listener);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NoticiaViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && payloads.contains(PAYLOAD_GUARDADA)) {
+            Noticia noticia = differ.getCurrentList().get(position).noticia;
+            holder.actualizarIconoBookmark(guardadas.estaGuardada(ComparadorFilas.identificador(noticia)));
+            return;
+        }
+        onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        guardadas = NoticiasGuardadasStore.getInstance(recyclerView.getContext());
+        guardadas.agregarObservador(observadorGuardadas);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        guardadas.eliminarObservador(observadorGuardadas);
     }
 
     @Override
     public int getItemCount() {
-        return noticias.size();
+        return differ.getCurrentList().size();
     }
 
     /**
-     * Actualiza la lista completa de noticias
+     * Reemplaza la lista de noticias
+     * Las diferencias se calculan en segundo plano; si llega otra lista antes de
+     * terminar, la anterior se descarta.
      */
-    @android.annotation.SuppressLint("NotifyDataSetChanged")
     public void actualizarLista(List<Noticia> nuevasNoticias) {
-        this.noticias.clear();
+        actualizarLista(nuevasNoticias, null);
+    }
+
+    /**
+     * Reemplaza la lista resaltando en título y descripción las palabras que coinciden con la consulta
+     */
+    public void actualizarLista(List<Noticia> nuevasNoticias, IndiceBusqueda.Consulta consulta) {
+        List<Fila> filas = new ArrayList<>(nuevasNoticias != null ? nuevasNoticias.size() : 0);
         if (nuevasNoticias != null) {
-            this.noticias.addAll(nuevasNoticias);
+            for (Noticia noticia : nuevasNoticias) {
+                if (noticia != null) {
+                    filas.add(new Fila(noticia, consulta));
+                }
+            }
         }
-        notifyDataSetChanged();
+        differ.submitList(filas);
     }
 
     /**
      * Agrega una noticia al inicio de la lista
      */
     public void agregarNoticia(Noticia noticia) {
-        this.noticias.add(0, noticia);
-        notifyItemInserted(0);
+        if (noticia == null) return;
+        List<Fila> filas = new ArrayList<>(differ.getCurrentList().size() + 1);
+        filas.add(new Fila(noticia, null));
+        filas.addAll(differ.getCurrentList());
+        differ.submitList(filas);
+    }
+
+    /**
+     * Identidad por firestoreId (o id numérico); contenido por lo que muestra la fila
+     */
+    private static final class ComparadorFilas extends DiffUtil.ItemCallback<Fila> {
+        @Override
+        public boolean areItemsTheSame(@NonNull Fila anterior, @NonNull Fila nueva) {
+            String idAnterior = identificador(anterior.noticia);
+            return idAnterior != null ? idAnterior.equals(identificador(nueva.noticia))
+                    : anterior.noticia == nueva.noticia;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Fila anterior, @NonNull Fila nueva) {
+            if (!Objects.equals(anterior.distancia, nueva.distancia)) return false;
+            if (!Objects.equals(anterior.consulta, nueva.consulta)) return false;
+            if (anterior.noticia == nueva.noticia) return true;
+
+            Noticia a = anterior.noticia;
+            Noticia b = nueva.noticia;
+            return Objects.equals(a.getTitulo(), b.getTitulo())
+                    && Objects.equals(a.getDescripcion(), b.getDescripcion())
+                    && Objects.equals(a.getCategoriaId(), b.getCategoriaId())
+                    && Objects.equals(a.getColorCategoria(), b.getColorCategoria())
+                    && Objects.equals(a.getFechaPublicacion(), b.getFechaPublicacion())
+                    && Objects.equals(a.getParroquiaNombre(), b.getParroquiaNombre())
+                    && Objects.equals(a.getImagenUrl(), b.getImagenUrl());
+        }
+
+        private static String identificador(Noticia noticia) {
+            if (noticia.getFirestoreId() != null) return noticia.getFirestoreId();
+            return noticia.getId() != null ? String.valueOf(noticia.getId()) : null;
+        }
     }
 
     /**
@@ -104,25 +229,29 @@ public class NoticiaAdapter extends RecyclerView.Adapter<NoticiaAdapter.NoticiaV
             ivBookmark = itemView.findViewById(R.id.iv_bookmark);
         }
 
-        public void bind(Noticia noticia, OnNoticiaClickListener listener) {
+        public void bind(Noticia noticia, IndiceBusqueda.Consulta consulta, NoticiasGuardadasStore guardadas,
+                         OnNoticiaClickListener listener) {
             if (noticia == null) {
                 return; // Protección contra noticias null
             }
 
             // Título
             String titulo = noticia.getTitulo();
-            tvTitulo.setText(titulo != null ? titulo : "Sin título");
+            tvTitulo.setText(titulo != null ? resaltar(titulo, consulta) : "Sin título");
 
             // Descripción
             if (noticia.getDescripcion() != null && !noticia.getDescripcion().isEmpty()) {
-                tvDescripcion.setText(noticia.getDescripcion());
+                tvDescripcion.setText(resaltar(noticia.getDescripcion(), consulta));
                 tvDescripcion.setVisibility(View.VISIBLE);
             } else {
                 tvDescripcion.setVisibility(View.GONE);
             }
 
             // Categoría
-            String categoriaNombre = obtenerNombreCategoria(noticia.getCategoriaId());
+            String categoriaNombre = noticia.getCategoriaNombre();
+            if (categoriaNombre == null) {
+                categoriaNombre = ReferenciasCache.catalogo().getNombreCategoria(noticia.getCategoriaId());
+            }
             tvCategoria.setText(categoriaNombre);
 
             // Color de categoría
@@ -180,34 +309,36 @@ public class NoticiaAdapter extends RecyclerView.Adapter<NoticiaAdapter.NoticiaV
                 }
             });
 
-            // Bookmark: verificar estado y configurar
+            // Bookmark: estado desde la copia en memoria (sin leer preferencias)
             // Usar firestoreId si existe, sino usar id numérico
-            String noticiaId = noticia.getFirestoreId();
-            if (noticiaId == null && noticia.getId() != null) {
-                noticiaId = String.valueOf(noticia.getId());
+            final String noticiaId = ComparadorFilas.identificador(noticia);
+            if (noticiaId != null && ivBookmark != null) {
+                actualizarIconoBookmark(guardadas.estaGuardada(noticiaId));
+                ivBookmark.setOnClickListener(v -> actualizarIconoBookmark(guardadas.alternar(noticiaId)));
             }
-            final String finalNoticiaId = noticiaId;
-            if (finalNoticiaId != null && ivBookmark != null) {
-                boolean isGuardada = UsuarioPreferences.isNoticiaGuardada(itemView.getContext(), finalNoticiaId);
-                actualizarIconoBookmark(isGuardada);
-
-                ivBookmark.setOnClickListener(v -> {
-                    boolean guardadaActual = UsuarioPreferences.isNoticiaGuardada(itemView.getContext(), finalNoticiaId);
-                    if (guardadaActual) {
-                        UsuarioPreferences.eliminarNoticiaGuardada(itemView.getContext(), finalNoticiaId);
-                        actualizarIconoBookmark(false);
-                    } else {
-                        UsuarioPreferences.guardarNoticia(itemView.getContext(), finalNoticiaId);
-                        actualizarIconoBookmark(true);
-                    }
-                });
+        }
+
+        /**
+         * Marca en negrita y con fondo las palabras que coinciden con la búsqueda
+         */
+        private CharSequence resaltar(String texto, IndiceBusqueda.Consulta consulta) {
+            List<int[]> rangos = IndiceBusqueda.resaltar(texto, consulta);
+            if (rangos.isEmpty()) {
+                return texto;
+            }
+
+            SpannableString resaltado = new SpannableString(texto);
+            for (int[] rango : rangos) {
+                resaltado.setSpan(new StyleSpan(Typeface.BOLD), rango[0], rango[1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                resaltado.setSpan(new BackgroundColorSpan(COLOR_RESALTADO), rango[0], rango[1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
             }
+            return resaltado;
         }
 
         /**
          * Actualiza el icono del bookmark según el estado
          */
-        private void actualizarIconoBookmark(boolean isGuardada) {
+        void actualizarIconoBookmark(boolean isGuardada) {
             if (ivBookmark != null) {
                 if (isGuardada) {
                     ivBookmark.setImageResource(R.drawable.ic_bookmark_filled);
@@ -219,27 +350,6 @@ public class NoticiaAdapter extends RecyclerView.Adapter<NoticiaAdapter.NoticiaV
             }
         }
 
-        /**
-         * Obtiene el nombre de la categoría según su ID
-         */
-        private String obtenerNombreCategoria(Integer categoriaId) {
-            if (categoriaId == null) return "General";
-
-            switch (categoriaId) {
-                case 1: return "Política";
-                case 2: return "Economía";
-                case 3: return "Cultura";
-                case 4: return "Deportes";
-                case 5: return "Educación";
-                case 6: return "Salud";
-                case 7: return "Seguridad";
-                case 8: return "Medio Ambiente";
-                case 9: return "Turismo";
-                case 10: return "Tecnología";
-                default: return "General";
-            }
-        }
-
         /**
          * Formatea la fecha para mostrar
          */
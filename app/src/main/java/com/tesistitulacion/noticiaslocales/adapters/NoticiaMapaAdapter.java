@@ -1,6 +1,5 @@
 package com.tesistitulacion.noticiaslocales.adapters;
 
-import android.location.Location;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,10 +11,9 @@ import com.bumptech.glide.Glide;
 import com.google.android.material.card.MaterialCardView;
 import com.tesistitulacion.noticiaslocales.R;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+import com.tesistitulacion.noticiaslocales.utils.IndiceEspacial;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -24,8 +22,8 @@ import java.util.List;
 public class NoticiaMapaAdapter extends RecyclerView.Adapter<NoticiaMapaAdapter.ViewHolder> {
 
     private List<Noticia> noticias;
+    private double[] distanciasKm; // Distancia ya calculada de cada noticia (NaN si no hay ubicación)
     private OnNoticiaClickListener listener;
-    private Location ubicacionActual;
 
     public interface OnNoticiaClickListener {
         void onNoticiaClick(Noticia noticia, int position);
@@ -36,59 +34,29 @@ public class NoticiaMapaAdapter extends RecyclerView.Adapter<NoticiaMapaAdapter.
         this.listener = listener;
     }
 
-    public void setUbicacionActual(Location ubicacion) {
-        this.ubicacionActual = ubicacion;
-    }
-
+    /**
+     * Muestra las noticias más cercanas, ya ordenadas y con su distancia calculada
+     * (no se vuelve a ordenar ni a calcular distancias al enlazar)
+     */
     @android.annotation.SuppressLint("NotifyDataSetChanged")
-    public void setNoticias(List<Noticia> noticias) {
-        this.noticias = noticias != null ? noticias : new ArrayList<>();
-
-        // Ordenar por distancia si hay ubicación actual
-        if (ubicacionActual != null && !this.noticias.isEmpty()) {
-            ordenarPorDistancia();
+    public void setNoticiasCercanas(List<IndiceEspacial.Resultado> resultados) {
+        this.noticias = new ArrayList<>(resultados.size());
+        this.distanciasKm = new double[resultados.size()];
+        for (int i = 0; i < resultados.size(); i++) {
+            this.noticias.add(resultados.get(i).getNoticia());
+            this.distanciasKm[i] = resultados.get(i).getDistanciaKm();
         }
-
         notifyDataSetChanged();
     }
 
     /**
-     * Ordena las noticias por distancia (más cercanas primero)
+     * Muestra noticias sin distancia (sin ubicación GPS), en el orden recibido
      */
-    private void ordenarPorDistancia() {
-        if (ubicacionActual == null) return;
-
-        Collections.sort(noticias, new Comparator<Noticia>() {
-            @Override
-            public int compare(Noticia n1, Noticia n2) {
-                // Noticias sin coordenadas van al final
-                if (n1.getLatitud() == null || n1.getLongitud() == null) return 1;
-                if (n2.getLatitud() == null || n2.getLongitud() == null) return -1;
-
-                // Calcular distancia de n1
-                float[] results1 = new float[1];
-                Location.distanceBetween(
-                    ubicacionActual.getLatitude(),
-                    ubicacionActual.getLongitude(),
-                    n1.getLatitud(),
-                    n1.getLongitud(),
-                    results1
-                );
-
-                // Calcular distancia de n2
-                float[] results2 = new float[1];
-                Location.distanceBetween(
-                    ubicacionActual.getLatitude(),
-                    ubicacionActual.getLongitude(),
-                    n2.getLatitud(),
-                    n2.getLongitud(),
-                    results2
-                );
-
-                // Ordenar ascendente (más cercanas primero)
-                return Float.compare(results1[0], results2[0]);
-            }
-        });
+    @android.annotation.SuppressLint("NotifyDataSetChanged")
+    public void setNoticias(List<Noticia> noticias) {
+        this.noticias = noticias != null ? noticias : new ArrayList<>();
+        this.distanciasKm = null;
+        notifyDataSetChanged();
     }
 
     @NonNull
@@ -102,7 +70,8 @@ public class NoticiaMapaAdapter extends RecyclerView.Adapter<NoticiaMapaAdapter.
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
         Noticia noticia = noticias.get(position);
-        holder.bind(noticia);
+        double distanciaKm = distanciasKm != null ? distanciasKm[position] : Double.NaN;
+        holder.bind(noticia, distanciaKm);
     }
 
     @Override
@@ -128,7 +97,7 @@ public class NoticiaMapaAdapter extends RecyclerView.Adapter<NoticiaMapaAdapter.
             ivImagen = itemView.findViewById(R.id.iv_imagen);
         }
 
-        void bind(Noticia noticia) {
+        void bind(Noticia noticia, double distanciaKm) {
             // Categoría
             if (noticia.getCategoriaNombre() != null) {
                 tvCategoria.setText(noticia.getCategoriaNombre().toUpperCase(java.util.Locale.ROOT));
@@ -140,18 +109,9 @@ public class NoticiaMapaAdapter extends RecyclerView.Adapter<NoticiaMapaAdapter.
             tvTitulo.setText(noticia.getTitulo());
 
             // Metadata (distancia si hay ubicación)
-            if (ubicacionActual != null && noticia.getLatitud() != null && noticia.getLongitud() != null) {
-                float[] results = new float[1];
-                Location.distanceBetween(
-                        ubicacionActual.getLatitude(),
-                        ubicacionActual.getLongitude(),
-                        noticia.getLatitud(),
-                        noticia.getLongitud(),
-                        results
-                );
-                double distanciaKm = results[0] / 1000.0;
+            if (!Double.isNaN(distanciaKm)) {
                 if (distanciaKm < 1) {
-                    tvMetadata.setText(String.format(java.util.Locale.US, "%.0f m", results[0]));
+                    tvMetadata.setText(String.format(java.util.Locale.US, "%.0f m", distanciaKm * 1000));
                 } else {
                     tvMetadata.setText(String.format(java.util.Locale.US, "%.1f km", distanciaKm));
                 }
@@ -0,0 +1,307 @@
+package com.tesistitulacion.noticiaslocales.db;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Buffer local (SQLite) de incrementos de contadores pendientes de enviar a Firestore
+ *
+ * Los incrementos se agrupan por documento y campo: abrir 5 veces la misma noticia
+ * genera una sola fila con delta = 5. Para enviarlos, las filas pendientes (lote = 0)
+ * se marcan con un número de lote creciente. Ese lote queda "en vuelo" hasta que se
+ * confirma, y si el proceso muere a mitad del envío se reintenta el mismo lote
+ * (con el mismo número), lo que permite detectar en el servidor si ya se aplicó.
+ */
+public class ContadoresStore extends SQLiteOpenHelper {
+
+    private static final String TAG = "ContadoresStore";
+
+    private static final String DB_NAME = "contadores.db";
+    private static final int DB_VERSION = 1;
+
+    // Tabla de incrementos (lote = 0: pendiente, lote > 0: en vuelo)
+    private static final String TABLA_INCREMENTOS = "incrementos";
+    private static final String COL_COLECCION = "coleccion";
+    private static final String COL_DOCUMENTO = "documento";
+    private static final String COL_CAMPO = "campo";
+    private static final String COL_DELTA = "delta";
+    private static final String COL_LOTE = "lote";
+
+    // Tabla clave/valor (ID del dispositivo y secuencia de lotes)
+    private static final String TABLA_META = "meta";
+    private static final String COL_CLAVE = "clave";
+    private static final String COL_VALOR = "valor";
+    private static final String META_DISPOSITIVO_ID = "dispositivo_id";
+    private static final String META_SIGUIENTE_LOTE = "siguiente_lote";
+
+    private static final long LOTE_PENDIENTE = 0;
+
+    // Incrementos por lote: con la marca del dispositivo quedan 500 escrituras,
+    // el máximo de una transacción de Firestore
+    public static final int MAX_INCREMENTOS_POR_LOTE = 499;
+
+    private static ContadoresStore instance;
+
+    /**
+     * Incremento agrupado de un campo de un documento
+     */
+    public static class Incremento {
+        private final String coleccion;
+        private final String documento;
+        private final String campo;
+        private final long delta;
+
+        public Incremento(String coleccion, String documento, String campo, long delta) {
+            this.coleccion = coleccion;
+            this.documento = documento;
+            this.campo = campo;
+            this.delta = delta;
+        }
+
+        public String getColeccion() {
+            return coleccion;
+        }
+
+        public String getDocumento() {
+            return documento;
+        }
+
+        public String getCampo() {
+            return campo;
+        }
+
+        public long getDelta() {
+            return delta;
+        }
+    }
+
+    /**
+     * Grupo de incrementos que se envía en una sola escritura
+     */
+    public static class Lote {
+        private final long numero;
+        private final List<Incremento> incrementos;
+
+        Lote(long numero, List<Incremento> incrementos) {
+            this.numero = numero;
+            this.incrementos = Collections.unmodifiableList(incrementos);
+        }
+
+        public long getNumero() {
+            return numero;
+        }
+
+        public List<Incremento> getIncrementos() {
+            return incrementos;
+        }
+    }
+
+    /**
+     * Constructor privado (Singleton)
+     */
+    private ContadoresStore(Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+    }
+
+    /**
+     * Obtiene la instancia singleton
+     */
+    public static synchronized ContadoresStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ContadoresStore(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLA_INCREMENTOS + " ("
+                + COL_COLECCION + " TEXT NOT NULL, "
+                + COL_DOCUMENTO + " TEXT NOT NULL, "
+                + COL_CAMPO + " TEXT NOT NULL, "
+                + COL_DELTA + " INTEGER NOT NULL, "
+                + COL_LOTE + " INTEGER NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (" + COL_LOTE + ", " + COL_COLECCION + ", "
+                + COL_DOCUMENTO + ", " + COL_CAMPO + "))");
+
+        db.execSQL("CREATE TABLE " + TABLA_META + " ("
+                + COL_CLAVE + " TEXT PRIMARY KEY, "
+                + COL_VALOR + " TEXT NOT NULL)");
+
+        Log.i(TAG, "Base de datos de contadores creada");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Sin migraciones todavía (versión 1)
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Suma un delta al incremento pendiente de un campo (lo crea si no existe)
+     */
+    public void registrar(String coleccion, String documento, String campo, long delta) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.execSQL("UPDATE " + TABLA_INCREMENTOS + " SET " + COL_DELTA + " = " + COL_DELTA + " + ?"
+                            + " WHERE " + COL_LOTE + " = " + LOTE_PENDIENTE
+                            + " AND " + COL_COLECCION + " = ? AND " + COL_DOCUMENTO + " = ? AND " + COL_CAMPO + " = ?",
+                    new Object[]{delta, coleccion, documento, campo});
+
+            if (cambiosUltimaSentencia(db) == 0) {
+                ContentValues values = new ContentValues();
+                values.put(COL_COLECCION, coleccion);
+                values.put(COL_DOCUMENTO, documento);
+                values.put(COL_CAMPO, campo);
+                values.put(COL_DELTA, delta);
+                values.put(COL_LOTE, LOTE_PENDIENTE);
+                db.insertOrThrow(TABLA_INCREMENTOS, null, values);
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Devuelve el lote a enviar: el que quedó en vuelo (si existe) o uno nuevo con
+     * hasta MAX_INCREMENTOS_POR_LOTE incrementos pendientes (el resto va en los siguientes)
+     * @return null si no hay nada que enviar
+     */
+    public Lote prepararLote() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long enVuelo = DatabaseUtils.longForQuery(db,
+                    "SELECT IFNULL(MAX(" + COL_LOTE + "), 0) FROM " + TABLA_INCREMENTOS, null);
+
+            long numero;
+            if (enVuelo > LOTE_PENDIENTE) {
+                numero = enVuelo;
+                Log.i(TAG, "Reintentando lote en vuelo: " + numero);
+            } else {
+                if (DatabaseUtils.queryNumEntries(db, TABLA_INCREMENTOS) == 0) {
+                    db.setTransactionSuccessful();
+                    return null;
+                }
+
+                numero = siguienteLote(db);
+                ContentValues values = new ContentValues();
+                values.put(COL_LOTE, numero);
+                db.update(TABLA_INCREMENTOS, values,
+                        "rowid IN (SELECT rowid FROM " + TABLA_INCREMENTOS
+                                + " WHERE " + COL_LOTE + " = " + LOTE_PENDIENTE + " LIMIT ?)",
+                        new String[]{String.valueOf(MAX_INCREMENTOS_POR_LOTE)});
+            }
+
+            List<Incremento> incrementos = leerLote(db, numero);
+            db.setTransactionSuccessful();
+            return new Lote(numero, incrementos);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Elimina un lote ya aplicado en el servidor
+     */
+    public void confirmarLote(long numero) {
+        int eliminadas = getWritableDatabase().delete(TABLA_INCREMENTOS,
+                COL_LOTE + " = ?", new String[]{String.valueOf(numero)});
+        Log.d(TAG, "Lote " + numero + " confirmado (" + eliminadas + " incrementos)");
+    }
+
+    /**
+     * Quita de un lote en vuelo el incremento de un documento que ya no existe
+     * (el resto del lote se reintenta con el mismo número)
+     */
+    public void descartarIncremento(long numero, Incremento incremento) {
+        getWritableDatabase().delete(TABLA_INCREMENTOS,
+                COL_LOTE + " = ? AND " + COL_COLECCION + " = ? AND "
+                        + COL_DOCUMENTO + " = ? AND " + COL_CAMPO + " = ?",
+                new String[]{String.valueOf(numero), incremento.getColeccion(),
+                        incremento.getDocumento(), incremento.getCampo()});
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * true si hay incrementos pendientes o en vuelo
+     */
+    public boolean hayPendientes() {
+        return DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLA_INCREMENTOS) > 0;
+    }
+
+    /**
+     * ID aleatorio de esta instalación (se usa para la deduplicación de lotes en el servidor)
+     */
+    public synchronized String getDispositivoId() {
+        SQLiteDatabase db = getWritableDatabase();
+        String id = leerMeta(db, META_DISPOSITIVO_ID);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            escribirMeta(db, META_DISPOSITIVO_ID, id);
+        }
+        return id;
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private List<Incremento> leerLote(SQLiteDatabase db, long numero) {
+        List<Incremento> incrementos = new ArrayList<>();
+        Cursor cursor = db.query(TABLA_INCREMENTOS,
+                new String[]{COL_COLECCION, COL_DOCUMENTO, COL_CAMPO, COL_DELTA},
+                COL_LOTE + " = ?", new String[]{String.valueOf(numero)},
+                null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                incrementos.add(new Incremento(cursor.getString(0), cursor.getString(1),
+                        cursor.getString(2), cursor.getLong(3)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return incrementos;
+    }
+
+    private long siguienteLote(SQLiteDatabase db) {
+        String valor = leerMeta(db, META_SIGUIENTE_LOTE);
+        long numero = valor != null ? Long.parseLong(valor) : 1;
+        escribirMeta(db, META_SIGUIENTE_LOTE, String.valueOf(numero + 1));
+        return numero;
+    }
+
+    private String leerMeta(SQLiteDatabase db, String clave) {
+        Cursor cursor = db.query(TABLA_META, new String[]{COL_VALOR},
+                COL_CLAVE + " = ?", new String[]{clave}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void escribirMeta(SQLiteDatabase db, String clave, String valor) {
+        ContentValues values = new ContentValues();
+        values.put(COL_CLAVE, clave);
+        values.put(COL_VALOR, valor);
+        db.insertWithOnConflict(TABLA_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private int cambiosUltimaSentencia(SQLiteDatabase db) {
+        return (int) DatabaseUtils.longForQuery(db, "SELECT changes()", null);
+    }
+}
@@ -0,0 +1,415 @@
+package com.tesistitulacion.noticiaslocales.db;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Almacén local de noticias en SQLite, indexado por firestoreId
+ *
+ * Cada noticia se guarda en su propia fila (JSON de Gson) junto con las
+ * columnas que se usan para filtrar y ordenar:
+ * - fecha_creacion (índice para lecturas por rango y paginación)
+ * - categoria_id (índice compuesto con fecha)
+ * - parroquia_id (índice compuesto con fecha)
+ *
+ * La tabla "estadisticas" tiene una sola fila que los triggers mantienen
+ * actualizada, así cantidad y tamaño del caché se leen en O(1).
+ */
+public class NoticiaStore extends SQLiteOpenHelper {
+
+    private static final String TAG = "NoticiaStore";
+
+    private static final String DB_NAME = "noticias_store.db";
+    // 2: parroquia_id (id de la parroquia) en lugar del texto de ubicación
+    private static final int DB_VERSION = 2;
+
+    // Tabla de noticias
+    private static final String TABLA_NOTICIAS = "noticias";
+    private static final String COL_FIRESTORE_ID = "firestore_id";
+    private static final String COL_FECHA_CREACION = "fecha_creacion";
+    private static final String COL_CATEGORIA_ID = "categoria_id";
+    private static final String COL_PARROQUIA_ID = "parroquia_id";
+    private static final String COL_DATOS = "datos";
+    private static final String COL_TAMANIO = "tamanio";
+
+    // Tabla de estadísticas (una sola fila, id = 0)
+    private static final String TABLA_ESTADISTICAS = "estadisticas";
+    private static final String COL_CANTIDAD = "cantidad";
+    private static final String COL_TAMANIO_TOTAL = "tamanio_total";
+
+    private static final String[] COLUMNAS_DATOS = {COL_DATOS};
+    private static final String ORDEN_FECHA_DESC = COL_FECHA_CREACION + " DESC";
+
+    // Ids por consulta IN (SQLite admite hasta 999 parámetros)
+    private static final int MAX_IDS_POR_CONSULTA = 500;
+
+    private static NoticiaStore instance;
+    private final Gson gson;
+
+    /**
+     * Constructor privado (Singleton)
+     */
+    private NoticiaStore(Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+        gson = new Gson();
+    }
+
+    /**
+     * Obtiene la instancia singleton
+     */
+    public static synchronized NoticiaStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new NoticiaStore(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLA_NOTICIAS + " ("
+                + COL_FIRESTORE_ID + " TEXT PRIMARY KEY, "
+                + COL_FECHA_CREACION + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_CATEGORIA_ID + " INTEGER, "
+                + COL_PARROQUIA_ID + " INTEGER, "
+                + COL_DATOS + " TEXT NOT NULL, "
+                + COL_TAMANIO + " INTEGER NOT NULL)");
+
+        // Índices secundarios
+        db.execSQL("CREATE INDEX idx_noticias_fecha ON " + TABLA_NOTICIAS
+                + " (" + COL_FECHA_CREACION + ")");
+        db.execSQL("CREATE INDEX idx_noticias_categoria ON " + TABLA_NOTICIAS
+                + " (" + COL_CATEGORIA_ID + ", " + COL_FECHA_CREACION + ")");
+        db.execSQL("CREATE INDEX idx_noticias_parroquia ON " + TABLA_NOTICIAS
+                + " (" + COL_PARROQUIA_ID + ", " + COL_FECHA_CREACION + ")");
+
+        // Estadísticas mantenidas por triggers
+        db.execSQL("CREATE TABLE " + TABLA_ESTADISTICAS + " ("
+                + "id INTEGER PRIMARY KEY CHECK (id = 0), "
+                + COL_CANTIDAD + " INTEGER NOT NULL, "
+                + COL_TAMANIO_TOTAL + " INTEGER NOT NULL)");
+        db.execSQL("INSERT INTO " + TABLA_ESTADISTICAS + " VALUES (0, 0, 0)");
+
+        db.execSQL("CREATE TRIGGER trg_noticias_insert AFTER INSERT ON " + TABLA_NOTICIAS
+                + " BEGIN UPDATE " + TABLA_ESTADISTICAS + " SET "
+                + COL_CANTIDAD + " = " + COL_CANTIDAD + " + 1, "
+                + COL_TAMANIO_TOTAL + " = " + COL_TAMANIO_TOTAL + " + NEW." + COL_TAMANIO
+                + " WHERE id = 0; END");
+        db.execSQL("CREATE TRIGGER trg_noticias_delete AFTER DELETE ON " + TABLA_NOTICIAS
+                + " BEGIN UPDATE " + TABLA_ESTADISTICAS + " SET "
+                + COL_CANTIDAD + " = " + COL_CANTIDAD + " - 1, "
+                + COL_TAMANIO_TOTAL + " = " + COL_TAMANIO_TOTAL + " - OLD." + COL_TAMANIO
+                + " WHERE id = 0; END");
+        db.execSQL("CREATE TRIGGER trg_noticias_update AFTER UPDATE OF " + COL_TAMANIO
+                + " ON " + TABLA_NOTICIAS
+                + " BEGIN UPDATE " + TABLA_ESTADISTICAS + " SET "
+                + COL_TAMANIO_TOTAL + " = " + COL_TAMANIO_TOTAL
+                + " - OLD." + COL_TAMANIO + " + NEW." + COL_TAMANIO
+                + " WHERE id = 0; END");
+
+        Log.i(TAG, "Base de datos de noticias creada");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Es un caché: se reconstruye desde Firestore
+        db.execSQL("DROP TABLE IF EXISTS " + TABLA_NOTICIAS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLA_ESTADISTICAS);
+        onCreate(db);
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Inserta o actualiza una noticia
+     * @return true si se guardó
+     */
+    public boolean upsert(Noticia noticia) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            boolean guardada = upsertInterno(db, noticia);
+            db.setTransactionSuccessful();
+            return guardada;
+        } catch (Exception e) {
+            Log.e(TAG, "Error al guardar noticia", e);
+            return false;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Inserta o actualiza varias noticias en una sola transacción
+     * @return Cantidad de noticias guardadas
+     */
+    public int upsertAll(Collection<Noticia> noticias) {
+        if (noticias == null || noticias.isEmpty()) {
+            return 0;
+        }
+
+        int guardadas = 0;
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Noticia noticia : noticias) {
+                if (upsertInterno(db, noticia)) {
+                    guardadas++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            Log.e(TAG, "Error al guardar noticias", e);
+            guardadas = 0;
+        } finally {
+            db.endTransaction();
+        }
+        return guardadas;
+    }
+
+    /**
+     * UPDATE y, si no existía, INSERT.
+     * No se usa INSERT OR REPLACE porque no dispara el trigger de borrado
+     * y desajustaría las estadísticas.
+     */
+    private boolean upsertInterno(SQLiteDatabase db, Noticia noticia) {
+        if (noticia == null || noticia.getFirestoreId() == null) {
+            return false;
+        }
+
+        String json = gson.toJson(noticia);
+
+        ContentValues values = new ContentValues();
+        values.put(COL_FECHA_CREACION, noticia.getFechaCreacion() != null ? noticia.getFechaCreacion() : 0L);
+        values.put(COL_CATEGORIA_ID, noticia.getCategoriaId());
+        values.put(COL_PARROQUIA_ID, noticia.getParroquiaId());
+        values.put(COL_DATOS, json);
+        values.put(COL_TAMANIO, json.getBytes(StandardCharsets.UTF_8).length);
+
+        int actualizadas = db.update(TABLA_NOTICIAS, values,
+                COL_FIRESTORE_ID + " = ?", new String[]{noticia.getFirestoreId()});
+        if (actualizadas == 0) {
+            values.put(COL_FIRESTORE_ID, noticia.getFirestoreId());
+            return db.insert(TABLA_NOTICIAS, null, values) != -1;
+        }
+        return true;
+    }
+
+    /**
+     * Elimina una noticia por su firestoreId
+     * @return true si existía
+     */
+    public boolean eliminar(String firestoreId) {
+        if (firestoreId == null) return false;
+        return getWritableDatabase().delete(TABLA_NOTICIAS,
+                COL_FIRESTORE_ID + " = ?", new String[]{firestoreId}) > 0;
+    }
+
+    /**
+     * Elimina varias noticias en una transacción
+     * @return firestoreId de las que estaban y se eliminaron
+     */
+    public List<String> eliminarTodas(List<String> firestoreIds) {
+        List<String> eliminadas = new ArrayList<>();
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String firestoreId : firestoreIds) {
+                if (firestoreId != null && db.delete(TABLA_NOTICIAS,
+                        COL_FIRESTORE_ID + " = ?", new String[]{firestoreId}) > 0) {
+                    eliminadas.add(firestoreId);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Conserva solo las noticias más recientes
+     * @param maximo Cantidad máxima de noticias a conservar
+     * @return firestoreId de las noticias eliminadas
+     */
+    public List<String> podar(int maximo) {
+        List<String> eliminadas = new ArrayList<>();
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            // Las que quedan después de las "maximo" más recientes
+            Cursor cursor = db.rawQuery("SELECT " + COL_FIRESTORE_ID + " FROM " + TABLA_NOTICIAS
+                            + " ORDER BY " + ORDEN_FECHA_DESC + " LIMIT -1 OFFSET ?",
+                    new String[]{String.valueOf(maximo)});
+            try {
+                while (cursor.moveToNext()) {
+                    eliminadas.add(cursor.getString(0));
+                }
+            } finally {
+                cursor.close();
+            }
+
+            for (String firestoreId : eliminadas) {
+                db.delete(TABLA_NOTICIAS, COL_FIRESTORE_ID + " = ?", new String[]{firestoreId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Elimina todas las noticias
+     */
+    public void limpiar() {
+        getWritableDatabase().delete(TABLA_NOTICIAS, null, null);
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Obtiene una noticia por su firestoreId
+     * @return Noticia o null si no está en el almacén
+     */
+    public Noticia obtener(String firestoreId) {
+        if (firestoreId == null) return null;
+        List<Noticia> resultado = consultar(COL_FIRESTORE_ID + " = ?",
+                new String[]{firestoreId}, null, "1");
+        return resultado.isEmpty() ? null : resultado.get(0);
+    }
+
+    /**
+     * Obtiene las noticias con esos firestoreId que estén en el almacén (sin orden definido)
+     * Las que no están simplemente no aparecen en el resultado.
+     */
+    public List<Noticia> obtenerPorIds(List<String> firestoreIds) {
+        List<Noticia> noticias = new ArrayList<>();
+        if (firestoreIds == null) return noticias;
+
+        for (int inicio = 0; inicio < firestoreIds.size(); inicio += MAX_IDS_POR_CONSULTA) {
+            List<String> bloque = firestoreIds.subList(inicio,
+                    Math.min(inicio + MAX_IDS_POR_CONSULTA, firestoreIds.size()));
+
+            StringBuilder where = new StringBuilder(COL_FIRESTORE_ID).append(" IN (");
+            for (int i = 0; i < bloque.size(); i++) {
+                where.append(i == 0 ? "?" : ",?");
+            }
+            where.append(')');
+
+            noticias.addAll(consultar(where.toString(), bloque.toArray(new String[0]), null, null));
+        }
+        return noticias;
+    }
+
+    /**
+     * Obtiene las noticias más recientes
+     * @param limite Cantidad máxima de noticias
+     */
+    public List<Noticia> obtenerRecientes(int limite) {
+        return consultar(null, null, ORDEN_FECHA_DESC, String.valueOf(limite));
+    }
+
+    /**
+     * Obtiene las noticias publicadas antes de una fecha (paginación por cursor)
+     * @param fechaCursor Timestamp exclusivo desde el cual continuar
+     * @param limite Cantidad máxima de noticias
+     */
+    public List<Noticia> obtenerAnterioresA(long fechaCursor, int limite) {
+        return consultar(COL_FECHA_CREACION + " < ?",
+                new String[]{String.valueOf(fechaCursor)},
+                ORDEN_FECHA_DESC, String.valueOf(limite));
+    }
+
+    /**
+     * Obtiene las noticias publicadas dentro de un rango de fechas [desde, hasta]
+     */
+    public List<Noticia> obtenerEntreFechas(long desde, long hasta, int limite) {
+        return consultar(COL_FECHA_CREACION + " BETWEEN ? AND ?",
+                new String[]{String.valueOf(desde), String.valueOf(hasta)},
+                ORDEN_FECHA_DESC, String.valueOf(limite));
+    }
+
+    /**
+     * Obtiene las noticias de una categoría (más recientes primero)
+     */
+    public List<Noticia> obtenerPorCategoria(int categoriaId, int limite) {
+        return consultar(COL_CATEGORIA_ID + " = ?",
+                new String[]{String.valueOf(categoriaId)},
+                ORDEN_FECHA_DESC, String.valueOf(limite));
+    }
+
+    /**
+     * Obtiene las noticias de una parroquia (más recientes primero)
+     */
+    public List<Noticia> obtenerPorParroquia(int parroquiaId, int limite) {
+        return consultar(COL_PARROQUIA_ID + " = ?",
+                new String[]{String.valueOf(parroquiaId)},
+                ORDEN_FECHA_DESC, String.valueOf(limite));
+    }
+
+    private List<Noticia> consultar(String where, String[] args, String orden, String limite) {
+        List<Noticia> noticias = new ArrayList<>();
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().query(TABLA_NOTICIAS, COLUMNAS_DATOS,
+                    where, args, null, null, orden, limite);
+            while (cursor.moveToNext()) {
+                Noticia n = gson.fromJson(cursor.getString(0), Noticia.class);
+                if (n != null) {
+                    noticias.add(n);
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error al consultar noticias", e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return noticias;
+    }
+
+    // ==================== ESTADÍSTICAS (O(1)) ====================
+
+    /**
+     * Cantidad de noticias almacenadas
+     */
+    public int contar() {
+        return (int) leerEstadistica(COL_CANTIDAD);
+    }
+
+    /**
+     * Tamaño aproximado de los datos almacenados en bytes
+     */
+    public long getTamanioBytes() {
+        return leerEstadistica(COL_TAMANIO_TOTAL);
+    }
+
+    private long leerEstadistica(String columna) {
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().query(TABLA_ESTADISTICAS, new String[]{columna},
+                    "id = 0", null, null, null, null);
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        } catch (Exception e) {
+            Log.e(TAG, "Error al leer estadísticas", e);
+            return 0;
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.tesistitulacion.noticiaslocales.firebase;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+/**
+ * Cambio individual en el feed de noticias (derivado de DocumentChange)
+ *
+ * Los índices siguen la semántica de Firestore: aplicar los cambios en
+ * orden sobre la lista anterior produce la lista nueva. Los que entrega
+ * FirebaseManager cuentan todos los documentos; los que reenvía NoticiasFeed
+ * a sus observadores son de la lista de noticias válidas.
+ *
+ * Una ELIMINADA "desplazada" no se borró: salió del límite del listener porque
+ * entraron noticias más nuevas y ahora corresponde a la página siguiente.
+ */
+public class CambioNoticia {
+
+    public enum Tipo {
+        AGREGADA,
+        MODIFICADA,
+        ELIMINADA
+    }
+
+    private final Tipo tipo;
+    private final String firestoreId;
+    private final Noticia noticia;
+    private final int indiceAnterior; // -1 si es AGREGADA
+    private final int indiceNuevo;    // -1 si es ELIMINADA
+    private final boolean desplazada;
+
+    public CambioNoticia(Tipo tipo, String firestoreId, Noticia noticia,
+                         int indiceAnterior, int indiceNuevo) {
+        this(tipo, firestoreId, noticia, indiceAnterior, indiceNuevo, false);
+    }
+
+    public CambioNoticia(Tipo tipo, String firestoreId, Noticia noticia,
+                         int indiceAnterior, int indiceNuevo, boolean desplazada) {
+        this.tipo = tipo;
+        this.firestoreId = firestoreId;
+        this.noticia = noticia;
+        this.indiceAnterior = indiceAnterior;
+        this.indiceNuevo = indiceNuevo;
+        this.desplazada = desplazada;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getFirestoreId() {
+        return firestoreId;
+    }
+
+    /**
+     * Noticia convertida (null si es ELIMINADA, salvo desplazada: su última versión)
+     */
+    public Noticia getNoticia() {
+        return noticia;
+    }
+
+    public int getIndiceAnterior() {
+        return indiceAnterior;
+    }
+
+    public int getIndiceNuevo() {
+        return indiceNuevo;
+    }
+
+    /**
+     * true si es una ELIMINADA que solo salió del límite del listener (el documento existe)
+     */
+    public boolean isDesplazada() {
+        return desplazada;
+    }
+
+    @Override
+    public String toString() {
+        return "CambioNoticia{" + tipo + (desplazada ? " (desplazada)" : "") + ", " + firestoreId +
+                ", " + indiceAnterior + " -> " + indiceNuevo + '}';
+    }
+}
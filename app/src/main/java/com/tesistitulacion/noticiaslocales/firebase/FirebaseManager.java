@@ -8,26 +8,43 @@ import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.AuthResult;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FirebaseFirestoreSettings;
 import com.google.firebase.firestore.GeoPoint;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.tesistitulacion.noticiaslocales.BuildConfig;
+import com.tesistitulacion.noticiaslocales.db.ContadoresStore;
 import com.tesistitulacion.noticiaslocales.modelo.Categoria;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
 import com.tesistitulacion.noticiaslocales.modelo.Parroquia;
 import com.tesistitulacion.noticiaslocales.modelo.Usuario;
+import com.tesistitulacion.noticiaslocales.utils.Geohash;
+import com.tesistitulacion.noticiaslocales.utils.LocationHelper;
+import com.tesistitulacion.noticiaslocales.utils.NewsCache;
+import com.tesistitulacion.noticiaslocales.utils.ReferenciasCache;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Clase Helper para operaciones con Firebase Firestore
@@ -36,6 +53,7 @@ import java.util.Map;
 public class FirebaseManager {
 
     private static final String TAG = "FirebaseManager";
+
     private static FirebaseManager instance;
     private final FirebaseFirestore db;
 
@@ -45,11 +63,30 @@ public class FirebaseManager {
     public static final String COLLECTION_CATEGORIAS = "categorias";
     public static final String COLLECTION_USUARIOS = "usuarios";
     public static final String COLLECTION_NOTIFICACIONES = "notificaciones";
+    public static final String COLLECTION_CONTADORES_DISPOSITIVOS = "contadores_dispositivos";
+
+    // Tamaño de página del feed de noticias (primera carga y paginación)
+    public static final int TAMANIO_PAGINA = 20;
+
+    // Campo con el geohash de "ubicacion" (consultas por radio)
+    public static final String CAMPO_GEOHASH = "geohash";
+
+    // Máximo de valores en un whereIn (30 desde Firestore 24.x; 10 en SDKs anteriores)
+    public static final int MAX_IDS_POR_CONSULTA = 30;
+
+    // Consultas whereIn en curso a la vez al pedir noticias por ID
+    public static final int CONSULTAS_POR_IDS_SIMULTANEAS = 3;
 
     // Constructor privado (Singleton)
     private FirebaseManager() {
         db = FirebaseFirestore.getInstance();
 
+        // Build "benchmark": datos locales del emulador de Firestore en lugar del proyecto real
+        if (!BuildConfig.FIRESTORE_EMULATOR_HOST.isEmpty()) {
+            db.useEmulator(BuildConfig.FIRESTORE_EMULATOR_HOST, BuildConfig.FIRESTORE_EMULATOR_PORT);
+            Log.w(TAG, "Usando emulador de Firestore en " + BuildConfig.FIRESTORE_EMULATOR_HOST);
+        }
+
         // Habilitar persistencia offline para carga más rápida
         FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
                 .setPersistenceEnabled(true)
@@ -71,6 +108,7 @@ public class FirebaseManager {
 
     /**
      * Obtiene todas las parroquias
+     * Siempre consulta Firestore: para mostrar o resolver ids usar ReferenciasCache.catalogo()
      */
     public void getAllParroquias(final FirestoreCallback<List<Parroquia>> callback) {
         db.collection(COLLECTION_PARROQUIAS)
@@ -98,6 +136,7 @@ public class FirebaseManager {
 
     /**
      * Obtiene parroquias por tipo (urbana/rural)
+     * Siempre consulta Firestore: para mostrar o resolver ids usar ReferenciasCache.catalogo()
      */
     public void getParroquiasByTipo(String tipo, final FirestoreCallback<List<Parroquia>> callback) {
         db.collection(COLLECTION_PARROQUIAS)
@@ -128,6 +167,7 @@ public class FirebaseManager {
 
     /**
      * Obtiene todas las categorías activas
+     * Siempre consulta Firestore: para mostrar o resolver ids usar ReferenciasCache.catalogo()
      */
     public void getAllCategorias(final FirestoreCallback<List<Categoria>> callback) {
         db.collection(COLLECTION_CATEGORIAS)
@@ -163,7 +203,7 @@ public class FirebaseManager {
     public void getAllNoticias(final FirestoreCallback<List<Noticia>> callback) {
         db.collection(COLLECTION_NOTICIAS)
                 .orderBy("fechaPublicacion", Query.Direction.DESCENDING)
-                .limit(20) // Optimizado: solo 20 noticias iniciales
+                .limit(TAMANIO_PAGINA) // Optimizado: solo la primera página
                 .get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<Noticia> noticias = new ArrayList<>();
@@ -181,14 +221,111 @@ public class FirebaseManager {
                 });
     }
 
+    /**
+     * Obtiene una página del feed de noticias usando cursor (startAfter)
+     * El cursor es la última noticia de la página anterior: se continúa después de su
+     * fechaPublicacion y, para fechas repetidas, de su ID de documento.
+     * @param despuesDe Última noticia ya cargada (null para la primera página)
+     * @param tamanio Cantidad de noticias por página
+     */
+    public void getNoticiasPagina(Noticia despuesDe, int tamanio, final FirestoreCallback<List<Noticia>> callback) {
+        Query query = db.collection(COLLECTION_NOTICIAS)
+                .orderBy("fechaPublicacion", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+
+        if (despuesDe != null) {
+            if (despuesDe.getFechaPublicacionMillis() == null || despuesDe.getFirestoreId() == null) {
+                callback.onError(new IllegalArgumentException("Cursor de paginación sin fecha o ID"));
+                return;
+            }
+            query = query.startAfter(new Date(despuesDe.getFechaPublicacionMillis()), despuesDe.getFirestoreId());
+        }
+
+        query.limit(tamanio)
+                .get()
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    List<Noticia> noticias = new ArrayList<>();
+                    for (DocumentSnapshot doc : queryDocumentSnapshots) {
+                        Noticia n = documentToNoticia(doc);
+                        if (n != null) {
+                            noticias.add(n);
+                        }
+                    }
+                    callback.onSuccess(noticias);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error al obtener página de noticias", e);
+                    callback.onError(e);
+                });
+    }
+
+    /**
+     * Obtiene las noticias a menos de radioKm del punto, ordenadas de la más cercana a la más lejana
+     * Lanza en paralelo una consulta por cada rango de geohash que cubre el círculo, junta
+     * los resultados y descarta los que quedan fuera por distancia exacta (la distancia
+     * queda guardada en cada noticia). Solo se descargan noticias de las celdas cercanas.
+     * NOTA: Las noticias sin campo geohash (creadas antes de agregarlo) no aparecen.
+     */
+    public void getNoticiasCercanas(final double latitud, final double longitud, final double radioKm,
+                                    final FirestoreCallback<List<Noticia>> callback) {
+        List<String[]> rangos = Geohash.rangosParaRadio(latitud, longitud, radioKm);
+        final List<Task<QuerySnapshot>> consultas = new ArrayList<>(rangos.size());
+        for (String[] rango : rangos) {
+            consultas.add(db.collection(COLLECTION_NOTICIAS)
+                    .orderBy(CAMPO_GEOHASH)
+                    .startAt(rango[0])
+                    .endAt(rango[1])
+                    .get());
+        }
+
+        Tasks.whenAllComplete(consultas).addOnCompleteListener(tarea -> {
+            // Un documento puede venir en más de un rango: se junta por ID
+            Map<String, Noticia> porId = new HashMap<>();
+            Exception error = null;
+            int descargadas = 0;
+
+            for (Task<QuerySnapshot> consulta : consultas) {
+                if (!consulta.isSuccessful()) {
+                    error = consulta.getException();
+                    continue;
+                }
+                for (DocumentSnapshot doc : consulta.getResult()) {
+                    descargadas++;
+                    Noticia n = documentToNoticia(doc);
+                    if (n == null || n.getLatitud() == null || n.getLongitud() == null) continue;
+
+                    double distanciaKm = LocationHelper.calcularDistanciaKm(latitud, longitud,
+                            n.getLatitud(), n.getLongitud());
+                    if (distanciaKm <= radioKm) {
+                        n.setDistancia(distanciaKm);
+                        porId.put(doc.getId(), n);
+                    }
+                }
+            }
+
+            if (error != null && porId.isEmpty()) {
+                Log.e(TAG, "Error al obtener noticias cercanas", error);
+                callback.onError(error);
+                return;
+            }
+
+            List<Noticia> noticias = new ArrayList<>(porId.values());
+            Collections.sort(noticias, (a, b) -> Double.compare(a.getDistancia(), b.getDistancia()));
+            Log.d(TAG, "Noticias cercanas: " + noticias.size() + " de " + descargadas +
+                    " descargadas (" + consultas.size() + " rangos de geohash, " + radioKm + " km)");
+            callback.onSuccess(noticias);
+        });
+    }
+
     /**
      * Obtiene todas las noticias activas con actualizaciones en TIEMPO REAL
      * Se actualiza automáticamente cuando hay cambios en Firebase
+     * NOTA: Entrega la lista completa en cada snapshot. Para aplicar solo los cambios, usa NoticiasFeed
      */
     public void getAllNoticiasRealtime(final FirestoreCallback<List<Noticia>> callback) {
         db.collection(COLLECTION_NOTICIAS)
                 .orderBy("fechaPublicacion", Query.Direction.DESCENDING)
-                .limit(20) // Optimizado: solo 20 noticias
+                .limit(TAMANIO_PAGINA) // Optimizado: solo la primera página
                 .addSnapshotListener((querySnapshot, error) -> {
                     if (error != null) {
                         Log.e(TAG, "Error en listener de noticias", error);
@@ -211,6 +348,70 @@ public class FirebaseManager {
                 });
     }
 
+    /**
+     * Escucha cambios INCREMENTALES del feed de noticias
+     * Solo convierte los documentos que cambiaron en cada snapshot (getDocumentChanges),
+     * en lugar de reconstruir la lista completa. El primer snapshot llega como AGREGADAS.
+     * Los documentos que no se pueden convertir llegan con noticia null y los índices son
+     * los de Firestore (cuentan esos documentos): NoticiasFeed los traduce a la lista local.
+     * Con el límite lleno, un REMOVED que queda detrás del último documento solo salió de la
+     * ventana (otra noticia lo empujó): llega como ELIMINADA desplazada, con su última versión.
+     * @param limite Cantidad de noticias más recientes a escuchar
+     * @return Registro para detener el listener con remove()
+     */
+    public ListenerRegistration escucharCambiosNoticias(int limite, final NoticiasCambiosListener listener) {
+        // Mismo orden que getNoticiasPagina (fecha y desempate por id), así el cursor de la
+        // página siguiente continúa exactamente donde termina el feed
+        return db.collection(COLLECTION_NOTICIAS)
+                .orderBy("fechaPublicacion", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                .limit(limite)
+                .addSnapshotListener((querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Error en listener incremental de noticias", error);
+                        listener.onError(error);
+                        return;
+                    }
+
+                    if (querySnapshot == null) {
+                        return;
+                    }
+
+                    // Último documento de la ventana: lo que quede detrás salió por el límite
+                    Noticia ultima = null;
+                    if (querySnapshot.size() >= limite) {
+                        ultima = documentToNoticia(querySnapshot.getDocuments().get(querySnapshot.size() - 1));
+                    }
+
+                    List<CambioNoticia> cambios = new ArrayList<>();
+                    for (DocumentChange dc : querySnapshot.getDocumentChanges()) {
+                        DocumentSnapshot doc = dc.getDocument();
+                        switch (dc.getType()) {
+                            case ADDED:
+                                cambios.add(new CambioNoticia(CambioNoticia.Tipo.AGREGADA, doc.getId(),
+                                        documentToNoticia(doc), -1, dc.getNewIndex()));
+                                break;
+                            case MODIFIED:
+                                cambios.add(new CambioNoticia(CambioNoticia.Tipo.MODIFICADA, doc.getId(),
+                                        documentToNoticia(doc), dc.getOldIndex(), dc.getNewIndex()));
+                                break;
+                            case REMOVED:
+                                Noticia anterior = ultima != null ? documentToNoticia(doc) : null;
+                                if (anterior != null && NoticiasPaginador.vaDespues(anterior, ultima)) {
+                                    cambios.add(new CambioNoticia(CambioNoticia.Tipo.ELIMINADA, doc.getId(),
+                                            anterior, dc.getOldIndex(), -1, true));
+                                } else {
+                                    cambios.add(new CambioNoticia(CambioNoticia.Tipo.ELIMINADA, doc.getId(),
+                                            null, dc.getOldIndex(), -1));
+                                }
+                                break;
+                        }
+                    }
+
+                    listener.onCambios(cambios);
+                });
+    }
+
     /**
      * Obtiene noticias destacadas
      */
@@ -268,8 +469,143 @@ public class FirebaseManager {
                 });
     }
 
+    /**
+     * Obtiene varias noticias por ID: primero las del caché local y el resto con consultas
+     * whereIn(documentId) de hasta MAX_IDS_POR_CONSULTA ids, con a lo sumo maxSimultaneas
+     * consultas en curso a la vez. Cada bloque se entrega apenas está (onParcial) y al final
+     * llega onCompletado con los ids que no se pudieron obtener.
+     * @param cache Caché local (null = todo desde Firestore); lo descargado se guarda en él
+     */
+    public void getNoticiasPorIds(List<String> ids, NewsCache cache, int maxSimultaneas,
+                                  final NoticiasPorIdsCallback callback) {
+        // Sin repetidos ni vacíos, conservando el orden
+        Set<String> pendientes = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) pendientes.add(id);
+        }
+
+        if (cache == null || pendientes.isEmpty()) {
+            consultarPorIds(ids.size(), pendientes, cache, maxSimultaneas, callback);
+            return;
+        }
+
+        // El caché se lee en segundo plano; el resultado vuelve al hilo principal
+        cache.obtenerNoticias(new ArrayList<>(pendientes), enCache -> {
+            for (Noticia n : enCache) {
+                pendientes.remove(n.getFirestoreId());
+            }
+            if (!enCache.isEmpty()) {
+                callback.onParcial(enCache);
+            }
+            consultarPorIds(ids.size(), pendientes, cache, maxSimultaneas, callback);
+        });
+    }
+
+    /**
+     * Consulta en Firestore los ids que no estaban en el caché
+     */
+    private void consultarPorIds(int totalIds, Set<String> pendientes, NewsCache cache,
+                                 int maxSimultaneas, NoticiasPorIdsCallback callback) {
+        List<List<String>> bloques = new ArrayList<>();
+        List<String> restantes = new ArrayList<>(pendientes);
+        for (int inicio = 0; inicio < restantes.size(); inicio += MAX_IDS_POR_CONSULTA) {
+            bloques.add(restantes.subList(inicio, Math.min(inicio + MAX_IDS_POR_CONSULTA, restantes.size())));
+        }
+
+        Log.d(TAG, "Noticias por ID: " + (totalIds - restantes.size()) + " del caché, "
+                + restantes.size() + " en " + bloques.size() + " consultas");
+        new CargaPorIds(bloques, cache, Math.max(1, maxSimultaneas), callback).iniciar();
+    }
+
+    /**
+     * Estado de una carga por IDs (solo se usa desde el hilo principal)
+     */
+    private final class CargaPorIds {
+        private final List<List<String>> bloques;
+        private final NewsCache cache;
+        private final int maxSimultaneas;
+        private final NoticiasPorIdsCallback callback;
+        private final List<String> faltantes = new ArrayList<>();
+        private int siguiente = 0;
+        private int enCurso = 0;
+
+        CargaPorIds(List<List<String>> bloques, NewsCache cache, int maxSimultaneas,
+                    NoticiasPorIdsCallback callback) {
+            this.bloques = bloques;
+            this.cache = cache;
+            this.maxSimultaneas = maxSimultaneas;
+            this.callback = callback;
+        }
+
+        void iniciar() {
+            if (bloques.isEmpty()) {
+                callback.onCompletado(faltantes);
+                return;
+            }
+            while (enCurso < maxSimultaneas && siguiente < bloques.size()) {
+                consultar(bloques.get(siguiente++));
+            }
+        }
+
+        private void consultar(final List<String> bloque) {
+            enCurso++;
+            db.collection(COLLECTION_NOTICIAS)
+                    .whereIn(FieldPath.documentId(), bloque)
+                    .get()
+                    .addOnCompleteListener(tarea -> {
+                        enCurso--;
+                        if (tarea.isSuccessful()) {
+                            entregar(bloque, tarea.getResult());
+                        } else {
+                            Log.e(TAG, "Error al obtener noticias por ID", tarea.getException());
+                            faltantes.addAll(bloque);
+                        }
+
+                        if (siguiente < bloques.size()) {
+                            consultar(bloques.get(siguiente++));
+                        } else if (enCurso == 0) {
+                            callback.onCompletado(faltantes);
+                        }
+                    });
+        }
+
+        private void entregar(List<String> bloque, QuerySnapshot resultado) {
+            List<Noticia> noticias = new ArrayList<>(resultado.size());
+            Set<String> recibidos = new HashSet<>();
+            for (DocumentSnapshot doc : resultado) {
+                Noticia n = documentToNoticia(doc);
+                if (n != null) {
+                    noticias.add(n);
+                    recibidos.add(doc.getId());
+                }
+            }
+            for (String id : bloque) {
+                if (!recibidos.contains(id)) faltantes.add(id); // Eliminada o con error de conversión
+            }
+
+            // Respuesta del servidor sin el documento: se borró, no debe volver desde el caché
+            if (cache != null && !resultado.getMetadata().isFromCache()) {
+                Set<String> existentes = new HashSet<>();
+                for (DocumentSnapshot doc : resultado) existentes.add(doc.getId());
+                List<String> inexistentes = new ArrayList<>();
+                for (String id : bloque) {
+                    if (!existentes.contains(id)) inexistentes.add(id);
+                }
+                cache.eliminarNoticias(inexistentes);
+            }
+
+            if (!noticias.isEmpty()) {
+                if (cache != null) cache.guardarNoticias(noticias); // Se escribe en el hilo del caché
+                callback.onParcial(noticias);
+            }
+        }
+    }
+
     /**
      * Incrementa el contador de visualizaciones de una noticia
+     * Usa incremento atómico en el servidor (una sola escritura, sin leer antes).
+     * NOTA: Para contar aperturas desde la UI usa ContadoresManager, que agrupa
+     * los incrementos y los envía por lotes
      */
     public void incrementarVisualizaciones(String noticiaId) {
         if (noticiaId == null || noticiaId.isEmpty()) {
@@ -277,37 +613,15 @@ public class FirebaseManager {
             return;
         }
 
-        DocumentReference noticiaRef = db.collection(COLLECTION_NOTICIAS).document(noticiaId);
-
-        // Primero obtener el valor actual
-        noticiaRef.get().addOnSuccessListener(new OnSuccessListener<DocumentSnapshot>() {
-            @Override
-            public void onSuccess(DocumentSnapshot documentSnapshot) {
-                if (documentSnapshot.exists()) {
-                    Integer visualizacionesActuales = documentSnapshot.getLong("visualizaciones") != null ?
-                            documentSnapshot.getLong("visualizaciones").intValue() : 0;
-
-                    // Incrementar en 1
-                    Map<String, Object> updates = new HashMap<>();
-                    updates.put("visualizaciones", visualizacionesActuales + 1);
-
-                    noticiaRef.update(updates)
-                            .addOnSuccessListener(aVoid -> Log.d(TAG, "Visualizaciones incrementadas a: " + (visualizacionesActuales + 1)))
-                            .addOnFailureListener(e -> Log.e(TAG, "Error al incrementar visualizaciones", e));
-                } else {
-                    Log.w(TAG, "Noticia no encontrada al incrementar visualizaciones: " + noticiaId);
-                }
-            }
-        }).addOnFailureListener(new OnFailureListener() {
-            @Override
-            public void onFailure(@NonNull Exception e) {
-                Log.e(TAG, "Error al obtener noticia para incrementar visualizaciones", e);
-            }
-        });
+        db.collection(COLLECTION_NOTICIAS).document(noticiaId)
+                .update("visualizaciones", FieldValue.increment(1))
+                .addOnSuccessListener(aVoid -> Log.d(TAG, "Visualizaciones incrementadas: " + noticiaId))
+                .addOnFailureListener(e -> Log.e(TAG, "Error al incrementar visualizaciones", e));
     }
 
     /**
      * Incrementa el contador de noticias leídas del usuario
+     * Usa incremento atómico en el servidor (una sola escritura, sin leer antes)
      */
     public void incrementarNoticiasLeidas(String userId) {
         if (userId == null || userId.isEmpty()) {
@@ -315,32 +629,67 @@ public class FirebaseManager {
             return;
         }
 
-        DocumentReference usuarioRef = db.collection(COLLECTION_USUARIOS).document(userId);
-
-        // Primero obtener el valor actual
-        usuarioRef.get().addOnSuccessListener(new OnSuccessListener<DocumentSnapshot>() {
-            @Override
-            public void onSuccess(DocumentSnapshot documentSnapshot) {
-                if (documentSnapshot.exists()) {
-                    Integer noticiasLeidasActuales = documentSnapshot.getLong("noticiasLeidas") != null ?
-                            documentSnapshot.getLong("noticiasLeidas").intValue() : 0;
-
-                    // Incrementar en 1
-                    Map<String, Object> updates = new HashMap<>();
-                    updates.put("noticiasLeidas", noticiasLeidasActuales + 1);
-
-                    usuarioRef.update(updates)
-                            .addOnSuccessListener(aVoid -> Log.d(TAG, "Noticias leídas incrementadas a: " + (noticiasLeidasActuales + 1)))
-                            .addOnFailureListener(e -> Log.e(TAG, "Error al incrementar noticias leídas", e));
-                } else {
-                    Log.w(TAG, "Usuario no encontrado al incrementar noticias leídas: " + userId);
-                }
+        db.collection(COLLECTION_USUARIOS).document(userId)
+                .update("noticiasLeidas", FieldValue.increment(1))
+                .addOnSuccessListener(aVoid -> Log.d(TAG, "Noticias leídas incrementadas: " + userId))
+                .addOnFailureListener(e -> Log.e(TAG, "Error al incrementar noticias leídas", e));
+    }
+
+    /**
+     * Aplica un lote de incrementos agrupados en una sola transacción
+     * La transacción solo lee el documento del dispositivo (no los contadores), que guarda
+     * el último lote aplicado: si el lote ya se aplicó (p. ej. el proceso murió antes de
+     * confirmarlo localmente) no se vuelve a sumar.
+     * @return Task con true si se aplicó, false si ya estaba aplicado
+     */
+    public Task<Boolean> aplicarLoteContadores(String dispositivoId, ContadoresStore.Lote lote) {
+        final DocumentReference dispositivoRef =
+                db.collection(COLLECTION_CONTADORES_DISPOSITIVOS).document(dispositivoId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot dispositivo = transaction.get(dispositivoRef);
+            Long ultimoLote = dispositivo.getLong("ultimoLote");
+            if (ultimoLote != null && ultimoLote >= lote.getNumero()) {
+                return false;
             }
-        }).addOnFailureListener(new OnFailureListener() {
-            @Override
-            public void onFailure(@NonNull Exception e) {
-                Log.e(TAG, "Error al obtener usuario para incrementar noticias leídas", e);
+
+            for (ContadoresStore.Incremento inc : lote.getIncrementos()) {
+                transaction.update(db.collection(inc.getColeccion()).document(inc.getDocumento()),
+                        inc.getCampo(), FieldValue.increment(inc.getDelta()));
             }
+
+            Map<String, Object> marca = new HashMap<>();
+            marca.put("ultimoLote", lote.getNumero());
+            marca.put("fechaActualizacion", FieldValue.serverTimestamp());
+            transaction.set(dispositivoRef, marca, SetOptions.merge());
+            return true;
+        });
+    }
+
+    /**
+     * Incrementos de un lote cuyo documento ya no existe en el servidor (p. ej. noticia eliminada)
+     * Se usa solo cuando el lote falló con NOT_FOUND, para reintentarlo sin ellos; cada
+     * documento se lee una vez y en paralelo.
+     */
+    public Task<List<ContadoresStore.Incremento>> buscarIncrementosSinDocumento(ContadoresStore.Lote lote) {
+        final Map<String, Task<DocumentSnapshot>> lecturas = new HashMap<>();
+        for (ContadoresStore.Incremento inc : lote.getIncrementos()) {
+            DocumentReference ref = db.collection(inc.getColeccion()).document(inc.getDocumento());
+            if (!lecturas.containsKey(ref.getPath())) {
+                lecturas.put(ref.getPath(), ref.get(Source.SERVER));
+            }
+        }
+
+        return Tasks.whenAllSuccess(lecturas.values()).continueWith(tarea -> {
+            tarea.getResult(); // Propaga el error si alguna lectura falló
+            List<ContadoresStore.Incremento> sinDocumento = new ArrayList<>();
+            for (ContadoresStore.Incremento inc : lote.getIncrementos()) {
+                String ruta = db.collection(inc.getColeccion()).document(inc.getDocumento()).getPath();
+                if (!lecturas.get(ruta).getResult().exists()) {
+                    sinDocumento.add(inc);
+                }
+            }
+            return sinDocumento;
         });
     }
 
@@ -405,124 +754,13 @@ public class FirebaseManager {
 
     /**
      * Convierte DocumentSnapshot a Noticia
-     * Soporta campos multiidioma (titulo_es, titulo_en, etc.)
+     * Soporta campos multiidioma (titulo_es, titulo_en, etc.). Ver NoticiaMapper.
      */
     private Noticia documentToNoticia(DocumentSnapshot doc) {
         try {
-            Log.d(TAG, "Convirtiendo documento: " + doc.getId());
-            Noticia n = new Noticia();
-
-            // Guardar el ID de Firestore
-            n.setFirestoreId(doc.getId());
-
-            // Campos de texto (por defecto/fallback)
-            n.setTitulo(doc.getString("titulo"));
-            n.setDescripcion(doc.getString("descripcion"));
-            n.setContenido(doc.getString("contenido"));
-            n.setImagenUrl(doc.getString("imagenUrl"));
-
-            // Campos multiidioma - Español
-            n.setTitulo_es(doc.getString("titulo_es"));
-            n.setDescripcion_es(doc.getString("descripcion_es"));
-            n.setContenido_es(doc.getString("contenido_es"));
-
-            // Campos multiidioma - Inglés
-            n.setTitulo_en(doc.getString("titulo_en"));
-            n.setDescripcion_en(doc.getString("descripcion_en"));
-            n.setContenido_en(doc.getString("contenido_en"));
-
-            Log.d(TAG, "Título: " + doc.getString("titulo"));
-
-            // Ubicación de texto (Firestore usa "ubicacionTexto", modelo usa "ubicacion")
-            String ubicacionTexto = doc.getString("ubicacionTexto");
-            if (ubicacionTexto != null) {
-                n.setUbicacion(ubicacionTexto);
-            }
-
-            // GeoPoint para latitud/longitud
-            GeoPoint geoPoint = doc.getGeoPoint("ubicacion");
-            if (geoPoint != null) {
-                n.setLatitud(geoPoint.getLatitude());
-                n.setLongitud(geoPoint.getLongitude());
-            }
-
-            // Fechas (Firestore guarda como Date, convertir a Long timestamp)
-            Date fechaPub = doc.getDate("fechaPublicacion");
-            if (fechaPub != null) {
-                n.setFechaCreacion(fechaPub.getTime());
-            }
-
-            Date fechaCreacion = doc.getDate("fechaCreacion");
-            if (fechaCreacion != null) {
-                n.setFechaCreacion(fechaCreacion.getTime());
-            }
-
-            // Booleanos
-            Boolean destacada = doc.getBoolean("destacada");
-            if (destacada != null) {
-                n.setDestacada(destacada);
-            }
-
-            // Convertir "activa" booleano de Firestore a "estado" String del modelo
-            Boolean activa = doc.getBoolean("activa");
-            if (activa != null) {
-                n.setEstado(activa ? "published" : "archived");
-            }
-
-            // Números
-            Long visualizaciones = doc.getLong("visualizaciones");
-            if (visualizaciones != null) {
-                n.setVisualizaciones(visualizaciones.intValue());
-            }
-
-            // CategoriaId - puede ser DocumentReference o String
-            try {
-                Object categoriaIdObj = doc.get("categoriaId");
-                if (categoriaIdObj != null) {
-                    if (categoriaIdObj instanceof DocumentReference) {
-                        // Es una referencia de Firestore
-                        DocumentReference categoriaRef = (DocumentReference) categoriaIdObj;
-                        String categoriaId = categoriaRef.getId();
-                        n.setCategoriaId(Integer.parseInt(categoriaId));
-                    } else if (categoriaIdObj instanceof String) {
-                        // Es un string directo
-                        n.setCategoriaId(Integer.parseInt((String) categoriaIdObj));
-                    } else if (categoriaIdObj instanceof Long) {
-                        // Es un número
-                        n.setCategoriaId(((Long) categoriaIdObj).intValue());
-                    } else if (categoriaIdObj instanceof Integer) {
-                        // Es un integer
-                        n.setCategoriaId((Integer) categoriaIdObj);
-                    }
-                }
-            } catch (Exception e) {
-                Log.w(TAG, "No se pudo convertir categoriaId: " + e.getMessage());
-            }
-
-            // ParroquiaId - puede ser DocumentReference o String
-            try {
-                Object parroquiaIdObj = doc.get("parroquiaId");
-                if (parroquiaIdObj != null) {
-                    if (parroquiaIdObj instanceof DocumentReference) {
-                        // Es una referencia de Firestore
-                        DocumentReference parroquiaRef = (DocumentReference) parroquiaIdObj;
-                        String parroquiaId = parroquiaRef.getId();
-                        n.setAutorId(Integer.parseInt(parroquiaId)); // Nota: usando autorId como placeholder
-                    } else if (parroquiaIdObj instanceof String) {
-                        // Es un string directo - solo lo logueamos, no lo guardamos
-                        Log.d(TAG, "ParroquiaId (string): " + parroquiaIdObj);
-                    }
-                }
-            } catch (Exception e) {
-                Log.w(TAG, "No se pudo convertir parroquiaId: " + e.getMessage());
-            }
-
-            Log.d(TAG, "Noticia convertida exitosamente: " + n.getTitulo());
-            return n;
+            return NoticiaMapper.desdeDatos(doc.getId(), doc.getData(), ReferenciasCache.catalogo());
         } catch (Exception e) {
             Log.e(TAG, "Error convirtiendo documento a Noticia: " + doc.getId(), e);
-            Log.e(TAG, "Datos del documento: " + doc.getData());
-            e.printStackTrace();
             return null;
         }
     }
@@ -574,6 +812,7 @@ public class FirebaseManager {
 
         if (noticia.getLatitud() != null && noticia.getLongitud() != null) {
             map.put("ubicacion", new GeoPoint(noticia.getLatitud(), noticia.getLongitud()));
+            map.put(CAMPO_GEOHASH, Geohash.codificar(noticia.getLatitud(), noticia.getLongitud()));
         }
 
         return map;
@@ -829,6 +1068,26 @@ public class FirebaseManager {
 
     // ==================== CALLBACK INTERFACE ====================
 
+    /**
+     * Interface para recibir cambios incrementales del feed de noticias
+     */
+    public interface NoticiasCambiosListener {
+        void onCambios(List<CambioNoticia> cambios);
+
+        void onError(Exception e);
+    }
+
+    /**
+     * Interface para recibir noticias por ID a medida que llegan (ver getNoticiasPorIds)
+     */
+    public interface NoticiasPorIdsCallback {
+        // Noticias de un bloque (del caché o de una consulta), sin orden definido
+        void onParcial(List<Noticia> noticias);
+
+        // Terminaron todas las consultas; faltantes = ids inexistentes o cuya consulta falló
+        void onCompletado(List<String> faltantes);
+    }
+
     /**
      * Interface genérica para callbacks de Firestore
      * Soporta tanto Exception como String para errores
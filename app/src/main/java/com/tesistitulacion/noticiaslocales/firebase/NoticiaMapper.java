@@ -0,0 +1,190 @@
+package com.tesistitulacion.noticiaslocales.firebase;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.GeoPoint;
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+import com.tesistitulacion.noticiaslocales.utils.ReferenciasCache;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Conversión de documentos de la colección "noticias" a Noticia
+ *
+ * Trabaja sobre el mapa de datos del documento (DocumentSnapshot.getData(), leído una
+ * sola vez) en lugar de un getString/getDate por campo: cada getter del snapshot vuelve
+ * a buscar y convertir el valor. Las claves son constantes (literales internados) y no
+ * se usa reflexión (toObject).
+ *
+ * Un campo con tipo inesperado se ignora en vez de descartar toda la noticia.
+ * No escribe en el log: es una función pura, se puede medir y probar sin Firestore.
+ */
+public final class NoticiaMapper {
+
+    // ==================== CLAVES DE FIRESTORE ====================
+
+    static final String TITULO = "titulo";
+    static final String DESCRIPCION = "descripcion";
+    static final String CONTENIDO = "contenido";
+    static final String IMAGEN_URL = "imagenUrl";
+    static final String TITULO_ES = "titulo_es";
+    static final String DESCRIPCION_ES = "descripcion_es";
+    static final String CONTENIDO_ES = "contenido_es";
+    static final String TITULO_EN = "titulo_en";
+    static final String DESCRIPCION_EN = "descripcion_en";
+    static final String CONTENIDO_EN = "contenido_en";
+    static final String UBICACION_TEXTO = "ubicacionTexto"; // El modelo lo llama "ubicacion"
+    static final String UBICACION = "ubicacion";            // GeoPoint
+    static final String FECHA_PUBLICACION = "fechaPublicacion";
+    static final String FECHA_CREACION = "fechaCreacion";
+    static final String DESTACADA = "destacada";
+    static final String ACTIVA = "activa";
+    static final String VISUALIZACIONES = "visualizaciones";
+    static final String CATEGORIA_ID = "categoriaId";
+    static final String PARROQUIA_ID = "parroquiaId";
+
+    private NoticiaMapper() {
+    }
+
+    /**
+     * Crea la Noticia a partir del ID y los datos del documento
+     * @param datos Resultado de DocumentSnapshot.getData() (null si el documento no existe)
+     */
+    public static Noticia desdeDatos(String firestoreId, Map<String, Object> datos) {
+        Noticia n = new Noticia();
+        n.setFirestoreId(firestoreId);
+        if (datos == null) {
+            return n;
+        }
+
+        // Campos de texto (por defecto/fallback)
+        n.setTitulo(texto(datos.get(TITULO)));
+        n.setDescripcion(texto(datos.get(DESCRIPCION)));
+        n.setContenido(texto(datos.get(CONTENIDO)));
+        n.setImagenUrl(texto(datos.get(IMAGEN_URL)));
+
+        // Campos multiidioma
+        n.setTitulo_es(texto(datos.get(TITULO_ES)));
+        n.setDescripcion_es(texto(datos.get(DESCRIPCION_ES)));
+        n.setContenido_es(texto(datos.get(CONTENIDO_ES)));
+        n.setTitulo_en(texto(datos.get(TITULO_EN)));
+        n.setDescripcion_en(texto(datos.get(DESCRIPCION_EN)));
+        n.setContenido_en(texto(datos.get(CONTENIDO_EN)));
+
+        String ubicacionTexto = texto(datos.get(UBICACION_TEXTO));
+        if (ubicacionTexto != null) {
+            n.setUbicacion(ubicacionTexto);
+        }
+
+        Object ubicacion = datos.get(UBICACION);
+        if (ubicacion instanceof GeoPoint) {
+            GeoPoint geoPoint = (GeoPoint) ubicacion;
+            n.setLatitud(geoPoint.getLatitude());
+            n.setLongitud(geoPoint.getLongitude());
+        }
+
+        // Fechas (Firestore las entrega como Timestamp; se guardan como Long)
+        Long fechaPublicacion = milisegundos(datos.get(FECHA_PUBLICACION));
+        if (fechaPublicacion != null) {
+            n.setFechaCreacion(fechaPublicacion);
+            n.setFechaPublicacionMillis(fechaPublicacion);
+        }
+        Long fechaCreacion = milisegundos(datos.get(FECHA_CREACION));
+        if (fechaCreacion != null) {
+            n.setFechaCreacion(fechaCreacion);
+        }
+
+        Object destacada = datos.get(DESTACADA);
+        if (destacada instanceof Boolean) {
+            n.setDestacada((Boolean) destacada);
+        }
+
+        // "activa" (booleano en Firestore) → "estado" (String en el modelo)
+        Object activa = datos.get(ACTIVA);
+        if (activa instanceof Boolean) {
+            n.setEstado((Boolean) activa ? "published" : "archived");
+        }
+
+        Object visualizaciones = datos.get(VISUALIZACIONES);
+        if (visualizaciones instanceof Number) {
+            n.setVisualizaciones(((Number) visualizaciones).intValue());
+        }
+
+        // categoriaId: DocumentReference, String o número
+        Integer categoriaId = entero(datos.get(CATEGORIA_ID));
+        if (categoriaId != null) {
+            n.setCategoriaId(categoriaId);
+        }
+
+        // parroquiaId: DocumentReference, String o número
+        Integer parroquiaId = entero(datos.get(PARROQUIA_ID));
+        if (parroquiaId != null) {
+            n.setParroquiaId(parroquiaId);
+        }
+
+        return n;
+    }
+
+    /**
+     * Igual que desdeDatos(firestoreId, datos), completando los nombres de categoría y
+     * parroquia con el catálogo de referencia (sin lecturas extra a Firestore)
+     */
+    public static Noticia desdeDatos(String firestoreId, Map<String, Object> datos,
+                                     ReferenciasCache.Catalogo catalogo) {
+        Noticia n = desdeDatos(firestoreId, datos);
+        if (catalogo != null) {
+            catalogo.adjuntarNombres(n);
+        }
+        return n;
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private static String texto(Object valor) {
+        return valor instanceof String ? (String) valor : null;
+    }
+
+    private static Long milisegundos(Object valor) {
+        if (valor instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) valor;
+            return timestamp.getSeconds() * 1000L + timestamp.getNanoseconds() / 1_000_000;
+        }
+        if (valor instanceof Date) {
+            return ((Date) valor).getTime();
+        }
+        return null;
+    }
+
+    private static Integer entero(Object valor) {
+        if (valor instanceof DocumentReference) {
+            return parsearEntero(((DocumentReference) valor).getId());
+        }
+        if (valor instanceof String) {
+            return parsearEntero((String) valor);
+        }
+        if (valor instanceof Number) {
+            return ((Number) valor).intValue();
+        }
+        return null;
+    }
+
+    /**
+     * Integer.parseInt sin excepción (los IDs no numéricos se ignoran)
+     */
+    static Integer parsearEntero(String texto) {
+        if (texto == null || texto.isEmpty() || texto.length() > 10) return null;
+
+        int inicio = texto.charAt(0) == '-' ? 1 : 0;
+        if (inicio == texto.length()) return null;
+
+        long valor = 0;
+        for (int i = inicio; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') return null;
+            valor = valor * 10 + (c - '0');
+        }
+        if (inicio == 1) valor = -valor;
+        return valor >= Integer.MIN_VALUE && valor <= Integer.MAX_VALUE ? (int) valor : null;
+    }
+}
@@ -0,0 +1,253 @@
+package com.tesistitulacion.noticiaslocales.firebase;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.ListenerRegistration;
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo en memoria del feed de noticias en tiempo real, compartido por todas las pantallas
+ *
+ * Mantiene un único listener de Firestore mientras haya observadores y aplica
+ * los cambios incrementales (agregadas / modificadas / eliminadas) sobre la lista.
+ * Los observadores reciben la lista completa una sola vez y después solo los cambios,
+ * para parchear su estado en lugar de reconstruirlo.
+ *
+ * Debe usarse desde el hilo principal (los snapshots de Firestore llegan ahí).
+ *
+ * Los índices de Firestore cuentan también los documentos que no se pudieron
+ * convertir (noticia null), así que no sirven para la lista local. El feed guarda
+ * el orden completo de Firestore y reenvía cada cambio con los índices de la
+ * lista de noticias válidas que ven los observadores.
+ */
+public class NoticiasFeed {
+
+    private static final String TAG = "NoticiasFeed";
+
+    // Cantidad de noticias más recientes que se escuchan en tiempo real
+    public static final int LIMITE_TIEMPO_REAL = FirebaseManager.TAMANIO_PAGINA;
+
+    private static NoticiasFeed instance;
+
+    private final List<Noticia> noticias = new ArrayList<>();
+    private final Map<String, Noticia> noticiasPorId = new HashMap<>();
+    // Ids de todos los documentos en el orden de Firestore (incluye los inválidos)
+    private final List<String> ordenFirestore = new ArrayList<>();
+    private final List<Observador> observadores = new ArrayList<>();
+
+    private ListenerRegistration registro;
+    private boolean sincronizado = false;
+
+    /**
+     * Observador del feed
+     */
+    public interface Observador {
+        /**
+         * Estado completo del feed (al suscribirse o tras el primer snapshot)
+         */
+        void onNoticiasIniciales(List<Noticia> noticias);
+
+        /**
+         * Cambios aplicados desde la última notificación
+         */
+        void onNoticiasCambiadas(List<CambioNoticia> cambios);
+
+        void onError(Exception e);
+    }
+
+    private NoticiasFeed() {
+    }
+
+    public static synchronized NoticiasFeed getInstance() {
+        if (instance == null) {
+            instance = new NoticiasFeed();
+        }
+        return instance;
+    }
+
+    /**
+     * Registra un observador. Si el feed ya está sincronizado, recibe el estado actual de inmediato.
+     * El listener de Firestore se inicia con el primer observador.
+     */
+    public void suscribir(Observador observador) {
+        if (observador == null || observadores.contains(observador)) {
+            return;
+        }
+
+        observadores.add(observador);
+
+        if (sincronizado) {
+            observador.onNoticiasIniciales(getNoticias());
+        }
+
+        if (registro == null) {
+            iniciarListener();
+        }
+    }
+
+    /**
+     * Elimina un observador. El listener de Firestore se detiene con el último.
+     */
+    public void desuscribir(Observador observador) {
+        observadores.remove(observador);
+
+        if (observadores.isEmpty() && registro != null) {
+            registro.remove();
+            registro = null;
+
+            // Al reiniciar el listener, el primer snapshot vuelve a traer todo como AGREGADAS
+            noticias.clear();
+            noticiasPorId.clear();
+            ordenFirestore.clear();
+            sincronizado = false;
+            Log.d(TAG, "Listener de noticias detenido (sin observadores)");
+        }
+    }
+
+    /**
+     * Copia inmutable de las noticias actuales (orden del feed)
+     */
+    public List<Noticia> getNoticias() {
+        return Collections.unmodifiableList(new ArrayList<>(noticias));
+    }
+
+    /**
+     * Busca una noticia del feed por su firestoreId (O(1))
+     */
+    public Noticia getNoticia(String firestoreId) {
+        return noticiasPorId.get(firestoreId);
+    }
+
+    public boolean isSincronizado() {
+        return sincronizado;
+    }
+
+    private void iniciarListener() {
+        Log.d(TAG, "Iniciando listener incremental de noticias");
+        registro = FirebaseManager.getInstance().escucharCambiosNoticias(LIMITE_TIEMPO_REAL,
+                new FirebaseManager.NoticiasCambiosListener() {
+                    @Override
+                    public void onCambios(List<CambioNoticia> cambios) {
+                        aplicarCambios(cambios);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        for (Observador o : new ArrayList<>(observadores)) {
+                            o.onError(e);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Aplica los cambios en orden sobre la lista y notifica a los observadores
+     * Los cambios reenviados llevan índices de la lista local (sin documentos inválidos).
+     */
+    private void aplicarCambios(List<CambioNoticia> cambios) {
+        List<CambioNoticia> aplicados = new ArrayList<>(cambios.size());
+
+        for (CambioNoticia cambio : cambios) {
+            String id = cambio.getFirestoreId();
+
+            // Orden completo de Firestore: sus índices siempre son válidos aquí
+            int posicionAnterior = -1;
+            if (cambio.getTipo() != CambioNoticia.Tipo.AGREGADA) {
+                posicionAnterior = posicionFirestore(id, cambio.getIndiceAnterior());
+                if (posicionAnterior < 0) continue;
+                ordenFirestore.remove(posicionAnterior);
+            }
+            if (cambio.getTipo() != CambioNoticia.Tipo.ELIMINADA) {
+                ordenFirestore.add(Math.min(Math.max(cambio.getIndiceNuevo(), 0), ordenFirestore.size()), id);
+            }
+
+            // Lista local: quitar la versión anterior (si era válida)
+            int indiceAnterior = -1;
+            Noticia anterior = noticiasPorId.remove(id);
+            if (anterior != null) {
+                indiceAnterior = indiceDe(id);
+                noticias.remove(indiceAnterior);
+            }
+
+            // Y agregar la nueva en su posición entre las válidas
+            int indiceNuevo = -1;
+            Noticia noticia = cambio.getTipo() != CambioNoticia.Tipo.ELIMINADA ? cambio.getNoticia() : null;
+            if (noticia != null) {
+                indiceNuevo = indiceLocalPara(id);
+                noticias.add(indiceNuevo, noticia);
+                noticiasPorId.put(id, noticia);
+            }
+
+            if (indiceAnterior < 0 && indiceNuevo < 0) {
+                continue; // Documento inválido que no estaba en la lista
+            }
+            CambioNoticia.Tipo tipo = indiceAnterior < 0 ? CambioNoticia.Tipo.AGREGADA
+                    : indiceNuevo < 0 ? CambioNoticia.Tipo.ELIMINADA
+                    : CambioNoticia.Tipo.MODIFICADA;
+            if (cambio.isDesplazada()) {
+                // Sigue existiendo: la página siguiente la recibe con la versión que se mostraba
+                aplicados.add(new CambioNoticia(tipo, id, anterior, indiceAnterior, indiceNuevo, true));
+            } else {
+                aplicados.add(new CambioNoticia(tipo, id, noticia, indiceAnterior, indiceNuevo));
+            }
+        }
+
+        List<Observador> destinatarios = new ArrayList<>(observadores);
+        if (!sincronizado) {
+            sincronizado = true;
+            Log.i(TAG, "Feed sincronizado: " + noticias.size() + " noticias");
+            List<Noticia> estado = getNoticias();
+            for (Observador o : destinatarios) {
+                o.onNoticiasIniciales(estado);
+            }
+        } else if (!aplicados.isEmpty()) {
+            Log.d(TAG, "Cambios aplicados: " + aplicados.size());
+            for (Observador o : destinatarios) {
+                o.onNoticiasCambiadas(aplicados);
+            }
+        }
+    }
+
+    /**
+     * Posición de un documento en el orden de Firestore. Usa el índice sugerido si
+     * coincide (caso normal) y si no, lo busca por ID.
+     */
+    private int posicionFirestore(String firestoreId, int indiceSugerido) {
+        if (indiceSugerido >= 0 && indiceSugerido < ordenFirestore.size()
+                && firestoreId.equals(ordenFirestore.get(indiceSugerido))) {
+            return indiceSugerido;
+        }
+        return ordenFirestore.indexOf(firestoreId);
+    }
+
+    /**
+     * Posición actual de una noticia válida en la lista local
+     */
+    private int indiceDe(String firestoreId) {
+        for (int i = 0; i < noticias.size(); i++) {
+            if (firestoreId.equals(noticias.get(i).getFirestoreId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Índice local de un documento ya ubicado en ordenFirestore:
+     * cuántas noticias válidas tiene delante
+     */
+    private int indiceLocalPara(String firestoreId) {
+        int indice = 0;
+        for (String id : ordenFirestore) {
+            if (id.equals(firestoreId)) break;
+            if (noticiasPorId.containsKey(id)) indice++;
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,341 @@
+package com.tesistitulacion.noticiaslocales.firebase;
+
+import android.util.Log;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paginación por cursor del feed de noticias con ventana de memoria acotada
+ *
+ * La primera página es la del feed en tiempo real (NoticiasFeed); las siguientes se piden
+ * con startAfter sobre la última noticia cargada. Solo se mantienen MAX_PAGINAS_EN_MEMORIA
+ * páginas: al bajar se descartan las de arriba (guardando su cursor para volver a pedirlas)
+ * y al subir se descartan las de abajo. Mientras la lista está filtrada el descarte se
+ * pausa (setDescarteEnPausa) y la ventana vuelve al límite con las cargas siguientes.
+ *
+ * El feed en tiempo real tiene límite: cuando entra una noticia nueva, la última de la
+ * primera página sale del listener sin haberse borrado. Esa noticia pasa al inicio de la
+ * página siguiente, y el cursor de esa página se reancla al nuevo final de la primera.
+ *
+ * Debe usarse desde el hilo principal.
+ */
+public class NoticiasPaginador {
+
+    private static final String TAG = "NoticiasPaginador";
+
+    public static final int TAMANIO_PAGINA = FirebaseManager.TAMANIO_PAGINA;
+    public static final int MAX_PAGINAS_EN_MEMORIA = 5;
+
+    /**
+     * Eventos de la ventana de páginas
+     */
+    public interface Listener {
+        /**
+         * Se cargó una página al final (alFinal = true) o al inicio de la ventana
+         */
+        void onPaginaAgregada(boolean alFinal, List<Noticia> noticias);
+
+        /**
+         * Se descartó una página del final (delFinal = true) o del inicio de la ventana
+         */
+        void onPaginaDescartada(boolean delFinal, List<Noticia> noticias);
+
+        void onError(Exception e);
+    }
+
+    private static class Pagina {
+        Noticia cursor; // Noticia después de la cual empieza (null = primera página)
+        final List<Noticia> noticias;
+
+        Pagina(Noticia cursor, List<Noticia> noticias) {
+            this.cursor = cursor;
+            this.noticias = noticias;
+        }
+    }
+
+    private final LinkedList<Pagina> ventana = new LinkedList<>();
+    // Cursores de las páginas descartadas por arriba (la última es la más cercana)
+    private final List<Noticia> cursoresAnteriores = new ArrayList<>();
+    private final Listener listener;
+
+    private boolean cargando = false;
+    private boolean hayMasAlFinal = false;
+    private boolean descarteEnPausa = false;
+    // Noticias que salieron del feed mientras la primera página no estaba en la ventana
+    private int desplazadasSinVentana = 0;
+    private int generacion = 0; // Invalida respuestas de cargas anteriores a reiniciar()
+
+    public NoticiasPaginador(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reinicia la ventana con la primera página (estado inicial del feed o del caché)
+     */
+    public void reiniciar(List<Noticia> primeraPagina) {
+        generacion++;
+        cargando = false;
+        ventana.clear();
+        cursoresAnteriores.clear();
+        desplazadasSinVentana = 0;
+
+        List<Noticia> noticias = new ArrayList<>(primeraPagina);
+        ventana.add(new Pagina(null, noticias));
+        hayMasAlFinal = noticias.size() >= TAMANIO_PAGINA;
+    }
+
+    /**
+     * Noticias de la ventana actual, en orden
+     */
+    public List<Noticia> getNoticias() {
+        List<Noticia> resultado = new ArrayList<>();
+        for (Pagina pagina : ventana) {
+            resultado.addAll(pagina.noticias);
+        }
+        return resultado;
+    }
+
+    /**
+     * true si la primera página (la del feed en tiempo real) está en la ventana
+     */
+    public boolean incluyePrimeraPagina() {
+        return !ventana.isEmpty() && cursoresAnteriores.isEmpty();
+    }
+
+    public boolean hayPaginasAnteriores() {
+        return !cursoresAnteriores.isEmpty();
+    }
+
+    public boolean hayMasAlFinal() {
+        return hayMasAlFinal;
+    }
+
+    public boolean isCargando() {
+        return cargando;
+    }
+
+    /**
+     * Pausa el descarte de páginas (p. ej. mientras hay un filtro activo, para que las
+     * coincidencias ya cargadas no desaparezcan al seguir bajando)
+     * Al reanudarlo no se descarta nada de inmediato: la ventana vuelve a
+     * MAX_PAGINAS_EN_MEMORIA con las siguientes cargas.
+     */
+    public void setDescarteEnPausa(boolean pausado) {
+        descarteEnPausa = pausado;
+    }
+
+    /**
+     * Aplica un cambio del feed en tiempo real sobre la primera página
+     * Una noticia desplazada (salió del límite del feed) pasa a la página siguiente.
+     * @return false si la primera página no está en la ventana (el cambio se ignora)
+     */
+    public boolean aplicarCambioFeed(CambioNoticia cambio) {
+        if (!incluyePrimeraPagina()) {
+            // Al volver a pedir la segunda página hay que incluirlas (ver cargarAnterior)
+            if (cambio.isDesplazada()) desplazadasSinVentana++;
+            return false;
+        }
+
+        List<Noticia> primera = ventana.getFirst().noticias;
+        Noticia quitada = quitar(primera, cambio.getFirestoreId());
+
+        if (cambio.getTipo() != CambioNoticia.Tipo.ELIMINADA && cambio.getNoticia() != null) {
+            int posicion = Math.min(Math.max(cambio.getIndiceNuevo(), 0), primera.size());
+            primera.add(posicion, cambio.getNoticia());
+
+            // Entró al feed desde la página siguiente (p. ej. se borró una de la primera)
+            if (ventana.size() > 1) quitar(ventana.get(1).noticias, cambio.getFirestoreId());
+        } else if (cambio.isDesplazada()) {
+            pasarAPaginaSiguiente(quitada != null ? quitada : cambio.getNoticia());
+        }
+
+        // La página siguiente empieza donde termina ahora la primera
+        if (ventana.size() > 1 && !primera.isEmpty()) {
+            ventana.get(1).cursor = primera.get(primera.size() - 1);
+        }
+        return true;
+    }
+
+    /**
+     * true si a va después de b en el orden del feed (fecha descendente y desempate por id)
+     */
+    static boolean vaDespues(Noticia a, Noticia b) {
+        Long fechaA = a.getFechaPublicacionMillis();
+        Long fechaB = b.getFechaPublicacionMillis();
+        if (fechaA == null || fechaB == null || a.getFirestoreId() == null || b.getFirestoreId() == null) {
+            return false;
+        }
+        if (!fechaA.equals(fechaB)) return fechaA < fechaB;
+        return a.getFirestoreId().compareTo(b.getFirestoreId()) < 0;
+    }
+
+    /**
+     * Pide la página siguiente a la última cargada (prefetch al acercarse al final)
+     */
+    public void cargarSiguiente() {
+        if (cargando || !hayMasAlFinal || ventana.isEmpty()) {
+            return;
+        }
+
+        final Noticia cursor = ultimaNoticia();
+        if (cursor == null || cursor.getFechaPublicacionMillis() == null) {
+            // Datos del caché sin cursor válido: se pagina cuando llegue el feed
+            hayMasAlFinal = false;
+            return;
+        }
+
+        cargando = true;
+        final int generacionSolicitud = generacion;
+        Log.d(TAG, "Cargando página siguiente después de " + cursor.getFirestoreId());
+
+        FirebaseManager.getInstance().getNoticiasPagina(cursor, TAMANIO_PAGINA,
+                new FirebaseManager.FirestoreCallback<List<Noticia>>() {
+                    @Override
+                    public void onSuccess(List<Noticia> noticias) {
+                        if (generacionSolicitud != generacion) return;
+                        cargando = false;
+                        hayMasAlFinal = noticias.size() >= TAMANIO_PAGINA;
+
+                        if (noticias.isEmpty()) {
+                            return;
+                        }
+
+                        ventana.addLast(new Pagina(cursor, new ArrayList<>(noticias)));
+                        listener.onPaginaAgregada(true, noticias);
+
+                        while (!descarteEnPausa && ventana.size() > MAX_PAGINAS_EN_MEMORIA) {
+                            Pagina descartada = ventana.removeFirst();
+                            cursoresAnteriores.add(descartada.cursor);
+                            listener.onPaginaDescartada(false, descartada.noticias);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (generacionSolicitud != generacion) return;
+                        cargando = false;
+                        listener.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Vuelve a pedir la página descartada más cercana por arriba (al subir el scroll)
+     */
+    public void cargarAnterior() {
+        if (cargando || cursoresAnteriores.isEmpty()) {
+            return;
+        }
+
+        Noticia cursorGuardado = cursoresAnteriores.get(cursoresAnteriores.size() - 1);
+        int tamanio = TAMANIO_PAGINA;
+
+        // La primera página es la del feed en tiempo real: usar su estado actual si existe
+        NoticiasFeed feed = NoticiasFeed.getInstance();
+        List<Noticia> delFeed = feed.isSincronizado() ? feed.getNoticias() : null;
+        if (cursorGuardado == null && delFeed != null) {
+            agregarPaginaAnterior(null, delFeed);
+            return;
+        }
+
+        // La segunda página se reancla al final actual del feed y trae también las
+        // noticias que salieron de él mientras la primera no estaba en la ventana
+        if (cursoresAnteriores.size() == 2 && delFeed != null && !delFeed.isEmpty()) {
+            cursorGuardado = delFeed.get(delFeed.size() - 1);
+            tamanio += desplazadasSinVentana;
+        }
+
+        final Noticia cursor = cursorGuardado;
+        cargando = true;
+        final int generacionSolicitud = generacion;
+        Log.d(TAG, "Recargando página anterior");
+
+        FirebaseManager.getInstance().getNoticiasPagina(cursor, tamanio,
+                new FirebaseManager.FirestoreCallback<List<Noticia>>() {
+                    @Override
+                    public void onSuccess(List<Noticia> noticias) {
+                        if (generacionSolicitud != generacion) return;
+                        cargando = false;
+                        agregarPaginaAnterior(cursor, noticias);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (generacionSolicitud != generacion) return;
+                        cargando = false;
+                        listener.onError(e);
+                    }
+                });
+    }
+
+    private void agregarPaginaAnterior(Noticia cursor, List<Noticia> noticias) {
+        cursoresAnteriores.remove(cursoresAnteriores.size() - 1);
+        if (cursoresAnteriores.size() == 1) desplazadasSinVentana = 0;
+
+        // Al reanclar puede solaparse con la página de abajo: no repetir noticias
+        Set<String> enVentana = new HashSet<>();
+        for (Pagina pagina : ventana) {
+            for (Noticia noticia : pagina.noticias) enVentana.add(noticia.getFirestoreId());
+        }
+        List<Noticia> nuevas = new ArrayList<>(noticias.size());
+        for (Noticia noticia : noticias) {
+            if (!enVentana.contains(noticia.getFirestoreId())) nuevas.add(noticia);
+        }
+
+        ventana.addFirst(new Pagina(cursor, nuevas));
+        listener.onPaginaAgregada(false, nuevas);
+        if (ventana.size() > 1 && !nuevas.isEmpty()) {
+            ventana.get(1).cursor = nuevas.get(nuevas.size() - 1);
+        }
+
+        while (!descarteEnPausa && ventana.size() > MAX_PAGINAS_EN_MEMORIA) {
+            Pagina descartada = ventana.removeLast();
+            hayMasAlFinal = true;
+            listener.onPaginaDescartada(true, descartada.noticias);
+        }
+    }
+
+    /**
+     * Ubica una noticia desplazada del feed al inicio de la página siguiente (en orden)
+     * Si esa página no está cargada, la trae la próxima carga desde el final de la primera.
+     */
+    private void pasarAPaginaSiguiente(Noticia noticia) {
+        if (ventana.size() < 2) {
+            hayMasAlFinal = true;
+            return;
+        }
+        if (noticia == null) return;
+
+        List<Noticia> siguiente = ventana.get(1).noticias;
+        int posicion = 0;
+        while (posicion < siguiente.size() && vaDespues(noticia, siguiente.get(posicion))) {
+            posicion++;
+        }
+        siguiente.add(posicion, noticia);
+    }
+
+    private static Noticia quitar(List<Noticia> noticias, String firestoreId) {
+        for (int i = 0; i < noticias.size(); i++) {
+            if (firestoreId.equals(noticias.get(i).getFirestoreId())) {
+                return noticias.remove(i);
+            }
+        }
+        return null;
+    }
+
+    private Noticia ultimaNoticia() {
+        for (int i = ventana.size() - 1; i >= 0; i--) {
+            List<Noticia> noticias = ventana.get(i).noticias;
+            if (!noticias.isEmpty()) {
+                return noticias.get(noticias.size() - 1);
+            }
+        }
+        return null;
+    }
+}
@@ -28,8 +28,10 @@ public class Noticia {
     private String autorNombre;
     private Integer categoriaId;
     private String categoriaNombre;
+    private Integer parroquiaId; // Id de la parroquia (referencia "parroquiaId" en Firestore)
     private Long fechaCreacion;
     private Long fechaActualizacion;
+    private Long fechaPublicacionMillis; // fechaPublicacion de Firestore (cursor de paginación)
     private Integer visualizaciones;
     private Double latitud;
     private Double longitud;
@@ -186,6 +188,14 @@ public class Noticia {
         this.categoriaNombre = categoriaNombre;
     }
 
+    public Integer getParroquiaId() {
+        return parroquiaId;
+    }
+
+    public void setParroquiaId(Integer parroquiaId) {
+        this.parroquiaId = parroquiaId;
+    }
+
     public Double getLatitud() {
         return latitud;
     }
@@ -234,6 +244,14 @@ public class Noticia {
         this.fechaActualizacion = fechaActualizacion;
     }
 
+    public Long getFechaPublicacionMillis() {
+        return fechaPublicacionMillis;
+    }
+
+    public void setFechaPublicacionMillis(Long fechaPublicacionMillis) {
+        this.fechaPublicacionMillis = fechaPublicacionMillis;
+    }
+
     public Integer getVisualizaciones() {
         return visualizaciones;
     }
@@ -0,0 +1,237 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrupa noticias cercanas en un solo marcador (clustering) según el zoom
+ *
+ * Proyecta cada noticia a coordenadas de pantalla (Web Mercator, las mismas que usa
+ * Google Maps) y junta las que caen en la misma celda de una grilla fija en dp.
+ * Así la cantidad de marcadores depende del área visible y no de cuántas noticias
+ * haya; al acercar el zoom las celdas cubren menos terreno y los grupos se separan.
+ *
+ * Con agrupar(..., sur, oeste, norte, este) solo se consideran las noticias de la
+ * región indicada (la visible más un margen), así el costo tampoco crece con las
+ * noticias que quedan fuera de pantalla.
+ *
+ * La grilla usa el nivel entero de zoom, por lo que los grupos (y sus claves) son
+ * estables al desplazar el mapa y solo cambian al pasar de un nivel a otro.
+ *
+ * No depende de Android: se puede ejecutar en un hilo de fondo.
+ */
+public class AgrupadorMarcadores {
+
+    // Tamaño del mosaico base de Google Maps (dp a zoom 0)
+    private static final double TAMANIO_MOSAICO_DP = 256.0;
+
+    // Tamaño de celda por defecto en dp (≈ ancho de dos marcadores)
+    public static final double TAMANIO_CELDA_DP = 80.0;
+
+    // Desde este zoom ya no se agrupa: cada noticia tiene su marcador
+    public static final float ZOOM_SIN_AGRUPAR = 18f;
+
+    /**
+     * Grupo de noticias representado por un solo marcador
+     * Si tiene una sola noticia se dibuja como marcador normal.
+     */
+    public static class Grupo {
+        private final String clave;
+        private final List<Noticia> noticias;
+        private final double latitud;
+        private final double longitud;
+        private final double sur;
+        private final double oeste;
+        private final double norte;
+        private final double este;
+
+        Grupo(String clave, List<Noticia> noticias) {
+            this.clave = clave;
+            this.noticias = Collections.unmodifiableList(noticias);
+
+            double sumaLat = 0, sumaLon = 0;
+            double minLat = Double.MAX_VALUE, minLon = Double.MAX_VALUE;
+            double maxLat = -Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+            for (Noticia noticia : noticias) {
+                double lat = noticia.getLatitud();
+                double lon = noticia.getLongitud();
+                sumaLat += lat;
+                sumaLon += lon;
+                minLat = Math.min(minLat, lat);
+                maxLat = Math.max(maxLat, lat);
+                minLon = Math.min(minLon, lon);
+                maxLon = Math.max(maxLon, lon);
+            }
+            this.latitud = sumaLat / noticias.size();
+            this.longitud = sumaLon / noticias.size();
+            this.sur = minLat;
+            this.oeste = minLon;
+            this.norte = maxLat;
+            this.este = maxLon;
+        }
+
+        /**
+         * firestoreId si es una sola noticia; si no, identifica la celda y el nivel de zoom
+         */
+        public String getClave() {
+            return clave;
+        }
+
+        public List<Noticia> getNoticias() {
+            return noticias;
+        }
+
+        public int getCantidad() {
+            return noticias.size();
+        }
+
+        public boolean esIndividual() {
+            return noticias.size() == 1;
+        }
+
+        /**
+         * Primera noticia del grupo (la única si es individual)
+         */
+        public Noticia getNoticia() {
+            return noticias.get(0);
+        }
+
+        // Centroide del grupo (posición del marcador)
+        public double getLatitud() {
+            return latitud;
+        }
+
+        public double getLongitud() {
+            return longitud;
+        }
+
+        // Rectángulo que contiene todas las noticias (para expandir el grupo con zoom)
+        public double getSur() {
+            return sur;
+        }
+
+        public double getOeste() {
+            return oeste;
+        }
+
+        public double getNorte() {
+            return norte;
+        }
+
+        public double getEste() {
+            return este;
+        }
+    }
+
+    private final double tamanioCeldaDp;
+
+    public AgrupadorMarcadores() {
+        this(TAMANIO_CELDA_DP);
+    }
+
+    public AgrupadorMarcadores(double tamanioCeldaDp) {
+        if (tamanioCeldaDp <= 0) {
+            throw new IllegalArgumentException("El tamaño de celda debe ser positivo");
+        }
+        this.tamanioCeldaDp = tamanioCeldaDp;
+    }
+
+    /**
+     * Agrupa las noticias para el zoom indicado
+     * Las noticias sin coordenadas se ignoran; el orden de los grupos sigue el de la lista.
+     */
+    public List<Grupo> agrupar(List<Noticia> noticias, float zoom) {
+        List<Grupo> grupos = new ArrayList<>();
+        if (noticias == null || noticias.isEmpty()) return grupos;
+
+        boolean sinAgrupar = zoom >= ZOOM_SIN_AGRUPAR;
+        int nivel = (int) Math.floor(zoom);
+        double escala = TAMANIO_MOSAICO_DP * Math.pow(2, nivel);
+
+        Map<Long, List<Noticia>> celdas = new LinkedHashMap<>();
+        for (Noticia noticia : noticias) {
+            if (noticia == null || noticia.getLatitud() == null || noticia.getLongitud() == null) {
+                continue;
+            }
+
+            if (sinAgrupar) {
+                grupos.add(crearGrupo(noticia));
+                continue;
+            }
+
+            long x = (long) Math.floor(proyectarX(noticia.getLongitud()) * escala / tamanioCeldaDp);
+            long y = (long) Math.floor(proyectarY(noticia.getLatitud()) * escala / tamanioCeldaDp);
+            long clave = (x << 32) | (y & 0xFFFFFFFFL);
+
+            List<Noticia> celda = celdas.get(clave);
+            if (celda == null) {
+                celda = new ArrayList<>(2);
+                celdas.put(clave, celda);
+            }
+            celda.add(noticia);
+        }
+
+        for (Map.Entry<Long, List<Noticia>> entrada : celdas.entrySet()) {
+            List<Noticia> celda = entrada.getValue();
+            if (celda.size() == 1) {
+                grupos.add(crearGrupo(celda.get(0)));
+            } else {
+                grupos.add(new Grupo("grupo:" + nivel + ":" + entrada.getKey(), celda));
+            }
+        }
+        return grupos;
+    }
+
+    /**
+     * Agrupa solo las noticias dentro del rectángulo indicado (p. ej. la región visible con margen)
+     * Si oeste > este, el rectángulo cruza el antimeridiano.
+     */
+    public List<Grupo> agrupar(List<Noticia> noticias, float zoom,
+                               double sur, double oeste, double norte, double este) {
+        if (noticias == null || noticias.isEmpty()) return new ArrayList<>();
+
+        boolean cruzaAntimeridiano = oeste > este;
+        List<Noticia> enRegion = new ArrayList<>();
+        for (Noticia noticia : noticias) {
+            if (noticia == null || noticia.getLatitud() == null || noticia.getLongitud() == null) {
+                continue;
+            }
+            double lat = noticia.getLatitud();
+            double lon = noticia.getLongitud();
+            boolean dentroLon = cruzaAntimeridiano ? (lon >= oeste || lon <= este) : (lon >= oeste && lon <= este);
+            if (lat >= sur && lat <= norte && dentroLon) {
+                enRegion.add(noticia);
+            }
+        }
+        return agrupar(enRegion, zoom);
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private static Grupo crearGrupo(Noticia noticia) {
+        List<Noticia> una = new ArrayList<>(1);
+        una.add(noticia);
+        return new Grupo(noticia.getFirestoreId(), una);
+    }
+
+    /**
+     * Longitud a coordenada X normalizada [0, 1)
+     */
+    private static double proyectarX(double longitud) {
+        return (longitud + 180.0) / 360.0;
+    }
+
+    /**
+     * Latitud a coordenada Y normalizada [0, 1] (Mercator, norte arriba)
+     */
+    private static double proyectarY(double latitud) {
+        double seno = Math.sin(Math.toRadians(latitud));
+        seno = Math.min(Math.max(seno, -0.9999), 0.9999);
+        return 0.5 - Math.log((1 + seno) / (1 - seno)) / (4 * Math.PI);
+    }
+}
@@ -0,0 +1,304 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Orquestador del arranque: tareas de inicialización con dependencias
+ *
+ * Cada tarea corre en cuanto terminaron sus dependencias, en el hilo principal o en el
+ * executor de fondo; las independientes corren en paralelo. Una tarea avisa que terminó
+ * llamando a terminar (puede hacerlo después, desde un callback asíncrono).
+ *
+ * Las tareas críticas (y todo de lo que dependen) forman la ruta crítica: cuando termina,
+ * se avisa a cuandoTermineCritico() y el Splash puede navegar sin esperar al resto.
+ * Se mide cuánto tardó cada tarea para ver en qué se va el arranque en frío.
+ *
+ * Una tarea que falla cuenta como terminada (el arranque nunca queda colgado); el error
+ * queda en getErrores(). No depende de Android.
+ */
+public final class Arranque {
+
+    /**
+     * Trabajo de una tarea; debe llamar a terminar.run() exactamente cuando acabe
+     */
+    public interface Tarea {
+        void ejecutar(Runnable terminar) throws Exception;
+    }
+
+    /**
+     * Aviso de cada tarea terminada (desde el hilo que la terminó)
+     */
+    public interface Observador {
+        void onTareaTerminada(String nombre, long duracionMs, int terminadas, int total);
+    }
+
+    private final Executor fondo;
+    private final Executor principal;
+
+    // Tareas en orden de declaración (las dependencias siempre se declaran antes: no hay ciclos)
+    private final Map<String, Nodo> nodos = new LinkedHashMap<>();
+    private final Map<String, Long> duraciones = new LinkedHashMap<>();
+    private final Map<String, Exception> errores = new LinkedHashMap<>();
+    private final List<Runnable> alTerminarCritico = new ArrayList<>();
+    private final List<Runnable> alTerminarTodo = new ArrayList<>();
+
+    private volatile Observador observador;
+    private boolean iniciado;
+    private long inicioNanos;
+    private long duracionCriticaMs = -1;
+    private int criticasPendientes;
+    private int terminadas;
+
+    /**
+     * @param fondo Executor para las tareas de fondo (varios hilos para que corran en paralelo)
+     * @param principal Executor del hilo principal (tareas de UI y avisos de la ruta crítica)
+     */
+    public Arranque(Executor fondo, Executor principal) {
+        this.fondo = fondo;
+        this.principal = principal;
+    }
+
+    /**
+     * Declara una tarea. Las dependencias tienen que estar declaradas antes.
+     * @param enPrincipal true si debe correr en el hilo principal
+     * @param critica true si la navegación inicial tiene que esperarla
+     */
+    public synchronized Arranque tarea(String nombre, boolean enPrincipal, boolean critica,
+                                       Tarea tarea, String... dependencias) {
+        if (iniciado) {
+            throw new IllegalStateException("El arranque ya se inició");
+        }
+        if (nodos.containsKey(nombre)) {
+            throw new IllegalArgumentException("Tarea repetida: " + nombre);
+        }
+        Nodo nodo = new Nodo(nombre, enPrincipal, critica, tarea);
+        for (String dependencia : dependencias) {
+            Nodo previo = nodos.get(dependencia);
+            if (previo == null) {
+                throw new IllegalArgumentException("Dependencia no declarada: " + dependencia + " (de " + nombre + ")");
+            }
+            previo.dependientes.add(nodo);
+            nodo.pendientes++;
+        }
+        nodos.put(nombre, nodo);
+        return this;
+    }
+
+    public void setObservador(Observador observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Lanza las tareas sin dependencias; el resto se encadena solo
+     */
+    public void iniciar() {
+        List<Nodo> listas = new ArrayList<>();
+        boolean rutaCriticaVacia;
+        synchronized (this) {
+            if (iniciado) return;
+            iniciado = true;
+            inicioNanos = System.nanoTime();
+
+            marcarRutaCritica();
+            for (Nodo nodo : nodos.values()) {
+                if (nodo.critica) criticasPendientes++;
+                if (nodo.pendientes == 0) listas.add(nodo);
+            }
+            rutaCriticaVacia = criticasPendientes == 0;
+            if (rutaCriticaVacia) duracionCriticaMs = 0;
+        }
+
+        if (rutaCriticaVacia) avisarCritico();
+        if (nodos.isEmpty()) avisarTodo();
+        for (Nodo nodo : listas) {
+            lanzar(nodo);
+        }
+    }
+
+    /**
+     * Ejecuta la acción en el executor principal al terminar la ruta crítica
+     * (en seguida si ya terminó)
+     */
+    public void cuandoTermineCritico(Runnable accion) {
+        synchronized (this) {
+            if (duracionCriticaMs < 0) {
+                alTerminarCritico.add(accion);
+                return;
+            }
+        }
+        principal.execute(accion);
+    }
+
+    /**
+     * Ejecuta la acción (en el hilo que termine la última tarea) cuando terminaron todas
+     */
+    public void cuandoTermineTodo(Runnable accion) {
+        synchronized (this) {
+            if (!iniciado || terminadas < nodos.size()) {
+                alTerminarTodo.add(accion);
+                return;
+            }
+        }
+        accion.run();
+    }
+
+    public synchronized boolean terminoCritico() {
+        return duracionCriticaMs >= 0;
+    }
+
+    /**
+     * Milisegundos desde iniciar() hasta el fin de la ruta crítica (-1 si no terminó)
+     */
+    public synchronized long getDuracionCriticaMs() {
+        return duracionCriticaMs;
+    }
+
+    /**
+     * Duración de cada tarea terminada, en orden de finalización (copia)
+     */
+    public synchronized Map<String, Long> getDuraciones() {
+        return new LinkedHashMap<>(duraciones);
+    }
+
+    public synchronized Map<String, Exception> getErrores() {
+        return new LinkedHashMap<>(errores);
+    }
+
+    /**
+     * Texto para el log, p. ej. "ruta crítica 310 ms | preferencias 280 ms, sesion 2 ms (...)"
+     */
+    public synchronized String resumen() {
+        StringBuilder texto = new StringBuilder("ruta crítica ")
+                .append(duracionCriticaMs).append(" ms |");
+        boolean primera = true;
+        for (Map.Entry<String, Long> entrada : duraciones.entrySet()) {
+            texto.append(primera ? " " : ", ")
+                    .append(entrada.getKey()).append(' ')
+                    .append(entrada.getValue()).append(" ms");
+            if (errores.containsKey(entrada.getKey())) texto.append(" (error)");
+            primera = false;
+        }
+        return texto.toString();
+    }
+
+    // ==================== PRIVADOS ====================
+
+    /**
+     * Todo aquello de lo que depende una tarea crítica también es crítico
+     */
+    private void marcarRutaCritica() {
+        List<Nodo> orden = new ArrayList<>(nodos.values());
+        Set<Nodo> criticos = new HashSet<>();
+        for (int i = orden.size() - 1; i >= 0; i--) {
+            Nodo nodo = orden.get(i);
+            if (nodo.critica) {
+                criticos.add(nodo);
+                continue;
+            }
+            for (Nodo dependiente : nodo.dependientes) {
+                if (criticos.contains(dependiente)) {
+                    nodo.critica = true;
+                    criticos.add(nodo);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void lanzar(final Nodo nodo) {
+        (nodo.enPrincipal ? principal : fondo).execute(() -> ejecutar(nodo));
+    }
+
+    private void ejecutar(final Nodo nodo) {
+        final long inicio = System.nanoTime();
+        final AtomicBoolean hecho = new AtomicBoolean(false);
+        Runnable terminar = () -> {
+            if (hecho.compareAndSet(false, true)) terminada(nodo, inicio, null);
+        };
+        try {
+            nodo.tarea.ejecutar(terminar);
+        } catch (Exception e) {
+            if (hecho.compareAndSet(false, true)) terminada(nodo, inicio, e);
+        }
+    }
+
+    private void terminada(Nodo nodo, long inicio, Exception error) {
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        List<Nodo> listas = new ArrayList<>();
+        boolean criticoAhora = false;
+        boolean todoAhora;
+        int cuenta;
+        int total;
+        synchronized (this) {
+            duraciones.put(nodo.nombre, duracionMs);
+            if (error != null) errores.put(nodo.nombre, error);
+            terminadas++;
+            cuenta = terminadas;
+            total = nodos.size();
+
+            if (nodo.critica && --criticasPendientes == 0) {
+                duracionCriticaMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+                criticoAhora = true;
+            }
+            for (Nodo dependiente : nodo.dependientes) {
+                if (--dependiente.pendientes == 0) listas.add(dependiente);
+            }
+            todoAhora = terminadas == total;
+        }
+
+        Observador actual = observador;
+        if (actual != null) {
+            actual.onTareaTerminada(nodo.nombre, duracionMs, cuenta, total);
+        }
+        if (criticoAhora) avisarCritico();
+        for (Nodo lista : listas) {
+            lanzar(lista);
+        }
+        if (todoAhora) avisarTodo();
+    }
+
+    private void avisarCritico() {
+        List<Runnable> acciones;
+        synchronized (this) {
+            acciones = new ArrayList<>(alTerminarCritico);
+            alTerminarCritico.clear();
+        }
+        for (Runnable accion : acciones) {
+            principal.execute(accion);
+        }
+    }
+
+    private void avisarTodo() {
+        List<Runnable> acciones;
+        synchronized (this) {
+            acciones = new ArrayList<>(alTerminarTodo);
+            alTerminarTodo.clear();
+        }
+        for (Runnable accion : acciones) {
+            accion.run();
+        }
+    }
+
+    private static final class Nodo {
+        final String nombre;
+        final boolean enPrincipal;
+        final Tarea tarea;
+        final List<Nodo> dependientes = new ArrayList<>();
+        boolean critica;
+        int pendientes;
+
+        Nodo(String nombre, boolean enPrincipal, boolean critica, Tarea tarea) {
+            this.nombre = nombre;
+            this.enPrincipal = enPrincipal;
+            this.critica = critica;
+            this.tarea = tarea;
+        }
+    }
+}
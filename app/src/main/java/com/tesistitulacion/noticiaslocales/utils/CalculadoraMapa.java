@@ -0,0 +1,404 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cálculos del mapa fuera del hilo principal
+ *
+ * Cada pedido lleva una foto inmutable del estado (noticias, ubicación, cámara) y en
+ * un hilo de fondo se calcula todo lo que necesita la pantalla: filtro de proximidad,
+ * grupos de marcadores de la región visible, carrusel de más cercanas y contador de
+ * visibles. Al hilo principal solo llega el Resultado final para aplicarlo.
+ *
+ * Si llega un pedido nuevo (otra ubicación, otro snapshot del feed, la cámara se
+ * movió) los anteriores se cancelan: no se terminan de calcular ni se entregan.
+ *
+ * El índice espacial vive en el hilo de fondo y solo se actualiza cuando cambia
+ * la versión de las noticias. Los marcadores y el filtro de proximidad salen de
+ * consultas al índice (región visible o radio), no de recorrer todas las noticias. La preferencia "mostrar solo cercanas" (encriptada)
+ * también se lee ahí y se cachea hasta invalidarPreferencias().
+ */
+public class CalculadoraMapa {
+
+    private static final String TAG = "CalculadoraMapa";
+
+    // Radio de búsqueda para mostrar noticias cercanas (en kilómetros)
+    public static final double RADIO_BUSQUEDA_KM = 2.0; // Solo 2 km a la redonda (entorno inmediato)
+
+    // Radio para modo "ocultar noticias" (solo muy cercanas)
+    public static final double RADIO_OCULTAR_NOTICIAS_KM = 0.5; // 500 metros (muy cercanas)
+
+    // Límites para el carrusel de noticias
+    public static final int MAX_NOTICIAS_CARRUSEL = 8; // Mostrar máximo 8 noticias más cercanas
+    public static final double RADIO_CARRUSEL_KM = 5.0; // Solo noticias dentro de 5km
+
+    // Solo se materializan marcadores dentro de la región visible más este margen
+    // (fracción del alto/ancho visible en cada lado)
+    private static final double MARGEN_REGION_VISIBLE = 0.5;
+
+    /**
+     * Foto inmutable del estado de la pantalla para un cálculo
+     */
+    public static class Solicitud {
+        private final List<Noticia> noticias;
+        private final int versionNoticias;
+        private final Double latitud;
+        private final Double longitud;
+        private final float zoom;
+        private final double sur;
+        private final double oeste;
+        private final double norte;
+        private final double este;
+        private final boolean ajustarCamara;
+
+        /**
+         * @param noticias Lista que no se modificará después (p. ej. unmodifiableList de una copia)
+         * @param versionNoticias Cambia cada vez que cambia la lista (evita reindexar si no cambió)
+         * @param latitud Ubicación del usuario o null si no hay
+         * @param longitud Ubicación del usuario o null si no hay
+         * @param zoom Zoom actual de la cámara
+         * @param sur Región visible del mapa (sin margen)
+         * @param ajustarCamara true si al aplicar el resultado se debe encuadrar la cámara
+         */
+        public Solicitud(List<Noticia> noticias, int versionNoticias, Double latitud, Double longitud,
+                         float zoom, double sur, double oeste, double norte, double este,
+                         boolean ajustarCamara) {
+            this.noticias = noticias;
+            this.versionNoticias = versionNoticias;
+            this.latitud = latitud;
+            this.longitud = longitud;
+            this.zoom = zoom;
+            this.sur = sur;
+            this.oeste = oeste;
+            this.norte = norte;
+            this.este = este;
+            this.ajustarCamara = ajustarCamara;
+        }
+
+        public boolean tieneUbicacion() {
+            return latitud != null && longitud != null;
+        }
+    }
+
+    /**
+     * Todo lo que la pantalla necesita para actualizarse
+     */
+    public static class Resultado {
+        private final List<AgrupadorMarcadores.Grupo> grupos;
+        private final List<IndiceEspacial.Resultado> carruselCercanas;
+        private final List<Noticia> carruselSinUbicacion;
+        private final int cantidadEnMapa;
+        private final int cantidadFiltradas;
+        private final int cantidadVisibles;
+        private final int cantidadTotal;
+        private final boolean soloCercanas;
+        private final boolean ajustarCamara;
+        private final double[] limitesEnMapa;
+
+        Resultado(List<AgrupadorMarcadores.Grupo> grupos,
+                  List<IndiceEspacial.Resultado> carruselCercanas,
+                  List<Noticia> carruselSinUbicacion,
+                  int cantidadEnMapa, int cantidadFiltradas, int cantidadVisibles, int cantidadTotal,
+                  boolean soloCercanas, boolean ajustarCamara, double[] limitesEnMapa) {
+            this.grupos = grupos;
+            this.carruselCercanas = carruselCercanas;
+            this.carruselSinUbicacion = carruselSinUbicacion;
+            this.cantidadEnMapa = cantidadEnMapa;
+            this.cantidadFiltradas = cantidadFiltradas;
+            this.cantidadVisibles = cantidadVisibles;
+            this.cantidadTotal = cantidadTotal;
+            this.soloCercanas = soloCercanas;
+            this.ajustarCamara = ajustarCamara;
+            this.limitesEnMapa = limitesEnMapa;
+        }
+
+        /**
+         * Grupos de marcadores de la región visible (con margen)
+         */
+        public List<AgrupadorMarcadores.Grupo> getGrupos() {
+            return grupos;
+        }
+
+        /**
+         * Más cercanas con distancia, o null si no había ubicación
+         */
+        public List<IndiceEspacial.Resultado> getCarruselCercanas() {
+            return carruselCercanas;
+        }
+
+        /**
+         * Noticias para el carrusel cuando no hay ubicación (sin distancia)
+         */
+        public List<Noticia> getCarruselSinUbicacion() {
+            return carruselSinUbicacion;
+        }
+
+        public int getCantidadCarrusel() {
+            return carruselCercanas != null ? carruselCercanas.size() : carruselSinUbicacion.size();
+        }
+
+        /**
+         * Noticias que pasan el filtro de proximidad (con o sin marcador visible)
+         */
+        public int getCantidadEnMapa() {
+            return cantidadEnMapa;
+        }
+
+        public int getCantidadFiltradas() {
+            return cantidadFiltradas;
+        }
+
+        /**
+         * Noticias dentro de la región visible (sin margen)
+         */
+        public int getCantidadVisibles() {
+            return cantidadVisibles;
+        }
+
+        public int getCantidadTotal() {
+            return cantidadTotal;
+        }
+
+        public boolean isSoloCercanas() {
+            return soloCercanas;
+        }
+
+        public boolean isAjustarCamara() {
+            return ajustarCamara;
+        }
+
+        /**
+         * {sur, oeste, norte, este} de las noticias en el mapa, o null si no hay ninguna
+         */
+        public double[] getLimitesEnMapa() {
+            return limitesEnMapa;
+        }
+    }
+
+    public interface Receptor {
+        void onResultado(Resultado resultado);
+    }
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger generacion = new AtomicInteger();
+    private final AgrupadorMarcadores agrupador = new AgrupadorMarcadores();
+
+    // Solo se usan desde el hilo del executor
+    private final IndiceEspacial indice = new IndiceEspacial();
+    private final Map<String, Noticia> indexadas = new HashMap<>();
+    private boolean hayIndexadasSinId = false;
+    private int versionIndexada = -1;
+    private volatile Boolean soloCercanas;
+
+    public CalculadoraMapa(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Calcula en segundo plano y entrega el resultado en el hilo principal
+     * Cancela cualquier cálculo anterior que aún no se haya entregado.
+     */
+    public void calcular(final Solicitud solicitud, final Receptor receptor) {
+        final int miGeneracion = generacion.incrementAndGet();
+
+        executor.execute(() -> {
+            if (miGeneracion != generacion.get()) return; // Ya hay uno más nuevo en cola
+
+            try {
+                final Resultado resultado = calcularEnSegundoPlano(solicitud, miGeneracion);
+                if (resultado == null) return;
+
+                mainHandler.post(() -> {
+                    if (miGeneracion == generacion.get()) {
+                        receptor.onResultado(resultado);
+                    }
+                });
+            } catch (Exception e) {
+                Log.e(TAG, "Error calculando el mapa: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * La preferencia "mostrar solo cercanas" pudo cambiar: se vuelve a leer en el próximo cálculo
+     */
+    public void invalidarPreferencias() {
+        soloCercanas = null;
+    }
+
+    /**
+     * Cancela lo pendiente y libera el hilo (llamar en onDestroy)
+     */
+    public void detener() {
+        generacion.incrementAndGet();
+        executor.shutdownNow();
+    }
+
+    // ==================== PRIVADOS (hilo de fondo) ====================
+
+    /**
+     * @return null si el cálculo quedó obsoleto a mitad de camino
+     */
+    private Resultado calcularEnSegundoPlano(Solicitud s, int miGeneracion) {
+        if (versionIndexada != s.versionNoticias) {
+            reindexar(s.noticias);
+            versionIndexada = s.versionNoticias;
+        }
+
+        Boolean modo = soloCercanas;
+        if (modo == null) {
+            modo = UsuarioPreferences.getMostrarSoloCercanas(context);
+            soloCercanas = modo;
+        }
+
+        // 1. Región visible con margen: solo ahí se materializan marcadores
+        double margenLat = (s.norte - s.sur) * MARGEN_REGION_VISIBLE;
+        double anchoLon = s.este - s.oeste;
+        if (anchoLon < 0) anchoLon += 360; // Región que cruza el antimeridiano
+        double margenLon = Math.min(anchoLon * MARGEN_REGION_VISIBLE, (360 - anchoLon) / 2);
+
+        double surRegion = Math.max(s.sur - margenLat, -90);
+        double oesteRegion = normalizarLongitud(s.oeste - margenLon);
+        double norteRegion = Math.min(s.norte + margenLat, 90);
+        double esteRegion = normalizarLongitud(s.este + margenLon);
+
+        // 2. Filtro de proximidad y grupos de la región, siempre desde el índice espacial:
+        //    el costo depende de cuántas noticias se encuentran, no del total cargado
+        List<Noticia> enMapa = null; // Solo en modo cercanas (sin él, son todas las indexadas)
+        int cantidadEnMapa;
+        List<AgrupadorMarcadores.Grupo> grupos;
+        if (modo) {
+            enMapa = new ArrayList<>();
+            if (s.tieneUbicacion()) {
+                for (IndiceEspacial.Resultado r : indice.buscarEnRadio(s.latitud, s.longitud, RADIO_OCULTAR_NOTICIAS_KM)) {
+                    enMapa.add(r.getNoticia());
+                }
+            }
+            // Si modo cercanas está activo pero no hay ubicación, no mostrar nada
+            cantidadEnMapa = enMapa.size();
+            grupos = agrupador.agrupar(enMapa, s.zoom, surRegion, oesteRegion, norteRegion, esteRegion);
+        } else {
+            cantidadEnMapa = indice.tamanio();
+            grupos = agrupador.agrupar(
+                    indice.buscarEnRectangulo(surRegion, oesteRegion, norteRegion, esteRegion), s.zoom);
+        }
+        if (miGeneracion != generacion.get()) return null;
+
+        // 3. Carrusel: las k más cercanas con GPS, si no las primeras con coordenadas
+        List<IndiceEspacial.Resultado> carruselCercanas = null;
+        List<Noticia> carruselSinUbicacion = Collections.emptyList();
+        if (s.tieneUbicacion()) {
+            carruselCercanas = indice.buscarMasCercanas(s.latitud, s.longitud,
+                    MAX_NOTICIAS_CARRUSEL, RADIO_CARRUSEL_KM);
+        } else {
+            carruselSinUbicacion = new ArrayList<>(MAX_NOTICIAS_CARRUSEL);
+            for (Noticia n : s.noticias) {
+                if (carruselSinUbicacion.size() >= MAX_NOTICIAS_CARRUSEL) break;
+                if (n.getLatitud() != null && n.getLongitud() != null) {
+                    carruselSinUbicacion.add(n);
+                }
+            }
+        }
+
+        // 4. Contador de noticias en la región visible
+        int visibles = indice.contarEnRectangulo(s.sur, s.oeste, s.norte, s.este);
+
+        // Encuadrar la cámara (poco frecuente) sí necesita recorrer todas las del mapa
+        double[] limitesEnMapa = null;
+        if (s.ajustarCamara) {
+            limitesEnMapa = limites(enMapa != null ? enMapa : s.noticias);
+        }
+
+        return new Resultado(grupos, carruselCercanas, carruselSinUbicacion,
+                cantidadEnMapa, indice.tamanio() - cantidadEnMapa, visibles, s.noticias.size(),
+                modo, s.ajustarCamara, limitesEnMapa);
+    }
+
+    /**
+     * Límites de las noticias con coordenadas, o null si no hay ninguna
+     */
+    private static double[] limites(List<Noticia> noticias) {
+        double sur = 90, oeste = 180, norte = -90, este = -180;
+        boolean hayAlguna = false;
+        for (Noticia n : noticias) {
+            if (n.getLatitud() == null || n.getLongitud() == null) continue;
+            hayAlguna = true;
+            sur = Math.min(sur, n.getLatitud());
+            norte = Math.max(norte, n.getLatitud());
+            oeste = Math.min(oeste, n.getLongitud());
+            este = Math.max(este, n.getLongitud());
+        }
+        return hayAlguna ? new double[]{sur, oeste, norte, este} : null;
+    }
+
+    private static double normalizarLongitud(double longitud) {
+        if (longitud > 180) return longitud - 360;
+        if (longitud < -180) return longitud + 360;
+        return longitud;
+    }
+
+    /**
+     * Actualiza el índice espacial con la nueva foto de noticias
+     * Compara por firestoreId e instancia (una noticia modificada llega como instancia nueva):
+     * un cambio del feed solo reindexa las noticias que cambiaron, no todo el mapa.
+     */
+    private void reindexar(List<Noticia> noticias) {
+        if (hayIndexadasSinId) {
+            // Las noticias sin id no se pueden quitar por id: se empieza de cero
+            indice.limpiar();
+            indexadas.clear();
+            hayIndexadasSinId = false;
+        }
+
+        Set<String> vigentes = new HashSet<>();
+        int agregadas = 0;
+
+        for (Noticia noticia : noticias) {
+            String id = noticia.getFirestoreId();
+            if (id == null) { // No pasa con datos de Firestore
+                indice.agregar(noticia);
+                hayIndexadasSinId = true;
+                continue;
+            }
+
+            vigentes.add(id);
+            if (indexadas.get(id) != noticia) {
+                indice.agregar(noticia);
+                indexadas.put(id, noticia);
+                agregadas++;
+            }
+        }
+
+        int eliminadas = 0;
+        Iterator<Map.Entry<String, Noticia>> it = indexadas.entrySet().iterator();
+        while (it.hasNext()) {
+            String id = it.next().getKey();
+            if (!vigentes.contains(id)) {
+                indice.eliminar(id);
+                it.remove();
+                eliminadas++;
+            }
+        }
+
+        Log.d(TAG, "Índice espacial actualizado: +" + agregadas + " -" + eliminadas + " (" + indexadas.size() + " noticias)");
+    }
+}
@@ -0,0 +1,113 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+/**
+ * Componente pesado compartido por todo el proceso (motor de TTS, traductor de ML Kit)
+ *
+ * Se crea recién en el primer adquirir() o en calentar() (p. ej. cuando el hilo
+ * principal queda ocioso), no al abrir la pantalla. Cada pantalla que lo usa lo adquiere
+ * y lo suelta: mientras alguien lo tenga sigue vivo, y cuando nadie lo usa se libera
+ * tras un tiempo de inactividad. Volver a adquirirlo antes de ese plazo reutiliza la
+ * misma instancia.
+ *
+ * Pensado para usarse desde el hilo principal (los temporizadores corren ahí). No depende
+ * de Android: el temporizador lo provee quien lo crea (un Handler en la app).
+ */
+public final class ComponenteCompartido<T> {
+
+    /**
+     * Crea y libera la instancia
+     */
+    public interface Fabrica<T> {
+        T crear();
+
+        void liberar(T instancia);
+    }
+
+    /**
+     * Programa acciones diferidas (Handler.postDelayed / removeCallbacks)
+     */
+    public interface Temporizador {
+        void programar(Runnable accion, long retrasoMs);
+
+        void cancelar(Runnable accion);
+    }
+
+    private final String nombre;
+    private final Fabrica<T> fabrica;
+    private final Temporizador temporizador;
+    private final long inactividadMs;
+    private final Runnable liberarPorInactividad = this::liberarSiNadieLoUsa;
+
+    private T instancia;
+    private int referencias;
+
+    public ComponenteCompartido(String nombre, Fabrica<T> fabrica, Temporizador temporizador, long inactividadMs) {
+        this.nombre = nombre;
+        this.fabrica = fabrica;
+        this.temporizador = temporizador;
+        this.inactividadMs = inactividadMs;
+    }
+
+    /**
+     * Devuelve la instancia (creándola si hace falta) y suma una referencia
+     * Cada adquirir() necesita su soltar().
+     */
+    public synchronized T adquirir() {
+        temporizador.cancelar(liberarPorInactividad);
+        referencias++;
+        return obtenerOCrear();
+    }
+
+    /**
+     * Resta una referencia; sin referencias, se libera tras el tiempo de inactividad
+     */
+    public synchronized void soltar() {
+        if (referencias == 0) return;
+        if (--referencias == 0) {
+            temporizador.programar(liberarPorInactividad, inactividadMs);
+        }
+    }
+
+    /**
+     * Crea la instancia por adelantado sin tomar una referencia
+     * Si nadie la adquiere dentro del tiempo de inactividad, se vuelve a liberar.
+     */
+    public synchronized void calentar() {
+        if (instancia != null) return;
+        obtenerOCrear();
+        if (referencias == 0) {
+            temporizador.programar(liberarPorInactividad, inactividadMs);
+        }
+    }
+
+    /**
+     * Libera la instancia en el momento si nadie la está usando (p. ej. con poca memoria)
+     */
+    public synchronized void liberarSiNadieLoUsa() {
+        if (referencias > 0 || instancia == null) return;
+        temporizador.cancelar(liberarPorInactividad);
+        T liberada = instancia;
+        instancia = null;
+        fabrica.liberar(liberada);
+    }
+
+    public synchronized boolean estaCreado() {
+        return instancia != null;
+    }
+
+    public synchronized int getReferencias() {
+        return referencias;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+
+    private T obtenerOCrear() {
+        if (instancia == null) {
+            instancia = fabrica.crear();
+        }
+        return instancia;
+    }
+}
@@ -0,0 +1,203 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.tesistitulacion.noticiaslocales.db.ContadoresStore;
+import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
+import com.tesistitulacion.noticiaslocales.workers.ContadoresFlushWorker;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gestor de contadores (visualizaciones, noticias leídas)
+ *
+ * En lugar de leer y escribir el contador en cada apertura, los incrementos se
+ * guardan en un buffer local persistente (ContadoresStore) y se envían agrupados
+ * con incrementos atómicos del servidor:
+ * - A los RETRASO_FLUSH_SEGUNDOS del primer incremento pendiente
+ * - Inmediatamente cuando la app pasa a segundo plano
+ * El envío lo hace ContadoresFlushWorker (WorkManager), así sobrevive a la muerte
+ * del proceso y espera a que haya conexión.
+ */
+public class ContadoresManager {
+
+    private static final String TAG = "ContadoresManager";
+
+    public static final long RETRASO_FLUSH_SEGUNDOS = 30;
+    private static final long TIMEOUT_ENVIO_SEGUNDOS = 30;
+
+    private static final String WORK_FLUSH = "contadores_flush";
+    private static final String WORK_FLUSH_INMEDIATO = "contadores_flush_inmediato";
+
+    private static final String CAMPO_VISUALIZACIONES = "visualizaciones";
+    private static final String CAMPO_NOTICIAS_LEIDAS = "noticiasLeidas";
+
+    private static ContadoresManager instance;
+
+    private final Context context;
+    private final ContadoresStore store;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Object lockEnvio = new Object();
+
+    /**
+     * Constructor privado (Singleton)
+     */
+    private ContadoresManager(Context context) {
+        this.context = context.getApplicationContext();
+        this.store = ContadoresStore.getInstance(this.context);
+    }
+
+    /**
+     * Obtiene la instancia singleton
+     */
+    public static synchronized ContadoresManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new ContadoresManager(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Registra una visualización de la noticia
+     */
+    public void registrarVisualizacion(String noticiaId) {
+        registrar(FirebaseManager.COLLECTION_NOTICIAS, noticiaId, CAMPO_VISUALIZACIONES);
+    }
+
+    /**
+     * Registra una noticia leída por el usuario
+     */
+    public void registrarNoticiaLeida(String userId) {
+        registrar(FirebaseManager.COLLECTION_USUARIOS, userId, CAMPO_NOTICIAS_LEIDAS);
+    }
+
+    /**
+     * Programa el envío inmediato si quedaron incrementos pendientes
+     * (al pasar a segundo plano o al iniciar la app tras una muerte del proceso)
+     */
+    public void enviarPendientes() {
+        executor.execute(() -> {
+            if (store.hayPendientes()) {
+                programarEnvio(true);
+            }
+        });
+    }
+
+    /**
+     * Envía todos los lotes pendientes. Bloqueante: llamar solo desde un hilo de fondo
+     * @return false si falló y debe reintentarse
+     */
+    public boolean enviarLotes() {
+        synchronized (lockEnvio) {
+            String dispositivoId = store.getDispositivoId();
+            ContadoresStore.Lote lote = store.prepararLote();
+
+            while (lote != null) {
+                try {
+                    boolean aplicado = Tasks.await(
+                            FirebaseManager.getInstance().aplicarLoteContadores(dispositivoId, lote),
+                            TIMEOUT_ENVIO_SEGUNDOS, TimeUnit.SECONDS);
+                    Log.i(TAG, "Lote " + lote.getNumero() + (aplicado ? " aplicado" : " ya estaba aplicado")
+                            + " (" + lote.getIncrementos().size() + " contadores)");
+                } catch (ExecutionException e) {
+                    if (!esDocumentoInexistente(e)) {
+                        Log.e(TAG, "Error al enviar lote " + lote.getNumero(), e);
+                        return false;
+                    }
+                    // Un documento del lote ya no existe (p. ej. noticia eliminada): la transacción
+                    // no aplicó nada. Se quitan solo esos incrementos y se reintenta el mismo lote
+                    if (!descartarSinDocumento(lote)) {
+                        return false;
+                    }
+                    lote = store.prepararLote();
+                    continue;
+                } catch (Exception e) {
+                    Log.e(TAG, "Error al enviar lote " + lote.getNumero(), e);
+                    return false;
+                }
+
+                store.confirmarLote(lote.getNumero());
+                lote = store.prepararLote();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Quita del lote los incrementos de documentos inexistentes
+     * @return false si no se pudo determinar cuáles son (se reintenta más tarde)
+     */
+    private boolean descartarSinDocumento(ContadoresStore.Lote lote) {
+        try {
+            List<ContadoresStore.Incremento> sinDocumento = Tasks.await(
+                    FirebaseManager.getInstance().buscarIncrementosSinDocumento(lote),
+                    TIMEOUT_ENVIO_SEGUNDOS, TimeUnit.SECONDS);
+            if (sinDocumento.isEmpty()) {
+                Log.w(TAG, "Lote " + lote.getNumero() + " falló con NOT_FOUND pero todos los documentos existen");
+                return false;
+            }
+
+            for (ContadoresStore.Incremento inc : sinDocumento) {
+                store.descartarIncremento(lote.getNumero(), inc);
+            }
+            Log.w(TAG, "Lote " + lote.getNumero() + ": " + sinDocumento.size()
+                    + " incrementos descartados (documento inexistente)");
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error al verificar documentos del lote " + lote.getNumero(), e);
+            return false;
+        }
+    }
+
+    private void registrar(final String coleccion, final String documento, final String campo) {
+        if (documento == null || documento.isEmpty()) {
+            Log.w(TAG, "ID vacío, no se registra incremento de " + campo);
+            return;
+        }
+
+        executor.execute(() -> {
+            store.registrar(coleccion, documento, campo, 1);
+            programarEnvio(false);
+        });
+    }
+
+    /**
+     * Encola el worker de envío. KEEP: si ya hay uno programado, los nuevos incrementos
+     * se agrupan en ese mismo envío
+     */
+    private void programarEnvio(boolean inmediato) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest.Builder builder = new OneTimeWorkRequest.Builder(ContadoresFlushWorker.class)
+                .setConstraints(constraints);
+        if (!inmediato) {
+            builder.setInitialDelay(RETRASO_FLUSH_SEGUNDOS, TimeUnit.SECONDS);
+        }
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                inmediato ? WORK_FLUSH_INMEDIATO : WORK_FLUSH,
+                ExistingWorkPolicy.KEEP,
+                builder.build());
+    }
+
+    private boolean esDocumentoInexistente(ExecutionException e) {
+        Throwable causa = e.getCause();
+        return causa instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) causa).getCode() == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
+}
@@ -0,0 +1,398 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filtros de la lista de noticias fuera del hilo principal
+ *
+ * Cada pedido lleva una foto inmutable del estado (noticias cargadas, texto buscado,
+ * parroquia, radio y ubicación). En un hilo de fondo se aplican búsqueda por texto,
+ * parroquia y radio, y se ordena por relevancia o distancia si corresponde; al hilo principal
+ * solo llega el Resultado para entregárselo al adapter.
+ *
+ * Si llega un pedido nuevo (otra letra en la búsqueda, otra página, un cambio del
+ * feed) los anteriores se cancelan: no se terminan de calcular ni se entregan.
+ *
+ * Los índices espacial y de búsqueda viven en el hilo de fondo. Cuando cambia la
+ * versión de las noticias solo se reindexan las que cambiaron (por firestoreId e
+ * instancia), así una página nueva o un cambio del feed no renormaliza todo el texto.
+ *
+ * Con buscarTambienEn(cache) la búsqueda por texto abarca además todo el caché local
+ * (NoticiaStore), no solo la ventana de páginas cargadas: el índice se siembra con lo
+ * guardado y se mantiene con los avisos de NewsCache. Si una noticia está en ambos lados
+ * se indexa la instancia de la ventana. El índice espacial sigue siendo solo de la ventana.
+ */
+public class FiltradorNoticias {
+
+    private static final String TAG = "FiltradorNoticias";
+
+    // Valor del spinner que desactiva el filtro por parroquia
+    public static final String TODAS_LAS_PARROQUIAS = "Todas";
+
+    // Cada cuántas noticias se verifica si el pedido quedó obsoleto
+    private static final int NOTICIAS_POR_VERIFICACION = 64;
+
+    /**
+     * Foto inmutable de los filtros y las noticias para un cálculo
+     */
+    public static class Solicitud {
+        private final List<Noticia> noticias;
+        private final int versionNoticias;
+        private final String textoBusqueda;
+        private final String parroquia;
+        private final Double radioKm;
+        private final Double latitud;
+        private final Double longitud;
+
+        /**
+         * @param noticias Lista que no se modificará después (p. ej. unmodifiableList de una copia)
+         * @param versionNoticias Cambia cada vez que cambia la lista (evita reindexar si no cambió)
+         * @param textoBusqueda Texto tal como lo escribió el usuario ("" = sin búsqueda)
+         * @param parroquia Nombre de la parroquia o TODAS_LAS_PARROQUIAS
+         * @param radioKm Radio del filtro o null para todas
+         * @param latitud Ubicación del usuario o null si no hay
+         * @param longitud Ubicación del usuario o null si no hay
+         */
+        public Solicitud(List<Noticia> noticias, int versionNoticias, String textoBusqueda,
+                         String parroquia, Double radioKm, Double latitud, Double longitud) {
+            this.noticias = noticias;
+            this.versionNoticias = versionNoticias;
+            this.textoBusqueda = textoBusqueda != null ? textoBusqueda : "";
+            this.parroquia = parroquia != null ? parroquia : TODAS_LAS_PARROQUIAS;
+            this.radioKm = radioKm;
+            this.latitud = latitud;
+            this.longitud = longitud;
+        }
+
+        /**
+         * El filtro por radio solo se aplica si además hay ubicación
+         */
+        boolean filtraPorRadio() {
+            return radioKm != null && latitud != null && longitud != null;
+        }
+    }
+
+    /**
+     * Noticias que pasan los filtros, en el orden en que se deben mostrar
+     * (por relevancia si hay texto buscado; si no, por distancia o por fecha)
+     */
+    public static class Resultado {
+        private final List<Noticia> noticias;
+        private final double[] distanciasKm;
+        private final IndiceBusqueda.Consulta consulta;
+        private final int cantidadTotal;
+
+        Resultado(List<Noticia> noticias, double[] distanciasKm, IndiceBusqueda.Consulta consulta,
+                  int cantidadTotal) {
+            this.noticias = noticias;
+            this.distanciasKm = distanciasKm;
+            this.consulta = consulta;
+            this.cantidadTotal = cantidadTotal;
+        }
+
+        public List<Noticia> getNoticias() {
+            return noticias;
+        }
+
+        /**
+         * Distancia de cada noticia (mismo orden que getNoticias), o null sin filtro por radio
+         * Se aplica en el hilo principal: el hilo de fondo no modifica las noticias.
+         */
+        public double[] getDistanciasKm() {
+            return distanciasKm;
+        }
+
+        /**
+         * Búsqueda aplicada (para resaltar las coincidencias en la lista)
+         */
+        public IndiceBusqueda.Consulta getConsulta() {
+            return consulta;
+        }
+
+        /**
+         * Noticias entre las que se filtró (con texto buscado incluye el caché local)
+         */
+        public int getCantidadTotal() {
+            return cantidadTotal;
+        }
+    }
+
+    public interface Receptor {
+        void onResultado(Resultado resultado);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger generacion = new AtomicInteger();
+
+    // Solo se usan desde el hilo del executor
+    private final IndiceEspacial indiceEspacial = new IndiceEspacial();
+    private final IndiceBusqueda indiceBusqueda = new IndiceBusqueda();
+    private final Map<String, Noticia> indexadas = new HashMap<>();
+    private final Map<String, Noticia> almacenadas = new HashMap<>();
+    private int versionIndexada = -1;
+
+    private NewsCache cache;
+
+    // Los avisos llegan en el hilo del caché: se pasan al hilo de fondo
+    private final NewsCache.Observador observadorCache = new NewsCache.Observador() {
+        @Override
+        public void onNoticiasGuardadas(List<Noticia> noticias) {
+            enSegundoPlano(() -> agregarAlmacenadas(noticias));
+        }
+
+        @Override
+        public void onNoticiasEliminadas(List<String> firestoreIds) {
+            enSegundoPlano(() -> quitarAlmacenadas(firestoreIds));
+        }
+
+        @Override
+        public void onCacheLimpiado() {
+            enSegundoPlano(() -> quitarAlmacenadas(new ArrayList<>(almacenadas.keySet())));
+        }
+    };
+
+    /**
+     * Filtra en segundo plano y entrega el resultado en el hilo principal
+     * Cancela cualquier filtrado anterior que aún no se haya entregado.
+     */
+    public void filtrar(final Solicitud solicitud, final Receptor receptor) {
+        final int miGeneracion = generacion.incrementAndGet();
+
+        executor.execute(() -> {
+            if (miGeneracion != generacion.get()) return; // Ya hay uno más nuevo en cola
+
+            try {
+                final Resultado resultado = filtrarEnSegundoPlano(solicitud, miGeneracion);
+                if (resultado == null) return;
+
+                mainHandler.post(() -> {
+                    if (miGeneracion == generacion.get()) {
+                        receptor.onResultado(resultado);
+                    }
+                });
+            } catch (Exception e) {
+                Log.e(TAG, "Error filtrando noticias: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Incluye en la búsqueda por texto todas las noticias del caché local
+     * El caché entrega su contenido desde su propio hilo (el único que usa SQLite) y
+     * después los avisos de cada cambio; el índice se actualiza en el hilo de fondo.
+     */
+    public void buscarTambienEn(NewsCache cache) {
+        if (cache == null || this.cache != null) return;
+        this.cache = cache;
+
+        cache.agregarObservadorConContenido(observadorCache);
+    }
+
+    /**
+     * Cancela lo pendiente y libera el hilo (llamar en onDestroy)
+     */
+    public void detener() {
+        generacion.incrementAndGet();
+        if (cache != null) {
+            cache.quitarObservador(observadorCache);
+        }
+        executor.shutdownNow();
+    }
+
+    // ==================== PRIVADOS (hilo de fondo) ====================
+
+    /**
+     * @return null si el filtrado quedó obsoleto a mitad de camino
+     */
+    private Resultado filtrarEnSegundoPlano(Solicitud s, int miGeneracion) {
+        if (versionIndexada != s.versionNoticias) {
+            reindexar(s.noticias);
+            versionIndexada = s.versionNoticias;
+        }
+
+        IndiceBusqueda.Consulta consulta = IndiceBusqueda.preparar(s.textoBusqueda);
+        boolean filtraParroquia = !TODAS_LAS_PARROQUIAS.equals(s.parroquia);
+        boolean buscaTexto = !consulta.estaVacia();
+        int cantidadTotal = s.noticias.size();
+
+        // Candidatas: con texto buscado, las coincidencias del índice (ventana y caché local)
+        // por relevancia; con radio, las del índice espacial de la más cercana a la más lejana;
+        // si no, todas en el orden del feed
+        List<Fila> filas = new ArrayList<>();
+        if (buscaTexto) {
+            for (IndiceBusqueda.Coincidencia coincidencia : indiceBusqueda.buscar(consulta)) {
+                Fila fila = filaEnRadio(coincidencia.getNoticia(), s);
+                if (fila == null) continue;
+                fila.puntaje = coincidencia.getPuntaje();
+                filas.add(fila);
+            }
+            // Sin id no están indexadas: se analizan aparte, sin puntaje (quedan al final)
+            for (Noticia noticia : s.noticias) {
+                if (noticia.getFirestoreId() != null) continue;
+                if (indiceBusqueda.coincide(noticia, consulta)) {
+                    Fila fila = filaEnRadio(noticia, s);
+                    if (fila != null) filas.add(fila);
+                }
+            }
+        } else if (s.filtraPorRadio()) {
+            List<IndiceEspacial.Resultado> cercanas =
+                    indiceEspacial.buscarEnRadio(s.latitud, s.longitud, s.radioKm);
+            Collections.sort(cercanas, (r1, r2) -> Double.compare(r1.getDistanciaKm(), r2.getDistanciaKm()));
+            for (IndiceEspacial.Resultado cercana : cercanas) {
+                filas.add(new Fila(cercana.getNoticia(), cercana.getDistanciaKm()));
+            }
+        } else {
+            for (Noticia noticia : s.noticias) {
+                filas.add(new Fila(noticia, -1));
+            }
+        }
+        if (buscaTexto) {
+            cantidadTotal = indiceBusqueda.tamanio() + (s.noticias.size() - indexadas.size());
+        }
+        if (miGeneracion != generacion.get()) return null;
+
+        List<Fila> filtradas = new ArrayList<>();
+        for (int i = 0; i < filas.size(); i++) {
+            if (i % NOTICIAS_POR_VERIFICACION == 0 && miGeneracion != generacion.get()) return null;
+
+            Fila fila = filas.get(i);
+            if (filtraParroquia && !s.parroquia.equals(fila.noticia.getParroquiaNombre())) {
+                continue;
+            }
+            filtradas.add(fila);
+        }
+
+        List<Noticia> noticias = new ArrayList<>(filtradas.size());
+        double[] distancias = s.filtraPorRadio() ? new double[filtradas.size()] : null;
+        for (int i = 0; i < filtradas.size(); i++) {
+            noticias.add(filtradas.get(i).noticia);
+            if (distancias != null) distancias[i] = filtradas.get(i).distanciaKm;
+        }
+        return new Resultado(Collections.unmodifiableList(noticias), distancias, consulta, cantidadTotal);
+    }
+
+    /**
+     * Fila de una coincidencia del índice de búsqueda, o null si queda fuera del radio
+     * Las del caché local no están en el índice espacial: la distancia se calcula aquí.
+     */
+    private static Fila filaEnRadio(Noticia noticia, Solicitud s) {
+        if (!s.filtraPorRadio()) return new Fila(noticia, -1);
+        if (noticia.getLatitud() == null || noticia.getLongitud() == null) return null;
+
+        double distanciaKm = LocationHelper.calcularDistanciaKm(
+                s.latitud, s.longitud, noticia.getLatitud(), noticia.getLongitud());
+        return distanciaKm <= s.radioKm ? new Fila(noticia, distanciaKm) : null;
+    }
+
+    /**
+     * Noticia candidata con su distancia (si hay radio) y su relevancia (si hay texto)
+     */
+    private static final class Fila {
+        final Noticia noticia;
+        final double distanciaKm;
+        double puntaje;
+
+        Fila(Noticia noticia, double distanciaKm) {
+            this.noticia = noticia;
+            this.distanciaKm = distanciaKm;
+        }
+    }
+
+    /**
+     * Pone los índices al día con la lista: solo agrega lo nuevo o reemplazado y quita lo que ya no está
+     */
+    private void reindexar(List<Noticia> noticias) {
+        Set<String> vigentes = new HashSet<>();
+        int agregadas = 0;
+
+        for (Noticia noticia : noticias) {
+            String id = noticia.getFirestoreId();
+            if (id == null) continue; // Sin id: IndiceBusqueda la analiza al consultarla
+
+            vigentes.add(id);
+            if (indexadas.get(id) != noticia) {
+                indiceEspacial.agregar(noticia);
+                indiceBusqueda.agregar(noticia);
+                indexadas.put(id, noticia);
+                agregadas++;
+            }
+        }
+
+        int eliminadas = 0;
+        Iterator<Map.Entry<String, Noticia>> it = indexadas.entrySet().iterator();
+        while (it.hasNext()) {
+            String id = it.next().getKey();
+            if (!vigentes.contains(id)) {
+                indiceEspacial.eliminar(id);
+                Noticia almacenada = almacenadas.get(id);
+                if (almacenada != null) {
+                    indiceBusqueda.agregar(almacenada); // Sigue en el caché local
+                } else {
+                    indiceBusqueda.eliminar(id);
+                }
+                it.remove();
+                eliminadas++;
+            }
+        }
+
+        Log.d(TAG, "Índices actualizados: +" + agregadas + " -" + eliminadas + " (" + indexadas.size() + " noticias)");
+    }
+
+    /**
+     * Noticias guardadas en el caché: se indexan salvo que la ventana ya tenga su instancia
+     */
+    private void agregarAlmacenadas(List<Noticia> noticias) {
+        for (Noticia noticia : noticias) {
+            String id = noticia.getFirestoreId();
+            if (id == null) continue;
+
+            almacenadas.put(id, noticia);
+            if (!indexadas.containsKey(id)) {
+                indiceBusqueda.agregar(noticia);
+            }
+        }
+    }
+
+    /**
+     * Noticias que salieron del caché: se quitan del índice si tampoco están en la ventana
+     */
+    private void quitarAlmacenadas(List<String> firestoreIds) {
+        for (String id : firestoreIds) {
+            if (almacenadas.remove(id) != null && !indexadas.containsKey(id)) {
+                indiceBusqueda.eliminar(id);
+            }
+        }
+    }
+
+    private void enSegundoPlano(Runnable tarea) {
+        try {
+            executor.execute(() -> {
+                try {
+                    tarea.run();
+                } catch (Exception e) {
+                    Log.e(TAG, "Error actualizando el índice con el caché: " + e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Ya se llamó a detener()
+        }
+    }
+}
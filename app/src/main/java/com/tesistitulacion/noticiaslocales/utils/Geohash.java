@@ -0,0 +1,191 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Geohash: codifica una coordenada en un texto base32 donde cada carácter subdivide
+ * la celda anterior en 32. Coordenadas cercanas comparten prefijo, así un radio se
+ * puede consultar en Firestore con unos pocos rangos orderBy/startAt/endAt sobre el
+ * campo geohash, sin descargar noticias lejanas.
+ *
+ * rangosParaRadio() devuelve rangos que cubren el círculo completo (pueden traer algo
+ * de más en las esquinas): el resultado se filtra después por distancia exacta.
+ *
+ * No depende de Android.
+ */
+public final class Geohash {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    // Precisión con la que se guarda cada noticia (≈ 1 m)
+    public static final int PRECISION_ALMACENADA = 10;
+
+    // Bits por carácter y máximo de bits útiles de la precisión almacenada
+    private static final int BITS_POR_CARACTER = 5;
+    private static final int MAX_BITS = PRECISION_ALMACENADA * BITS_POR_CARACTER;
+
+    // Mayor carácter posible detrás de un prefijo (fin de rango para endAt)
+    private static final char FIN_RANGO = '~';
+
+    private static final double METROS_POR_GRADO_LATITUD = 110574.0;
+    private static final double RADIO_ECUATORIAL_M = 6378137.0;
+    private static final double EXCENTRICIDAD_CUADRADA = 0.00669447819799;
+    private static final double EPSILON = 1e-12;
+
+    private Geohash() {
+    }
+
+    /**
+     * Geohash de la coordenada con la cantidad de caracteres indicada
+     */
+    public static String codificar(double latitud, double longitud, int precision) {
+        if (precision < 1) {
+            throw new IllegalArgumentException("La precisión debe ser al menos 1");
+        }
+
+        double latMin = -90, latMax = 90;
+        double lonMin = -180, lonMax = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean bitLongitud = true;
+        int bits = 0;
+        int valor = 0;
+
+        while (hash.length() < precision) {
+            if (bitLongitud) {
+                double medio = (lonMin + lonMax) / 2;
+                if (longitud >= medio) {
+                    valor = (valor << 1) | 1;
+                    lonMin = medio;
+                } else {
+                    valor <<= 1;
+                    lonMax = medio;
+                }
+            } else {
+                double medio = (latMin + latMax) / 2;
+                if (latitud >= medio) {
+                    valor = (valor << 1) | 1;
+                    latMin = medio;
+                } else {
+                    valor <<= 1;
+                    latMax = medio;
+                }
+            }
+            bitLongitud = !bitLongitud;
+
+            if (++bits == BITS_POR_CARACTER) {
+                hash.append(BASE32.charAt(valor));
+                bits = 0;
+                valor = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static String codificar(double latitud, double longitud) {
+        return codificar(latitud, longitud, PRECISION_ALMACENADA);
+    }
+
+    /**
+     * Rangos {inicio, fin} de geohash que cubren el círculo de radioKm alrededor del punto
+     * Para consultar: orderBy("geohash").startAt(inicio).endAt(fin), uno por rango.
+     */
+    public static List<String[]> rangosParaRadio(double latitud, double longitud, double radioKm) {
+        double radioM = radioKm * 1000;
+        int precision = Math.max(1, bitsParaRadio(latitud, radioM) / BITS_POR_CARACTER);
+
+        double deltaLat = radioM / METROS_POR_GRADO_LATITUD;
+        double norte = Math.min(90, latitud + deltaLat);
+        double sur = Math.max(-90, latitud - deltaLat);
+        double deltaLon = Math.max(gradosLongitud(radioM, norte), gradosLongitud(radioM, sur));
+
+        // Centro, lados y esquinas del rectángulo que contiene al círculo: con celdas al menos
+        // del tamaño del radio, las celdas de esos 9 puntos cubren todo el rectángulo
+        TreeSet<String> prefijos = new TreeSet<>();
+        double[] latitudes = {latitud, norte, sur};
+        double[] longitudes = {longitud, envolverLongitud(longitud - deltaLon), envolverLongitud(longitud + deltaLon)};
+        for (double lat : latitudes) {
+            for (double lon : longitudes) {
+                prefijos.add(codificar(lat, lon, precision));
+            }
+        }
+
+        // Prefijos consecutivos (p. ej. "6r" y "6s") se juntan en un solo rango
+        List<String[]> rangos = new ArrayList<>();
+        String inicio = null;
+        String fin = null;
+        for (String prefijo : prefijos) {
+            if (fin != null && esSiguiente(fin, prefijo)) {
+                fin = prefijo;
+                continue;
+            }
+            if (inicio != null) {
+                rangos.add(new String[]{inicio, fin + FIN_RANGO});
+            }
+            inicio = prefijo;
+            fin = prefijo;
+        }
+        if (inicio != null) {
+            rangos.add(new String[]{inicio, fin + FIN_RANGO});
+        }
+        return Collections.unmodifiableList(rangos);
+    }
+
+    // ==================== PRIVADOS ====================
+
+    /**
+     * Bits de geohash con los que una celda sigue siendo al menos tan grande como el radio
+     */
+    private static int bitsParaRadio(double latitud, double radioM) {
+        double deltaLat = radioM / METROS_POR_GRADO_LATITUD;
+        double latNorte = Math.min(90, latitud + deltaLat);
+        double latSur = Math.max(-90, latitud - deltaLat);
+
+        // Con n bits la latitud usa n/2 y la longitud (n+1)/2 (se intercalan empezando por longitud)
+        int bitsLat = (int) Math.floor(Math.log(180 / deltaLat) / Math.log(2)) * 2;
+        int bitsLon = Math.min(bitsLongitud(radioM, latNorte), bitsLongitud(radioM, latSur));
+        int bits = Math.min(Math.min(bitsLat, bitsLon), MAX_BITS);
+        return Math.max(bits, 1);
+    }
+
+    private static int bitsLongitud(double radioM, double latitud) {
+        double grados = gradosLongitud(radioM, latitud);
+        if (grados <= 0) return 1;
+        return Math.max(1, (int) Math.floor(Math.log(360 / grados) / Math.log(2)) * 2 - 1);
+    }
+
+    /**
+     * Grados de longitud que ocupan radioM metros en esa latitud (elipsoide WGS84)
+     */
+    private static double gradosLongitud(double radioM, double latitud) {
+        double radianes = Math.toRadians(latitud);
+        double numerador = Math.cos(radianes) * RADIO_ECUATORIAL_M * Math.PI / 180;
+        double denominador = 1 / Math.sqrt(1 - EXCENTRICIDAD_CUADRADA * Math.sin(radianes) * Math.sin(radianes));
+        double metrosPorGrado = numerador * denominador;
+        if (metrosPorGrado < EPSILON) {
+            return radioM > 0 ? 360 : 0;
+        }
+        return Math.min(360, radioM / metrosPorGrado);
+    }
+
+    private static double envolverLongitud(double longitud) {
+        if (longitud >= -180 && longitud <= 180) return longitud;
+        double ajustada = longitud + 180;
+        if (ajustada > 0) {
+            return (ajustada % 360) - 180;
+        }
+        return 180 - (-ajustada % 360);
+    }
+
+    /**
+     * true si b es el prefijo inmediatamente posterior a a con el mismo largo ("6r" → "6s")
+     */
+    private static boolean esSiguiente(String a, String b) {
+        if (a.length() != b.length()) return false;
+        int ultimo = a.length() - 1;
+        if (!a.regionMatches(0, b, 0, ultimo)) return false;
+        return BASE32.indexOf(b.charAt(ultimo)) == BASE32.indexOf(a.charAt(ultimo)) + 1;
+    }
+}
@@ -0,0 +1,167 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import com.tesistitulacion.noticiaslocales.R;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache de iconos de marcadores del mapa (a nivel de proceso)
+ *
+ * Hay pocos iconos distintos (uno por categoría y uno por rango de tamaño de grupo),
+ * así que cada uno se rasteriza una sola vez por densidad de pantalla y todos los
+ * marcadores comparten el mismo BitmapDescriptor.
+ *
+ * Se libera con liberar() cuando el sistema pide memoria (onTrimMemory).
+ */
+public class IconosMarcadorCache {
+
+    private static final String TAG = "IconosMarcadorCache";
+
+    private static IconosMarcadorCache instance;
+
+    // Rangos de cantidad para los iconos de grupo (se muestra "10+", "50+", ...)
+    private static final int[] RANGOS_GRUPO = {500, 100, 50, 20, 10};
+
+    // Clave: densidad (dpi) + id del drawable
+    private final Map<Long, BitmapDescriptor> iconos = new HashMap<>();
+
+    // Clave: densidad + etiqueta del grupo
+    private final Map<String, BitmapDescriptor> iconosGrupo = new HashMap<>();
+
+    private IconosMarcadorCache() {
+    }
+
+    public static synchronized IconosMarcadorCache getInstance() {
+        if (instance == null) {
+            instance = new IconosMarcadorCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Icono compartido para el drawable indicado en la densidad actual
+     * Si el drawable no existe devuelve el marcador por defecto de Maps.
+     */
+    public synchronized BitmapDescriptor obtener(Context context, int drawableId) {
+        int densidad = context.getResources().getDisplayMetrics().densityDpi;
+        long clave = ((long) densidad << 32) | (drawableId & 0xFFFFFFFFL);
+
+        BitmapDescriptor icono = iconos.get(clave);
+        if (icono != null) {
+            return icono;
+        }
+
+        Bitmap bitmap = rasterizar(context, drawableId);
+        if (bitmap == null) {
+            return BitmapDescriptorFactory.defaultMarker();
+        }
+
+        icono = BitmapDescriptorFactory.fromBitmap(bitmap);
+        iconos.put(clave, icono);
+        Log.d(TAG, "Icono rasterizado: " + drawableId + " @" + densidad + "dpi (total " + iconos.size() + ")");
+        return icono;
+    }
+
+    /**
+     * Icono compartido de un grupo de noticias (círculo con la cantidad)
+     * Las cantidades grandes se redondean a un rango para no crear un icono por valor.
+     */
+    public synchronized BitmapDescriptor obtenerGrupo(Context context, int cantidad) {
+        float densidad = context.getResources().getDisplayMetrics().density;
+        String etiqueta = etiquetaGrupo(cantidad);
+        String clave = densidad + ":" + etiqueta;
+
+        BitmapDescriptor icono = iconosGrupo.get(clave);
+        if (icono == null) {
+            icono = BitmapDescriptorFactory.fromBitmap(dibujarGrupo(context, etiqueta, cantidad, densidad));
+            iconosGrupo.put(clave, icono);
+        }
+        return icono;
+    }
+
+    /**
+     * Suelta todos los iconos; se vuelven a rasterizar cuando se pidan
+     * Los marcadores ya creados conservan el suyo.
+     */
+    public synchronized void liberar() {
+        if (!iconos.isEmpty() || !iconosGrupo.isEmpty()) {
+            Log.d(TAG, "Liberando " + (iconos.size() + iconosGrupo.size()) + " iconos");
+            iconos.clear();
+            iconosGrupo.clear();
+        }
+    }
+
+    private static String etiquetaGrupo(int cantidad) {
+        for (int rango : RANGOS_GRUPO) {
+            if (cantidad >= rango) {
+                return rango + "+";
+            }
+        }
+        return String.valueOf(cantidad);
+    }
+
+    /**
+     * Círculo del color primario con borde blanco y la cantidad al centro
+     * Crece un poco con la cantidad para distinguir grupos grandes.
+     */
+    private static Bitmap dibujarGrupo(Context context, String etiqueta, int cantidad, float densidad) {
+        float diametroDp = cantidad >= 100 ? 52f : cantidad >= 10 ? 44f : 38f;
+        int tamanio = Math.round(diametroDp * densidad);
+        float centro = tamanio / 2f;
+        float borde = 3f * densidad;
+
+        Bitmap bitmap = Bitmap.createBitmap(tamanio, tamanio, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        Paint pintura = new Paint(Paint.ANTI_ALIAS_FLAG);
+        pintura.setColor(ContextCompat.getColor(context, R.color.md_theme_light_onPrimary));
+        canvas.drawCircle(centro, centro, centro, pintura);
+        pintura.setColor(ContextCompat.getColor(context, R.color.md_theme_light_primary));
+        canvas.drawCircle(centro, centro, centro - borde, pintura);
+
+        pintura.setColor(ContextCompat.getColor(context, R.color.md_theme_light_onPrimary));
+        pintura.setTextAlign(Paint.Align.CENTER);
+        pintura.setTypeface(Typeface.DEFAULT_BOLD);
+        pintura.setTextSize(14f * densidad);
+        float baseTexto = centro - (pintura.descent() + pintura.ascent()) / 2f;
+        canvas.drawText(etiqueta, centro, baseTexto, pintura);
+
+        return bitmap;
+    }
+
+    /**
+     * Convierte un drawable vectorial a Bitmap para usar en marcadores de mapa
+     */
+    private static Bitmap rasterizar(Context context, int drawableId) {
+        Drawable drawable = ContextCompat.getDrawable(context, drawableId);
+        if (drawable == null) {
+            Log.e(TAG, "No se pudo obtener drawable con ID: " + drawableId);
+            return null;
+        }
+
+        Bitmap bitmap = Bitmap.createBitmap(
+                drawable.getIntrinsicWidth(),
+                drawable.getIntrinsicHeight(),
+                Bitmap.Config.ARGB_8888
+        );
+
+        Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawable.draw(canvas);
+
+        return bitmap;
+    }
+}
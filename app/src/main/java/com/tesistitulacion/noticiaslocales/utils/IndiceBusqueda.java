@@ -0,0 +1,633 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Motor de búsqueda por texto para las noticias cargadas (índice invertido)
+ *
+ * Cada noticia se divide en palabras normalizadas (minúsculas, sin tildes ni diéresis)
+ * por campo: título, hashtags, descripción, ubicación y contenido, juntando todas sus
+ * variantes de idioma (titulo_es, titulo_en...). Cada palabra apunta a las noticias
+ * que la contienen, así una consulta solo recorre las noticias que comparten alguna
+ * palabra con ella y no todo el caché.
+ *
+ * Relevancia (BM25F): una palabra pesa más si es rara en el conjunto, si aparece
+ * varias veces y si está en un campo importante (título > hashtags > descripción >
+ * ubicación > contenido); los campos largos se penalizan para no favorecer textos extensos.
+ *
+ * Cada palabra de la consulta debe aparecer en la noticia de alguna de estas formas
+ * (de mayor a menor peso):
+ * - Exacta ("educacion" → "Educación")
+ * - Como prefijo, para buscar mientras se escribe ("ibar" → "Ibarra")
+ * - Con un error de tipeo (una letra de más, de menos, cambiada o dos letras
+ *   invertidas; dos errores en palabras largas): "edcuacion" → "Educación"
+ * - Dentro de otra palabra, como en la búsqueda anterior por subcadena
+ *   ("barra" → "Ibarra"), desde LARGO_MINIMO_SUBCADENA letras. Un índice de
+ *   trigramas da las palabras candidatas sin recorrer todo el vocabulario.
+ *
+ * resaltar() devuelve las posiciones de las coincidencias en el texto original para
+ * marcarlas en la lista.
+ *
+ * Actualización incremental por firestoreId, igual que IndiceEspacial.
+ * No es thread-safe: usar desde un solo hilo.
+ */
+public class IndiceBusqueda {
+
+    // ==================== CAMPOS Y PESOS ====================
+
+    private static final int CAMPO_TITULO = 0;
+    private static final int CAMPO_HASHTAGS = 1;
+    private static final int CAMPO_DESCRIPCION = 2;
+    private static final int CAMPO_UBICACION = 3;
+    private static final int CAMPO_CONTENIDO = 4;
+    private static final int CANTIDAD_CAMPOS = 5;
+
+    // Peso de cada campo (mismo orden que las constantes CAMPO_*)
+    private static final double[] PESO_CAMPO = {3.0, 2.0, 1.5, 1.2, 1.0};
+
+    // Parámetros BM25 habituales: saturación de frecuencia y normalización por longitud
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Peso de una coincidencia según su tipo (exacta = 1)
+    private static final double PESO_PREFIJO = 0.8;
+    private static final double PESO_UN_ERROR = 0.6;
+    private static final double PESO_DOS_ERRORES = 0.4;
+    private static final double PESO_SUBCADENA = 0.3;
+
+    // Largo mínimo de la palabra buscada para tolerar 1 o 2 errores de tipeo
+    private static final int LARGO_MINIMO_UN_ERROR = 5;
+    private static final int LARGO_MINIMO_DOS_ERRORES = 9;
+
+    // Máximo de palabras del índice que puede representar una palabra buscada por prefijo
+    // (con "a" no se recorren todas: se usan las más frecuentes)
+    private static final int MAX_EXPANSIONES_PREFIJO = 64;
+
+    // Subcadenas: largo mínimo de la palabra buscada (también el largo de cada trigrama)
+    // y máximo de palabras del índice que la contienen que se usan (las más frecuentes)
+    private static final int LARGO_MINIMO_SUBCADENA = 3;
+    private static final int MAX_EXPANSIONES_SUBCADENA = 64;
+
+    /**
+     * Consulta ya normalizada y dividida en palabras
+     */
+    public static class Consulta {
+        private final String[] palabras;
+
+        Consulta(String[] palabras) {
+            this.palabras = palabras;
+        }
+
+        /**
+         * true si no hay nada que buscar (texto vacío o solo signos/espacios)
+         */
+        public boolean estaVacia() {
+            return palabras.length == 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Consulta && Arrays.equals(palabras, ((Consulta) o).palabras));
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(palabras);
+        }
+    }
+
+    private static final Consulta CONSULTA_VACIA = new Consulta(new String[0]);
+
+    /**
+     * Noticia encontrada con su puntaje de relevancia (mayor = más relevante)
+     */
+    public static class Coincidencia {
+        private final Noticia noticia;
+        private final double puntaje;
+
+        Coincidencia(Noticia noticia, double puntaje) {
+            this.noticia = noticia;
+            this.puntaje = puntaje;
+        }
+
+        public Noticia getNoticia() {
+            return noticia;
+        }
+
+        public double getPuntaje() {
+            return puntaje;
+        }
+    }
+
+    /**
+     * Palabras de una noticia con su frecuencia en cada campo
+     */
+    private static final class Documento {
+        final Noticia noticia;
+        final Map<String, int[]> frecuencias = new HashMap<>();
+        final int[] longitudes = new int[CANTIDAD_CAMPOS];
+
+        Documento(Noticia noticia) {
+            this.noticia = noticia;
+        }
+    }
+
+    private final Map<String, Documento> documentosPorId = new HashMap<>();
+
+    // Palabra → noticias que la contienen (ordenado para buscar prefijos)
+    private final TreeMap<String, Set<Documento>> indiceInvertido = new TreeMap<>();
+
+    // Trigrama → palabras del índice que lo contienen (candidatas para buscar subcadenas)
+    private final Map<String, Set<String>> palabrasPorTrigrama = new HashMap<>();
+
+    // Suma de longitudes por campo (para la longitud promedio de BM25)
+    private final long[] sumaLongitudes = new long[CANTIDAD_CAMPOS];
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Indexa una noticia (si ya existe una con el mismo firestoreId, la reemplaza)
+     * Las noticias sin firestoreId no se indexan: coincide() las analiza al consultarlas.
+     */
+    public void agregar(Noticia noticia) {
+        if (noticia == null || noticia.getFirestoreId() == null) return;
+
+        eliminar(noticia.getFirestoreId());
+
+        Documento documento = analizar(noticia);
+        documentosPorId.put(noticia.getFirestoreId(), documento);
+        for (String termino : documento.frecuencias.keySet()) {
+            Set<Documento> documentos = indiceInvertido.get(termino);
+            if (documentos == null) {
+                documentos = new HashSet<>(4);
+                indiceInvertido.put(termino, documentos);
+                agregarTrigramas(termino);
+            }
+            documentos.add(documento);
+        }
+        for (int campo = 0; campo < CANTIDAD_CAMPOS; campo++) {
+            sumaLongitudes[campo] += documento.longitudes[campo];
+        }
+    }
+
+    public void agregarTodas(Collection<Noticia> noticias) {
+        if (noticias == null) return;
+        for (Noticia noticia : noticias) {
+            agregar(noticia);
+        }
+    }
+
+    /**
+     * Elimina una noticia por su firestoreId
+     * @return true si estaba indexada
+     */
+    public boolean eliminar(String firestoreId) {
+        Documento documento = firestoreId != null ? documentosPorId.remove(firestoreId) : null;
+        if (documento == null) {
+            return false;
+        }
+
+        for (String termino : documento.frecuencias.keySet()) {
+            Set<Documento> documentos = indiceInvertido.get(termino);
+            if (documentos != null) {
+                documentos.remove(documento);
+                if (documentos.isEmpty()) {
+                    indiceInvertido.remove(termino);
+                    quitarTrigramas(termino);
+                }
+            }
+        }
+        for (int campo = 0; campo < CANTIDAD_CAMPOS; campo++) {
+            sumaLongitudes[campo] -= documento.longitudes[campo];
+        }
+        return true;
+    }
+
+    public void limpiar() {
+        documentosPorId.clear();
+        indiceInvertido.clear();
+        palabrasPorTrigrama.clear();
+        Arrays.fill(sumaLongitudes, 0);
+    }
+
+    public int tamanio() {
+        return documentosPorId.size();
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Normaliza el texto buscado (una vez por búsqueda, no por noticia)
+     */
+    public static Consulta preparar(String texto) {
+        List<String> palabras = new ArrayList<>();
+        dividirEnPalabras(normalizar(texto), palabras);
+        if (palabras.isEmpty()) {
+            return CONSULTA_VACIA;
+        }
+        return new Consulta(palabras.toArray(new String[0]));
+    }
+
+    /**
+     * Noticias indexadas que contienen todas las palabras de la consulta, de la más
+     * relevante a la menos relevante. Una consulta vacía no devuelve nada.
+     */
+    public List<Coincidencia> buscar(Consulta consulta) {
+        if (consulta == null || consulta.estaVacia() || documentosPorId.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Documento, Double> acumulado = null;
+        for (String palabra : consulta.palabras) {
+            // Mejor puntaje de cada noticia para esta palabra (entre todas sus variantes)
+            Map<Documento, Double> puntajes = new HashMap<>();
+            for (Map.Entry<String, Double> variante : variantes(palabra).entrySet()) {
+                String termino = variante.getKey();
+                Set<Documento> documentos = indiceInvertido.get(termino);
+                double idf = idf(documentos.size());
+                for (Documento documento : documentos) {
+                    if (acumulado != null && !acumulado.containsKey(documento)) continue;
+                    double puntaje = variante.getValue() * idf * frecuenciaPonderada(documento, termino);
+                    Double anterior = puntajes.get(documento);
+                    if (anterior == null || puntaje > anterior) {
+                        puntajes.put(documento, puntaje);
+                    }
+                }
+            }
+
+            // Todas las palabras deben aparecer: se conservan solo las noticias que ya venían
+            if (acumulado != null) {
+                for (Map.Entry<Documento, Double> entrada : puntajes.entrySet()) {
+                    entrada.setValue(entrada.getValue() + acumulado.get(entrada.getKey()));
+                }
+            }
+            acumulado = puntajes;
+            if (acumulado.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Coincidencia> coincidencias = new ArrayList<>(acumulado.size());
+        for (Map.Entry<Documento, Double> entrada : acumulado.entrySet()) {
+            coincidencias.add(new Coincidencia(entrada.getKey().noticia, entrada.getValue()));
+        }
+        Collections.sort(coincidencias, (a, b) -> Double.compare(b.puntaje, a.puntaje));
+        return coincidencias;
+    }
+
+    /**
+     * Verifica si la noticia contiene todas las palabras de la consulta (sin puntaje)
+     * Sirve también para noticias no indexadas. Una consulta vacía coincide con cualquiera.
+     */
+    public boolean coincide(Noticia noticia, Consulta consulta) {
+        if (consulta == null || consulta.estaVacia()) return true;
+        if (noticia == null) return false;
+
+        Documento documento = noticia.getFirestoreId() != null ? documentosPorId.get(noticia.getFirestoreId()) : null;
+        if (documento == null || documento.noticia != noticia) {
+            documento = analizar(noticia); // No indexada o reemplazada después de indexar
+        }
+
+        for (String palabra : consulta.palabras) {
+            boolean encontrada = false;
+            for (String termino : documento.frecuencias.keySet()) {
+                if (tipoCoincidencia(palabra, termino) > 0) {
+                    encontrada = true;
+                    break;
+                }
+            }
+            if (!encontrada) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Posiciones de las palabras de texto que coinciden con la consulta
+     * @return Pares {inicio, fin} (fin exclusivo) sobre el texto original, en orden
+     */
+    public static List<int[]> resaltar(String texto, Consulta consulta) {
+        if (texto == null || texto.isEmpty() || consulta == null || consulta.estaVacia()) {
+            return Collections.emptyList();
+        }
+
+        List<int[]> rangos = new ArrayList<>();
+        StringBuilder palabra = new StringBuilder();
+        int inicio = -1;
+
+        for (int i = 0; i <= texto.length(); i++) {
+            char c = i < texto.length() ? texto.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (inicio < 0) inicio = i;
+                agregarNormalizado(palabra, c);
+                continue;
+            }
+            if (inicio >= 0) {
+                if (coincideAlguna(palabra, consulta)) {
+                    rangos.add(new int[]{inicio, i});
+                }
+                palabra.setLength(0);
+                inicio = -1;
+            }
+        }
+        return rangos;
+    }
+
+    // ==================== NORMALIZACIÓN ====================
+
+    /**
+     * Minúsculas, sin marcas diacríticas (á→a, ü→u, ñ→n) y con los espacios colapsados
+     * a uno solo. Devuelve "" si el texto es null o solo contiene espacios.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) return "";
+
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(descompuesto.length());
+        boolean espacioPendiente = false;
+
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // Tilde, diéresis o virgulilla separada de su letra por NFD
+            }
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                espacioPendiente = sb.length() > 0;
+                continue;
+            }
+            if (espacioPendiente) {
+                sb.append(' ');
+                espacioPendiente = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    // ==================== PRIVADOS ====================
+
+    /**
+     * Divide la noticia en palabras normalizadas por campo (variantes de idioma sin repetir)
+     */
+    private static Documento analizar(Noticia noticia) {
+        Documento documento = new Documento(noticia);
+        agregarCampo(documento, CAMPO_TITULO, noticia.getTitulo(), noticia.getTitulo_es(), noticia.getTitulo_en());
+        agregarCampo(documento, CAMPO_HASHTAGS, noticia.getHashtags());
+        agregarCampo(documento, CAMPO_DESCRIPCION,
+                noticia.getDescripcion(), noticia.getDescripcion_es(), noticia.getDescripcion_en());
+        agregarCampo(documento, CAMPO_UBICACION, noticia.getUbicacion());
+        agregarCampo(documento, CAMPO_CONTENIDO,
+                noticia.getContenido(), noticia.getContenido_es(), noticia.getContenido_en());
+        return documento;
+    }
+
+    private static void agregarCampo(Documento documento, int campo, String... variantes) {
+        List<String> palabras = new ArrayList<>();
+        List<String> vistas = new ArrayList<>(variantes.length);
+
+        for (String variante : variantes) {
+            if (variante == null || variante.isEmpty() || vistas.contains(variante)) continue;
+            vistas.add(variante);
+            dividirEnPalabras(normalizar(variante), palabras);
+        }
+
+        for (String palabra : palabras) {
+            int[] frecuencias = documento.frecuencias.get(palabra);
+            if (frecuencias == null) {
+                frecuencias = new int[CANTIDAD_CAMPOS];
+                documento.frecuencias.put(palabra, frecuencias);
+            }
+            frecuencias[campo]++;
+        }
+        documento.longitudes[campo] += palabras.size();
+    }
+
+    /**
+     * Agrega a palabras las secuencias de letras/dígitos de un texto ya normalizado
+     */
+    private static void dividirEnPalabras(String normalizado, List<String> palabras) {
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esLetra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esLetra && inicio < 0) {
+                inicio = i;
+            } else if (!esLetra && inicio >= 0) {
+                palabras.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+    }
+
+    /**
+     * Normaliza un solo carácter (para resaltar sin perder las posiciones del texto original)
+     */
+    private static void agregarNormalizado(StringBuilder sb, char c) {
+        if (c < 128) {
+            sb.append(Character.toLowerCase(c));
+            return;
+        }
+        String descompuesto = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char d = descompuesto.charAt(i);
+            if (Character.getType(d) != Character.NON_SPACING_MARK) {
+                sb.append(Character.toLowerCase(d));
+            }
+        }
+    }
+
+    private static boolean coincideAlguna(CharSequence palabraTexto, Consulta consulta) {
+        String termino = palabraTexto.toString();
+        for (String palabra : consulta.palabras) {
+            if (tipoCoincidencia(palabra, termino) > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Términos del índice que representan a la palabra buscada, con su peso
+     */
+    private Map<String, Double> variantes(String palabra) {
+        Map<String, Double> variantes = new HashMap<>();
+
+        // 1. Prefijo (incluye la exacta)
+        NavigableMap<String, Set<Documento>> conPrefijo =
+                indiceInvertido.subMap(palabra, true, palabra + Character.MAX_VALUE, false);
+        List<String> prefijos = new ArrayList<>(conPrefijo.keySet());
+        if (prefijos.size() > MAX_EXPANSIONES_PREFIJO) {
+            Collections.sort(prefijos, (a, b) -> indiceInvertido.get(b).size() - indiceInvertido.get(a).size());
+            prefijos = prefijos.subList(0, MAX_EXPANSIONES_PREFIJO);
+        }
+        for (String termino : prefijos) {
+            variantes.put(termino, termino.equals(palabra) ? 1.0 : PESO_PREFIJO);
+        }
+        if (indiceInvertido.containsKey(palabra)) {
+            variantes.put(palabra, 1.0); // Aunque haya quedado fuera del límite de prefijos
+        }
+
+        // 2. Errores de tipeo: solo palabras que empiezan con la misma letra y tienen largo parecido
+        int maxErrores = maxErrores(palabra.length());
+        if (maxErrores > 0) {
+            String primera = palabra.substring(0, 1);
+            for (String termino : indiceInvertido.subMap(primera, true, primera + Character.MAX_VALUE, false).keySet()) {
+                if (variantes.containsKey(termino)) continue;
+                if (Math.abs(termino.length() - palabra.length()) > maxErrores) continue;
+                int errores = distanciaEdicion(palabra, termino, maxErrores);
+                if (errores <= maxErrores) {
+                    variantes.put(termino, pesoErrores(errores));
+                }
+            }
+        }
+
+        // 3. Subcadena: solo las palabras del trigrama menos común de la consulta
+        //    (las que empiezan con ella son prefijos: no se saltea su límite)
+        if (palabra.length() >= LARGO_MINIMO_SUBCADENA) {
+            List<String> contienen = new ArrayList<>();
+            for (String termino : candidatasSubcadena(palabra)) {
+                if (!termino.startsWith(palabra) && !variantes.containsKey(termino) && termino.contains(palabra)) {
+                    contienen.add(termino);
+                }
+            }
+            if (contienen.size() > MAX_EXPANSIONES_SUBCADENA) {
+                Collections.sort(contienen, (a, b) -> indiceInvertido.get(b).size() - indiceInvertido.get(a).size());
+                contienen = contienen.subList(0, MAX_EXPANSIONES_SUBCADENA);
+            }
+            for (String termino : contienen) {
+                variantes.put(termino, PESO_SUBCADENA);
+            }
+        }
+        return variantes;
+    }
+
+    /**
+     * Palabras del índice que contienen el trigrama menos común de la palabra buscada
+     */
+    private Set<String> candidatasSubcadena(String palabra) {
+        Set<String> menor = null;
+        for (int i = 0; i + LARGO_MINIMO_SUBCADENA <= palabra.length(); i++) {
+            Set<String> conTrigrama = palabrasPorTrigrama.get(palabra.substring(i, i + LARGO_MINIMO_SUBCADENA));
+            if (conTrigrama == null) return Collections.emptySet(); // Ninguna palabra lo contiene
+            if (menor == null || conTrigrama.size() < menor.size()) menor = conTrigrama;
+        }
+        return menor != null ? menor : Collections.<String>emptySet();
+    }
+
+    private void agregarTrigramas(String termino) {
+        for (int i = 0; i + LARGO_MINIMO_SUBCADENA <= termino.length(); i++) {
+            String trigrama = termino.substring(i, i + LARGO_MINIMO_SUBCADENA);
+            Set<String> palabras = palabrasPorTrigrama.get(trigrama);
+            if (palabras == null) {
+                palabras = new HashSet<>(4);
+                palabrasPorTrigrama.put(trigrama, palabras);
+            }
+            palabras.add(termino);
+        }
+    }
+
+    private void quitarTrigramas(String termino) {
+        for (int i = 0; i + LARGO_MINIMO_SUBCADENA <= termino.length(); i++) {
+            String trigrama = termino.substring(i, i + LARGO_MINIMO_SUBCADENA);
+            Set<String> palabras = palabrasPorTrigrama.get(trigrama);
+            if (palabras != null && palabras.remove(termino) && palabras.isEmpty()) {
+                palabrasPorTrigrama.remove(trigrama);
+            }
+        }
+    }
+
+    /**
+     * 0 si no coincide; si coincide, un valor positivo (exacta, prefijo, con errores o subcadena)
+     */
+    private static double tipoCoincidencia(String palabra, String termino) {
+        if (termino.startsWith(palabra)) {
+            return termino.length() == palabra.length() ? 1.0 : PESO_PREFIJO;
+        }
+        int maxErrores = maxErrores(palabra.length());
+        if (maxErrores > 0 && !termino.isEmpty() && termino.charAt(0) == palabra.charAt(0)
+                && Math.abs(termino.length() - palabra.length()) <= maxErrores) {
+            int errores = distanciaEdicion(palabra, termino, maxErrores);
+            if (errores <= maxErrores) {
+                return pesoErrores(errores);
+            }
+        }
+        return palabra.length() >= LARGO_MINIMO_SUBCADENA && termino.contains(palabra) ? PESO_SUBCADENA : 0;
+    }
+
+    private static double pesoErrores(int errores) {
+        return errores <= 1 ? PESO_UN_ERROR : PESO_DOS_ERRORES;
+    }
+
+    private static int maxErrores(int largo) {
+        if (largo >= LARGO_MINIMO_DOS_ERRORES) return 2;
+        if (largo >= LARGO_MINIMO_UN_ERROR) return 1;
+        return 0;
+    }
+
+    /**
+     * Distancia de edición con transposiciones (Damerau, variante OSA)
+     * @return La distancia, o maxErrores + 1 si la supera (se corta apenas la supera)
+     */
+    static int distanciaEdicion(String a, String b, int maxErrores) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxErrores) return maxErrores + 1;
+
+        int[] anterior2 = new int[m + 1];
+        int[] anterior = new int[m + 1];
+        int[] actual = new int[m + 1];
+        for (int j = 0; j <= m; j++) anterior[j] = j;
+
+        for (int i = 1; i <= n; i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= m; j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maxErrores) return maxErrores + 1;
+
+            int[] temporal = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+        return Math.min(anterior[m], maxErrores + 1);
+    }
+
+    private double idf(int documentosConTermino) {
+        int total = documentosPorId.size();
+        return Math.log(1 + (total - documentosConTermino + 0.5) / (documentosConTermino + 0.5));
+    }
+
+    /**
+     * Parte de BM25F que depende de la noticia: frecuencia ponderada por campo y
+     * normalizada por longitud, saturada con K1
+     */
+    private double frecuenciaPonderada(Documento documento, String termino) {
+        int[] frecuencias = documento.frecuencias.get(termino);
+        int total = documentosPorId.size();
+        double tf = 0;
+        for (int campo = 0; campo < CANTIDAD_CAMPOS; campo++) {
+            if (frecuencias[campo] == 0) continue;
+            double promedio = (double) sumaLongitudes[campo] / total;
+            double normalizacion = 1 - B + B * (promedio > 0 ? documento.longitudes[campo] / promedio : 1);
+            tf += PESO_CAMPO[campo] * frecuencias[campo] / normalizacion;
+        }
+        return tf / (K1 + tf);
+    }
+}
@@ -0,0 +1,320 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice espacial en memoria para noticias georreferenciadas (grilla uniforme lat/lon)
+ *
+ * Cada noticia con coordenadas se guarda en la celda que la contiene, así las consultas
+ * solo recorren las celdas que tocan el área buscada y el costo depende del tamaño
+ * del resultado y no de la cantidad total de noticias.
+ *
+ * Soporta:
+ * - Búsqueda por radio (km)
+ * - Búsqueda y conteo por rectángulo (límites visibles del mapa)
+ * - K noticias más cercanas
+ * - Actualización incremental por firestoreId (agregar / reemplazar / eliminar)
+ *
+ * No es thread-safe: usar desde un solo hilo.
+ */
+public class IndiceEspacial {
+
+    // Tamaño de celda por defecto: 0.01° ≈ 1.1 km (escala de barrio en Ibarra)
+    public static final double TAMANIO_CELDA_GRADOS = 0.01;
+
+    private static final double KM_POR_GRADO_LATITUD = 111.32;
+
+    private final double tamanioCelda;
+    private final Map<Long, List<Noticia>> celdas = new HashMap<>();
+    private final Map<String, Noticia> noticiasPorId = new HashMap<>();
+    private int cantidad = 0;
+
+    // Rango de celdas ocupadas (para acotar la búsqueda de vecinos)
+    private int filaMin = Integer.MAX_VALUE;
+    private int filaMax = Integer.MIN_VALUE;
+    private int columnaMin = Integer.MAX_VALUE;
+    private int columnaMax = Integer.MIN_VALUE;
+
+    /**
+     * Noticia encontrada junto con su distancia al punto consultado
+     */
+    public static class Resultado {
+        private final Noticia noticia;
+        private final double distanciaKm;
+
+        public Resultado(Noticia noticia, double distanciaKm) {
+            this.noticia = noticia;
+            this.distanciaKm = distanciaKm;
+        }
+
+        public Noticia getNoticia() {
+            return noticia;
+        }
+
+        public double getDistanciaKm() {
+            return distanciaKm;
+        }
+    }
+
+    public IndiceEspacial() {
+        this(TAMANIO_CELDA_GRADOS);
+    }
+
+    public IndiceEspacial(double tamanioCeldaGrados) {
+        if (tamanioCeldaGrados <= 0) {
+            throw new IllegalArgumentException("El tamaño de celda debe ser positivo");
+        }
+        this.tamanioCelda = tamanioCeldaGrados;
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Agrega una noticia (si ya existe una con el mismo firestoreId, la reemplaza)
+     * Las noticias sin coordenadas no se indexan.
+     */
+    public void agregar(Noticia noticia) {
+        if (noticia == null) return;
+
+        if (noticia.getFirestoreId() != null) {
+            eliminar(noticia.getFirestoreId());
+        }
+
+        if (noticia.getLatitud() == null || noticia.getLongitud() == null) {
+            return;
+        }
+
+        int fila = fila(noticia.getLatitud());
+        int columna = columna(noticia.getLongitud());
+        List<Noticia> celda = celdas.get(clave(fila, columna));
+        if (celda == null) {
+            celda = new ArrayList<>(4);
+            celdas.put(clave(fila, columna), celda);
+        }
+        celda.add(noticia);
+        cantidad++;
+
+        if (noticia.getFirestoreId() != null) {
+            noticiasPorId.put(noticia.getFirestoreId(), noticia);
+        }
+
+        filaMin = Math.min(filaMin, fila);
+        filaMax = Math.max(filaMax, fila);
+        columnaMin = Math.min(columnaMin, columna);
+        columnaMax = Math.max(columnaMax, columna);
+    }
+
+    public void agregarTodas(Collection<Noticia> noticias) {
+        if (noticias == null) return;
+        for (Noticia noticia : noticias) {
+            agregar(noticia);
+        }
+    }
+
+    /**
+     * Elimina una noticia por su firestoreId
+     * @return true si estaba indexada
+     */
+    public boolean eliminar(String firestoreId) {
+        Noticia anterior = firestoreId != null ? noticiasPorId.remove(firestoreId) : null;
+        if (anterior == null) {
+            return false;
+        }
+
+        long clave = clave(fila(anterior.getLatitud()), columna(anterior.getLongitud()));
+        List<Noticia> celda = celdas.get(clave);
+        if (celda != null) {
+            for (int i = 0; i < celda.size(); i++) {
+                if (celda.get(i) == anterior) {
+                    celda.remove(i);
+                    cantidad--;
+                    break;
+                }
+            }
+            if (celda.isEmpty()) {
+                celdas.remove(clave);
+            }
+        }
+        return true;
+    }
+
+    public void limpiar() {
+        celdas.clear();
+        noticiasPorId.clear();
+        cantidad = 0;
+        filaMin = Integer.MAX_VALUE;
+        filaMax = Integer.MIN_VALUE;
+        columnaMin = Integer.MAX_VALUE;
+        columnaMax = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Cantidad de noticias indexadas (solo las que tienen coordenadas)
+     */
+    public int tamanio() {
+        return cantidad;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Noticias a una distancia menor o igual a radioKm del punto (sin orden particular)
+     */
+    public List<Resultado> buscarEnRadio(double latitud, double longitud, double radioKm) {
+        List<Resultado> resultados = new ArrayList<>();
+        if (cantidad == 0 || radioKm < 0) return resultados;
+
+        double deltaLat = radioKm / KM_POR_GRADO_LATITUD;
+        double deltaLon = radioKm / kmPorGradoLongitud(latitud, deltaLat);
+
+        int filaDesde = Math.max(fila(latitud - deltaLat), filaMin);
+        int filaHasta = Math.min(fila(latitud + deltaLat), filaMax);
+        int columnaDesde = Math.max(columna(longitud - deltaLon), columnaMin);
+        int columnaHasta = Math.min(columna(longitud + deltaLon), columnaMax);
+
+        for (int f = filaDesde; f <= filaHasta; f++) {
+            for (int c = columnaDesde; c <= columnaHasta; c++) {
+                List<Noticia> celda = celdas.get(clave(f, c));
+                if (celda == null) continue;
+                for (Noticia noticia : celda) {
+                    double distancia = distanciaKm(latitud, longitud, noticia);
+                    if (distancia <= radioKm) {
+                        resultados.add(new Resultado(noticia, distancia));
+                    }
+                }
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Noticias dentro de un rectángulo (p. ej. la región visible del mapa)
+     * Si oeste > este, el rectángulo cruza el antimeridiano.
+     */
+    public List<Noticia> buscarEnRectangulo(double sur, double oeste, double norte, double este) {
+        List<Noticia> resultados = new ArrayList<>();
+        if (cantidad == 0 || sur > norte) return resultados;
+
+        if (oeste > este) {
+            buscarEnRectangulo(sur, oeste, norte, 180.0, resultados);
+            buscarEnRectangulo(sur, -180.0, norte, este, resultados);
+        } else {
+            buscarEnRectangulo(sur, oeste, norte, este, resultados);
+        }
+        return resultados;
+    }
+
+    /**
+     * Cantidad de noticias dentro de un rectángulo, sin armar la lista
+     * Si oeste > este, el rectángulo cruza el antimeridiano.
+     */
+    public int contarEnRectangulo(double sur, double oeste, double norte, double este) {
+        if (cantidad == 0 || sur > norte) return 0;
+
+        if (oeste > este) {
+            return buscarEnRectangulo(sur, oeste, norte, 180.0, null)
+                    + buscarEnRectangulo(sur, -180.0, norte, este, null);
+        }
+        return buscarEnRectangulo(sur, oeste, norte, este, null);
+    }
+
+    /**
+     * Las k noticias más cercanas al punto dentro de radioMaxKm, ordenadas por distancia
+     * Recorre las celdas en anillos crecientes y se detiene cuando ningún anillo más
+     * lejano puede mejorar el resultado; cada distancia se calcula una sola vez.
+     */
+    public List<Resultado> buscarMasCercanas(double latitud, double longitud, int k, double radioMaxKm) {
+        if (cantidad == 0 || k <= 0) return new ArrayList<>();
+
+        SelectorCercanas selector = new SelectorCercanas(k, radioMaxKm);
+
+        int filaCentro = fila(latitud);
+        int columnaCentro = columna(longitud);
+        double kmPorCelda = Math.min(tamanioCelda * KM_POR_GRADO_LATITUD,
+                tamanioCelda * kmPorGradoLongitud(latitud, 0));
+        int anilloMax = Math.max(
+                Math.max(Math.abs(filaCentro - filaMin), Math.abs(filaMax - filaCentro)),
+                Math.max(Math.abs(columnaCentro - columnaMin), Math.abs(columnaMax - columnaCentro)));
+
+        for (int anillo = 0; anillo <= anilloMax; anillo++) {
+            // Distancia mínima posible a cualquier punto de este anillo
+            double distanciaMinAnillo = Math.max(0, anillo - 1) * kmPorCelda;
+            if (distanciaMinAnillo > selector.getDistanciaLimite()) break;
+
+            for (int f = filaCentro - anillo; f <= filaCentro + anillo; f++) {
+                boolean bordeFila = f == filaCentro - anillo || f == filaCentro + anillo;
+                int paso = bordeFila ? 1 : Math.max(1, 2 * anillo);
+                for (int c = columnaCentro - anillo; c <= columnaCentro + anillo; c += paso) {
+                    List<Noticia> celda = celdas.get(clave(f, c));
+                    if (celda == null) continue;
+                    for (Noticia noticia : celda) {
+                        selector.ofrecer(noticia, distanciaKm(latitud, longitud, noticia));
+                    }
+                }
+            }
+        }
+
+        return selector.getResultados();
+    }
+
+    // ==================== PRIVADOS ====================
+
+    /**
+     * Recorre las celdas del rectángulo; agrega las noticias a resultados (si no es null)
+     * @return Cantidad de noticias dentro del rectángulo
+     */
+    private int buscarEnRectangulo(double sur, double oeste, double norte, double este, List<Noticia> resultados) {
+        int encontradas = 0;
+        int filaDesde = Math.max(fila(sur), filaMin);
+        int filaHasta = Math.min(fila(norte), filaMax);
+        int columnaDesde = Math.max(columna(oeste), columnaMin);
+        int columnaHasta = Math.min(columna(este), columnaMax);
+
+        for (int f = filaDesde; f <= filaHasta; f++) {
+            for (int c = columnaDesde; c <= columnaHasta; c++) {
+                List<Noticia> celda = celdas.get(clave(f, c));
+                if (celda == null) continue;
+                for (Noticia noticia : celda) {
+                    double lat = noticia.getLatitud();
+                    double lon = noticia.getLongitud();
+                    if (lat >= sur && lat <= norte && lon >= oeste && lon <= este) {
+                        encontradas++;
+                        if (resultados != null) resultados.add(noticia);
+                    }
+                }
+            }
+        }
+        return encontradas;
+    }
+
+    private int fila(double latitud) {
+        return (int) Math.floor(latitud / tamanioCelda);
+    }
+
+    private int columna(double longitud) {
+        return (int) Math.floor(longitud / tamanioCelda);
+    }
+
+    private static long clave(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Km por grado de longitud, tomando la latitud más alejada del ecuador del área
+     * (la más angosta) para no quedarse corto al convertir km a grados
+     */
+    private static double kmPorGradoLongitud(double latitud, double deltaLat) {
+        double latitudExtrema = Math.min(Math.abs(latitud) + deltaLat, 89.0);
+        return KM_POR_GRADO_LATITUD * Math.cos(Math.toRadians(latitudExtrema));
+    }
+
+    private static double distanciaKm(double latitud, double longitud, Noticia noticia) {
+        return LocationHelper.calcularDistanciaKm(latitud, longitud, noticia.getLatitud(), noticia.getLongitud());
+    }
+}
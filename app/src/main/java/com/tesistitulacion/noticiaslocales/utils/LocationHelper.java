@@ -11,11 +11,7 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.location.Priority;
 
 /**
  * Helper centralizado para gestión de ubicación GPS
@@ -29,15 +25,12 @@ public class LocationHelper {
     // Código de request unificado para permisos de ubicación
     public static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
 
-    // Intervalo de actualización de ubicación (5 segundos)
-    private static final long UPDATE_INTERVAL = 5000;
-
-    // Intervalo más rápido aceptable (2 segundos)
-    private static final long FASTEST_INTERVAL = 2000;
+    // Antigüedad máxima para reutilizar la última ubicación del flujo compartido
+    private static final long EDAD_MAXIMA_UBICACION_MS = 60000;
 
     private final Context context;
     private final FusedLocationProviderClient fusedLocationClient;
-    private LocationCallback locationCallback;
+    private LocationUpdateListener listenerActivo; // Suscrito a UbicacionCompartida
 
     /**
      * Interfaz para recibir actualizaciones de ubicación
@@ -110,6 +103,14 @@ public class LocationHelper {
             return;
         }
 
+        // Si el flujo compartido tiene una lectura reciente, no hace falta consultar al GPS
+        Location reciente = UbicacionCompartida.getInstance(context).getUltimaUbicacion();
+        if (reciente != null && listener != null
+                && System.currentTimeMillis() - reciente.getTime() < EDAD_MAXIMA_UBICACION_MS) {
+            listener.onLocationReceived(reciente);
+            return;
+        }
+
         try {
             fusedLocationClient.getLastLocation()
                     .addOnSuccessListener(location -> {
@@ -135,10 +136,21 @@ public class LocationHelper {
     }
 
     /**
-     * Inicia actualizaciones continuas de ubicación
+     * Inicia actualizaciones continuas de ubicación (con la política de la lista)
      * @param listener Callback para recibir actualizaciones
      */
     public void startLocationUpdates(final LocationUpdateListener listener) {
+        startLocationUpdates(listener, PoliticaUbicacion.Pantalla.LISTA);
+    }
+
+    /**
+     * Inicia actualizaciones continuas de ubicación
+     * Todas las pantallas comparten una sola suscripción al GPS (UbicacionCompartida);
+     * el intervalo y la precisión se adaptan a la pantalla y a la velocidad.
+     * @param listener Callback para recibir actualizaciones
+     * @param pantalla Pantalla que consume la ubicación (mapa visible o lista)
+     */
+    public void startLocationUpdates(final LocationUpdateListener listener, PoliticaUbicacion.Pantalla pantalla) {
         if (!hasLocationPermission()) {
             if (listener != null) {
                 listener.onLocationError("Permisos de ubicación no concedidos");
@@ -146,50 +158,22 @@ public class LocationHelper {
             return;
         }
 
-        // Crear LocationRequest
-        LocationRequest locationRequest = new LocationRequest.Builder(
-                Priority.PRIORITY_HIGH_ACCURACY,
-                UPDATE_INTERVAL)
-                .setMinUpdateIntervalMillis(FASTEST_INTERVAL)
-                .build();
-
-        // Crear callback
-        locationCallback = new LocationCallback() {
-            @Override
-            public void onLocationResult(LocationResult locationResult) {
-                if (locationResult == null) {
-                    return;
-                }
-                for (Location location : locationResult.getLocations()) {
-                    if (location != null && listener != null) {
-                        Log.d(TAG, "Actualización de ubicación: " +
-                              location.getLatitude() + ", " + location.getLongitude());
-                        listener.onLocationChanged(location);
-                    }
-                }
-            }
-        };
-
-        try {
-            fusedLocationClient.requestLocationUpdates(locationRequest,
-                    locationCallback, null);
-            Log.d(TAG, "Actualizaciones de ubicación iniciadas");
-        } catch (SecurityException e) {
-            Log.e(TAG, "Error al iniciar actualizaciones: " + e.getMessage(), e);
-            if (listener != null) {
-                listener.onLocationError("Error al iniciar actualizaciones: " + e.getMessage());
-            }
+        if (listenerActivo != null && listenerActivo != listener) {
+            stopLocationUpdates();
         }
+        listenerActivo = listener;
+        UbicacionCompartida.getInstance(context).suscribir(listener, pantalla);
+        Log.d(TAG, "Actualizaciones de ubicación iniciadas (" + pantalla + ")");
     }
 
     /**
      * Detiene las actualizaciones de ubicación
      */
     public void stopLocationUpdates() {
-        if (locationCallback != null) {
-            fusedLocationClient.removeLocationUpdates(locationCallback);
+        if (listenerActivo != null) {
+            UbicacionCompartida.getInstance(context).desuscribir(listenerActivo);
             Log.d(TAG, "Actualizaciones de ubicación detenidas");
-            locationCallback = null;
+            listenerActivo = null;
         }
     }
 
@@ -0,0 +1,228 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.util.Log;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.Marker;
+import com.google.android.gms.maps.model.MarkerOptions;
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gestor de marcadores de noticias en el mapa (clave -> Marker)
+ *
+ * En lugar de mMap.clear() y volver a crear todo, reconcilia los marcadores
+ * actuales con el conjunto de noticias (o grupos) a mostrar:
+ * - Crea solo los marcadores nuevos (y los devuelve para animarlos)
+ * - Elimina los de noticias que ya no se muestran
+ * - Mueve o actualiza los que cambiaron (el icono solo si cambió la categoría)
+ *
+ * La clave es el firestoreId para noticias individuales y la clave de celda para
+ * grupos (AgrupadorMarcadores). El tag del marcador es la Noticia o el Grupo.
+ *
+ * Usar desde el hilo principal.
+ */
+public class MarcadoresManager {
+
+    private static final String TAG = "MarcadoresManager";
+
+    /**
+     * Crea el icono de una noticia (p. ej. según su categoría)
+     */
+    public interface FabricaIcono {
+        BitmapDescriptor crearIcono(Noticia noticia);
+    }
+
+    /**
+     * Crea el icono de un grupo de noticias (p. ej. un círculo con la cantidad)
+     */
+    public interface FabricaIconoGrupo {
+        BitmapDescriptor crearIcono(int cantidad);
+    }
+
+    private final GoogleMap mapa;
+    private final FabricaIcono fabricaIcono;
+    private final FabricaIconoGrupo fabricaIconoGrupo;
+    private final Map<String, Marker> marcadores = new HashMap<>();
+
+    public MarcadoresManager(GoogleMap mapa, FabricaIcono fabricaIcono, FabricaIconoGrupo fabricaIconoGrupo) {
+        this.mapa = mapa;
+        this.fabricaIcono = fabricaIcono;
+        this.fabricaIconoGrupo = fabricaIconoGrupo;
+    }
+
+    /**
+     * Deja en el mapa exactamente los marcadores de los grupos indicados
+     * @return Marcadores creados en esta llamada (los únicos que conviene animar)
+     */
+    public List<Marker> reconciliar(Collection<AgrupadorMarcadores.Grupo> grupos) {
+        List<Marker> nuevos = new ArrayList<>();
+        Set<String> vigentes = new HashSet<>();
+        int actualizados = 0;
+
+        for (AgrupadorMarcadores.Grupo grupo : grupos) {
+            if (grupo.getClave() == null || !vigentes.add(grupo.getClave())) {
+                continue;
+            }
+
+            Marker existente = marcadores.get(grupo.getClave());
+            if (existente == null) {
+                Marker marker = crear(grupo);
+                if (marker != null) {
+                    nuevos.add(marker);
+                }
+            } else if (actualizar(existente, grupo)) {
+                actualizados++;
+            }
+        }
+
+        int eliminados = 0;
+        Iterator<Map.Entry<String, Marker>> it = marcadores.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Marker> entrada = it.next();
+            if (!vigentes.contains(entrada.getKey())) {
+                entrada.getValue().remove();
+                it.remove();
+                eliminados++;
+            }
+        }
+
+        Log.d(TAG, "Reconciliación: +" + nuevos.size() + " -" + eliminados +
+                " ~" + actualizados + " (total " + marcadores.size() + ")");
+        return nuevos;
+    }
+
+    /**
+     * true si el marcador sigue en el mapa (no fue reemplazado ni eliminado)
+     */
+    public boolean contiene(Marker marker) {
+        if (marker == null) {
+            return false;
+        }
+        String clave = null;
+        if (marker.getTag() instanceof Noticia) {
+            clave = ((Noticia) marker.getTag()).getFirestoreId();
+        } else if (marker.getTag() instanceof AgrupadorMarcadores.Grupo) {
+            clave = ((AgrupadorMarcadores.Grupo) marker.getTag()).getClave();
+        }
+        return clave != null && marcadores.get(clave) == marker;
+    }
+
+    public int cantidad() {
+        return marcadores.size();
+    }
+
+    /**
+     * Quita todos los marcadores de noticias del mapa
+     */
+    public void limpiar() {
+        for (Marker marker : marcadores.values()) {
+            marker.remove();
+        }
+        marcadores.clear();
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private Marker crear(AgrupadorMarcadores.Grupo grupo) {
+        try {
+            MarkerOptions opciones = new MarkerOptions()
+                    .position(new LatLng(grupo.getLatitud(), grupo.getLongitud()));
+            if (grupo.esIndividual()) {
+                Noticia noticia = grupo.getNoticia();
+                opciones.title(noticia.getTitulo())
+                        .snippet(noticia.getDescripcion())
+                        .icon(fabricaIcono.crearIcono(noticia));
+            } else {
+                opciones.title(grupo.getCantidad() + " noticias")
+                        .icon(fabricaIconoGrupo.crearIcono(grupo.getCantidad()))
+                        .zIndex(1f);
+            }
+
+            Marker marker = mapa.addMarker(opciones);
+            if (marker != null) {
+                // Asociar noticia (o grupo) al marcador para recuperarla en el click
+                marker.setTag(grupo.esIndividual() ? grupo.getNoticia() : grupo);
+                marcadores.put(grupo.getClave(), marker);
+            }
+            return marker;
+        } catch (Exception e) {
+            Log.e(TAG, "Error al agregar marcador: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Aplica solo las diferencias entre lo que muestra el marcador y el grupo nuevo
+     * @return true si algo cambió
+     */
+    private boolean actualizar(Marker marker, AgrupadorMarcadores.Grupo grupo) {
+        if (grupo.esIndividual()) {
+            return actualizar(marker, grupo.getNoticia());
+        }
+
+        AgrupadorMarcadores.Grupo anterior = marker.getTag() instanceof AgrupadorMarcadores.Grupo
+                ? (AgrupadorMarcadores.Grupo) marker.getTag() : null;
+        marker.setTag(grupo);
+
+        boolean cambio = false;
+        LatLng posicion = new LatLng(grupo.getLatitud(), grupo.getLongitud());
+        if (!posicion.equals(marker.getPosition())) {
+            marker.setPosition(posicion);
+            cambio = true;
+        }
+        if (anterior == null || anterior.getCantidad() != grupo.getCantidad()) {
+            marker.setTitle(grupo.getCantidad() + " noticias");
+            marker.setIcon(fabricaIconoGrupo.crearIcono(grupo.getCantidad()));
+            cambio = true;
+        }
+        return cambio;
+    }
+
+    /**
+     * Aplica solo las diferencias entre la noticia del marcador y la nueva
+     * @return true si algo cambió
+     */
+    private boolean actualizar(Marker marker, Noticia noticia) {
+        Noticia anterior = marker.getTag() instanceof Noticia ? (Noticia) marker.getTag() : null;
+        marker.setTag(noticia);
+        if (anterior == noticia) {
+            return false;
+        }
+
+        boolean cambio = false;
+
+        LatLng posicion = new LatLng(noticia.getLatitud(), noticia.getLongitud());
+        if (!posicion.equals(marker.getPosition())) {
+            marker.setPosition(posicion);
+            cambio = true;
+        }
+        if (!sonIguales(marker.getTitle(), noticia.getTitulo())) {
+            marker.setTitle(noticia.getTitulo());
+            cambio = true;
+        }
+        if (!sonIguales(marker.getSnippet(), noticia.getDescripcion())) {
+            marker.setSnippet(noticia.getDescripcion());
+            cambio = true;
+        }
+        if (anterior == null || !sonIguales(anterior.getCategoriaId(), noticia.getCategoriaId())) {
+            marker.setIcon(fabricaIcono.crearIcono(noticia));
+            cambio = true;
+        }
+        return cambio;
+    }
+
+    private static boolean sonIguales(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
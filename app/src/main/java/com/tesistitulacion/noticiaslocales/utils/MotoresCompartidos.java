@@ -0,0 +1,97 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Motores pesados compartidos por el proceso: TTS y traductor de ML Kit
+ *
+ * Una sola instancia de cada uno, creada al primer uso (o al calentarla cuando el hilo
+ * principal queda ocioso) y liberada tras INACTIVIDAD_MS sin que ninguna pantalla la
+ * tenga adquirida. Abrir una noticia ya no arranca el motor de voz ni el traductor.
+ * Usar desde el hilo principal.
+ */
+public final class MotoresCompartidos {
+
+    private static final String TAG = "MotoresCompartidos";
+
+    // Tiempo sin uso tras el cual se apaga un motor (1 minuto)
+    public static final long INACTIVIDAD_MS = 60 * 1000;
+
+    private static ComponenteCompartido<TextToSpeechHelper> tts;
+    private static ComponenteCompartido<TranslationHelper> traductor;
+
+    private MotoresCompartidos() {
+    }
+
+    /**
+     * Motor de lectura en voz alta (se crea con el contexto de la aplicación)
+     * Quien lo adquiere registra su TTSCallback con setCallback().
+     */
+    public static synchronized ComponenteCompartido<TextToSpeechHelper> tts(Context context) {
+        if (tts == null) {
+            final Context appContext = context.getApplicationContext();
+            tts = new ComponenteCompartido<>("tts", new ComponenteCompartido.Fabrica<TextToSpeechHelper>() {
+                @Override
+                public TextToSpeechHelper crear() {
+                    Log.d(TAG, "Creando motor de TTS");
+                    return new TextToSpeechHelper(appContext, null);
+                }
+
+                @Override
+                public void liberar(TextToSpeechHelper instancia) {
+                    Log.d(TAG, "Motor de TTS liberado");
+                    instancia.shutdown();
+                }
+            }, crearTemporizador(), INACTIVIDAD_MS);
+        }
+        return tts;
+    }
+
+    /**
+     * Traductor de ML Kit (español → inglés hasta que se cambie el destino)
+     */
+    public static synchronized ComponenteCompartido<TranslationHelper> traductor() {
+        if (traductor == null) {
+            traductor = new ComponenteCompartido<>("traductor", new ComponenteCompartido.Fabrica<TranslationHelper>() {
+                @Override
+                public TranslationHelper crear() {
+                    Log.d(TAG, "Creando traductor");
+                    return new TranslationHelper();
+                }
+
+                @Override
+                public void liberar(TranslationHelper instancia) {
+                    Log.d(TAG, "Traductor liberado");
+                    instancia.close();
+                }
+            }, crearTemporizador(), INACTIVIDAD_MS);
+        }
+        return traductor;
+    }
+
+    /**
+     * Apaga en el momento los motores que nadie está usando (poca memoria / app en segundo plano)
+     */
+    public static synchronized void liberarSinUso() {
+        if (tts != null) tts.liberarSiNadieLoUsa();
+        if (traductor != null) traductor.liberarSiNadieLoUsa();
+    }
+
+    private static ComponenteCompartido.Temporizador crearTemporizador() {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        return new ComponenteCompartido.Temporizador() {
+            @Override
+            public void programar(Runnable accion, long retrasoMs) {
+                handler.postDelayed(accion, retrasoMs);
+            }
+
+            @Override
+            public void cancelar(Runnable accion) {
+                handler.removeCallbacks(accion);
+            }
+        };
+    }
+}
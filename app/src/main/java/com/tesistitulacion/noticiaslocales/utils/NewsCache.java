@@ -2,30 +2,46 @@ package com.tesistitulacion.noticiaslocales.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import androidx.annotation.WorkerThread;
+
+import com.tesistitulacion.noticiaslocales.db.NoticiaStore;
 import com.tesistitulacion.noticiaslocales.modelo.Noticia;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Clase para gestionar el caché local de noticias
  * Permite leer noticias sin conexión a internet
+ *
+ * Las noticias se guardan una por fila en {@link NoticiaStore} (SQLite),
+ * así que leer las primeras N o consultar estadísticas no obliga a
+ * deserializar todo el caché. SharedPreferences solo guarda metadatos.
+ *
+ * El almacén se usa desde un único hilo propio: las escrituras se encolan y
+ * las lecturas entregan el resultado en el hilo principal con un callback,
+ * así la UI nunca espera a SQLite. Como comparten la cola, una lectura ve
+ * siempre las escrituras pedidas antes que ella.
  */
 public class NewsCache {
 
     private static final String TAG = "NewsCache";
     private static final String PREFS_NAME = "news_cache";
-    private static final String KEY_NOTICIAS = "noticias_cached";
+    // Clave del formato anterior (un único JSON con todas las noticias)
+    private static final String KEY_NOTICIAS_LEGACY = "noticias_cached";
     private static final String KEY_TIMESTAMP = "cache_timestamp";
     private static final String KEY_VERSION = "cache_version";
 
     // Versión del caché (incrementar si cambia el modelo de Noticia)
-    private static final int CACHE_VERSION = 1;
+    private static final int CACHE_VERSION = 2;
 
     // Tiempo máximo de validez del caché (24 horas en milisegundos)
     private static final long CACHE_EXPIRY_MS = 24 * 60 * 60 * 1000;
@@ -33,9 +49,34 @@ public class NewsCache {
     // Tiempo de caché "fresco" (5 minutos) - se usa si hay conexión
     private static final long CACHE_FRESH_MS = 5 * 60 * 1000;
 
+    // Máximo de noticias que se conservan en el almacén local
+    public static final int MAX_NOTICIAS_CACHE = 500;
+
+    /**
+     * Resultado de una lectura del caché (se llama en el hilo principal)
+     */
+    public interface NoticiasCallback {
+        void onNoticias(List<Noticia> noticias);
+    }
+
+    /**
+     * Cambios del almacén, avisados desde el hilo del caché después de cada escritura
+     * (p. ej. para mantener un índice de búsqueda sobre todas las noticias guardadas)
+     */
+    public interface Observador {
+        void onNoticiasGuardadas(List<Noticia> noticias);
+
+        void onNoticiasEliminadas(List<String> firestoreIds);
+
+        void onCacheLimpiado();
+    }
+
     private static NewsCache instance;
     private SharedPreferences prefs;
-    private Gson gson;
+    private NoticiaStore store;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
 
     /**
      * Constructor privado (Singleton)
@@ -43,14 +84,17 @@ public class NewsCache {
     private NewsCache(Context context) {
         prefs = context.getApplicationContext()
                 .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        gson = new Gson();
+        store = NoticiaStore.getInstance(context);
 
         // Verificar versión del caché
         int savedVersion = prefs.getInt(KEY_VERSION, 0);
         if (savedVersion != CACHE_VERSION) {
             Log.w(TAG, "Versión de caché diferente, limpiando caché antiguo");
             limpiarCache();
-            prefs.edit().putInt(KEY_VERSION, CACHE_VERSION).apply();
+            prefs.edit()
+                    .remove(KEY_NOTICIAS_LEGACY)
+                    .putInt(KEY_VERSION, CACHE_VERSION)
+                    .apply();
         }
     }
 
@@ -65,7 +109,8 @@ public class NewsCache {
     }
 
     /**
-     * Guarda una lista de noticias en caché
+     * Guarda (inserta o actualiza) una lista de noticias en caché
+     * Las noticias que ya estaban se conservan; se podan las más antiguas
      * @param noticias Lista de noticias a guardar
      */
     public void guardarNoticias(List<Noticia> noticias) {
@@ -74,41 +119,171 @@ public class NewsCache {
             return;
         }
 
-        try {
-            String json = gson.toJson(noticias);
-            long timestamp = System.currentTimeMillis();
+        // Copia: quien llama puede seguir modificando su lista
+        final List<Noticia> copia = new ArrayList<>(noticias);
+        executor.execute(() -> {
+            try {
+                int guardadas = store.upsertAll(copia);
+                List<String> podadas = store.podar(MAX_NOTICIAS_CACHE);
+                actualizarTimestamp();
+
+                Log.i(TAG, "Caché guardado: " + guardadas + " noticias");
+                for (Observador o : observadores) {
+                    o.onNoticiasGuardadas(copia);
+                    if (!podadas.isEmpty()) o.onNoticiasEliminadas(podadas);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error al guardar caché", e);
+            }
+        });
+    }
 
-            prefs.edit()
-                    .putString(KEY_NOTICIAS, json)
-                    .putLong(KEY_TIMESTAMP, timestamp)
-                    .apply();
+    /**
+     * Guarda o actualiza una sola noticia en caché
+     */
+    public void guardarNoticia(Noticia noticia) {
+        if (noticia == null) return;
+        executor.execute(() -> {
+            if (store.upsert(noticia)) {
+                actualizarTimestamp();
+                for (Observador o : observadores) {
+                    o.onNoticiasGuardadas(Collections.singletonList(noticia));
+                }
+            }
+        });
+    }
 
-            Log.i(TAG, "Caché guardado: " + noticias.size() + " noticias");
-        } catch (Exception e) {
-            Log.e(TAG, "Error al guardar caché", e);
-        }
+    /**
+     * Elimina una noticia del caché
+     */
+    public void eliminarNoticia(String firestoreId) {
+        eliminarNoticias(Collections.singletonList(firestoreId));
     }
 
     /**
-     * Obtiene las noticias del caché
-     * @return Lista de noticias o lista vacía si no hay caché
+     * Elimina del caché noticias que ya no existen en el servidor
+     * (borradas en Firestore), para que no reaparezcan al abrir la app ni en la búsqueda
      */
-    public List<Noticia> obtenerNoticias() {
-        try {
-            String json = prefs.getString(KEY_NOTICIAS, null);
+    public void eliminarNoticias(List<String> firestoreIds) {
+        if (firestoreIds == null || firestoreIds.isEmpty()) return;
+
+        final List<String> ids = new ArrayList<>(firestoreIds);
+        executor.execute(() -> {
+            try {
+                List<String> eliminadas = store.eliminarTodas(ids);
+                if (eliminadas.isEmpty()) return;
+
+                Log.d(TAG, "Eliminadas del caché: " + eliminadas.size());
+                for (Observador o : observadores) {
+                    o.onNoticiasEliminadas(eliminadas);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error al eliminar del caché", e);
+            }
+        });
+    }
 
-            if (json == null || json.isEmpty()) {
-                Log.d(TAG, "No hay noticias en caché");
-                return new ArrayList<>();
+    /**
+     * Registra un observador de los cambios del almacén
+     */
+    public void agregarObservador(Observador observador) {
+        if (observador != null && !observadores.contains(observador)) {
+            observadores.add(observador);
+        }
+    }
+
+    /**
+     * Registra un observador desde el hilo del caché y le entrega primero todo lo guardado
+     * (como onNoticiasGuardadas). Lectura y registro van en la misma cola que las escrituras,
+     * así ningún cambio queda entre el contenido inicial y los avisos siguientes.
+     */
+    public void agregarObservadorConContenido(Observador observador) {
+        if (observador == null) return;
+        executor.execute(() -> {
+            if (observadores.contains(observador)) return;
+            try {
+                List<Noticia> guardadas = store.obtenerRecientes(MAX_NOTICIAS_CACHE);
+                if (!guardadas.isEmpty()) observador.onNoticiasGuardadas(guardadas);
+            } catch (Exception e) {
+                Log.e(TAG, "Error al leer caché", e);
             }
+            observadores.add(observador);
+        });
+    }
 
-            Type listType = new TypeToken<List<Noticia>>(){}.getType();
-            List<Noticia> noticias = gson.fromJson(json, listType);
+    public void quitarObservador(Observador observador) {
+        observadores.remove(observador);
+        executor.execute(() -> observadores.remove(observador)); // Por si su registro seguía en cola
+    }
+
+    // ==================== LECTURA ASÍNCRONA (desde la UI) ====================
+
+    /**
+     * Lee las N noticias más recientes en segundo plano
+     * @param callback Recibe la lista (vacía si no hay caché) en el hilo principal
+     */
+    public void obtenerNoticiasRecientes(int limite, NoticiasCallback callback) {
+        leer(() -> obtenerNoticiasRecientes(limite), callback);
+    }
 
-            if (noticias != null) {
-                Log.i(TAG, "Caché recuperado: " + noticias.size() + " noticias");
-                return noticias;
+    /**
+     * Lee en segundo plano las noticias con esos firestoreId (una consulta, no una por id)
+     * @param callback Recibe las que estén en caché, sin orden definido, en el hilo principal
+     */
+    public void obtenerNoticias(List<String> firestoreIds, NoticiasCallback callback) {
+        final List<String> ids = new ArrayList<>(firestoreIds);
+        leer(() -> store.obtenerPorIds(ids), callback);
+    }
+
+    private interface Lectura {
+        List<Noticia> leer();
+    }
+
+    private void leer(Lectura lectura, NoticiasCallback callback) {
+        executor.execute(() -> {
+            List<Noticia> noticias;
+            try {
+                noticias = lectura.leer();
+            } catch (Exception e) {
+                Log.e(TAG, "Error al leer caché", e);
+                noticias = new ArrayList<>();
             }
+            final List<Noticia> resultado = noticias;
+            mainHandler.post(() -> callback.onNoticias(resultado));
+        });
+    }
+
+    // ==================== LECTURA SÍNCRONA (solo en el hilo del caché) ====================
+
+    /**
+     * Obtiene una noticia del caché por su firestoreId
+     * @return Noticia o null si no está en caché
+     */
+    @WorkerThread
+    public Noticia obtenerNoticia(String firestoreId) {
+        return store.obtener(firestoreId);
+    }
+
+    /**
+     * Obtiene todas las noticias del caché (más recientes primero)
+     * Preferir obtenerNoticiasRecientes() cuando solo se necesita la primera página
+     * @return Lista de noticias o lista vacía si no hay caché
+     */
+    @WorkerThread
+    public List<Noticia> obtenerNoticias() {
+        return obtenerNoticiasRecientes(MAX_NOTICIAS_CACHE);
+    }
+
+    /**
+     * Obtiene las N noticias más recientes del caché
+     * @param limite Cantidad máxima de noticias
+     */
+    @WorkerThread
+    public List<Noticia> obtenerNoticiasRecientes(int limite) {
+        try {
+            List<Noticia> noticias = store.obtenerRecientes(limite);
+            Log.i(TAG, "Caché recuperado: " + noticias.size() + " noticias");
+            return noticias;
         } catch (Exception e) {
             Log.e(TAG, "Error al leer caché", e);
         }
@@ -116,12 +291,58 @@ public class NewsCache {
         return new ArrayList<>();
     }
 
+    /**
+     * Obtiene noticias más antiguas que una fecha (para paginar el caché)
+     * @param fechaCursor Timestamp de la última noticia ya mostrada
+     * @param limite Cantidad máxima de noticias
+     */
+    @WorkerThread
+    public List<Noticia> obtenerNoticiasAnteriores(long fechaCursor, int limite) {
+        return store.obtenerAnterioresA(fechaCursor, limite);
+    }
+
+    /**
+     * Obtiene noticias publicadas dentro de un rango de fechas
+     */
+    @WorkerThread
+    public List<Noticia> obtenerNoticiasEntreFechas(long desde, long hasta, int limite) {
+        return store.obtenerEntreFechas(desde, hasta, limite);
+    }
+
+    /**
+     * Obtiene noticias de una categoría
+     */
+    @WorkerThread
+    public List<Noticia> obtenerNoticiasPorCategoria(int categoriaId, int limite) {
+        return store.obtenerPorCategoria(categoriaId, limite);
+    }
+
+    /**
+     * Obtiene noticias de una parroquia
+     */
+    @WorkerThread
+    public List<Noticia> obtenerNoticiasPorParroquia(int parroquiaId, int limite) {
+        return store.obtenerPorParroquia(parroquiaId, limite);
+    }
+
     /**
      * Verifica si hay caché disponible
      */
+    @WorkerThread
     public boolean hayCache() {
-        String json = prefs.getString(KEY_NOTICIAS, null);
-        return json != null && !json.isEmpty();
+        return store.contar() > 0;
+    }
+
+    /**
+     * Cantidad de noticias en caché (O(1))
+     */
+    @WorkerThread
+    public int getCantidadNoticias() {
+        return store.contar();
+    }
+
+    private void actualizarTimestamp() {
+        prefs.edit().putLong(KEY_TIMESTAMP, System.currentTimeMillis()).apply();
     }
 
     /**
@@ -179,23 +400,29 @@ public class NewsCache {
      */
     public void limpiarCache() {
         prefs.edit()
-                .remove(KEY_NOTICIAS)
                 .remove(KEY_TIMESTAMP)
                 .apply();
-        Log.i(TAG, "Caché limpiado");
+        executor.execute(() -> {
+            store.limpiar();
+            Log.i(TAG, "Caché limpiado");
+            for (Observador o : observadores) {
+                o.onCacheLimpiado();
+            }
+        });
     }
 
     /**
      * Obtiene el tamaño aproximado del caché en bytes
      */
+    @WorkerThread
     public long getTamanioCache() {
-        String json = prefs.getString(KEY_NOTICIAS, "");
-        return json != null ? json.getBytes().length : 0;
+        return store.getTamanioBytes();
     }
 
     /**
      * Obtiene el tamaño del caché en formato legible
      */
+    @WorkerThread
     public String getTamanioCacheLegible() {
         long bytes = getTamanioCache();
         if (bytes < 1024) {
@@ -210,10 +437,12 @@ public class NewsCache {
     /**
      * Obtiene estadísticas del caché
      */
+    @WorkerThread
     public CacheStats getEstadisticas() {
+        int cantidad = store.contar();
         return new CacheStats(
-                hayCache(),
-                obtenerNoticias().size(),
+                cantidad > 0,
+                cantidad,
                 getTimestamp(),
                 getTamanioCache(),
                 cacheExpirado(),
@@ -0,0 +1,253 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Artículos guardados (bookmarks) del usuario
+ *
+ * Los ids viven en memoria en un LinkedHashSet (orden de guardado): consultar si una
+ * noticia está guardada es O(1) y no toca las preferencias encriptadas. Se leen del
+ * disco una sola vez por proceso, cuando UsuarioPreferences termina su carga en segundo
+ * plano: crear la instancia nunca espera al Keystore. Hasta entonces no hay ninguna
+ * guardada; las pantallas que necesitan la lista real esperan con cuandoEsteCargada() y
+ * los observadores reciben un cambio general (noticiaId null) al terminar la carga.
+ *
+ * En las preferencias cada noticia es su propia clave ("guardada_<id>" → momento en que
+ * se guardó), así guardar o quitar una escribe solo esa entrada en lugar de volver a
+ * unir y encriptar la lista completa. Se leen y escriben a través de UsuarioPreferences
+ * (copia en memoria, escritura en segundo plano).
+ *
+ * Los observadores se enteran de cada cambio (p. ej. el adapter actualiza solo el icono
+ * de la fila afectada). Usar desde el hilo principal.
+ */
+public class NoticiasGuardadasStore {
+
+    private static final String TAG = "NoticiasGuardadasStore";
+
+    // Prefijo de las claves por noticia
+    private static final String PREFIJO_CLAVE = "guardada_";
+
+    // Clave del formato anterior (ids separados por comas en un solo valor)
+    private static final String KEY_LEGACY = "noticias_guardadas";
+
+    /**
+     * Recibe los cambios en los artículos guardados
+     */
+    public interface Observador {
+        /**
+         * @param noticiaId Noticia que cambió, o null si cambió todo (p. ej. al cerrar sesión)
+         */
+        void onGuardadaCambiada(String noticiaId, boolean guardada);
+    }
+
+    private static NoticiasGuardadasStore instance;
+
+    private final Context appContext;
+    private final LinkedHashSet<String> ids = new LinkedHashSet<>();
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
+
+    // Solo desde el hilo principal
+    private boolean cargada;
+    private final List<Runnable> pendientes = new ArrayList<>();
+
+    /**
+     * Constructor privado (Singleton)
+     */
+    private NoticiasGuardadasStore(Context context) {
+        appContext = context.getApplicationContext();
+        UsuarioPreferences.cuandoEstenListas(appContext, this::cargar);
+    }
+
+    /**
+     * Obtiene la instancia singleton
+     */
+    public static synchronized NoticiasGuardadasStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new NoticiasGuardadasStore(context);
+        }
+        return instance;
+    }
+
+    // ==================== CARGA ====================
+
+    /**
+     * Ejecuta la acción en el hilo principal cuando los ids guardados estén cargados
+     * Si ya lo están, se ejecuta en el momento. Llamar desde el hilo principal.
+     */
+    public void cuandoEsteCargada(Runnable accion) {
+        if (cargada) {
+            accion.run();
+        } else {
+            pendientes.add(accion);
+        }
+    }
+
+    // ==================== CONSULTAS (memoria) ====================
+
+    public synchronized boolean estaGuardada(String noticiaId) {
+        return noticiaId != null && ids.contains(noticiaId);
+    }
+
+    /**
+     * Ids guardados, del más antiguo al más reciente (copia)
+     */
+    public synchronized List<String> getIds() {
+        return new ArrayList<>(ids);
+    }
+
+    public synchronized int cantidad() {
+        return ids.size();
+    }
+
+    // ==================== CAMBIOS (memoria + una clave en disco) ====================
+
+    /**
+     * Antes de terminar la carga el cambio se aplica al terminar y devuelve false
+     * @return true si no estaba guardada
+     */
+    public boolean guardar(String noticiaId) {
+        if (noticiaId == null || noticiaId.isEmpty()) return false;
+        if (!cargada) {
+            pendientes.add(() -> guardar(noticiaId));
+            return false;
+        }
+        synchronized (this) {
+            if (!ids.add(noticiaId)) return false;
+        }
+        UsuarioPreferences.escribir(appContext, PREFIJO_CLAVE + noticiaId, System.currentTimeMillis());
+        Log.i(TAG, "Noticia guardada: " + noticiaId);
+        notificar(noticiaId, true);
+        return true;
+    }
+
+    /**
+     * Antes de terminar la carga el cambio se aplica al terminar y devuelve false
+     * @return true si estaba guardada
+     */
+    public boolean eliminar(String noticiaId) {
+        if (noticiaId == null) return false;
+        if (!cargada) {
+            pendientes.add(() -> eliminar(noticiaId));
+            return false;
+        }
+        synchronized (this) {
+            if (!ids.remove(noticiaId)) return false;
+        }
+        UsuarioPreferences.escribir(appContext, PREFIJO_CLAVE + noticiaId, null);
+        Log.i(TAG, "Noticia eliminada de guardados: " + noticiaId);
+        notificar(noticiaId, false);
+        return true;
+    }
+
+    /**
+     * Guarda la noticia si no lo estaba y la quita si lo estaba
+     * Antes de terminar la carga no se sabe si estaba guardada: se alterna al terminar
+     * (los observadores reciben el resultado) y devuelve false.
+     * @return true si quedó guardada
+     */
+    public boolean alternar(String noticiaId) {
+        if (!cargada) {
+            pendientes.add(() -> alternar(noticiaId));
+            return false;
+        }
+        if (estaGuardada(noticiaId)) {
+            eliminar(noticiaId);
+            return false;
+        }
+        return guardar(noticiaId);
+    }
+
+    /**
+     * Vacía la copia en memoria (las preferencias ya se borraron al cerrar sesión)
+     */
+    void vaciarMemoria() {
+        synchronized (this) {
+            if (ids.isEmpty()) return;
+            ids.clear();
+        }
+        notificar(null, false);
+    }
+
+    // ==================== OBSERVADORES ====================
+
+    public void agregarObservador(Observador observador) {
+        if (observador != null && !observadores.contains(observador)) {
+            observadores.add(observador);
+        }
+    }
+
+    public void eliminarObservador(Observador observador) {
+        observadores.remove(observador);
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private void notificar(String noticiaId, boolean guardada) {
+        for (Observador observador : observadores) {
+            observador.onGuardadaCambiada(noticiaId, guardada);
+        }
+    }
+
+    /**
+     * Lee las claves por noticia (ordenadas por momento de guardado) y migra el formato anterior
+     * Corre en el hilo principal con las preferencias ya en memoria (no espera al Keystore).
+     */
+    private void cargar() {
+        final Map<String, Object> todas = UsuarioPreferences.getValores(appContext);
+        List<String> guardadas = new ArrayList<>();
+        for (Map.Entry<String, ?> entrada : todas.entrySet()) {
+            if (entrada.getKey().startsWith(PREFIJO_CLAVE) && entrada.getValue() instanceof Long) {
+                guardadas.add(entrada.getKey());
+            }
+        }
+        Collections.sort(guardadas, (a, b) -> Long.compare((Long) todas.get(a), (Long) todas.get(b)));
+        synchronized (this) {
+            for (String clave : guardadas) {
+                ids.add(clave.substring(PREFIJO_CLAVE.length()));
+            }
+        }
+
+        Object legacy = todas.get(KEY_LEGACY);
+        if (legacy instanceof String) {
+            migrar((String) legacy);
+        }
+
+        Log.d(TAG, "Noticias guardadas cargadas: " + cantidad());
+
+        cargada = true;
+        notificar(null, false);
+        List<Runnable> acciones = new ArrayList<>(pendientes);
+        pendientes.clear();
+        for (Runnable accion : acciones) {
+            accion.run();
+        }
+    }
+
+    private void migrar(String idsSeparadosPorComa) {
+        List<Object> claveValor = new ArrayList<>();
+        long momento = System.currentTimeMillis();
+        for (String id : idsSeparadosPorComa.split(",")) {
+            String limpio = id.trim();
+            boolean nueva;
+            synchronized (this) {
+                nueva = !limpio.isEmpty() && ids.add(limpio);
+            }
+            if (nueva) {
+                claveValor.add(PREFIJO_CLAVE + limpio);
+                claveValor.add(momento++); // Conserva el orden anterior
+            }
+        }
+        claveValor.add(KEY_LEGACY);
+        claveValor.add(null);
+        UsuarioPreferences.escribir(appContext, claveValor.toArray());
+        Log.i(TAG, "Noticias guardadas migradas al formato por clave");
+    }
+}
@@ -0,0 +1,149 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+/**
+ * Política adaptativa de muestreo GPS
+ *
+ * Decide intervalo, precisión y desplazamiento mínimo según:
+ * - La pantalla que consume la ubicación (mapa visible vs. lista de noticias)
+ * - La velocidad actual del usuario (quieto, caminando, en vehículo)
+ *
+ * Además descarta lecturas cuyo desplazamiento es menor que su radio de precisión
+ * (ruido del GPS estando quieto), salvo que la precisión haya mejorado bastante.
+ *
+ * No depende de Android: UbicacionCompartida traduce la configuración a LocationRequest.
+ */
+public final class PoliticaUbicacion {
+
+    /**
+     * Pantalla que pide la ubicación (de menor a mayor exigencia)
+     */
+    public enum Pantalla {
+        LISTA,  // Solo ordena/filtra por distancia: basta con lecturas espaciadas
+        MAPA    // El usuario ve su posición y los marcadores cercanos
+    }
+
+    /**
+     * Estado de movimiento deducido de la velocidad
+     */
+    public enum Movimiento {
+        QUIETO,
+        CAMINANDO,
+        VEHICULO
+    }
+
+    // Umbrales de velocidad (m/s)
+    private static final float VELOCIDAD_CAMINANDO = 0.5f;  // ≈ 1.8 km/h
+    private static final float VELOCIDAD_VEHICULO = 3.0f;   // ≈ 11 km/h
+
+    // Si la precisión mejora a menos de esta fracción, la lectura se acepta aunque no se haya movido
+    private static final float MEJORA_PRECISION = 0.5f;
+
+    /**
+     * Parámetros de muestreo para una pantalla y un movimiento
+     */
+    public static final class Configuracion {
+        private final long intervaloMs;
+        private final long intervaloMinimoMs;
+        private final boolean altaPrecision;
+        private final float desplazamientoMinimoM;
+
+        Configuracion(long intervaloMs, long intervaloMinimoMs, boolean altaPrecision, float desplazamientoMinimoM) {
+            this.intervaloMs = intervaloMs;
+            this.intervaloMinimoMs = intervaloMinimoMs;
+            this.altaPrecision = altaPrecision;
+            this.desplazamientoMinimoM = desplazamientoMinimoM;
+        }
+
+        public long getIntervaloMs() {
+            return intervaloMs;
+        }
+
+        public long getIntervaloMinimoMs() {
+            return intervaloMinimoMs;
+        }
+
+        /**
+         * true = GPS (PRIORITY_HIGH_ACCURACY); false = WiFi/celular (PRIORITY_BALANCED_POWER_ACCURACY)
+         */
+        public boolean isAltaPrecision() {
+            return altaPrecision;
+        }
+
+        public float getDesplazamientoMinimoM() {
+            return desplazamientoMinimoM;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Configuracion)) return false;
+            Configuracion otra = (Configuracion) o;
+            return intervaloMs == otra.intervaloMs
+                    && intervaloMinimoMs == otra.intervaloMinimoMs
+                    && altaPrecision == otra.altaPrecision
+                    && desplazamientoMinimoM == otra.desplazamientoMinimoM;
+        }
+
+        @Override
+        public int hashCode() {
+            int resultado = (int) (intervaloMs ^ (intervaloMs >>> 32));
+            resultado = 31 * resultado + (int) (intervaloMinimoMs ^ (intervaloMinimoMs >>> 32));
+            resultado = 31 * resultado + (altaPrecision ? 1 : 0);
+            resultado = 31 * resultado + Float.floatToIntBits(desplazamientoMinimoM);
+            return resultado;
+        }
+
+        @Override
+        public String toString() {
+            return "cada " + intervaloMs + "ms (mín " + intervaloMinimoMs + "ms), " +
+                    (altaPrecision ? "alta precisión" : "precisión equilibrada") +
+                    ", desplazamiento " + desplazamientoMinimoM + "m";
+        }
+    }
+
+    private PoliticaUbicacion() {
+    }
+
+    /**
+     * Clasifica la velocidad (m/s); una velocidad desconocida (negativa) cuenta como quieto
+     */
+    public static Movimiento clasificar(float velocidadMs) {
+        if (velocidadMs >= VELOCIDAD_VEHICULO) return Movimiento.VEHICULO;
+        if (velocidadMs >= VELOCIDAD_CAMINANDO) return Movimiento.CAMINANDO;
+        return Movimiento.QUIETO;
+    }
+
+    /**
+     * Configuración de muestreo para la pantalla y el movimiento indicados
+     */
+    public static Configuracion configuracion(Pantalla pantalla, Movimiento movimiento) {
+        if (pantalla == Pantalla.MAPA) {
+            switch (movimiento) {
+                case VEHICULO:  return new Configuracion(5000, 2000, true, 20f);
+                case CAMINANDO: return new Configuracion(10000, 5000, true, 5f);
+                default:        return new Configuracion(20000, 10000, false, 10f);
+            }
+        }
+
+        // Lista: la distancia solo se usa para ordenar y filtrar por radio
+        switch (movimiento) {
+            case VEHICULO: return new Configuracion(30000, 15000, false, 100f);
+            default:       return new Configuracion(60000, 30000, false, 50f);
+        }
+    }
+
+    /**
+     * Decide si una lectura nueva aporta información respecto de la anterior aceptada
+     * @param distanciaM Distancia entre ambas lecturas
+     * @param precisionNuevaM Radio de precisión de la nueva (0 si se desconoce)
+     * @param precisionAnteriorM Radio de precisión de la anterior (0 si se desconoce)
+     */
+    public static boolean esLecturaUtil(float distanciaM, float precisionNuevaM, float precisionAnteriorM) {
+        // Se movió más que el error de la medición: es un desplazamiento real
+        if (distanciaM >= precisionNuevaM) return true;
+
+        // No se movió, pero ahora sabemos mejor dónde está
+        return precisionAnteriorM > 0 && precisionNuevaM > 0
+                && precisionNuevaM < precisionAnteriorM * MEJORA_PRECISION;
+    }
+}
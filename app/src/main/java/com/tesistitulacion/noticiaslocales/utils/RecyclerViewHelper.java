@@ -124,4 +124,39 @@ public class RecyclerViewHelper {
     public static boolean isAtBottom(RecyclerView recyclerView) {
         return !recyclerView.canScrollVertically(1);
     }
+
+    /**
+     * Verifica si faltan pocos items para llegar al final (para prefetch de la siguiente página)
+     * @param recyclerView RecyclerView a verificar
+     * @param itemsRestantes Cantidad de items antes del final a partir de la cual se considera cerca
+     * @return true si el último item visible está dentro del umbral o ya está en el fondo
+     */
+    public static boolean isNearBottom(RecyclerView recyclerView, int itemsRestantes) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            int ultimoVisible = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+            if (ultimoVisible != RecyclerView.NO_POSITION
+                    && ultimoVisible >= layoutManager.getItemCount() - 1 - itemsRestantes) {
+                return true;
+            }
+        }
+        return isAtBottom(recyclerView);
+    }
+
+    /**
+     * Verifica si faltan pocos items para llegar al inicio
+     * @param recyclerView RecyclerView a verificar
+     * @param itemsRestantes Cantidad de items antes del inicio a partir de la cual se considera cerca
+     * @return true si el primer item visible está dentro del umbral o ya está en el tope
+     */
+    public static boolean isNearTop(RecyclerView recyclerView, int itemsRestantes) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            int primeroVisible = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+            if (primeroVisible != RecyclerView.NO_POSITION && primeroVisible <= itemsRestantes) {
+                return true;
+            }
+        }
+        return isAtTop(recyclerView);
+    }
 }
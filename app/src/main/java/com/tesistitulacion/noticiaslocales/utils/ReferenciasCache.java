@@ -0,0 +1,290 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.tesistitulacion.noticiaslocales.firebase.FirebaseManager;
+import com.tesistitulacion.noticiaslocales.modelo.Categoria;
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+import com.tesistitulacion.noticiaslocales.modelo.Parroquia;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caché de datos de referencia: categorías y parroquias
+ *
+ * Cambian muy poco, así que se cargan una vez por proceso: primero del disco (o de los
+ * valores incluidos en la app si nunca se descargaron) y, cuando vence el TTL, se
+ * refrescan desde Firestore en segundo plano. Las pantallas y el mapeo de noticias
+ * consultan el Catalogo en memoria (búsqueda por id en O(1)) sin lecturas extra.
+ *
+ * El Catalogo es inmutable: un refresco publica uno nuevo, nunca modifica el anterior.
+ */
+public class ReferenciasCache {
+
+    private static final String TAG = "ReferenciasCache";
+    private static final String PREFS_NAME = "referencias_cache";
+    private static final String KEY_CATEGORIAS = "categorias_json";
+    private static final String KEY_PARROQUIAS = "parroquias_json";
+    private static final String KEY_TIMESTAMP = "cache_timestamp";
+
+    // Cada cuánto se vuelven a pedir a Firestore (24 horas en milisegundos)
+    private static final long TTL_MS = 24 * 60 * 60 * 1000;
+
+    private static volatile ReferenciasCache instance;
+
+    private final SharedPreferences prefs;
+    private final Gson gson = new Gson();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean refrescando = new AtomicBoolean(false);
+
+    private volatile Catalogo catalogo = Catalogo.PREDETERMINADO;
+
+    /**
+     * Constructor privado (Singleton)
+     * La lectura del disco se hace en segundo plano; mientras tanto rige el catálogo incluido.
+     */
+    private ReferenciasCache(Context context) {
+        prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        executor.execute(this::cargarDeDisco);
+    }
+
+    /**
+     * Obtiene la instancia singleton
+     */
+    public static synchronized ReferenciasCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReferenciasCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Catálogo vigente, desde cualquier hilo
+     * Si la caché todavía no se creó, devuelve el catálogo incluido en la app.
+     */
+    public static Catalogo catalogo() {
+        ReferenciasCache cache = instance;
+        return cache != null ? cache.catalogo : Catalogo.PREDETERMINADO;
+    }
+
+    /**
+     * Pide categorías y parroquias a Firestore si el TTL venció (o nunca se descargaron)
+     */
+    public void refrescarSiVencio() {
+        executor.execute(() -> {
+            long guardado = prefs.getLong(KEY_TIMESTAMP, 0);
+            if (System.currentTimeMillis() - guardado < TTL_MS) return;
+            refrescar();
+        });
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private void cargarDeDisco() {
+        try {
+            String jsonCategorias = prefs.getString(KEY_CATEGORIAS, null);
+            String jsonParroquias = prefs.getString(KEY_PARROQUIAS, null);
+            if (jsonCategorias == null && jsonParroquias == null) return;
+
+            Type tipoCategorias = new TypeToken<List<Categoria>>() {}.getType();
+            Type tipoParroquias = new TypeToken<List<Parroquia>>() {}.getType();
+            List<Categoria> categorias = jsonCategorias != null ? gson.fromJson(jsonCategorias, tipoCategorias) : null;
+            List<Parroquia> parroquias = jsonParroquias != null ? gson.fromJson(jsonParroquias, tipoParroquias) : null;
+
+            catalogo = catalogo.con(categorias, parroquias);
+            Log.d(TAG, "Catálogo cargado del disco: " + catalogo);
+        } catch (Exception e) {
+            Log.e(TAG, "Error leyendo catálogo del disco, se usa el incluido", e);
+        }
+    }
+
+    /**
+     * Descarga ambas colecciones; cada una reemplaza a la vigente solo si llegó con datos
+     * El TTL solo se renueva si llegaron las dos: si falla una, se reintenta en el próximo arranque.
+     */
+    private void refrescar() {
+        if (!refrescando.compareAndSet(false, true)) return;
+
+        final FirebaseManager firebaseManager = FirebaseManager.getInstance();
+        firebaseManager.getAllCategorias(new FirebaseManager.FirestoreCallback<List<Categoria>>() {
+            @Override
+            public void onSuccess(final List<Categoria> categorias) {
+                firebaseManager.getAllParroquias(new FirebaseManager.FirestoreCallback<List<Parroquia>>() {
+                    @Override
+                    public void onSuccess(List<Parroquia> parroquias) {
+                        executor.execute(() -> guardar(categorias, parroquias, true));
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "No se pudieron refrescar las parroquias: " + e.getMessage());
+                        executor.execute(() -> guardar(categorias, null, false));
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "No se pudo refrescar el catálogo: " + e.getMessage());
+                refrescando.set(false);
+            }
+        });
+    }
+
+    /**
+     * @param completo true si se descargaron ambas colecciones (solo entonces se renueva el TTL)
+     */
+    private void guardar(List<Categoria> categorias, List<Parroquia> parroquias, boolean completo) {
+        try {
+            Catalogo nuevo = catalogo.con(categorias, parroquias);
+            catalogo = nuevo;
+
+            SharedPreferences.Editor editor = prefs.edit()
+                    .putString(KEY_CATEGORIAS, gson.toJson(nuevo.getCategorias()))
+                    .putString(KEY_PARROQUIAS, gson.toJson(nuevo.getParroquias()));
+            if (completo) {
+                editor.putLong(KEY_TIMESTAMP, System.currentTimeMillis());
+            }
+            editor.apply();
+            Log.d(TAG, "Catálogo refrescado: " + nuevo);
+        } finally {
+            refrescando.set(false);
+        }
+    }
+
+    // ==================== CATÁLOGO ====================
+
+    /**
+     * Categorías y parroquias indexadas por id (inmutable)
+     */
+    public static final class Catalogo {
+
+        private static final String CATEGORIA_POR_DEFECTO = "General";
+
+        /**
+         * Valores incluidos en la app (los mismos que se usaban en cada pantalla)
+         */
+        static final Catalogo PREDETERMINADO = new Catalogo(
+                categoriasIncluidas(),
+                crearLista(Parroquia.ParroquiasIbarra.getTodasLasParroquias()));
+
+        private final List<Categoria> categorias;
+        private final List<Parroquia> parroquias;
+        private final Map<Integer, Categoria> categoriasPorId;
+        private final Map<Integer, Parroquia> parroquiasPorId;
+
+        Catalogo(List<Categoria> categorias, List<Parroquia> parroquias) {
+            this.categorias = Collections.unmodifiableList(new ArrayList<>(categorias));
+            this.parroquias = Collections.unmodifiableList(new ArrayList<>(parroquias));
+
+            Map<Integer, Categoria> porIdCategoria = new HashMap<>();
+            for (Categoria c : categorias) {
+                if (c != null && c.getId() != null) porIdCategoria.put(c.getId(), c);
+            }
+            Map<Integer, Parroquia> porIdParroquia = new HashMap<>();
+            for (Parroquia p : parroquias) {
+                if (p != null && p.getId() != null) porIdParroquia.put(p.getId(), p);
+            }
+            this.categoriasPorId = porIdCategoria;
+            this.parroquiasPorId = porIdParroquia;
+        }
+
+        /**
+         * Copia con las listas dadas; una lista null o vacía conserva la actual
+         */
+        Catalogo con(List<Categoria> nuevasCategorias, List<Parroquia> nuevasParroquias) {
+            return new Catalogo(
+                    nuevasCategorias != null && !nuevasCategorias.isEmpty() ? nuevasCategorias : categorias,
+                    nuevasParroquias != null && !nuevasParroquias.isEmpty() ? nuevasParroquias : parroquias);
+        }
+
+        public Categoria getCategoria(Integer id) {
+            return id != null ? categoriasPorId.get(id) : null;
+        }
+
+        public Parroquia getParroquia(Integer id) {
+            return id != null ? parroquiasPorId.get(id) : null;
+        }
+
+        /**
+         * Nombre de la categoría, o "General" si no hay id o no se conoce
+         */
+        public String getNombreCategoria(Integer id) {
+            Categoria categoria = getCategoria(id);
+            return categoria != null && categoria.getNombre() != null ? categoria.getNombre() : CATEGORIA_POR_DEFECTO;
+        }
+
+        public List<Categoria> getCategorias() {
+            return categorias;
+        }
+
+        public List<Parroquia> getParroquias() {
+            return parroquias;
+        }
+
+        /**
+         * Parroquias de un tipo ("urbana" o "rural"), en el orden del catálogo
+         */
+        public List<Parroquia> getParroquiasPorTipo(String tipo) {
+            List<Parroquia> resultado = new ArrayList<>();
+            for (Parroquia p : parroquias) {
+                if (p.getTipo() != null && p.getTipo().equalsIgnoreCase(tipo)) resultado.add(p);
+            }
+            return resultado;
+        }
+
+        /**
+         * Completa los nombres de categoría y parroquia de la noticia a partir de sus ids
+         * No pisa valores que ya vengan en la noticia.
+         */
+        public void adjuntarNombres(Noticia noticia) {
+            if (noticia.getCategoriaNombre() == null && noticia.getCategoriaId() != null) {
+                Categoria categoria = getCategoria(noticia.getCategoriaId());
+                if (categoria != null) noticia.setCategoriaNombre(categoria.getNombre());
+            }
+            if (noticia.getUbicacion() == null) {
+                Parroquia parroquia = getParroquia(noticia.getParroquiaId());
+                if (parroquia != null) noticia.setUbicacion(parroquia.getNombre());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return categorias.size() + " categorías, " + parroquias.size() + " parroquias";
+        }
+
+        private static List<Categoria> categoriasIncluidas() {
+            String[] nombres = {
+                    "Política", "Economía", "Cultura", "Deportes", "Educación",
+                    "Salud", "Seguridad", "Medio Ambiente", "Turismo", "Tecnología"
+            };
+            List<Categoria> categorias = new ArrayList<>(nombres.length);
+            for (int i = 0; i < nombres.length; i++) {
+                Categoria categoria = new Categoria();
+                categoria.setId(i + 1);
+                categoria.setNombre(nombres[i]);
+                categorias.add(categoria);
+            }
+            return categorias;
+        }
+
+        private static List<Parroquia> crearLista(Parroquia[] parroquias) {
+            List<Parroquia> lista = new ArrayList<>(parroquias.length);
+            Collections.addAll(lista, parroquias);
+            return lista;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selector acotado de las k noticias más cercanas
+ *
+ * Mantiene un max-heap de tamaño k: cada candidata se compara con la más lejana
+ * de las k actuales, así la selección cuesta O(n log k) en vez de ordenar todo,
+ * y la distancia de cada noticia se calcula una sola vez (la pasa quien llama).
+ */
+public class SelectorCercanas {
+
+    private static final Comparator<IndiceEspacial.Resultado> MAS_LEJANA_PRIMERO =
+            new Comparator<IndiceEspacial.Resultado>() {
+                @Override
+                public int compare(IndiceEspacial.Resultado a, IndiceEspacial.Resultado b) {
+                    return Double.compare(b.getDistanciaKm(), a.getDistanciaKm());
+                }
+            };
+
+    private final int k;
+    private final double radioMaxKm;
+    private final PriorityQueue<IndiceEspacial.Resultado> mejores;
+
+    /**
+     * @param k Cantidad máxima de noticias a seleccionar
+     * @param radioMaxKm Distancia máxima aceptada (Double.MAX_VALUE para no limitar)
+     */
+    public SelectorCercanas(int k, double radioMaxKm) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k debe ser positivo");
+        }
+        this.k = k;
+        this.radioMaxKm = radioMaxKm;
+        this.mejores = new PriorityQueue<>(k, MAS_LEJANA_PRIMERO);
+    }
+
+    /**
+     * Propone una candidata con su distancia ya calculada
+     * @return true si quedó entre las k más cercanas (por ahora)
+     */
+    public boolean ofrecer(Noticia noticia, double distanciaKm) {
+        if (distanciaKm > radioMaxKm) {
+            return false;
+        }
+        if (mejores.size() < k) {
+            mejores.add(new IndiceEspacial.Resultado(noticia, distanciaKm));
+            return true;
+        }
+        if (distanciaKm < mejores.peek().getDistanciaKm()) {
+            mejores.poll();
+            mejores.add(new IndiceEspacial.Resultado(noticia, distanciaKm));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * true si ya hay k seleccionadas
+     */
+    public boolean estaLleno() {
+        return mejores.size() == k;
+    }
+
+    /**
+     * Distancia a partir de la cual una candidata ya no puede entrar
+     * (la más lejana de las k si está lleno, si no el radio máximo)
+     */
+    public double getDistanciaLimite() {
+        return estaLleno() ? mejores.peek().getDistanciaKm() : radioMaxKm;
+    }
+
+    /**
+     * Las seleccionadas ordenadas de la más cercana a la más lejana
+     */
+    public List<IndiceEspacial.Resultado> getResultados() {
+        List<IndiceEspacial.Resultado> resultados = new ArrayList<>(mejores);
+        Collections.sort(resultados, Collections.reverseOrder(MAS_LEJANA_PRIMERO));
+        return resultados;
+    }
+}
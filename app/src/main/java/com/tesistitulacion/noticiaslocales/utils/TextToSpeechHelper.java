@@ -20,6 +20,7 @@ public class TextToSpeechHelper {
     private TextToSpeech textToSpeech;
     private Context context;
     private boolean isInitialized = false;
+    private boolean inicializacionTerminada = false;
     private boolean isSpeaking = false;
     private boolean isPaused = false;
 
@@ -45,9 +46,9 @@ public class TextToSpeechHelper {
     }
 
     /**
-     * Constructor
+     * Constructor (arranca el motor de TTS; para compartirlo usar MotoresCompartidos.tts())
      * @param context Contexto de la aplicación
-     * @param callback Callback para eventos
+     * @param callback Callback para eventos (puede ser null y registrarse después)
      */
     public TextToSpeechHelper(Context context, TTSCallback callback) {
         this.context = context;
@@ -81,6 +82,7 @@ public class TextToSpeechHelper {
                 setupProgressListener();
 
                 isInitialized = true;
+                inicializacionTerminada = true;
                 Log.d(TAG, "TTS inicializado correctamente");
 
                 if (callback != null) {
@@ -89,6 +91,7 @@ public class TextToSpeechHelper {
             } else {
                 Log.e(TAG, "Error al inicializar TTS");
                 isInitialized = false;
+                inicializacionTerminada = true;
                 if (callback != null) {
                     callback.onInitialized(false);
                 }
@@ -96,6 +99,17 @@ public class TextToSpeechHelper {
         });
     }
 
+    /**
+     * Cambia quién recibe los eventos (el motor compartido pasa de una pantalla a otra)
+     * Si el motor ya terminó de inicializarse, avisa onInitialized() al nuevo callback.
+     */
+    public void setCallback(TTSCallback callback) {
+        this.callback = callback;
+        if (callback != null && inicializacionTerminada) {
+            callback.onInitialized(isInitialized);
+        }
+    }
+
     /**
      * Configura el listener de progreso
      */
@@ -314,6 +328,13 @@ public class TextToSpeechHelper {
         return isInitialized;
     }
 
+    /**
+     * Verifica si el motor ya respondió (con éxito o con error)
+     */
+    public boolean terminoInicializacion() {
+        return inicializacionTerminada;
+    }
+
     /**
      * Obtiene la velocidad actual
      */
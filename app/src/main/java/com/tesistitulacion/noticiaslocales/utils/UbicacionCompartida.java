@@ -0,0 +1,177 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import android.content.Context;
+import android.location.Location;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationResult;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.Priority;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flujo de ubicación único para toda la app
+ *
+ * Mantiene una sola suscripción a FusedLocationProviderClient, compartida por todas
+ * las pantallas que necesitan ubicación continua (mapa, lista). La configuración del
+ * pedido la decide PoliticaUbicacion según la pantalla más exigente suscrita y la
+ * velocidad actual, y se ajusta sola cuando alguna de las dos cambia.
+ *
+ * Las lecturas que se mueven menos que su radio de precisión se descartan antes de
+ * llegar a los suscriptores.
+ *
+ * Usar desde el hilo principal (los callbacks también llegan en él).
+ */
+public class UbicacionCompartida {
+
+    private static final String TAG = "UbicacionCompartida";
+
+    private static UbicacionCompartida instance;
+
+    private final FusedLocationProviderClient fusedLocationClient;
+    private final Map<LocationHelper.LocationUpdateListener, PoliticaUbicacion.Pantalla> suscriptores =
+            new LinkedHashMap<>();
+
+    private Location ultimaUbicacion; // Última lectura aceptada
+    private PoliticaUbicacion.Movimiento movimiento = PoliticaUbicacion.Movimiento.QUIETO;
+    private PoliticaUbicacion.Configuracion configuracionActiva; // null = sin suscripción al GPS
+
+    private final LocationCallback locationCallback = new LocationCallback() {
+        @Override
+        public void onLocationResult(LocationResult locationResult) {
+            if (locationResult == null) return;
+            for (Location location : locationResult.getLocations()) {
+                if (location != null) {
+                    procesar(location);
+                }
+            }
+        }
+    };
+
+    private UbicacionCompartida(Context context) {
+        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(context.getApplicationContext());
+    }
+
+    public static synchronized UbicacionCompartida getInstance(Context context) {
+        if (instance == null) {
+            instance = new UbicacionCompartida(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Empieza a recibir ubicaciones (si ya hay una reciente, se entrega de inmediato)
+     * Volver a suscribir el mismo listener solo cambia su pantalla.
+     */
+    public void suscribir(LocationHelper.LocationUpdateListener listener, PoliticaUbicacion.Pantalla pantalla) {
+        if (listener == null) return;
+
+        suscriptores.put(listener, pantalla);
+        actualizarPedido();
+
+        if (ultimaUbicacion != null) {
+            listener.onLocationChanged(ultimaUbicacion);
+        }
+    }
+
+    public void desuscribir(LocationHelper.LocationUpdateListener listener) {
+        if (listener != null && suscriptores.remove(listener) != null) {
+            actualizarPedido();
+        }
+    }
+
+    /**
+     * Última ubicación aceptada por el flujo (null si todavía no hubo ninguna)
+     */
+    public Location getUltimaUbicacion() {
+        return ultimaUbicacion;
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private void procesar(Location nueva) {
+        Location anterior = ultimaUbicacion;
+
+        // Velocidad: la del GPS si la trae, si no estimada con la lectura anterior
+        float velocidad = -1f;
+        if (nueva.hasSpeed()) {
+            velocidad = nueva.getSpeed();
+        } else if (anterior != null) {
+            long ms = nueva.getTime() - anterior.getTime();
+            if (ms > 0) {
+                velocidad = anterior.distanceTo(nueva) * 1000f / ms;
+            }
+        }
+
+        PoliticaUbicacion.Movimiento nuevoMovimiento = PoliticaUbicacion.clasificar(velocidad);
+        if (nuevoMovimiento != movimiento) {
+            Log.d(TAG, "Movimiento: " + movimiento + " -> " + nuevoMovimiento);
+            movimiento = nuevoMovimiento;
+            actualizarPedido();
+        }
+
+        if (anterior != null && !PoliticaUbicacion.esLecturaUtil(anterior.distanceTo(nueva),
+                nueva.hasAccuracy() ? nueva.getAccuracy() : 0f,
+                anterior.hasAccuracy() ? anterior.getAccuracy() : 0f)) {
+            return; // Ruido dentro del radio de precisión
+        }
+        ultimaUbicacion = nueva;
+
+        // Copia: un suscriptor puede desuscribirse dentro del callback
+        List<LocationHelper.LocationUpdateListener> destinatarios = new ArrayList<>(suscriptores.keySet());
+        for (LocationHelper.LocationUpdateListener listener : destinatarios) {
+            listener.onLocationChanged(nueva);
+        }
+    }
+
+    /**
+     * Ajusta (o cancela) el pedido al GPS según los suscriptores y el movimiento actual
+     */
+    private void actualizarPedido() {
+        if (suscriptores.isEmpty()) {
+            if (configuracionActiva != null) {
+                fusedLocationClient.removeLocationUpdates(locationCallback);
+                configuracionActiva = null;
+                Log.d(TAG, "Sin suscriptores: actualizaciones de ubicación detenidas");
+            }
+            return;
+        }
+
+        PoliticaUbicacion.Pantalla pantalla = PoliticaUbicacion.Pantalla.LISTA;
+        for (PoliticaUbicacion.Pantalla p : suscriptores.values()) {
+            if (p.compareTo(pantalla) > 0) pantalla = p;
+        }
+
+        PoliticaUbicacion.Configuracion configuracion = PoliticaUbicacion.configuracion(pantalla, movimiento);
+        if (configuracion.equals(configuracionActiva)) {
+            return;
+        }
+
+        LocationRequest request = new LocationRequest.Builder(
+                configuracion.isAltaPrecision() ? Priority.PRIORITY_HIGH_ACCURACY : Priority.PRIORITY_BALANCED_POWER_ACCURACY,
+                configuracion.getIntervaloMs())
+                .setMinUpdateIntervalMillis(configuracion.getIntervaloMinimoMs())
+                .setMinUpdateDistanceMeters(configuracion.getDesplazamientoMinimoM())
+                .build();
+
+        try {
+            // Con el mismo callback, el pedido nuevo reemplaza al anterior
+            fusedLocationClient.requestLocationUpdates(request, locationCallback, Looper.getMainLooper());
+            configuracionActiva = configuracion;
+            Log.d(TAG, "Pedido de ubicación (" + pantalla + ", " + movimiento + "): " + configuracion);
+        } catch (SecurityException e) {
+            Log.e(TAG, "Error al iniciar actualizaciones: " + e.getMessage(), e);
+            for (LocationHelper.LocationUpdateListener listener : new ArrayList<>(suscriptores.keySet())) {
+                listener.onLocationError("Error al iniciar actualizaciones: " + e.getMessage());
+            }
+        }
+    }
+}
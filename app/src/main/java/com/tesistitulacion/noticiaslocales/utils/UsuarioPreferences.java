@@ -2,17 +2,37 @@ package com.tesistitulacion.noticiaslocales.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import androidx.security.crypto.EncryptedSharedPreferences;
 import androidx.security.crypto.MasterKey;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Gestión segura de preferencias del usuario usando EncryptedSharedPreferences.
  * Almacena de forma encriptada: token, usuario_id, email, nombre, rol.
  *
+ * Los valores se desencriptan una sola vez (precargar() en segundo plano al iniciar la
+ * app) y quedan en una foto inmutable en memoria: los getters la leen sin bloqueo ni
+ * criptografía. Los setters publican una foto nueva al instante y la escritura encriptada
+ * se hace después en un hilo propio. Cada cambio se avisa a los OnPreferenciaCambiadaListener.
+ *
+ * La MasterKey (Keystore) y las EncryptedSharedPreferences se crean en ese mismo hilo al
+ * crear el proceso; las pantallas que arrancan (Splash) esperan con cuandoEstenListas()
+ * en lugar de bloquear el hilo principal. Lo que no es secreto y se necesita antes del
+ * primer frame (tema, idioma) vive en preferencias normales: ThemeManager y LocaleManager.
+ *
  * Cumple con ISO/IEC 25010 - Seguridad (Confidencialidad)
  */
 public class UsuarioPreferences {
@@ -32,20 +52,37 @@ public class UsuarioPreferences {
     private static final String KEY_UBICACION = "ubicacion";
     private static final String KEY_FOTO_PERFIL = "foto_perfil";
     private static final String KEY_FECHA_REGISTRO = "fecha_registro";
-    private static final String KEY_NOTIFICACIONES_ACTIVAS = "notificaciones_activas";
-    private static final String KEY_MODO_OSCURO = "modo_oscuro";
-    private static final String KEY_MOSTRAR_SOLO_CERCANAS = "mostrar_solo_cercanas";
-    private static final String KEY_TTS_ENABLED = "tts_enabled";
-    private static final String KEY_TTS_SPEED = "tts_speed";
+    public static final String KEY_NOTIFICACIONES_ACTIVAS = "notificaciones_activas";
+    public static final String KEY_MOSTRAR_SOLO_CERCANAS = "mostrar_solo_cercanas";
+    public static final String KEY_TTS_ENABLED = "tts_enabled";
+    public static final String KEY_TTS_SPEED = "tts_speed";
     private static final String KEY_FIREBASE_UID = "firebase_uid";
 
+    /**
+     * Aviso de cambio de una preferencia
+     */
+    public interface OnPreferenciaCambiadaListener {
+        /**
+         * @param clave Clave que cambió (p. ej. KEY_MOSTRAR_SOLO_CERCANAS), o null si se borró todo
+         */
+        void onPreferenciaCambiada(String clave);
+    }
+
     private static SharedPreferences sharedPreferences;
 
+    // Foto inmutable de todos los valores (null hasta la primera carga)
+    private static volatile Map<String, Object> valores;
+
+    // Escrituras encriptadas, en orden, fuera del hilo que llama
+    private static final ExecutorService escritor = Executors.newSingleThreadExecutor();
+
+    private static final List<OnPreferenciaCambiadaListener> listeners = new CopyOnWriteArrayList<>();
+
     /**
      * Inicializa EncryptedSharedPreferences con MasterKey
      * Se debe llamar antes de usar los métodos get/set
      */
-    private static void initializePreferences(Context context) {
+    private static synchronized void initializePreferences(Context context) {
         if (sharedPreferences != null) {
             return; // Ya está inicializado
         }
@@ -75,21 +112,165 @@ public class UsuarioPreferences {
         }
     }
 
+    /**
+     * Crea la MasterKey y desencripta todas las preferencias en segundo plano
+     * (llamar al crear el proceso). Llamarlo de nuevo no repite la carga.
+     * Si un getter llega antes de que termine, espera a esa misma carga; nunca se carga dos veces.
+     */
+    public static void precargar(Context context) {
+        if (valores != null) return;
+        final Context appContext = context.getApplicationContext();
+        escritor.execute(() -> getValores(appContext));
+    }
+
+    /**
+     * true si ya se pueden leer las preferencias sin esperar al Keystore
+     */
+    public static boolean estanListas() {
+        return valores != null;
+    }
+
+    /**
+     * Ejecuta la acción en el hilo principal cuando las preferencias estén cargadas
+     * Si ya lo están y se llama desde el hilo principal, se ejecuta en el momento.
+     */
+    public static void cuandoEstenListas(Context context, final Runnable accion) {
+        final Looper principal = Looper.getMainLooper();
+        if (valores != null && Looper.myLooper() == principal) {
+            accion.run();
+            return;
+        }
+        precargar(context);
+        // El escritor ejecuta en orden: esta tarea corre después de la carga pendiente
+        escritor.execute(() -> new Handler(principal).post(accion));
+    }
+
+    public static void agregarListener(OnPreferenciaCambiadaListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public static void eliminarListener(OnPreferenciaCambiadaListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Foto en memoria de todos los valores (la carga si todavía no se hizo)
+     * Si la precarga está en curso, espera a que termine en lugar de repetirla.
+     */
+    static Map<String, Object> getValores(Context context) {
+        Map<String, Object> actuales = valores;
+        if (actuales != null) {
+            return actuales;
+        }
+        synchronized (UsuarioPreferences.class) {
+            if (valores == null) {
+                initializePreferences(context.getApplicationContext());
+                valores = Collections.unmodifiableMap(new HashMap<String, Object>(sharedPreferences.getAll()));
+                Log.d(TAG, "Preferencias cargadas en memoria: " + valores.size());
+            }
+            return valores;
+        }
+    }
+
+    /**
+     * Cambia valores: la foto en memoria al instante y las preferencias encriptadas en segundo plano
+     * @param claveValor Pares clave, valor (String, Boolean, Integer, Long, Float o null para borrar)
+     */
+    static void escribir(Context context, final Object... claveValor) {
+        final Context appContext = context.getApplicationContext();
+        synchronized (UsuarioPreferences.class) {
+            Map<String, Object> nuevos = new HashMap<>(getValores(appContext));
+            for (int i = 0; i < claveValor.length; i += 2) {
+                if (claveValor[i + 1] != null) {
+                    nuevos.put((String) claveValor[i], claveValor[i + 1]);
+                } else {
+                    nuevos.remove((String) claveValor[i]);
+                }
+            }
+            valores = Collections.unmodifiableMap(nuevos);
+        }
+
+        escritor.execute(() -> {
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            for (int i = 0; i < claveValor.length; i += 2) {
+                poner(editor, (String) claveValor[i], claveValor[i + 1]);
+            }
+            editor.apply();
+        });
+
+        for (int i = 0; i < claveValor.length; i += 2) {
+            notificar((String) claveValor[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void poner(SharedPreferences.Editor editor, String clave, Object valor) {
+        if (valor == null) {
+            editor.remove(clave);
+        } else if (valor instanceof String) {
+            editor.putString(clave, (String) valor);
+        } else if (valor instanceof Boolean) {
+            editor.putBoolean(clave, (Boolean) valor);
+        } else if (valor instanceof Integer) {
+            editor.putInt(clave, (Integer) valor);
+        } else if (valor instanceof Long) {
+            editor.putLong(clave, (Long) valor);
+        } else if (valor instanceof Float) {
+            editor.putFloat(clave, (Float) valor);
+        } else if (valor instanceof Set) {
+            editor.putStringSet(clave, (Set<String>) valor);
+        } else {
+            throw new IllegalArgumentException("Tipo no soportado para " + clave + ": " + valor.getClass());
+        }
+    }
+
+    private static void notificar(String clave) {
+        for (OnPreferenciaCambiadaListener listener : listeners) {
+            listener.onPreferenciaCambiada(clave);
+        }
+    }
+
+    // Lecturas tipadas desde la foto en memoria (un valor de otro tipo cuenta como ausente)
+
+    private static String leerString(Context context, String clave, String porDefecto) {
+        Object valor = getValores(context).get(clave);
+        return valor instanceof String ? (String) valor : porDefecto;
+    }
+
+    private static boolean leerBoolean(Context context, String clave, boolean porDefecto) {
+        Object valor = getValores(context).get(clave);
+        return valor instanceof Boolean ? (Boolean) valor : porDefecto;
+    }
+
+    private static int leerInt(Context context, String clave, int porDefecto) {
+        Object valor = getValores(context).get(clave);
+        return valor instanceof Integer ? (Integer) valor : porDefecto;
+    }
+
+    private static long leerLong(Context context, String clave, long porDefecto) {
+        Object valor = getValores(context).get(clave);
+        return valor instanceof Long ? (Long) valor : porDefecto;
+    }
+
+    private static float leerFloat(Context context, String clave, float porDefecto) {
+        Object valor = getValores(context).get(clave);
+        return valor instanceof Float ? (Float) valor : porDefecto;
+    }
+
     /**
      * Guarda la sesión completa del usuario
      */
     public static void guardarSesion(Context context, String token, int usuarioId,
                                       String email, String nombre, String rol) {
-        initializePreferences(context);
-
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_TOKEN, token);
-        editor.putInt(KEY_USUARIO_ID, usuarioId);
-        editor.putString(KEY_EMAIL, email);
-        editor.putString(KEY_NOMBRE, nombre);
-        editor.putString(KEY_ROL, rol);
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.apply();
+        escribir(context,
+                KEY_TOKEN, token,
+                KEY_USUARIO_ID, usuarioId,
+                KEY_EMAIL, email,
+                KEY_NOMBRE, nombre,
+                KEY_ROL, rol,
+                KEY_IS_LOGGED_IN, true);
 
         Log.i(TAG, "Sesión guardada de forma encriptada para usuario: " + email);
     }
@@ -98,59 +279,55 @@ public class UsuarioPreferences {
      * Obtiene el token de autenticación encriptado
      */
     public static String getToken(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_TOKEN, null);
+        return leerString(context, KEY_TOKEN, null);
     }
 
     /**
      * Obtiene el ID del usuario
      */
     public static int getUsuarioId(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getInt(KEY_USUARIO_ID, -1);
+        return leerInt(context, KEY_USUARIO_ID, -1);
     }
 
     /**
      * Obtiene el email del usuario
      */
     public static String getEmail(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_EMAIL, null);
+        return leerString(context, KEY_EMAIL, null);
     }
 
     /**
      * Obtiene el nombre del usuario
      */
     public static String getNombre(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_NOMBRE, null);
+        return leerString(context, KEY_NOMBRE, null);
     }
 
     /**
      * Obtiene el rol del usuario
      */
     public static String getRol(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_ROL, "usuario");
+        return leerString(context, KEY_ROL, "usuario");
     }
 
     /**
      * Verifica si hay una sesión activa
      */
     public static boolean isLoggedIn(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return leerBoolean(context, KEY_IS_LOGGED_IN, false);
     }
 
     /**
      * Cierra la sesión eliminando todos los datos encriptados
      */
     public static void cerrarSesion(Context context) {
-        initializePreferences(context);
-
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.clear();
-        editor.apply();
+        getValores(context);
+        synchronized (UsuarioPreferences.class) {
+            valores = Collections.emptyMap();
+        }
+        escritor.execute(() -> sharedPreferences.edit().clear().apply());
+        NoticiasGuardadasStore.getInstance(context).vaciarMemoria();
+        notificar(null);
 
         Log.i(TAG, "Sesión cerrada - datos encriptados eliminados");
     }
@@ -159,11 +336,7 @@ public class UsuarioPreferences {
      * Actualiza solo el token (útil si se renueva)
      */
     public static void actualizarToken(Context context, String nuevoToken) {
-        initializePreferences(context);
-
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_TOKEN, nuevoToken);
-        editor.apply();
+        escribir(context, KEY_TOKEN, nuevoToken);
 
         Log.i(TAG, "Token actualizado de forma encriptada");
     }
@@ -174,108 +347,84 @@ public class UsuarioPreferences {
      * Obtiene el apellido del usuario
      */
     public static String getApellido(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_APELLIDO, null);
+        return leerString(context, KEY_APELLIDO, null);
     }
 
     /**
      * Guarda el apellido del usuario
      */
     public static void guardarApellido(Context context, String apellido) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_APELLIDO, apellido);
-        editor.apply();
+        escribir(context, KEY_APELLIDO, apellido);
     }
 
     /**
      * Guarda el nombre del usuario
      */
     public static void guardarNombre(Context context, String nombre) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_NOMBRE, nombre);
-        editor.apply();
+        escribir(context, KEY_NOMBRE, nombre);
     }
 
     /**
      * Obtiene la biografía del usuario
      */
     public static String getBio(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_BIO, null);
+        return leerString(context, KEY_BIO, null);
     }
 
     /**
      * Guarda la biografía del usuario
      */
     public static void guardarBio(Context context, String bio) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_BIO, bio);
-        editor.apply();
+        escribir(context, KEY_BIO, bio);
     }
 
     /**
      * Obtiene el teléfono del usuario
      */
     public static String getTelefono(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_TELEFONO, null);
+        return leerString(context, KEY_TELEFONO, null);
     }
 
     /**
      * Guarda el teléfono del usuario
      */
     public static void guardarTelefono(Context context, String telefono) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_TELEFONO, telefono);
-        editor.apply();
+        escribir(context, KEY_TELEFONO, telefono);
     }
 
     /**
      * Obtiene la ubicación del usuario
      */
     public static String getUbicacion(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_UBICACION, null);
+        return leerString(context, KEY_UBICACION, null);
     }
 
     /**
      * Guarda la ubicación del usuario
      */
     public static void guardarUbicacion(Context context, String ubicacion) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_UBICACION, ubicacion);
-        editor.apply();
+        escribir(context, KEY_UBICACION, ubicacion);
     }
 
     /**
      * Obtiene la URL de la foto de perfil del usuario
      */
     public static String getFotoPerfil(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_FOTO_PERFIL, null);
+        return leerString(context, KEY_FOTO_PERFIL, null);
     }
 
     /**
      * Guarda la URL de la foto de perfil del usuario
      */
     public static void guardarFotoPerfil(Context context, String fotoUrl) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_FOTO_PERFIL, fotoUrl);
-        editor.apply();
+        escribir(context, KEY_FOTO_PERFIL, fotoUrl);
     }
 
     /**
      * Obtiene la fecha de registro del usuario (timestamp)
      */
     public static Long getFechaRegistro(Context context) {
-        initializePreferences(context);
-        long timestamp = sharedPreferences.getLong(KEY_FECHA_REGISTRO, 0);
+        long timestamp = leerLong(context, KEY_FECHA_REGISTRO, 0);
         return timestamp > 0 ? timestamp : null;
     }
 
@@ -283,28 +432,21 @@ public class UsuarioPreferences {
      * Guarda la fecha de registro del usuario
      */
     public static void guardarFechaRegistro(Context context, long timestamp) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putLong(KEY_FECHA_REGISTRO, timestamp);
-        editor.apply();
+        escribir(context, KEY_FECHA_REGISTRO, timestamp);
     }
 
     /**
      * Verifica si las notificaciones están activas
      */
     public static boolean getNotificacionesActivas(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_NOTIFICACIONES_ACTIVAS, true); // Por defecto activadas
+        return leerBoolean(context, KEY_NOTIFICACIONES_ACTIVAS, true); // Por defecto activadas
     }
 
     /**
      * Guarda el estado de las notificaciones
      */
     public static void guardarNotificacionesActivas(Context context, boolean activas) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_NOTIFICACIONES_ACTIVAS, activas);
-        editor.apply();
+        escribir(context, KEY_NOTIFICACIONES_ACTIVAS, activas);
     }
 
     // ==================== PREFERENCIAS DE TIPOS DE NOTIFICACIONES ====================
@@ -316,18 +458,14 @@ public class UsuarioPreferences {
      * Verifica si las notificaciones de noticias están activas
      */
     public static boolean getNotificacionesNoticias(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_NOTIF_NOTICIAS, true);
+        return leerBoolean(context, KEY_NOTIF_NOTICIAS, true);
     }
 
     /**
      * Guarda el estado de las notificaciones de noticias
      */
     public static void guardarNotificacionesNoticias(Context context, boolean activas) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_NOTIF_NOTICIAS, activas);
-        editor.apply();
+        escribir(context, KEY_NOTIF_NOTICIAS, activas);
         Log.i(TAG, "Notificaciones de noticias: " + activas);
     }
 
@@ -335,18 +473,14 @@ public class UsuarioPreferences {
      * Verifica si las notificaciones destacadas están activas
      */
     public static boolean getNotificacionesDestacadas(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_NOTIF_DESTACADAS, true);
+        return leerBoolean(context, KEY_NOTIF_DESTACADAS, true);
     }
 
     /**
      * Guarda el estado de las notificaciones destacadas
      */
     public static void guardarNotificacionesDestacadas(Context context, boolean activas) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_NOTIF_DESTACADAS, activas);
-        editor.apply();
+        escribir(context, KEY_NOTIF_DESTACADAS, activas);
         Log.i(TAG, "Notificaciones destacadas: " + activas);
     }
 
@@ -354,14 +488,13 @@ public class UsuarioPreferences {
      * Obtiene el ID del usuario como String (para Firebase)
      */
     public static String getUserId(Context context) {
-        initializePreferences(context);
         // Primero intentar obtener el UID de Firebase (String)
-        String firebaseUid = sharedPreferences.getString(KEY_FIREBASE_UID, null);
+        String firebaseUid = leerString(context, KEY_FIREBASE_UID, null);
         if (firebaseUid != null) {
             return firebaseUid;
         }
         // Fallback al ID numérico
-        int userId = sharedPreferences.getInt(KEY_USUARIO_ID, -1);
+        int userId = leerInt(context, KEY_USUARIO_ID, -1);
         return userId > 0 ? String.valueOf(userId) : null;
     }
 
@@ -369,47 +502,37 @@ public class UsuarioPreferences {
      * Guarda el UID de Firebase (String)
      */
     public static void guardarUserId(Context context, String userId) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_FIREBASE_UID, userId);
-        editor.apply();
+        escribir(context, KEY_FIREBASE_UID, userId);
         Log.i(TAG, "Firebase UID guardado");
     }
 
     /**
      * Verifica si el modo oscuro está activado
+     * No es un dato secreto: se lee de las preferencias normales de ThemeManager, sin Keystore.
      */
     public static boolean getModoOscuro(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_MODO_OSCURO, false); // Por defecto desactivado
+        return ThemeManager.isDarkMode(context);
     }
 
     /**
-     * Guarda el estado del modo oscuro
+     * Guarda el estado del modo oscuro (en las preferencias normales de ThemeManager)
      */
     public static void guardarModoOscuro(Context context, boolean activado) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_MODO_OSCURO, activado);
-        editor.apply();
+        ThemeManager.setDarkMode(context, activado);
     }
 
     /**
      * Verifica si se deben mostrar solo noticias cercanas en el mapa (modo Pokémon GO)
      */
     public static boolean getMostrarSoloCercanas(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_MOSTRAR_SOLO_CERCANAS, false); // Por defecto muestra todas
+        return leerBoolean(context, KEY_MOSTRAR_SOLO_CERCANAS, false); // Por defecto muestra todas
     }
 
     /**
      * Guarda el estado de mostrar solo noticias cercanas
      */
     public static void guardarMostrarSoloCercanas(Context context, boolean soloCercanas) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_MOSTRAR_SOLO_CERCANAS, soloCercanas);
-        editor.apply();
+        escribir(context, KEY_MOSTRAR_SOLO_CERCANAS, soloCercanas);
         Log.i(TAG, "Configuración actualizada - Mostrar solo cercanas: " + soloCercanas);
     }
 
@@ -421,86 +544,45 @@ public class UsuarioPreferences {
      * Verifica si la ubicación es pública
      */
     public static boolean getUbicacionPublica(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_UBICACION_PUBLICA, true); // Por defecto pública
+        return leerBoolean(context, KEY_UBICACION_PUBLICA, true); // Por defecto pública
     }
 
     /**
      * Guarda el estado de ubicación pública
      */
     public static void guardarUbicacionPublica(Context context, boolean publica) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_UBICACION_PUBLICA, publica);
-        editor.apply();
+        escribir(context, KEY_UBICACION_PUBLICA, publica);
     }
 
     // ==================== MÉTODOS PARA ARTÍCULOS GUARDADOS ====================
-
-    private static final String KEY_NOTICIAS_GUARDADAS = "noticias_guardadas";
+    // Se delegan en NoticiasGuardadasStore (copia en memoria, una clave por noticia)
 
     /**
      * Obtiene la lista de IDs de noticias guardadas
      */
     public static java.util.List<String> getNoticiasGuardadas(Context context) {
-        initializePreferences(context);
-        String noticiasJson = sharedPreferences.getString(KEY_NOTICIAS_GUARDADAS, "");
-
-        java.util.List<String> lista = new java.util.ArrayList<>();
-        if (noticiasJson != null && !noticiasJson.isEmpty()) {
-            String[] ids = noticiasJson.split(",");
-            for (String id : ids) {
-                if (!id.trim().isEmpty()) {
-                    lista.add(id.trim());
-                }
-            }
-        }
-        return lista;
+        return NoticiasGuardadasStore.getInstance(context).getIds();
     }
 
     /**
      * Guarda una noticia en favoritos
      */
     public static void guardarNoticia(Context context, String noticiaId) {
-        initializePreferences(context);
-        java.util.List<String> guardadas = getNoticiasGuardadas(context);
-
-        if (!guardadas.contains(noticiaId)) {
-            guardadas.add(noticiaId);
-            String noticiasJson = android.text.TextUtils.join(",", guardadas);
-
-            SharedPreferences.Editor editor = sharedPreferences.edit();
-            editor.putString(KEY_NOTICIAS_GUARDADAS, noticiasJson);
-            editor.apply();
-
-            Log.i(TAG, "Noticia guardada: " + noticiaId);
-        }
+        NoticiasGuardadasStore.getInstance(context).guardar(noticiaId);
     }
 
     /**
      * Elimina una noticia de favoritos
      */
     public static void eliminarNoticiaGuardada(Context context, String noticiaId) {
-        initializePreferences(context);
-        java.util.List<String> guardadas = getNoticiasGuardadas(context);
-
-        if (guardadas.remove(noticiaId)) {
-            String noticiasJson = android.text.TextUtils.join(",", guardadas);
-
-            SharedPreferences.Editor editor = sharedPreferences.edit();
-            editor.putString(KEY_NOTICIAS_GUARDADAS, noticiasJson);
-            editor.apply();
-
-            Log.i(TAG, "Noticia eliminada de guardados: " + noticiaId);
-        }
+        NoticiasGuardadasStore.getInstance(context).eliminar(noticiaId);
     }
 
     /**
      * Verifica si una noticia está guardada
      */
     public static boolean isNoticiaGuardada(Context context, String noticiaId) {
-        java.util.List<String> guardadas = getNoticiasGuardadas(context);
-        return guardadas.contains(noticiaId);
+        return NoticiasGuardadasStore.getInstance(context).estaGuardada(noticiaId);
     }
 
     // ==================== INTERESES DEL USUARIO ====================
@@ -511,8 +593,7 @@ public class UsuarioPreferences {
      * Obtiene la lista de intereses del usuario
      */
     public static java.util.List<String> getIntereses(Context context) {
-        initializePreferences(context);
-        String interesesJson = sharedPreferences.getString(KEY_INTERESES, "");
+        String interesesJson = leerString(context, KEY_INTERESES, "");
 
         java.util.List<String> lista = new java.util.ArrayList<>();
         if (interesesJson != null && !interesesJson.isEmpty()) {
@@ -530,12 +611,9 @@ public class UsuarioPreferences {
      * Guarda la lista completa de intereses del usuario
      */
     public static void guardarIntereses(Context context, java.util.List<String> intereses) {
-        initializePreferences(context);
         String interesesJson = android.text.TextUtils.join(",", intereses);
 
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_INTERESES, interesesJson);
-        editor.apply();
+        escribir(context, KEY_INTERESES, interesesJson);
 
         Log.i(TAG, "Intereses guardados: " + intereses.size());
     }
@@ -579,11 +657,7 @@ public class UsuarioPreferences {
      * Guarda el token FCM
      */
     public static void guardarFCMToken(Context context, String token) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_FCM_TOKEN, token);
-        editor.putLong(KEY_FCM_TOKEN_TIMESTAMP, System.currentTimeMillis());
-        editor.apply();
+        escribir(context, KEY_FCM_TOKEN, token, KEY_FCM_TOKEN_TIMESTAMP, System.currentTimeMillis());
         Log.i(TAG, "Token FCM guardado");
     }
 
@@ -591,16 +665,14 @@ public class UsuarioPreferences {
      * Obtiene el token FCM guardado
      */
     public static String getFCMToken(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_FCM_TOKEN, null);
+        return leerString(context, KEY_FCM_TOKEN, null);
     }
 
     /**
      * Obtiene la fecha de actualización del token FCM
      */
     public static long getFCMTokenTimestamp(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getLong(KEY_FCM_TOKEN_TIMESTAMP, 0);
+        return leerLong(context, KEY_FCM_TOKEN_TIMESTAMP, 0);
     }
 
     /**
@@ -621,10 +693,7 @@ public class UsuarioPreferences {
      * Guarda si el resumen por email está activado
      */
     public static void guardarEmailDigestActivado(Context context, boolean activado) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_EMAIL_DIGEST_ENABLED, activado);
-        editor.apply();
+        escribir(context, KEY_EMAIL_DIGEST_ENABLED, activado);
         Log.i(TAG, "Email digest " + (activado ? "activado" : "desactivado"));
     }
 
@@ -632,8 +701,7 @@ public class UsuarioPreferences {
      * Obtiene si el resumen por email está activado
      */
     public static boolean getEmailDigestActivado(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_EMAIL_DIGEST_ENABLED, false);
+        return leerBoolean(context, KEY_EMAIL_DIGEST_ENABLED, false);
     }
 
     /**
@@ -641,10 +709,7 @@ public class UsuarioPreferences {
      * @param frecuencia "daily" o "weekly"
      */
     public static void guardarEmailDigestFrecuencia(Context context, String frecuencia) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_EMAIL_DIGEST_FREQUENCY, frecuencia);
-        editor.apply();
+        escribir(context, KEY_EMAIL_DIGEST_FREQUENCY, frecuencia);
         Log.i(TAG, "Frecuencia de email digest: " + frecuencia);
     }
 
@@ -653,18 +718,14 @@ public class UsuarioPreferences {
      * @return "daily" o "weekly" (por defecto "daily")
      */
     public static String getEmailDigestFrecuencia(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getString(KEY_EMAIL_DIGEST_FREQUENCY, "daily");
+        return leerString(context, KEY_EMAIL_DIGEST_FREQUENCY, "daily");
     }
 
     /**
      * Guarda la hora del día para enviar el resumen (0-23)
      */
     public static void guardarEmailDigestTime(Context context, int hora) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putInt(KEY_EMAIL_DIGEST_TIME, hora);
-        editor.apply();
+        escribir(context, KEY_EMAIL_DIGEST_TIME, hora);
         Log.i(TAG, "Hora de email digest: " + hora + ":00");
     }
 
@@ -672,26 +733,21 @@ public class UsuarioPreferences {
      * Obtiene la hora del día para enviar el resumen (por defecto 8:00 AM)
      */
     public static int getEmailDigestTime(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getInt(KEY_EMAIL_DIGEST_TIME, 8); // 8 AM por defecto
+        return leerInt(context, KEY_EMAIL_DIGEST_TIME, 8); // 8 AM por defecto
     }
 
     /**
      * Guarda el timestamp del último envío de email digest
      */
     public static void guardarEmailDigestLastSent(Context context, long timestamp) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putLong(KEY_EMAIL_DIGEST_LAST_SENT, timestamp);
-        editor.apply();
+        escribir(context, KEY_EMAIL_DIGEST_LAST_SENT, timestamp);
     }
 
     /**
      * Obtiene el timestamp del último envío de email digest
      */
     public static long getEmailDigestLastSent(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getLong(KEY_EMAIL_DIGEST_LAST_SENT, 0);
+        return leerLong(context, KEY_EMAIL_DIGEST_LAST_SENT, 0);
     }
 
     // ==================== TEXT-TO-SPEECH ====================
@@ -700,18 +756,14 @@ public class UsuarioPreferences {
      * Verifica si TTS está activado
      */
     public static boolean getTTSEnabled(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getBoolean(KEY_TTS_ENABLED, true); // Por defecto activado
+        return leerBoolean(context, KEY_TTS_ENABLED, true); // Por defecto activado
     }
 
     /**
      * Guarda el estado de TTS
      */
     public static void guardarTTSEnabled(Context context, boolean enabled) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_TTS_ENABLED, enabled);
-        editor.apply();
+        escribir(context, KEY_TTS_ENABLED, enabled);
         Log.i(TAG, "TTS " + (enabled ? "activado" : "desactivado"));
     }
 
@@ -719,18 +771,14 @@ public class UsuarioPreferences {
      * Obtiene la velocidad de lectura TTS (0.5 - 2.0)
      */
     public static float getTTSSpeed(Context context) {
-        initializePreferences(context);
-        return sharedPreferences.getFloat(KEY_TTS_SPEED, 1.0f); // Velocidad normal por defecto
+        return leerFloat(context, KEY_TTS_SPEED, 1.0f); // Velocidad normal por defecto
     }
 
     /**
      * Guarda la velocidad de lectura TTS
      */
     public static void guardarTTSSpeed(Context context, float speed) {
-        initializePreferences(context);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putFloat(KEY_TTS_SPEED, speed);
-        editor.apply();
+        escribir(context, KEY_TTS_SPEED, speed);
         Log.i(TAG, "Velocidad TTS: " + speed);
     }
 }
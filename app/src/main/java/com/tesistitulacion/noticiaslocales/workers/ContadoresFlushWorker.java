@@ -0,0 +1,34 @@
+package com.tesistitulacion.noticiaslocales.workers;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.tesistitulacion.noticiaslocales.utils.ContadoresManager;
+
+/**
+ * Worker que envía a Firestore los incrementos de contadores acumulados localmente
+ * Lo programa ContadoresManager; WorkManager lo reintenta si no hay conexión
+ */
+public class ContadoresFlushWorker extends Worker {
+
+    private static final String TAG = "ContadoresFlushWorker";
+
+    public ContadoresFlushWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            boolean enviado = ContadoresManager.getInstance(getApplicationContext()).enviarLotes();
+            return enviado ? Result.success() : Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Excepción al enviar contadores", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.tesistitulacion.noticiaslocales.firebase;
+
+import com.google.firebase.firestore.GeoPoint;
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+import com.tesistitulacion.noticiaslocales.utils.ReferenciasCache;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para NoticiaMapper
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class NoticiaMapperTest {
+
+    @Test
+    public void desdeDatos_debeMapearTodosLosCampos() {
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("titulo", "Feria en el parque");
+        datos.put("descripcion", "Descripción");
+        datos.put("contenido", "Contenido");
+        datos.put("imagenUrl", "https://ejemplo.com/feria.jpg");
+        datos.put("titulo_es", "Feria en el parque");
+        datos.put("titulo_en", "Park fair");
+        datos.put("ubicacionTexto", "Parque Pedro Moncayo");
+        datos.put("ubicacion", new GeoPoint(0.3476, -78.1223));
+        datos.put("fechaPublicacion", new Date(1700000000000L));
+        datos.put("destacada", true);
+        datos.put("activa", false);
+        datos.put("visualizaciones", 42L);
+        datos.put("categoriaId", "3");
+
+        Noticia n = NoticiaMapper.desdeDatos("abc123", datos);
+
+        assertEquals("abc123", n.getFirestoreId());
+        assertEquals("Feria en el parque", n.getTitulo_es());
+        assertEquals("Park fair", n.getTitulo_en());
+        assertEquals("Parque Pedro Moncayo", n.getUbicacion());
+        assertEquals(0.3476, n.getLatitud(), 1e-9);
+        assertEquals(-78.1223, n.getLongitud(), 1e-9);
+        assertEquals(Long.valueOf(1700000000000L), n.getFechaCreacion());
+        assertEquals(Long.valueOf(1700000000000L), n.getFechaPublicacionMillis());
+        assertTrue(n.getDestacada());
+        assertEquals("archived", n.getEstado());
+        assertEquals(Integer.valueOf(42), n.getVisualizaciones());
+        assertEquals(Integer.valueOf(3), n.getCategoriaId());
+    }
+
+    @Test
+    public void desdeDatos_campoConTipoInesperado_debeIgnorarseSinDescartarLaNoticia() {
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("titulo", 123L);
+        datos.put("descripcion", "Descripción");
+        datos.put("categoriaId", "no-numerico");
+
+        Noticia n = NoticiaMapper.desdeDatos("abc123", datos);
+
+        assertNotNull(n);
+        assertNull(n.getTitulo());
+        assertEquals("Descripción", n.getDescripcion());
+        assertNull(n.getCategoriaId());
+    }
+
+    @Test
+    public void desdeDatos_sinDatos_debeDevolverSoloElId() {
+        Noticia n = NoticiaMapper.desdeDatos("abc123", null);
+
+        assertEquals("abc123", n.getFirestoreId());
+        assertNull(n.getTitulo());
+    }
+
+    @Test
+    public void desdeDatos_conCatalogo_debeAdjuntarNombresDeCategoriaYParroquia() {
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("categoriaId", 4L);
+        datos.put("parroquiaId", "4");
+
+        Noticia n = NoticiaMapper.desdeDatos("abc123", datos, ReferenciasCache.catalogo());
+
+        assertEquals(Integer.valueOf(4), n.getParroquiaId());
+        assertEquals("Deportes", n.getCategoriaNombre());
+        assertEquals("Caranqui", n.getParroquiaNombre());
+    }
+
+    @Test
+    public void parsearEntero_debeAceptarSoloEnterosValidos() {
+        assertEquals(Integer.valueOf(15), NoticiaMapper.parsearEntero("15"));
+        assertEquals(Integer.valueOf(-7), NoticiaMapper.parsearEntero("-7"));
+        assertNull(NoticiaMapper.parsearEntero("abc"));
+        assertNull(NoticiaMapper.parsearEntero("-"));
+        assertNull(NoticiaMapper.parsearEntero(""));
+        assertNull(NoticiaMapper.parsearEntero("99999999999"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.LAT_CENTRO;
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.LON_CENTRO;
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.crearNoticia;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para AgrupadorMarcadores
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class AgrupadorMarcadoresTest {
+
+    private AgrupadorMarcadores agrupador;
+    private List<Noticia> noticias;
+
+    @Before
+    public void setUp() {
+        agrupador = new AgrupadorMarcadores();
+
+        // 500 noticias aleatorias en ~±3 km alrededor de Ibarra
+        noticias = NoticiasDePrueba.alrededorDeIbarra(500, 0.05, 7);
+    }
+
+    @Test
+    public void agrupar_debeIncluirCadaNoticiaUnaSolaVez() {
+        List<AgrupadorMarcadores.Grupo> grupos = agrupador.agrupar(noticias, 14f);
+
+        Set<String> ids = new HashSet<>();
+        int total = 0;
+        for (AgrupadorMarcadores.Grupo grupo : grupos) {
+            for (Noticia n : grupo.getNoticias()) {
+                assertTrue(ids.add(n.getFirestoreId()));
+                total++;
+            }
+        }
+        assertEquals(500, total);
+    }
+
+    @Test
+    public void agrupar_menosZoom_debeDarMenosGrupos() {
+        int grupos12 = agrupador.agrupar(noticias, 12f).size();
+        int grupos15 = agrupador.agrupar(noticias, 15f).size();
+        int grupos17 = agrupador.agrupar(noticias, 17f).size();
+
+        assertTrue(grupos12 < grupos15);
+        assertTrue(grupos15 < grupos17);
+        assertTrue(grupos12 < 20);
+    }
+
+    @Test
+    public void agrupar_zoomSinAgrupar_debeDarUnMarcadorPorNoticia() {
+        List<AgrupadorMarcadores.Grupo> grupos = agrupador.agrupar(noticias, AgrupadorMarcadores.ZOOM_SIN_AGRUPAR);
+
+        assertEquals(500, grupos.size());
+        for (AgrupadorMarcadores.Grupo grupo : grupos) {
+            assertTrue(grupo.esIndividual());
+            assertEquals(grupo.getNoticia().getFirestoreId(), grupo.getClave());
+        }
+    }
+
+    @Test
+    public void agrupar_mismoNivelDeZoom_debeMantenerClaves() {
+        Set<String> claves = claves(agrupador.agrupar(noticias, 14.1f));
+        assertEquals(claves, claves(agrupador.agrupar(noticias, 14.9f)));
+    }
+
+    @Test
+    public void agrupar_sinCoordenadas_debeIgnorarse() {
+        List<Noticia> lista = new ArrayList<>();
+        lista.add(new Noticia());
+        lista.add(crearNoticia("a", LAT_CENTRO, LON_CENTRO));
+
+        List<AgrupadorMarcadores.Grupo> grupos = agrupador.agrupar(lista, 15f);
+
+        assertEquals(1, grupos.size());
+        assertEquals("a", grupos.get(0).getClave());
+    }
+
+    @Test
+    public void grupo_debeContenerTodasSusNoticiasEnElRectangulo() {
+        for (AgrupadorMarcadores.Grupo grupo : agrupador.agrupar(noticias, 13f)) {
+            for (Noticia n : grupo.getNoticias()) {
+                assertTrue(n.getLatitud() >= grupo.getSur() && n.getLatitud() <= grupo.getNorte());
+                assertTrue(n.getLongitud() >= grupo.getOeste() && n.getLongitud() <= grupo.getEste());
+            }
+        }
+    }
+
+    @Test
+    public void agruparEnRegion_debeIgnorarNoticiasFueraDeLaRegion() {
+        double sur = LAT_CENTRO - 0.005, norte = LAT_CENTRO + 0.005;
+        double oeste = LON_CENTRO - 0.005, este = LON_CENTRO + 0.005;
+
+        int esperadas = 0;
+        for (Noticia n : noticias) {
+            if (n.getLatitud() >= sur && n.getLatitud() <= norte
+                    && n.getLongitud() >= oeste && n.getLongitud() <= este) {
+                esperadas++;
+            }
+        }
+
+        int total = 0;
+        for (AgrupadorMarcadores.Grupo grupo : agrupador.agrupar(noticias, 18f, sur, oeste, norte, este)) {
+            total += grupo.getCantidad();
+        }
+        assertEquals(esperadas, total);
+        assertTrue(total < noticias.size());
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static Set<String> claves(List<AgrupadorMarcadores.Grupo> grupos) {
+        Set<String> claves = new HashSet<>();
+        for (AgrupadorMarcadores.Grupo grupo : grupos) claves.add(grupo.getClave());
+        return claves;
+    }
+}
@@ -0,0 +1,162 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para Arranque
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class ArranqueTest {
+
+    // Ejecuta en el mismo hilo: el orden de las tareas es determinista
+    private static final Executor DIRECTO = Runnable::run;
+
+    private List<String> orden;
+
+    @Before
+    public void setUp() {
+        orden = Collections.synchronizedList(new ArrayList<String>());
+    }
+
+    @Test
+    public void iniciar_debeRespetarDependencias() {
+        Arranque arranque = new Arranque(DIRECTO, DIRECTO)
+                .tarea("a", false, false, registrar("a"))
+                .tarea("b", false, false, registrar("b"), "a")
+                .tarea("c", false, false, registrar("c"), "a", "b");
+
+        arranque.iniciar();
+
+        assertEquals(3, orden.size());
+        assertTrue(orden.indexOf("a") < orden.indexOf("b"));
+        assertTrue(orden.indexOf("b") < orden.indexOf("c"));
+        assertEquals(3, arranque.getDuraciones().size());
+    }
+
+    @Test
+    public void cuandoTermineCritico_noDebeEsperarTareasNoCriticas() {
+        final List<Runnable> pendientes = new ArrayList<>();
+        Arranque arranque = new Arranque(DIRECTO, DIRECTO)
+                .tarea("preferencias", false, false, registrar("preferencias"))
+                .tarea("sesion", false, true, registrar("sesion"), "preferencias")
+                .tarea("lenta", false, false, terminar -> pendientes.add(terminar));
+
+        final boolean[] avisado = {false};
+        arranque.cuandoTermineCritico(() -> avisado[0] = true);
+        arranque.iniciar();
+
+        assertTrue("La ruta crítica terminó aunque 'lenta' siga", avisado[0]);
+        assertTrue(arranque.terminoCritico());
+        assertFalse(arranque.getDuraciones().containsKey("lenta"));
+
+        pendientes.get(0).run();
+        assertTrue(arranque.getDuraciones().containsKey("lenta"));
+    }
+
+    @Test
+    public void cuandoTermineCritico_debeEsperarDependenciasDeLaTareaCritica() {
+        final List<Runnable> pendientes = new ArrayList<>();
+        Arranque arranque = new Arranque(DIRECTO, DIRECTO)
+                .tarea("preferencias", false, false, terminar -> pendientes.add(terminar))
+                .tarea("sesion", false, true, registrar("sesion"), "preferencias");
+
+        final boolean[] avisado = {false};
+        arranque.cuandoTermineCritico(() -> avisado[0] = true);
+        arranque.iniciar();
+        assertFalse(avisado[0]);
+
+        pendientes.get(0).run();
+        assertTrue(avisado[0]);
+        assertEquals(2, arranque.getDuraciones().size());
+    }
+
+    @Test
+    public void tareaFallida_debeContarComoTerminada() {
+        Arranque arranque = new Arranque(DIRECTO, DIRECTO)
+                .tarea("falla", false, true, terminar -> {
+                    throw new IllegalStateException("sin red");
+                })
+                .tarea("despues", false, false, registrar("despues"), "falla");
+
+        final boolean[] todo = {false};
+        arranque.cuandoTermineTodo(() -> todo[0] = true);
+        arranque.iniciar();
+
+        assertTrue(arranque.terminoCritico());
+        assertTrue(todo[0]);
+        assertTrue(orden.contains("despues"));
+        assertTrue(arranque.getErrores().containsKey("falla"));
+        assertTrue(arranque.resumen().contains("falla"));
+    }
+
+    @Test
+    public void terminarDosVeces_debeContarUnaSola() {
+        final List<Integer> terminadas = new ArrayList<>();
+        Arranque arranque = new Arranque(DIRECTO, DIRECTO)
+                .tarea("doble", false, false, terminar -> {
+                    terminar.run();
+                    terminar.run();
+                })
+                .tarea("otra", false, false, registrar("otra"));
+        arranque.setObservador((nombre, duracionMs, cuenta, total) -> terminadas.add(cuenta));
+
+        arranque.iniciar();
+
+        assertEquals(2, terminadas.size());
+        assertEquals(Integer.valueOf(2), terminadas.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tarea_conDependenciaNoDeclarada_debeFallar() {
+        new Arranque(DIRECTO, DIRECTO).tarea("b", false, false, registrar("b"), "a");
+    }
+
+    @Test
+    public void iniciar_conVariosHilos_debeCorrerTareasIndependientesEnParalelo() throws Exception {
+        ExecutorService fondo = Executors.newFixedThreadPool(2);
+        try {
+            // Cada tarea espera a que la otra haya empezado: solo terminan si corren a la vez
+            final CountDownLatch ambas = new CountDownLatch(2);
+            Arranque.Tarea esperarOtra = terminar -> {
+                ambas.countDown();
+                ambas.await(2, TimeUnit.SECONDS);
+                terminar.run();
+            };
+            Arranque arranque = new Arranque(fondo, DIRECTO)
+                    .tarea("a", false, true, esperarOtra)
+                    .tarea("b", false, true, esperarOtra);
+
+            final CountDownLatch critico = new CountDownLatch(1);
+            arranque.cuandoTermineCritico(critico::countDown);
+            arranque.iniciar();
+
+            assertTrue(critico.await(5, TimeUnit.SECONDS));
+            Map<String, Long> duraciones = arranque.getDuraciones();
+            assertTrue(duraciones.get("a") < 2000);
+            assertTrue(duraciones.get("b") < 2000);
+        } finally {
+            fondo.shutdownNow();
+        }
+    }
+
+    private Arranque.Tarea registrar(final String nombre) {
+        return terminar -> {
+            orden.add(nombre);
+            terminar.run();
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para ComponenteCompartido
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class ComponenteCompartidoTest {
+
+    private static final long INACTIVIDAD_MS = 1000;
+
+    private int creados;
+    private int liberados;
+    private TemporizadorManual temporizador;
+    private ComponenteCompartido<Object> componente;
+
+    @Before
+    public void setUp() {
+        creados = 0;
+        liberados = 0;
+        temporizador = new TemporizadorManual();
+        componente = new ComponenteCompartido<>("prueba", new ComponenteCompartido.Fabrica<Object>() {
+            @Override
+            public Object crear() {
+                creados++;
+                return new Object();
+            }
+
+            @Override
+            public void liberar(Object instancia) {
+                liberados++;
+            }
+        }, temporizador, INACTIVIDAD_MS);
+    }
+
+    @Test
+    public void componente_noDebeCrearseHastaElPrimerUso() {
+        assertFalse(componente.estaCreado());
+        assertEquals(0, creados);
+    }
+
+    @Test
+    public void adquirir_debeCompartirUnaSolaInstancia() {
+        Object a = componente.adquirir();
+        Object b = componente.adquirir();
+
+        assertSame(a, b);
+        assertEquals(1, creados);
+        assertEquals(2, componente.getReferencias());
+    }
+
+    @Test
+    public void soltar_debeLiberarSoloTrasLaInactividad() {
+        componente.adquirir();
+        componente.adquirir();
+
+        componente.soltar();
+        assertTrue("Todavía hay una referencia", temporizador.pendientes.isEmpty());
+
+        componente.soltar();
+        assertEquals(1, temporizador.pendientes.size());
+        assertTrue(componente.estaCreado());
+
+        temporizador.ejecutarPendientes();
+        assertFalse(componente.estaCreado());
+        assertEquals(1, liberados);
+    }
+
+    @Test
+    public void adquirirAntesDelPlazo_debeReutilizarLaInstancia() {
+        Object primera = componente.adquirir();
+        componente.soltar();
+
+        Object segunda = componente.adquirir();
+        temporizador.ejecutarPendientes();
+
+        assertSame(primera, segunda);
+        assertEquals(1, creados);
+        assertEquals(0, liberados);
+    }
+
+    @Test
+    public void calentar_debeCrearSinReferenciaYLiberarSiNoSeUsa() {
+        componente.calentar();
+        assertTrue(componente.estaCreado());
+        assertEquals(0, componente.getReferencias());
+
+        temporizador.ejecutarPendientes();
+        assertFalse(componente.estaCreado());
+        assertEquals(1, liberados);
+    }
+
+    @Test
+    public void liberarSiNadieLoUsa_noDebeLiberarConReferencias() {
+        componente.adquirir();
+        componente.liberarSiNadieLoUsa();
+        assertTrue(componente.estaCreado());
+
+        componente.soltar();
+        componente.liberarSiNadieLoUsa();
+        assertFalse(componente.estaCreado());
+        assertTrue(temporizador.pendientes.isEmpty());
+    }
+
+    @Test
+    public void soltarDeMas_noDebeDejarReferenciasNegativas() {
+        componente.soltar();
+        assertEquals(0, componente.getReferencias());
+        assertTrue(temporizador.pendientes.isEmpty());
+    }
+
+    /**
+     * Temporizador controlado por la prueba (en lugar de un Handler)
+     */
+    private static class TemporizadorManual implements ComponenteCompartido.Temporizador {
+        final List<Runnable> pendientes = new ArrayList<>();
+
+        @Override
+        public void programar(Runnable accion, long retrasoMs) {
+            pendientes.add(accion);
+        }
+
+        @Override
+        public void cancelar(Runnable accion) {
+            pendientes.remove(accion);
+        }
+
+        void ejecutarPendientes() {
+            List<Runnable> copia = new ArrayList<>(pendientes);
+            pendientes.clear();
+            for (Runnable accion : copia) {
+                accion.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.LAT_CENTRO;
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.LON_CENTRO;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para Geohash
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class GeohashTest {
+
+    @Test
+    public void codificar_debeCoincidirConValoresConocidos() {
+        assertEquals("u4pruydqqv", Geohash.codificar(57.64911, 10.40744));
+        assertEquals("ezs42", Geohash.codificar(42.605, -5.603, 5));
+    }
+
+    @Test
+    public void codificar_puntosCercanos_debenCompartirPrefijo() {
+        String a = Geohash.codificar(LAT_CENTRO, LON_CENTRO);
+        String b = Geohash.codificar(LAT_CENTRO + 0.0001, LON_CENTRO + 0.0001);
+        assertEquals(a.substring(0, 6), b.substring(0, 6));
+    }
+
+    @Test
+    public void rangosParaRadio_debenCubrirTodosLosPuntosDelCirculo() {
+        Random random = new Random(3);
+        double[] radios = {0.5, 2.0, 5.0, 20.0};
+
+        for (double radioKm : radios) {
+            List<String[]> rangos = Geohash.rangosParaRadio(LAT_CENTRO, LON_CENTRO, radioKm);
+            assertTrue(rangos.size() <= 9);
+
+            for (int i = 0; i < 2000; i++) {
+                double lat = LAT_CENTRO + (random.nextDouble() * 2 - 1) * radioKm / 111.0;
+                double lon = LON_CENTRO + (random.nextDouble() * 2 - 1) * radioKm / 111.0;
+                if (LocationHelper.calcularDistanciaKm(LAT_CENTRO, LON_CENTRO, lat, lon) > radioKm) continue;
+
+                assertTrue("Punto fuera de los rangos para " + radioKm + " km",
+                        estaEnAlgunRango(Geohash.codificar(lat, lon), rangos));
+            }
+        }
+    }
+
+    @Test
+    public void rangosParaRadio_noDebenIncluirPuntosLejanos() {
+        List<String[]> rangos = Geohash.rangosParaRadio(LAT_CENTRO, LON_CENTRO, 2.0);
+
+        // Quito (≈ 115 km) y Tulcán (≈ 130 km)
+        assertFalse(estaEnAlgunRango(Geohash.codificar(-0.1807, -78.4678), rangos));
+        assertFalse(estaEnAlgunRango(Geohash.codificar(0.8118, -77.7173), rangos));
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static boolean estaEnAlgunRango(String hash, List<String[]> rangos) {
+        for (String[] rango : rangos) {
+            if (hash.compareTo(rango[0]) >= 0 && hash.compareTo(rango[1]) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,176 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para IndiceBusqueda
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class IndiceBusquedaTest {
+
+    private IndiceBusqueda indice;
+    private Noticia feria;
+    private Noticia vial;
+
+    @Before
+    public void setUp() {
+        indice = new IndiceBusqueda();
+
+        feria = new Noticia();
+        feria.setFirestoreId("feria");
+        feria.setTitulo_es("Feria de Educación en San Antonio");
+        feria.setTitulo_en("Education fair in San Antonio");
+        feria.setDescripcion_es("Estudiantes  presentan\nproyectos de ciencia");
+        feria.setHashtags("#Ibarra, #Niñez");
+
+        vial = new Noticia();
+        vial.setFirestoreId("vial");
+        vial.setTitulo("Cierre vial en la avenida Mariano Acosta");
+        vial.setContenido("Los trabajos durarán tres días");
+
+        indice.agregarTodas(Arrays.asList(feria, vial));
+    }
+
+    @Test
+    public void normalizar_debeQuitarTildesMayusculasYEspacios() {
+        assertEquals("educacion ninez", IndiceBusqueda.normalizar("  EDUCACIÓN   Niñez "));
+        assertEquals("", IndiceBusqueda.normalizar("   "));
+        assertEquals("", IndiceBusqueda.normalizar(null));
+    }
+
+    @Test
+    public void coincide_sinTildes_debeEncontrarTextoConTildes() {
+        IndiceBusqueda.Consulta consulta = IndiceBusqueda.preparar("educacion");
+        assertTrue(indice.coincide(feria, consulta));
+        assertFalse(indice.coincide(vial, consulta));
+    }
+
+    @Test
+    public void coincide_debeBuscarEnTodosLosIdiomasContenidoYHashtags() {
+        assertTrue(indice.coincide(feria, IndiceBusqueda.preparar("fair")));
+        assertTrue(indice.coincide(feria, IndiceBusqueda.preparar("#ibarra")));
+        assertTrue(indice.coincide(feria, IndiceBusqueda.preparar("ninez")));
+        assertTrue(indice.coincide(vial, IndiceBusqueda.preparar("DURARAN")));
+    }
+
+    @Test
+    public void coincide_prefijoYVariasPalabras_debeExigirTodas() {
+        assertTrue(indice.coincide(vial, IndiceBusqueda.preparar("aven acos")));
+        assertTrue(indice.coincide(feria, IndiceBusqueda.preparar("presentan proyectos")));
+        assertFalse(indice.coincide(vial, IndiceBusqueda.preparar("avenida educacion")));
+    }
+
+    @Test
+    public void coincide_consultaVacia_debeAceptarTodas() {
+        assertTrue(indice.coincide(vial, IndiceBusqueda.preparar("  ")));
+    }
+
+    @Test
+    public void agregar_mismoId_debeReemplazarTexto() {
+        Noticia editada = new Noticia();
+        editada.setFirestoreId("vial");
+        editada.setTitulo("Reapertura de la avenida");
+        indice.agregar(editada);
+
+        assertEquals(2, indice.tamanio());
+        assertTrue(indice.coincide(editada, IndiceBusqueda.preparar("reapertura")));
+        assertFalse(indice.coincide(editada, IndiceBusqueda.preparar("cierre")));
+    }
+
+    @Test
+    public void coincide_noticiaNoIndexada_debeNormalizarAlConsultar() {
+        Noticia sinId = new Noticia();
+        sinId.setTitulo("Minga comunitaria");
+        assertTrue(indice.coincide(sinId, IndiceBusqueda.preparar("MINGA")));
+
+        indice.eliminar("feria");
+        assertTrue(indice.coincide(feria, IndiceBusqueda.preparar("educacion")));
+    }
+
+    @Test
+    public void buscar_debeOrdenarPorRelevanciaSegunElCampo() {
+        Noticia enContenido = new Noticia();
+        enContenido.setFirestoreId("contenido");
+        enContenido.setTitulo("Reunión barrial");
+        enContenido.setContenido("Se habló del mercado y de la feria del sábado");
+        indice.agregar(enContenido);
+
+        List<IndiceBusqueda.Coincidencia> coincidencias = indice.buscar(IndiceBusqueda.preparar("feria"));
+
+        assertEquals(2, coincidencias.size());
+        assertSame(feria, coincidencias.get(0).getNoticia()); // En el título
+        assertSame(enContenido, coincidencias.get(1).getNoticia());
+        assertTrue(coincidencias.get(0).getPuntaje() > coincidencias.get(1).getPuntaje());
+    }
+
+    @Test
+    public void buscar_conErrorDeTipeo_debeEncontrarConMenorPuntajeQueLaExacta() {
+        List<IndiceBusqueda.Coincidencia> conError = indice.buscar(IndiceBusqueda.preparar("edcuacion"));
+        List<IndiceBusqueda.Coincidencia> exacta = indice.buscar(IndiceBusqueda.preparar("educacion"));
+
+        assertEquals(1, conError.size());
+        assertSame(feria, conError.get(0).getNoticia());
+        assertTrue(conError.get(0).getPuntaje() < exacta.get(0).getPuntaje());
+
+        // Palabras cortas no toleran errores
+        assertTrue(indice.buscar(IndiceBusqueda.preparar("vual")).isEmpty());
+    }
+
+    @Test
+    public void buscar_subcadena_debeEncontrarConMenorPuntajeQueElPrefijo() {
+        List<IndiceBusqueda.Coincidencia> subcadena = indice.buscar(IndiceBusqueda.preparar("costa"));
+        List<IndiceBusqueda.Coincidencia> prefijo = indice.buscar(IndiceBusqueda.preparar("acost"));
+
+        assertEquals(1, subcadena.size());
+        assertSame(vial, subcadena.get(0).getNoticia());
+        assertTrue(subcadena.get(0).getPuntaje() < prefijo.get(0).getPuntaje());
+        assertTrue(indice.coincide(feria, IndiceBusqueda.preparar("barra")));
+    }
+
+    @Test
+    public void buscar_subcadena_debeRequerirTresLetrasYSeguirLasEliminaciones() {
+        assertTrue(indice.buscar(IndiceBusqueda.preparar("os")).isEmpty()); // Corta: solo prefijo
+        assertFalse(indice.coincide(vial, IndiceBusqueda.preparar("os")));
+
+        indice.eliminar("vial");
+        assertTrue(indice.buscar(IndiceBusqueda.preparar("costa")).isEmpty());
+
+        indice.agregar(vial);
+        assertSame(vial, indice.buscar(IndiceBusqueda.preparar("costa")).get(0).getNoticia());
+    }
+
+    @Test
+    public void buscar_debeIncluirUbicacion() {
+        vial.setUbicacion("Sector El Olivo");
+        indice.agregar(vial);
+
+        assertSame(vial, indice.buscar(IndiceBusqueda.preparar("olivo")).get(0).getNoticia());
+    }
+
+    @Test
+    public void distanciaEdicion_debeContarTransposicionComoUnError() {
+        assertEquals(1, IndiceBusqueda.distanciaEdicion("ibrara", "ibarra", 2));
+        assertEquals(1, IndiceBusqueda.distanciaEdicion("cultua", "cultura", 2));
+        assertEquals(3, IndiceBusqueda.distanciaEdicion("abcdef", "uvwxyz", 2)); // Corta al superar el máximo
+    }
+
+    @Test
+    public void resaltar_debeDevolverPosicionesEnElTextoOriginal() {
+        String titulo = "Feria de Educación en San Antonio";
+        List<int[]> rangos = IndiceBusqueda.resaltar(titulo, IndiceBusqueda.preparar("educacion ant"));
+
+        assertEquals(2, rangos.size());
+        assertEquals("Educación", titulo.substring(rangos.get(0)[0], rangos.get(0)[1]));
+        assertEquals("Antonio", titulo.substring(rangos.get(1)[0], rangos.get(1)[1]));
+        assertTrue(IndiceBusqueda.resaltar(titulo, IndiceBusqueda.preparar("")).isEmpty());
+    }
+}
@@ -0,0 +1,157 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.LAT_CENTRO;
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.LON_CENTRO;
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.crearNoticia;
+import static com.tesistitulacion.noticiaslocales.utils.NoticiasDePrueba.distanciaAlCentroKm;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas unitarias para IndiceEspacial
+ * Compara cada consulta contra un recorrido lineal de todas las noticias
+ *
+ * Ejecutar con: gradlew.bat test
+ */
+public class IndiceEspacialTest {
+
+    private IndiceEspacial indice;
+    private List<Noticia> noticias;
+
+    @Before
+    public void setUp() {
+        indice = new IndiceEspacial();
+
+        // 300 noticias aleatorias en ~±15 km alrededor de Ibarra
+        noticias = NoticiasDePrueba.alrededorDeIbarra(300, 0.27, 42);
+        indice.agregarTodas(noticias);
+    }
+
+    // ==================== TESTS DE ACTUALIZACIÓN ====================
+
+    @Test
+    public void agregar_sinCoordenadas_noDebeIndexarse() {
+        Noticia sinCoordenadas = new Noticia();
+        sinCoordenadas.setFirestoreId("sin-coords");
+        indice.agregar(sinCoordenadas);
+
+        assertEquals(300, indice.tamanio());
+    }
+
+    @Test
+    public void agregar_mismoId_debeReemplazarPosicion() {
+        indice.agregar(crearNoticia("n0", 10.0, 10.0));
+
+        assertEquals(300, indice.tamanio());
+        assertTrue(ids(indice.buscarEnRectangulo(9.9, 9.9, 10.1, 10.1)).contains("n0"));
+        assertEquals(1, indice.buscarEnRadio(10.0, 10.0, 1.0).size());
+    }
+
+    @Test
+    public void eliminar_debeQuitarDeLasConsultas() {
+        Noticia n = noticias.get(5);
+        assertTrue(indice.eliminar("n5"));
+        assertFalse(indice.eliminar("n5"));
+
+        assertEquals(299, indice.tamanio());
+        for (IndiceEspacial.Resultado r : indice.buscarEnRadio(n.getLatitud(), n.getLongitud(), 0.5)) {
+            assertNotEquals("n5", r.getNoticia().getFirestoreId());
+        }
+    }
+
+    // ==================== TESTS DE CONSULTAS ====================
+
+    @Test
+    public void buscarEnRadio_debeCoincidirConRecorridoLineal() {
+        double[] radios = {0.3, 1.0, 2.0, 5.0};
+        for (double radio : radios) {
+            Set<String> esperados = new HashSet<>();
+            for (Noticia n : noticias) {
+                if (distanciaAlCentroKm(n) <= radio) esperados.add(n.getFirestoreId());
+            }
+
+            Set<String> obtenidos = new HashSet<>();
+            for (IndiceEspacial.Resultado r : indice.buscarEnRadio(LAT_CENTRO, LON_CENTRO, radio)) {
+                obtenidos.add(r.getNoticia().getFirestoreId());
+                assertEquals(distanciaAlCentroKm(r.getNoticia()), r.getDistanciaKm(), 1e-9);
+            }
+
+            assertEquals("Radio " + radio + " km", esperados, obtenidos);
+        }
+    }
+
+    @Test
+    public void buscarEnRectangulo_debeCoincidirConRecorridoLineal() {
+        double sur = 0.30, oeste = -78.16, norte = 0.39, este = -78.09;
+
+        Set<String> esperados = new HashSet<>();
+        for (Noticia n : noticias) {
+            if (n.getLatitud() >= sur && n.getLatitud() <= norte
+                    && n.getLongitud() >= oeste && n.getLongitud() <= este) {
+                esperados.add(n.getFirestoreId());
+            }
+        }
+
+        assertEquals(esperados, ids(indice.buscarEnRectangulo(sur, oeste, norte, este)));
+        assertEquals(esperados.size(), indice.contarEnRectangulo(sur, oeste, norte, este));
+    }
+
+    @Test
+    public void contarEnRectangulo_queCruzaElAntimeridiano_debeSumarAmbosLados() {
+        IndiceEspacial mundo = new IndiceEspacial();
+        mundo.agregarTodas(Arrays.asList(
+                crearNoticia("este", 0.0, 179.5),
+                crearNoticia("oeste", 0.0, -179.5),
+                crearNoticia("lejos", 0.0, 0.0)));
+
+        assertEquals(2, mundo.contarEnRectangulo(-1.0, 179.0, 1.0, -179.0));
+        assertEquals(0, mundo.contarEnRectangulo(1.0, -10.0, -1.0, 10.0)); // Sur mayor que norte
+    }
+
+    @Test
+    public void buscarMasCercanas_debeDevolverLasKMasCercanasOrdenadas() {
+        List<IndiceEspacial.Resultado> resultados = indice.buscarMasCercanas(LAT_CENTRO, LON_CENTRO, 8, 100.0);
+
+        List<Noticia> ordenadas = new ArrayList<>(noticias);
+        ordenadas.sort((a, b) -> Double.compare(distanciaAlCentroKm(a), distanciaAlCentroKm(b)));
+
+        assertEquals(8, resultados.size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals(ordenadas.get(i).getFirestoreId(), resultados.get(i).getNoticia().getFirestoreId());
+        }
+    }
+
+    @Test
+    public void buscarMasCercanas_debeRespetarRadioMaximo() {
+        List<IndiceEspacial.Resultado> resultados = indice.buscarMasCercanas(LAT_CENTRO, LON_CENTRO, 50, 1.0);
+
+        for (IndiceEspacial.Resultado r : resultados) {
+            assertTrue(r.getDistanciaKm() <= 1.0);
+        }
+        assertEquals(indice.buscarEnRadio(LAT_CENTRO, LON_CENTRO, 1.0).size(), resultados.size());
+    }
+
+    @Test
+    public void buscarMasCercanas_indiceVacio_debeDevolverListaVacia() {
+        assertTrue(new IndiceEspacial().buscarMasCercanas(LAT_CENTRO, LON_CENTRO, 5, 10.0).isEmpty());
+    }
+
+    // ==================== AUXILIARES ====================
+
+
+    private static Set<String> ids(List<Noticia> lista) {
+        Set<String> ids = new HashSet<>();
+        for (Noticia n : lista) ids.add(n.getFirestoreId());
+        return ids;
+    }
+}
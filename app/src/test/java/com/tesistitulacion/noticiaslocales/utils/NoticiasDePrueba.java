@@ -0,0 +1,55 @@
+package com.tesistitulacion.noticiaslocales.utils;
+
+import com.tesistitulacion.noticiaslocales.modelo.Noticia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos compartidos por las pruebas de mapa y ubicación: noticias con
+ * coordenadas alrededor del centro de Ibarra
+ */
+final class NoticiasDePrueba {
+
+    // Centro de Ibarra
+    static final double LAT_CENTRO = 0.3476;
+    static final double LON_CENTRO = -78.1223;
+
+    private NoticiasDePrueba() {
+    }
+
+    /**
+     * Noticia mínima con id y coordenadas
+     */
+    static Noticia crearNoticia(String id, double lat, double lon) {
+        Noticia n = new Noticia();
+        n.setFirestoreId(id);
+        n.setLatitud(lat);
+        n.setLongitud(lon);
+        return n;
+    }
+
+    /**
+     * Noticias "n0".."n{cantidad-1}" repartidas al azar en un cuadrado centrado en Ibarra
+     * @param ladoGrados Lado del cuadrado en grados (0.01° ≈ 1.1 km)
+     * @param semilla Semilla fija para que las pruebas sean reproducibles
+     */
+    static List<Noticia> alrededorDeIbarra(int cantidad, double ladoGrados, long semilla) {
+        Random random = new Random(semilla);
+        List<Noticia> noticias = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            noticias.add(crearNoticia("n" + i,
+                    LAT_CENTRO + (random.nextDouble() - 0.5) * ladoGrados,
+                    LON_CENTRO + (random.nextDouble() - 0.5) * ladoGrados));
+        }
+        return noticias;
+    }
+
+    /**
+     * Distancia de una noticia al centro de Ibarra
+     */
+    static double distanciaAlCentroKm(Noticia n) {
+        return LocationHelper.calcularDistanciaKm(LAT_CENTRO, LON_CENTRO, n.getLatitud(), n.getLongitud());
+    }
+}
@@ -0,0 +1,93 @@
+package com.tesistitulacion.noticiaslocales.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Tiempo de arranque: desde SplashActivity hasta las primeras noticias en ListaNoticiasActivity
+ *
+ * StartupTimingMetric reporta timeToInitialDisplay (primer frame) y timeToFullDisplay
+ * (ListaNoticiasActivity llama a reportFullyDrawn() al mostrar las primeras noticias).
+ * Se mide en frío, tibio y caliente sin compilar. La variante con el baseline profile
+ * (BaselineProfileMode.Require) solo se agrega con el argumento conBaselineProfile=true,
+ * una vez que app/src/main/baseline-prof.txt es el que genera BaselineProfileGenerator:
+ * el archivo incluido es provisorio y medir contra él no dice nada del profile real.
+ *
+ * Ejecutar con: gradlew.bat :benchmark:connectedBenchmarkAndroidTest
+ * (emulador de Firestore levantado, ver DatosEmulador) y, con el profile generado,
+ *   -P android.testInstrumentationRunnerArguments.conBaselineProfile=true
+ */
+@RunWith(Parameterized.class)
+public class ArranqueBenchmark {
+
+    private static final int ITERACIONES = 10;
+
+    // Argumento de instrumentación que habilita la variante con baseline profile
+    private static final String ARGUMENTO_CON_PROFILE = "conBaselineProfile";
+
+    @Rule
+    public final MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode modoArranque;
+    private final CompilationMode compilacion;
+
+    public ArranqueBenchmark(StartupMode modoArranque, CompilationMode compilacion) {
+        this.modoArranque = modoArranque;
+        this.compilacion = compilacion;
+    }
+
+    @Parameterized.Parameters(name = "{0} {1}")
+    public static List<Object[]> parametros() {
+        boolean conProfile = Boolean.parseBoolean(
+                InstrumentationRegistry.getArguments().getString(ARGUMENTO_CON_PROFILE, "false"));
+
+        List<Object[]> parametros = new ArrayList<>();
+        for (StartupMode modo : StartupMode.values()) {
+            parametros.add(new Object[]{modo, new CompilationMode.None()});
+            if (conProfile) {
+                parametros.add(new Object[]{modo, new CompilationMode.Partial(BaselineProfileMode.Require)});
+            }
+        }
+        return parametros;
+    }
+
+    @BeforeClass
+    public static void cargarDatos() throws Exception {
+        DatosEmulador.cargar();
+    }
+
+    @Test
+    public void arranque() {
+        benchmarkRule.measureRepeated(
+                Pantallas.PAQUETE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilacion,
+                modoArranque,
+                ITERACIONES,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    Pantallas.esperarNoticias(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
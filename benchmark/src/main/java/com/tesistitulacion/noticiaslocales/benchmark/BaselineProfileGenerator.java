@@ -0,0 +1,59 @@
+package com.tesistitulacion.noticiaslocales.benchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Genera el baseline profile de la app: las clases y métodos del arranque y de los
+ * recorridos más comunes, para que se compilen AOT al instalar en lugar de interpretarse
+ *
+ * Ejecutar (Android 13+, o un emulador con root) con:
+ *   gradlew.bat :benchmark:connectedBenchmarkAndroidTest
+ *       -P android.testInstrumentationRunnerArguments.androidx.benchmark.enabledRules=BaselineProfile
+ * y copiar el archivo *-baseline-prof.txt generado (en benchmark/build/outputs/
+ * connected_android_test_additional_output/) a app/src/main/baseline-prof.txt.
+ * El build lo empaqueta en el APK y ProfileInstaller lo instala junto con la app.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public final BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @BeforeClass
+    public static void cargarDatos() throws Exception {
+        DatosEmulador.cargar();
+    }
+
+    @Test
+    public void generar() {
+        baselineProfileRule.collect(
+                Pantallas.PAQUETE,
+                15,     // Iteraciones máximas
+                3,      // Iteraciones estables para terminar antes
+                null,   // Prefijo del archivo de salida
+                true,   // Incluir también en el startup profile
+                false,  // Estabilidad estricta
+                regla -> true,
+                scope -> {
+                    // Arranque hasta la lista
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Pantallas.esperarNoticias(scope);
+
+                    // Recorridos frecuentes
+                    Pantallas.desplazarLista(scope);
+                    Pantallas.abrirYCerrarDetalle(scope);
+                    Pantallas.abrirMapa(scope);
+                    Pantallas.desplazarMapa(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
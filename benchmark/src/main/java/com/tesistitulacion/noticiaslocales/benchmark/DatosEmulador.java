@@ -0,0 +1,159 @@
+package com.tesistitulacion.noticiaslocales.benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Noticias de prueba en el emulador local de Firestore
+ *
+ * El build "benchmark" de la app lee Firestore del emulador (10.0.2.2:8080), así las
+ * mediciones no dependen de la red ni de los datos reales. Antes de medir se cargan
+ * CANTIDAD noticias fijas (semilla fija, mismos ids) con un solo commit REST; volver a
+ * cargarlas sobrescribe las mismas.
+ *
+ * Levantar el emulador en la PC: firebase emulators:start --only firestore
+ */
+final class DatosEmulador {
+
+    private static final String PROYECTO = "noticiaslocalesibarra";
+    private static final String URL_COMMIT = "http://10.0.2.2:8080/v1/projects/" + PROYECTO
+            + "/databases/(default)/documents:commit";
+    private static final String PREFIJO_DOCUMENTO = "projects/" + PROYECTO
+            + "/databases/(default)/documents/noticias/benchmark-";
+
+    // Suficientes para varias páginas de la lista y un mapa con marcadores agrupados
+    static final int CANTIDAD = 200;
+
+    // Centro de Ibarra
+    private static final double LAT_CENTRO = 0.3476;
+    private static final double LON_CENTRO = -78.1223;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private static boolean cargadas = false;
+
+    private DatosEmulador() {
+    }
+
+    /**
+     * Carga las noticias una vez por ejecución de las pruebas
+     */
+    static synchronized void cargar() throws IOException, JSONException {
+        if (cargadas) return;
+
+        SimpleDateFormat rfc3339 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        rfc3339.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long ahora = System.currentTimeMillis();
+        Random random = new Random(7);
+
+        JSONArray escrituras = new JSONArray();
+        for (int i = 0; i < CANTIDAD; i++) {
+            double latitud = LAT_CENTRO + (random.nextDouble() - 0.5) * 0.05;
+            double longitud = LON_CENTRO + (random.nextDouble() - 0.5) * 0.05;
+            String titulo = "Noticia de prueba " + i;
+            String texto = "Contenido de prueba para medir el arranque y el desplazamiento. " + i;
+
+            JSONObject campos = new JSONObject()
+                    .put("titulo", texto(titulo))
+                    .put("titulo_es", texto(titulo))
+                    .put("descripcion", texto(texto))
+                    .put("descripcion_es", texto(texto))
+                    .put("contenido", texto(texto))
+                    .put("contenido_es", texto(texto))
+                    .put("ubicacionTexto", texto("Ibarra"))
+                    .put("ubicacion", new JSONObject().put("geoPointValue",
+                            new JSONObject().put("latitude", latitud).put("longitude", longitud)))
+                    .put("geohash", texto(geohash(latitud, longitud)))
+                    .put("fechaPublicacion", new JSONObject().put("timestampValue",
+                            rfc3339.format(new Date(ahora - i * 60 * 60 * 1000L))))
+                    .put("activa", new JSONObject().put("booleanValue", true))
+                    .put("destacada", new JSONObject().put("booleanValue", i % 7 == 0))
+                    .put("visualizaciones", entero(random.nextInt(500)))
+                    .put("categoriaId", entero(1 + i % 10))
+                    .put("parroquiaId", entero(1 + i % 12));
+
+            escrituras.put(new JSONObject().put("update", new JSONObject()
+                    .put("name", PREFIJO_DOCUMENTO + String.format(Locale.US, "%03d", i))
+                    .put("fields", campos)));
+        }
+
+        enviar(new JSONObject().put("writes", escrituras).toString());
+        cargadas = true;
+    }
+
+    // ==================== PRIVADOS ====================
+
+    private static void enviar(String cuerpo) throws IOException {
+        HttpURLConnection conexion = (HttpURLConnection) new URL(URL_COMMIT).openConnection();
+        try {
+            conexion.setRequestMethod("POST");
+            conexion.setDoOutput(true);
+            conexion.setRequestProperty("Content-Type", "application/json");
+            // El emulador acepta "owner" como credencial de administrador (ignora las reglas)
+            conexion.setRequestProperty("Authorization", "Bearer owner");
+            try (OutputStream salida = conexion.getOutputStream()) {
+                salida.write(cuerpo.getBytes(StandardCharsets.UTF_8));
+            }
+            int codigo = conexion.getResponseCode();
+            if (codigo != HttpURLConnection.HTTP_OK) {
+                throw new IOException("El emulador de Firestore respondió " + codigo
+                        + " (¿está levantado en el puerto 8080?)");
+            }
+        } finally {
+            conexion.disconnect();
+        }
+    }
+
+    private static JSONObject texto(String valor) throws JSONException {
+        return new JSONObject().put("stringValue", valor);
+    }
+
+    private static JSONObject entero(int valor) throws JSONException {
+        // La API REST representa los enteros como texto
+        return new JSONObject().put("integerValue", String.valueOf(valor));
+    }
+
+    /**
+     * Geohash de 10 caracteres (mismo algoritmo que utils.Geohash de la app, que este
+     * módulo no puede usar: solo ve el APK instalado)
+     */
+    private static String geohash(double latitud, double longitud) {
+        double[] lat = {-90, 90};
+        double[] lon = {-180, 180};
+        StringBuilder hash = new StringBuilder();
+        boolean bitLongitud = true;
+        int bits = 0;
+        int valor = 0;
+        while (hash.length() < 10) {
+            double[] rango = bitLongitud ? lon : lat;
+            double coordenada = bitLongitud ? longitud : latitud;
+            double medio = (rango[0] + rango[1]) / 2;
+            if (coordenada >= medio) {
+                valor = (valor << 1) | 1;
+                rango[0] = medio;
+            } else {
+                valor <<= 1;
+                rango[1] = medio;
+            }
+            bitLongitud = !bitLongitud;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(valor));
+                bits = 0;
+                valor = 0;
+            }
+        }
+        return hash.toString();
+    }
+}
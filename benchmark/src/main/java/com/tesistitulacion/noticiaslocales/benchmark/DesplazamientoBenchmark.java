@@ -0,0 +1,80 @@
+package com.tesistitulacion.noticiaslocales.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Jank al desplazar: la lista de noticias y el mapa
+ *
+ * FrameTimingMetric reporta la duración de cada frame (frameDurationCpuMs) y cuánto se
+ * pasó del plazo (frameOverrunMs). Solo se mide el gesto: abrir la pantalla queda en el
+ * bloque de preparación.
+ *
+ * Ejecutar con: gradlew.bat :benchmark:connectedBenchmarkAndroidTest
+ * (emulador de Firestore levantado, ver DatosEmulador)
+ */
+@RunWith(AndroidJUnit4.class)
+public class DesplazamientoBenchmark {
+
+    private static final int ITERACIONES = 5;
+
+    @Rule
+    public final MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void cargarDatos() throws Exception {
+        DatosEmulador.cargar();
+    }
+
+    @Test
+    public void listaNoticias() {
+        benchmarkRule.measureRepeated(
+                Pantallas.PAQUETE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.WARM,
+                ITERACIONES,
+                scope -> {
+                    scope.startActivityAndWait();
+                    Pantallas.esperarNoticias(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Pantallas.desplazarLista(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void mapa() {
+        benchmarkRule.measureRepeated(
+                Pantallas.PAQUETE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.WARM,
+                ITERACIONES,
+                scope -> {
+                    scope.startActivityAndWait();
+                    Pantallas.esperarNoticias(scope);
+                    Pantallas.abrirMapa(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Pantallas.desplazarMapa(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
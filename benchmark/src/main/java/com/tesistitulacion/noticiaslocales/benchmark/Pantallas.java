@@ -0,0 +1,92 @@
+package com.tesistitulacion.noticiaslocales.benchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * Recorridos por la app compartidos por las mediciones y el generador del baseline profile
+ * Las vistas se buscan por su id de recurso (los mismos que usan las Activities).
+ */
+final class Pantallas {
+
+    static final String PAQUETE = "com.tesistitulacion.noticiaslocales";
+
+    private static final long ESPERA_MS = 10_000;
+
+    private static final BySelector LISTA = By.res(PAQUETE, "rv_noticias");
+    // Una fila real (las del skeleton no tienen tv_titulo)
+    private static final BySelector FILA_NOTICIA = By.res(PAQUETE, "tv_titulo");
+    private static final BySelector NAV_MAPA = By.res(PAQUETE, "ll_nav_mapa");
+    private static final BySelector MAPA = By.res(PAQUETE, "map_container");
+
+    private Pantallas() {
+    }
+
+    /**
+     * Espera a que la lista de noticias muestre filas reales (no el skeleton)
+     */
+    static void esperarNoticias(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        if (!device.wait(Until.hasObject(LISTA.hasDescendant(FILA_NOTICIA)), ESPERA_MS)) {
+            throw new IllegalStateException("La lista de noticias no cargó (¿emulador de Firestore levantado?)");
+        }
+    }
+
+    /**
+     * Desplaza la lista hacia abajo y de vuelta hacia arriba
+     */
+    static void desplazarLista(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 lista = device.findObject(LISTA);
+        // Margen para que el gesto no active la navegación del sistema
+        lista.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < 3; i++) {
+            lista.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        lista.fling(Direction.UP);
+        device.waitForIdle();
+    }
+
+    /**
+     * Abre la primera noticia y vuelve a la lista
+     */
+    static void abrirYCerrarDetalle(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.findObject(LISTA).findObject(FILA_NOTICIA).click();
+        device.wait(Until.hasObject(By.res(PAQUETE, "tv_contenido")), ESPERA_MS);
+        device.pressBack();
+        device.wait(Until.hasObject(LISTA), ESPERA_MS);
+    }
+
+    /**
+     * Abre el mapa desde la barra de navegación
+     */
+    static void abrirMapa(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.findObject(NAV_MAPA).click();
+        if (!device.wait(Until.hasObject(MAPA), ESPERA_MS)) {
+            throw new IllegalStateException("El mapa no se abrió");
+        }
+        device.waitForIdle();
+    }
+
+    /**
+     * Arrastra el mapa en las cuatro direcciones
+     */
+    static void desplazarMapa(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 mapa = device.findObject(MAPA);
+        mapa.setGestureMargin(device.getDisplayWidth() / 5);
+        Direction[] direcciones = {Direction.LEFT, Direction.UP, Direction.RIGHT, Direction.DOWN};
+        for (Direction direccion : direcciones) {
+            mapa.swipe(direccion, 0.8f);
+            device.waitForIdle();
+        }
+    }
+}